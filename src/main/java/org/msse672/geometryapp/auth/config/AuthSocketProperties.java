@@ -2,6 +2,9 @@ package org.msse672.geometryapp.auth.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Binds all socket-auth configuration under prefix "auth.socket" from application*.properties.
  * Use this bean anywhere you need to read host/port/timeouts/headers, etc.
@@ -19,6 +22,10 @@ public class AuthSocketProperties {
     private String headerUsername = "X-Username"; // HTTP header name (used later by the filter)
     private String headerPassword = "X-Password"; // HTTP header name (used later by the filter)
     private String protectedPathPrefix = "/quad"; // Which HTTP path to protect (Week 7)
+    private String asyncPathPrefix = "/quad/async"; // Validated by the async controller itself, not the filter
+    private List<String> extraProtectedPathPrefixes = new ArrayList<>(List.of("/triangle/history", "/triangle/search")); // Stored triangle reads
+    private List<String> storePathPrefixes = new ArrayList<>(List.of("/triangle/type", "/triangle/batch")); // Protected only when the request has store=true
+    private boolean virtualThreads = false;  // Handle each client on a virtual thread instead of a cached pool
 
     // Getters/setters required for @ConfigurationProperties binding
     public boolean isEnabled() { return enabled; }
@@ -35,6 +42,14 @@ public class AuthSocketProperties {
     public void setHeaderPassword(String headerPassword) { this.headerPassword = headerPassword; }
     public String getProtectedPathPrefix() { return protectedPathPrefix; }
     public void setProtectedPathPrefix(String protectedPathPrefix) { this.protectedPathPrefix = protectedPathPrefix; }
+    public String getAsyncPathPrefix() { return asyncPathPrefix; }
+    public void setAsyncPathPrefix(String asyncPathPrefix) { this.asyncPathPrefix = asyncPathPrefix; }
+    public List<String> getExtraProtectedPathPrefixes() { return extraProtectedPathPrefixes; }
+    public void setExtraProtectedPathPrefixes(List<String> extraProtectedPathPrefixes) { this.extraProtectedPathPrefixes = extraProtectedPathPrefixes; }
+    public List<String> getStorePathPrefixes() { return storePathPrefixes; }
+    public void setStorePathPrefixes(List<String> storePathPrefixes) { this.storePathPrefixes = storePathPrefixes; }
+    public boolean isVirtualThreads() { return virtualThreads; }
+    public void setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
     public String getHeaderToken() {
         return headerToken;
     }
@@ -54,8 +54,13 @@ package org.msse672.geometryapp.auth.socket;
                     return;
                 }
 
-                // Use a cached thread pool for handling multiple clients concurrently
-                executorService = Executors.newCachedThreadPool();
+                // One virtual thread per client when enabled, otherwise a cached platform thread pool
+                if (props.isVirtualThreads()) {
+                    executorService = Executors.newVirtualThreadPerTaskExecutor();
+                    logger.info("AuthSocketServer handling clients on virtual threads.");
+                } else {
+                    executorService = Executors.newCachedThreadPool();
+                }
 
                 Thread serverThread = new Thread(() -> {
                     try {
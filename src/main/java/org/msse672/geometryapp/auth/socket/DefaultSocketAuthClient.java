@@ -10,7 +10,12 @@ package org.msse672.geometryapp.auth.socket;
     import java.io.*;
     import java.net.InetSocketAddress;
     import java.net.Socket;
+    import java.nio.ByteBuffer;
+    import java.nio.channels.AsynchronousSocketChannel;
+    import java.nio.channels.CompletionHandler;
     import java.nio.charset.StandardCharsets;
+    import java.util.concurrent.CompletableFuture;
+    import java.util.concurrent.TimeUnit;
 
     /**
      * Default implementation of SocketAuthClient.
@@ -100,6 +105,73 @@ package org.msse672.geometryapp.auth.socket;
             }
         }
 
+        /**
+         * Validates a token without blocking the caller, using an AsynchronousSocketChannel.
+         * Same protocol as sendTokenValidation; the whole exchange is bounded by the configured timeout.
+         */
+        @Override
+        public CompletableFuture<Boolean> sendTokenValidationAsync(String token) {
+            AsynchronousSocketChannel channel;
+            try {
+                channel = AsynchronousSocketChannel.open();
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+
+            ByteBuffer request = StandardCharsets.UTF_8.encode("TOKEN_CHECK\n" + (token == null ? "" : token) + "\n");
+            ByteBuffer response = ByteBuffer.allocate(64);
+
+            CompletableFuture<Void> connected = new CompletableFuture<>();
+            channel.connect(new InetSocketAddress(props.getHost(), props.getPort()), null, completing(connected));
+
+            return connected
+                    .thenCompose(v -> writeFully(channel, request))
+                    .thenCompose(v -> readLine(channel, response))
+                    .thenApply(line -> {
+                        boolean ok = Boolean.parseBoolean(line.trim());
+                        log.debug("Async socket token check result: {}", ok);
+                        return ok;
+                    })
+                    .orTimeout(props.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                    .whenComplete((ok, ex) -> {
+                        try {
+                            channel.close();
+                        } catch (IOException ignore) {}
+                    });
+        }
+
+        // Writes the whole buffer, re-issuing the write until nothing remains
+        private static CompletableFuture<Void> writeFully(AsynchronousSocketChannel channel, ByteBuffer buffer) {
+            CompletableFuture<Integer> written = new CompletableFuture<>();
+            channel.write(buffer, null, completing(written));
+            return written.thenCompose(n -> buffer.hasRemaining()
+                    ? writeFully(channel, buffer)
+                    : CompletableFuture.completedFuture(null));
+        }
+
+        // Reads until a newline, end of stream, or the buffer is full, and returns the first line
+        private static CompletableFuture<String> readLine(AsynchronousSocketChannel channel, ByteBuffer buffer) {
+            CompletableFuture<Integer> read = new CompletableFuture<>();
+            channel.read(buffer, null, completing(read));
+            return read.thenCompose(n -> {
+                String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+                int newline = text.indexOf('\n');
+                if (newline >= 0) return CompletableFuture.completedFuture(text.substring(0, newline));
+                if (n < 0 || !buffer.hasRemaining()) return CompletableFuture.completedFuture(text);
+                return readLine(channel, buffer);
+            });
+        }
+
+        // Bridges an NIO CompletionHandler to a CompletableFuture
+        private static <T> CompletionHandler<T, Void> completing(CompletableFuture<T> future) {
+            return new CompletionHandler<>() {
+                @Override
+                public void completed(T result, Void attachment) { future.complete(result); }
+                @Override
+                public void failed(Throwable exc, Void attachment) { future.completeExceptionally(exc); }
+            };
+        }
+
         /**
          * Revokes a token by sending it to the AuthSocketServer.
          * Protocol: send "TOKEN_REVOKE", send token, read "true"/"false".
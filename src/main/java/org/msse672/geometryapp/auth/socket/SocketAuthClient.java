@@ -3,10 +3,27 @@ package org.msse672.geometryapp.auth.socket;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /** Abstraction so the filter can authenticate via raw TCP. */
 @Component
 public interface SocketAuthClient {
     String sendAuthRequest(String username, String password) throws Exception;
     boolean sendTokenValidation(String token) throws Exception;
     boolean revokeToken(String token) throws Exception;
+
+    /**
+     * Non-blocking token check for async request handling.
+     * The default runs the blocking call on the common pool; implementations should override.
+     */
+    default CompletableFuture<Boolean> sendTokenValidationAsync(String token) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return sendTokenValidation(token);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
 }
@@ -13,9 +13,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
- * Gating filter: applies to /quad/** (configurable). Reads headers, calls TCP socket.
+ * Gating filter: applies to /quad/** (configurable), the stored triangle reads, and triangle
+ * requests with store=true. Reads headers, calls TCP socket.
  * Success -> continue; bad/missing -> 401; socket errors -> 503 (configurable later if desired).
  */
 @Component
@@ -46,11 +48,27 @@ public class SocketAuthFilter extends OncePerRequestFilter {
         // Exclude certain paths from filtering
         if (path.startsWith("/auth/") || path.startsWith("/actuator/") || path.startsWith("/error")) return true;
 
+        // The async API checks tokens without blocking, so the filter must not hold the thread for it
+        String asyncPrefix = props.getAsyncPathPrefix();
+        if (asyncPrefix != null && !asyncPrefix.isBlank() && path.startsWith(asyncPrefix)) return true;
+
+        // Stored-data reads, and writes that ask to be stored, outside the main prefix
+        if (startsWithAny(path, props.getExtraProtectedPathPrefixes())) return false;
+        if ("true".equalsIgnoreCase(request.getParameter("store")) && startsWithAny(path, props.getStorePathPrefixes())) return false;
+
         String prefix = props.getProtectedPathPrefix();
         // Only filter requests that match the protected path prefix
         return prefix == null || prefix.isBlank() || !path.startsWith(prefix);
     }
 
+    private static boolean startsWithAny(String path, List<String> prefixes) {
+        if (prefixes == null) return false;
+        for (String prefix : prefixes) {
+            if (prefix != null && !prefix.isBlank() && path.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
     /**
      * Main filter logic: checks for token header, validates it via TCP socket,
      * and sets appropriate HTTP status codes for errors.
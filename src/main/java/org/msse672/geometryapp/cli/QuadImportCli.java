@@ -0,0 +1,175 @@
+package org.msse672.geometryapp.cli;
+
+import org.msse672.geometryapp.journal.QuadJournal;
+import org.msse672.geometryapp.model.QuadrilateralSet;
+import org.msse672.geometryapp.service.QuadImportService;
+import org.msse672.geometryapp.service.QuadService;
+import org.msse672.geometryapp.service.QuadServiceInMemoryImpl;
+import org.msse672.geometryapp.service.QuadServiceJdbcImpl;
+import org.msse672.geometryapp.service.QuadStatsTable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offline bulk import, without starting the web application.
+ *
+ * Loads a CSV or binary file (see QuadImportService) straight into the quads table over JDBC,
+ * or into a journal file that the in-memory backend replays at its next start. Rejected rows
+ * go to a side file as "row,reason,input" lines. With --rebuild-stats, quad_stats is
+ * recomputed once the JDBC import finishes instead of waiting for the application's repair job.
+ *
+ * Usage:
+ *   QuadImportCli <file> (--jdbc-url=URL [--username=U] [--password=P] [--rebuild-stats] | --journal=PATH)
+ *                 [--format=csv|binary] [--rejects=PATH] [--parallelism=N]
+ *
+ * From the packaged jar:
+ *   java -cp demo.jar -Dloader.main=org.msse672.geometryapp.cli.QuadImportCli \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher history.csv --jdbc-url=...
+ */
+public final class QuadImportCli {
+
+    private static final String USAGE = "Usage: QuadImportCli <file> (--jdbc-url=URL [--username=U] [--password=P] [--rebuild-stats]"
+            + " | --journal=PATH) [--format=csv|binary] [--rejects=PATH] [--parallelism=N]";
+
+    // Minimum time between progress lines
+    private static final long PROGRESS_MILLIS = 1_000;
+
+    private QuadImportCli() { }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs one import.
+     * @return process exit code: 0 when every row was stored, 1 when some were rejected,
+     *         2 for usage errors, 3 when the import failed
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Map<String, String> options = new HashMap<>();
+        String input = null;
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else if (arg.startsWith("--")) {
+                options.put(arg.substring(2), "true");
+            } else if (input == null) {
+                input = arg;
+            } else {
+                err.println(USAGE);
+                return 2;
+            }
+        }
+        if (input == null || options.containsKey("jdbc-url") == options.containsKey("journal")) {
+            err.println(USAGE);
+            return 2;
+        }
+
+        Path file = Path.of(input);
+        Path rejectsFile = Path.of(options.getOrDefault("rejects", input + ".rejects.csv"));
+        QuadImportService.Format format;
+        try {
+            format = options.containsKey("format")
+                    ? QuadImportService.Format.valueOf(options.get("format").toUpperCase())
+                    : QuadImportService.Format.fromFileName(input);
+        } catch (IllegalArgumentException e) {
+            err.println("Unknown format: " + options.get("format"));
+            return 2;
+        }
+
+        int parallelism;
+        try {
+            parallelism = Integer.parseInt(options.getOrDefault("parallelism", "0"));
+        } catch (NumberFormatException e) {
+            err.println("Invalid parallelism: " + options.get("parallelism"));
+            return 2;
+        }
+
+        QuadImportService importService = new QuadImportService(parallelism);
+        try (Target target = open(options);
+             FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             BufferedWriter rejects = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8)) {
+            long size = in.size();
+            long[] lastReport = { System.currentTimeMillis() };
+            QuadImportService.Result result = importService.importQuads(in, format, target.service,
+                    (row, line, reason) -> {
+                        rejects.write(row + "," + reason + "," + line);
+                        rejects.newLine();
+                    },
+                    progress -> {
+                        long now = System.currentTimeMillis();
+                        if (now - lastReport[0] >= PROGRESS_MILLIS) {
+                            lastReport[0] = now;
+                            out.printf("%d rows, %d stored, %d rejected (%.0f%% of input, %d rows/min)%n",
+                                    progress.rows(), progress.imported(), progress.rejected(),
+                                    size == 0 ? 100.0 : 100.0 * position(in) / size, progress.rowsPerMinute());
+                        }
+                    });
+            out.printf("Done: %d rows, %d stored, %d rejected in %d ms (%d rows/min)%n",
+                    result.rows(), result.imported(), result.rejected(), result.elapsedMillis(), result.rowsPerMinute());
+            if (target.stats != null) {
+                out.printf("Rebuilt quad_stats (%d type rows corrected)%n", target.stats.rebuild());
+            }
+            if (result.rejected() > 0) {
+                out.println("Rejected rows written to " + rejectsFile);
+                return 1;
+            }
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            err.println("Import failed: " + e.getMessage());
+            return 3;
+        } finally {
+            importService.shutdown();
+        }
+    }
+
+    private static long position(FileChannel in) {
+        try {
+            return in.position();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // ==================== Targets ====================
+
+    // stats is set when quad_stats should be rebuilt after the import
+    private record Target(QuadService service, Closeable resource, QuadStatsTable stats) implements Closeable {
+        @Override
+        public void close() throws IOException {
+            resource.close();
+        }
+    }
+
+    private static Target open(Map<String, String> options) throws IOException {
+        if (options.containsKey("jdbc-url")) {
+            // One connection reused by every batch, closed when the import ends
+            SingleConnectionDataSource dataSource = new SingleConnectionDataSource(options.get("jdbc-url"),
+                    options.getOrDefault("username", ""), options.getOrDefault("password", ""), true);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            QuadStatsTable stats = options.containsKey("rebuild-stats")
+                    ? new QuadStatsTable(jdbc, new DataSourceTransactionManager(dataSource)) : null;
+            return new Target(new QuadServiceJdbcImpl(jdbc), dataSource::destroy, stats);
+        }
+        QuadJournal journal = new QuadJournal(Path.of(options.get("journal")), QuadJournal.FsyncPolicy.OS, Duration.ZERO);
+        QuadServiceInMemoryImpl service = new QuadServiceInMemoryImpl(new QuadrilateralSet());
+        service.setJournal(journal);
+        service.restore();
+        return new Target(service, journal, null);
+    }
+}
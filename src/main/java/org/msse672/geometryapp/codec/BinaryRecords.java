@@ -0,0 +1,30 @@
+package org.msse672.geometryapp.codec;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Fixed-width little-endian record layouts for the binary content type.
+ *
+ * Every record is a run of IEEE-754 doubles, optionally preceded by an int64 id and
+ * followed by a one-byte type code (QuadType or TriangleType). Lists are records laid end
+ * to end with no header; the count is the body length divided by the record size.
+ *
+ *  - quad sides in:        sideA..sideD                   32 bytes
+ *  - Quadrilateral out:    id, sideA..sideD, QuadType     41 bytes
+ *  - QuadResponse out:     sideA..sideD, QuadType         33 bytes
+ *  - triangle sides in:    side1..side3                   24 bytes
+ *  - triangle result out:  TriangleType                    1 byte
+ */
+public final class BinaryRecords {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-geometry-binary";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public static final int QUAD_SIDES_BYTES = 4 * Double.BYTES;
+    public static final int QUAD_RECORD_BYTES = Long.BYTES + QUAD_SIDES_BYTES + 1;
+    public static final int QUAD_RESPONSE_BYTES = QUAD_SIDES_BYTES + 1;
+    public static final int TRIANGLE_SIDES_BYTES = 3 * Double.BYTES;
+    public static final int TRIANGLE_RESULT_BYTES = 1;
+
+    private BinaryRecords() { }
+}
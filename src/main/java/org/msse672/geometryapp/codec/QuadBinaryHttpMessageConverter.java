@@ -0,0 +1,151 @@
+package org.msse672.geometryapp.codec;
+
+import org.msse672.geometryapp.dto.QuadResponse;
+import org.msse672.geometryapp.model.QuadType;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Reads quad sides and writes Quadrilateral, QuadResponse and List&lt;Quadrilateral&gt; bodies
+ * in the BinaryRecords layouts.
+ *
+ * Registered after the JSON converter, so it is only chosen when a client asks for
+ * application/x-geometry-binary explicitly. Error bodies stay JSON; binary callers should
+ * also accept application/json to see them.
+ *
+ * Lists declared with another element type are refused in canWrite. Controllers returning
+ * ResponseEntity&lt;?&gt; hide the element type, so list contents are also checked before any
+ * header is written: a list of anything but quads fails cleanly instead of mid-body.
+ */
+public class QuadBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    // Records encoded per buffer when writing a list
+    private static final int RECORDS_PER_BUFFER = 1_024;
+
+    public QuadBinaryHttpMessageConverter() {
+        super(BinaryRecords.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Quadrilateral.class.isAssignableFrom(clazz)
+                || QuadResponse.class.isAssignableFrom(clazz)
+                || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return Quadrilateral.class == clazz && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return canRead(ResolvableType.forType(type).resolve(), mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(clazz, mediaType)) return false;
+        if (type != null && List.class.isAssignableFrom(clazz)) {
+            // Unknown (raw or wildcard) element types are checked against the value in addDefaultHeaders
+            Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+            return element == null || Quadrilateral.class.isAssignableFrom(element);
+        }
+        return true;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(Quadrilateral.class, inputMessage);
+    }
+
+    /**
+     * Reads one 32-byte sides record into an unsaved Quadrilateral.
+     */
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        byte[] body = inputMessage.getBody().readNBytes(BinaryRecords.QUAD_SIDES_BYTES + 1);
+        if (body.length != BinaryRecords.QUAD_SIDES_BYTES) {
+            throw new HttpMessageNotReadableException("Expected a " + BinaryRecords.QUAD_SIDES_BYTES
+                    + "-byte quad sides record.", inputMessage);
+        }
+        ByteBuffer buf = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+        return new Quadrilateral(buf.getDouble(), buf.getDouble(), buf.getDouble(), buf.getDouble());
+    }
+
+    @Override
+    protected void addDefaultHeaders(HttpHeaders headers, Object value, MediaType contentType) throws IOException {
+        if (value instanceof List<?> list) {
+            for (Object item : list) {
+                if (!(item instanceof Quadrilateral)) {
+                    throw new HttpMessageNotWritableException("Binary lists only hold quadrilaterals, not "
+                            + (item == null ? "null" : item.getClass().getSimpleName()) + ".");
+                }
+            }
+        }
+        super.addDefaultHeaders(headers, value, contentType);
+    }
+
+    @Override
+    protected Long getContentLength(Object value, MediaType contentType) {
+        if (value instanceof Quadrilateral) return (long) BinaryRecords.QUAD_RECORD_BYTES;
+        if (value instanceof QuadResponse) return (long) BinaryRecords.QUAD_RESPONSE_BYTES;
+        if (value instanceof List<?> list) return (long) list.size() * BinaryRecords.QUAD_RECORD_BYTES;
+        return null;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = outputMessage.getBody();
+        if (value instanceof QuadResponse response) {
+            ByteBuffer buf = ByteBuffer.allocate(BinaryRecords.QUAD_RESPONSE_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putDouble(response.getSideA()).putDouble(response.getSideB())
+                    .putDouble(response.getSideC()).putDouble(response.getSideD())
+                    .put(QuadType.fromLabel(response.getType()).getCode());
+            out.write(buf.array());
+        } else if (value instanceof Quadrilateral quad) {
+            ByteBuffer buf = ByteBuffer.allocate(BinaryRecords.QUAD_RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            putQuad(buf, quad);
+            out.write(buf.array());
+        } else {
+            writeList((List<?>) value, out);
+        }
+        out.flush();
+    }
+
+    private static void writeList(List<?> quads, OutputStream out) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(RECORDS_PER_BUFFER * BinaryRecords.QUAD_RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        for (Object item : quads) {
+            // Element types were checked in addDefaultHeaders
+            Quadrilateral quad = (Quadrilateral) item;
+            if (buf.remaining() < BinaryRecords.QUAD_RECORD_BYTES) {
+                out.write(buf.array(), 0, buf.position());
+                buf.clear();
+            }
+            putQuad(buf, quad);
+        }
+        out.write(buf.array(), 0, buf.position());
+    }
+
+    private static void putQuad(ByteBuffer buf, Quadrilateral quad) {
+        double a = quad.getSideA(), b = quad.getSideB(), c = quad.getSideC(), d = quad.getSideD();
+        buf.putLong(quad.getId() == null ? 0L : quad.getId())
+                .putDouble(a).putDouble(b).putDouble(c).putDouble(d)
+                .put(QuadType.classify(a, b, c, d).getCode());
+    }
+}
@@ -0,0 +1,147 @@
+package org.msse672.geometryapp.codec;
+
+import org.msse672.geometryapp.model.QuadType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+
+/**
+ * Encodes streamed quad rows for GET /quad/export into one reusable buffer, written to the
+ * output stream whenever it fills. Rows arrive as column values, so apart from number
+ * formatting nothing is allocated per row.
+ *
+ * Formats:
+ *  - CSV: "id,sideA,sideB,sideC,sideD,type" header, then one line per row
+ *  - NDJSON: one {"id", "sideA".."sideD", "type"} object per line
+ *  - binary: 41-byte Quadrilateral records (see BinaryRecords)
+ */
+public final class QuadRowEncoder {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Longest encoded row: six numbers of at most 24 characters plus field names and a type label
+    private static final int MAX_ROW_BYTES = 512;
+
+    public enum Format {
+        CSV("text/csv"),
+        NDJSON("application/x-ndjson"),
+        BINARY(BinaryRecords.MEDIA_TYPE_VALUE);
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() { return mediaType; }
+
+        /**
+         * Parses a format query parameter, ignoring case.
+         * @throws IllegalArgumentException for anything but csv, ndjson or binary
+         */
+        public static Format fromName(String name) {
+            for (Format f : values()) {
+                if (f.name().equals(name.toUpperCase(Locale.ROOT))) return f;
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + name + ". Use csv, ndjson or binary.");
+        }
+    }
+
+    private final OutputStream out;
+    private final Format format;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private final ByteBuffer binary = ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN);
+    private int pos;
+    private long rows;
+    private long lastId;
+
+    public QuadRowEncoder(OutputStream out, Format format) {
+        this.out = out;
+        this.format = format;
+        if (format == Format.CSV) {
+            ascii("id,sideA,sideB,sideC,sideD,type\n");
+        }
+    }
+
+    /**
+     * Appends one row; matches QuadRowSink so it can be passed as a method reference.
+     */
+    public void write(long id, double sideA, double sideB, double sideC, double sideD, byte typeCode) throws IOException {
+        if (BUFFER_SIZE - pos < MAX_ROW_BYTES) {
+            drain();
+        }
+        switch (format) {
+            case BINARY -> {
+                binary.putLong(pos, id)
+                        .putDouble(pos + 8, sideA).putDouble(pos + 16, sideB)
+                        .putDouble(pos + 24, sideC).putDouble(pos + 32, sideD)
+                        .put(pos + 40, typeCode);
+                pos += BinaryRecords.QUAD_RECORD_BYTES;
+            }
+            case CSV -> {
+                ascii(Long.toString(id));
+                buf[pos++] = ',';
+                ascii(Double.toString(sideA));
+                buf[pos++] = ',';
+                ascii(Double.toString(sideB));
+                buf[pos++] = ',';
+                ascii(Double.toString(sideC));
+                buf[pos++] = ',';
+                ascii(Double.toString(sideD));
+                buf[pos++] = ',';
+                ascii(QuadType.fromCode(typeCode).getLabel());
+                buf[pos++] = '\n';
+            }
+            case NDJSON -> {
+                ascii("{\"id\":");
+                ascii(Long.toString(id));
+                ascii(",\"sideA\":");
+                ascii(Double.toString(sideA));
+                ascii(",\"sideB\":");
+                ascii(Double.toString(sideB));
+                ascii(",\"sideC\":");
+                ascii(Double.toString(sideC));
+                ascii(",\"sideD\":");
+                ascii(Double.toString(sideD));
+                // Labels are plain ASCII words, so no escaping is needed
+                ascii(",\"type\":\"");
+                ascii(QuadType.fromCode(typeCode).getLabel());
+                ascii("\"}\n");
+            }
+        }
+        rows++;
+        lastId = id;
+    }
+
+    /**
+     * Writes out everything buffered and flushes the stream.
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    // Id of the last row written, for resuming an interrupted export
+    public long getLastId() {
+        return lastId;
+    }
+
+    private void drain() throws IOException {
+        if (pos > 0) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+    private void ascii(String s) {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            buf[pos++] = (byte) s.charAt(i);
+        }
+    }
+}
@@ -19,6 +19,9 @@ import org.springframework.core.Ordered;
 @EnableConfigurationProperties(AuthSocketProperties.class)
 public class AuthFilterConfig {
 
+    // One step below highest precedence, leaving room for ReadYourWritesFilter to wrap it
+    public static final int AUTH_FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
     /**
      * Creates the SocketAuthFilter bean.
      * @param props Configuration properties for socket authentication
@@ -32,7 +35,7 @@ public class AuthFilterConfig {
 
     /**
      * Registers the SocketAuthFilter with the servlet context.
-     * Sets filter order to highest precedence and applies to all URL patterns.
+     * Sets filter order to AUTH_FILTER_ORDER and applies to all URL patterns.
      * The filter itself decides which requests to process.
      * @param filter The SocketAuthFilter bean
      * @return FilterRegistrationBean for SocketAuthFilter
@@ -42,7 +45,7 @@ public class AuthFilterConfig {
         FilterRegistrationBean<SocketAuthFilter> reg = new FilterRegistrationBean<>();
         reg.setFilter(filter);
         reg.addUrlPatterns("/*"); // All requests, filter decides applicability
-        reg.setOrder(Ordered.HIGHEST_PRECEDENCE); // Run before other filters
+        reg.setOrder(AUTH_FILTER_ORDER); // Run before other filters
         return reg;
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package org.msse672.geometryapp.config;
+
+import org.msse672.geometryapp.codec.QuadBinaryHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds the binary quad converter behind the default converters.
+ *
+ * Appending (rather than registering a converter bean, which Spring Boot puts first) keeps
+ * JSON the answer for Accept: *&#47;* and for clients that send no Accept header.
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new QuadBinaryHttpMessageConverter());
+    }
+}
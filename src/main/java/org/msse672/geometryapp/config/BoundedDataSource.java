@@ -0,0 +1,116 @@
+package org.msse672.geometryapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource wrapper that caps how many connections can be checked out at once.
+ *
+ * With virtual threads there is no thread-pool limit in front of the database, so thousands of
+ * requests can race for a handful of pooled connections. Callers park on a fair Semaphore here
+ * (which unmounts the virtual thread) instead of queueing inside the pool or driver.
+ * The permit is released when the returned connection is closed.
+ */
+public class BoundedDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedDataSource.class);
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long acquireTimeoutMs;
+
+    public BoundedDataSource(DataSource target, int maxPermits, Duration acquireTimeout) {
+        super(target);
+        if (maxPermits <= 0) {
+            throw new IllegalArgumentException("maxPermits must be > 0");
+        }
+        this.maxPermits = maxPermits;
+        this.permits = new Semaphore(maxPermits, true);
+        this.acquireTimeoutMs = acquireTimeout.toMillis();
+        log.info("BoundedDataSource created with {} permits, acquire timeout {} ms", maxPermits, acquireTimeoutMs);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of connections currently checked out through this wrapper.
+     */
+    public int getInUse() {
+        return maxPermits - permits.availablePermits();
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out after {} ms waiting for a DB permit ({} in use)", acquireTimeoutMs, getInUse());
+                throw new SQLTransientConnectionException("Timed out waiting for a database connection permit.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection permit.", e);
+        }
+    }
+
+    /**
+     * Wraps the connection so the permit is released exactly once when close() is called.
+     */
+    private Connection guard(Connection target) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(
+                BoundedDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,30 @@
+package org.msse672.geometryapp.config;
+
+import org.msse672.geometryapp.journal.QuadJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Durable in-memory backend, active when app.journal.enabled=true.
+ * QuadServiceInMemoryImpl picks the journal up, replays it at startup and appends to it on every write.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.journal", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(JournalProperties.class)
+public class JournalConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public QuadJournal quadJournal(JournalProperties props) throws IOException {
+        logger.info("Journaling in-memory quads to {} (fsync {}).", props.getFile(), props.getFsync());
+        return new QuadJournal(Path.of(props.getFile()), props.getFsync(), props.getGroupCommitInterval());
+    }
+}
@@ -0,0 +1,26 @@
+package org.msse672.geometryapp.config;
+
+import org.msse672.geometryapp.journal.QuadJournal;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Binds the in-memory backend's write-ahead journal under prefix "app.journal".
+ * Only read when app.journal.enabled=true.
+ */
+@ConfigurationProperties(prefix = "app.journal")
+public class JournalProperties {
+
+    private String file = "data/quads.journal";                               // Journal path, created if missing
+    private QuadJournal.FsyncPolicy fsync = QuadJournal.FsyncPolicy.GROUP;     // ALWAYS, GROUP or OS
+    private Duration groupCommitInterval = Duration.ofMillis(5);              // Flush period under GROUP
+
+    // Getters/setters required for @ConfigurationProperties binding
+    public String getFile() { return file; }
+    public void setFile(String file) { this.file = file; }
+    public QuadJournal.FsyncPolicy getFsync() { return fsync; }
+    public void setFsync(QuadJournal.FsyncPolicy fsync) { this.fsync = fsync; }
+    public Duration getGroupCommitInterval() { return groupCommitInterval; }
+    public void setGroupCommitInterval(Duration groupCommitInterval) { this.groupCommitInterval = groupCommitInterval; }
+}
@@ -0,0 +1,51 @@
+package org.msse672.geometryapp.config;
+
+import org.msse672.geometryapp.service.QuadPartitions;
+import org.msse672.geometryapp.service.QuadService;
+import org.msse672.geometryapp.service.QuadStatsTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * Id-range partitions and retention for the quads table, active when app.partitions.enabled=true.
+ * Upcoming partitions are created at startup; a background job keeps creating them and, only if
+ * app.partitions.retention is set, drops the partitions older than that. A table that has not
+ * been partitioned yet is reported and left alone.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.partitions", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(PartitionProperties.class)
+public class PartitionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public QuadPartitions quadPartitions(JdbcTemplate jdbcTemplate, PartitionProperties props,
+                                         ObjectProvider<QuadStatsTable> statsTable, List<QuadService> backends) {
+        boolean nativePartitions = QuadPartitions.supportsNativePartitions(jdbcTemplate);
+        QuadPartitions partitions = new QuadPartitions(jdbcTemplate, nativePartitions, Clock.systemUTC(),
+                props.getIdsPerPartition());
+        partitions.setStatsTable(statsTable.getIfAvailable());
+        partitions.setBackends(backends);
+        if (!partitions.isPartitioned()) {
+            logger.warn("app.partitions.enabled is set but quads is not partitioned; apply"
+                    + " db/upgrade/003-quads-partition-by-id.sql. Partition maintenance is off.");
+            return partitions;
+        }
+        partitions.ensureAhead(props.getPartitionsAhead());
+        partitions.startMaintenance(props.getMaintenanceInterval(), props.getPartitionsAhead(), props.getRetention());
+        logger.info("Partitioning quads by id, {} ids each ({}); retention {}, maintenance every {}.",
+                props.getIdsPerPartition(), nativePartitions ? "native" : "emulated",
+                props.getRetention().isZero() ? "off" : props.getRetention(), props.getMaintenanceInterval());
+        return partitions;
+    }
+}
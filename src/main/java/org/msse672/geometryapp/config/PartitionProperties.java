@@ -0,0 +1,28 @@
+package org.msse672.geometryapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Binds the quads partitioning and retention settings under prefix "app.partitions".
+ * Only read when app.partitions.enabled=true.
+ */
+@ConfigurationProperties(prefix = "app.partitions")
+public class PartitionProperties {
+
+    private long idsPerPartition = 1_000_000;                       // Ids covered by each new partition
+    private int partitionsAhead = 2;                                // Empty partitions kept ready past the highest id
+    private Duration retention = Duration.ZERO;                     // Age at which a partition is dropped; 0 = keep forever
+    private Duration maintenanceInterval = Duration.ofHours(1);     // Time between background runs; 0 = startup only
+
+    // Getters/setters required for @ConfigurationProperties binding
+    public long getIdsPerPartition() { return idsPerPartition; }
+    public void setIdsPerPartition(long idsPerPartition) { this.idsPerPartition = idsPerPartition; }
+    public int getPartitionsAhead() { return partitionsAhead; }
+    public void setPartitionsAhead(int partitionsAhead) { this.partitionsAhead = partitionsAhead; }
+    public Duration getRetention() { return retention; }
+    public void setRetention(Duration retention) { this.retention = retention; }
+    public Duration getMaintenanceInterval() { return maintenanceInterval; }
+    public void setMaintenanceInterval(Duration maintenanceInterval) { this.maintenanceInterval = maintenanceInterval; }
+}
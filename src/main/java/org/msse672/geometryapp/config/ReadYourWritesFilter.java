@@ -0,0 +1,27 @@
+package org.msse672.geometryapp.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Scopes ReplicaRoutingDataSource read-your-writes stickiness to a single HTTP request.
+ * Binds a fresh session for the request and restores the thread's previous binding afterwards.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReplicaRoutingDataSource.Session previous = ReplicaRoutingDataSource.bind(new ReplicaRoutingDataSource.Session());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.restore(previous);
+        }
+    }
+}
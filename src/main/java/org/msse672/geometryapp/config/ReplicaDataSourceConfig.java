@@ -0,0 +1,78 @@
+package org.msse672.geometryapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing, active when app.datasource.replicas[0].url is set.
+ *
+ * Replaces Spring Boot's DataSource with a ReplicaRoutingDataSource: the primary is built from
+ * spring.datasource.* (including spring.datasource.hikari.*), each replica from
+ * app.datasource.replicas[n].*. JPA, JdbcTemplate and schema initialisation all use this one bean.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource", name = "replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+    // Bean name of the primary pool, so post-processors (VirtualThreadConfig) can target it alone
+    public static final String PRIMARY_POOL = "primaryDataSource";
+
+    /**
+     * The primary pool on its own. Not an autowire candidate: everything else injects the routing DataSource.
+     */
+    @Bean(name = PRIMARY_POOL, autowireCandidate = false)
+    public DataSource primaryDataSource(DataSourceProperties primaryProps, Environment environment) {
+        HikariDataSource primary = primaryProps.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties primaryProps, ReplicaProperties replicaProps,
+                                               Environment environment) {
+        DataSource primary = primaryDataSource(primaryProps, environment);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProps.getReplicas().size(); i++) {
+            ReplicaProperties.Replica r = replicaProps.getReplicas().get(i);
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(r.getUrl())
+                    .username(r.getUsername() != null ? r.getUsername() : primaryProps.determineUsername())
+                    .password(r.getPassword() != null ? r.getPassword() : primaryProps.determinePassword())
+                    .driverClassName(r.getDriverClassName() != null ? r.getDriverClassName() : primaryProps.determineDriverClassName())
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, replicaProps.getHealthCheckInterval(),
+                replicaProps.getMaxReplicaLag());
+    }
+
+    /**
+     * Scopes read-your-writes stickiness to each request. Ordered just ahead of SocketAuthFilter,
+     * so the session covers every other filter.
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilterRegistration() {
+        FilterRegistrationBean<ReadYourWritesFilter> reg = new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        reg.addUrlPatterns("/*");
+        reg.setOrder(AuthFilterConfig.AUTH_FILTER_ORDER - 1);
+        return reg;
+    }
+}
@@ -0,0 +1,46 @@
+package org.msse672.geometryapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds read replicas under prefix "app.datasource" from application*.properties.
+ * Routing is only enabled when app.datasource.replicas[0].url is set.
+ */
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();                // Read-only targets, used round-robin
+    private Duration healthCheckInterval = Duration.ofSeconds(5);     // 0 disables the background check
+    private Duration maxReplicaLag = Duration.ofSeconds(1);           // Reads stay on the primary this long after any write
+
+    // Getters/setters required for @ConfigurationProperties binding
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+    public Duration getHealthCheckInterval() { return healthCheckInterval; }
+    public void setHealthCheckInterval(Duration healthCheckInterval) { this.healthCheckInterval = healthCheckInterval; }
+    public Duration getMaxReplicaLag() { return maxReplicaLag; }
+    public void setMaxReplicaLag(Duration maxReplicaLag) { this.maxReplicaLag = maxReplicaLag; }
+
+    /**
+     * One replica connection. Username, password and driver default to spring.datasource.*.
+     */
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        public String getDriverClassName() { return driverClassName; }
+        public void setDriverClassName(String driverClassName) { this.driverClassName = driverClassName; }
+    }
+}
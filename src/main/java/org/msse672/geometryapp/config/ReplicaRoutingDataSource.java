@@ -0,0 +1,293 @@
+package org.msse672.geometryapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource that sends read-only transactions to replicas and everything else to the primary.
+ *
+ * Connections are fetched lazily (LazyConnectionDataSourceProxy), so the routing decision is made
+ * at the first statement, after @Transactional(readOnly = true) has been applied. Replicas are
+ * used round-robin, skipping any that failed the last health check or a checkout.
+ *
+ * Read-your-writes: a Session is bound to the thread for the length of one request
+ * (ReadYourWritesFilter, or ReactiveQuadService around each offloaded call). Once the session takes
+ * a primary connection for anything other than a read-only transaction, its later read-only
+ * transactions also go to the primary. Threads with no session bound are never pinned.
+ *
+ * Replica lag: for maxReplicaLag after any primary connection outside a read-only transaction is
+ * taken or returned, read-only transactions on every thread go to the primary too. Reads that fill
+ * the entity, query or result caches right after a write therefore see that write, instead of
+ * caching a lagging replica's rows under the new write generation. The window should exceed the
+ * replicas' worst replication delay; under a steady write load most reads stay on the primary.
+ */
+public class ReplicaRoutingDataSource extends DelegatingDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Session of the request running on this thread; bound and restored, never left behind
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+    private final long maxReplicaLagNanos;
+    // System.nanoTime() of the last primary checkout or return outside a read-only transaction
+    private volatile long lastPrimaryWrite;
+
+    /**
+     * @param primary        target for writes and non-read-only transactions
+     * @param replicas       targets for read-only transactions, used round-robin
+     * @param healthInterval how often replicas are validated; zero disables the background check
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration healthInterval) {
+        this(primary, replicas, healthInterval, Duration.ZERO);
+    }
+
+    /**
+     * @param maxReplicaLag how long after a primary write read-only transactions stay on the primary; zero disables
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration healthInterval,
+                                    Duration maxReplicaLag) {
+        if (primary == null) {
+            throw new IllegalArgumentException("primary DataSource is required");
+        }
+        if (maxReplicaLag.isNegative()) {
+            throw new IllegalArgumentException("maxReplicaLag must not be negative");
+        }
+        this.primary = primary;
+        this.maxReplicaLagNanos = maxReplicaLag.toNanos();
+        this.lastPrimaryWrite = System.nanoTime() - maxReplicaLagNanos;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        setTargetDataSource(lazyProxy(primary, new Router()));
+
+        if (!healthInterval.isZero() && !this.replicas.isEmpty()) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("replica-health").daemon().factory());
+            long ms = healthInterval.toMillis();
+            healthChecker.scheduleWithFixedDelay(this::checkReplicas, ms, ms, TimeUnit.MILLISECONDS);
+        } else {
+            healthChecker = null;
+        }
+        log.info("Routing read-only transactions across {} replica(s).", this.replicas.size());
+    }
+
+    /**
+     * Read-your-writes state of one request. Safe to share between the threads that serve it.
+     */
+    public static final class Session {
+        private volatile boolean pinned;
+
+        public boolean isPinned() {
+            return pinned;
+        }
+    }
+
+    /**
+     * Binds a session to the current thread.
+     * @return the previous binding, to hand back to restore() in a finally block
+     */
+    public static Session bind(Session session) {
+        Session previous = CURRENT.get();
+        CURRENT.set(session);
+        return previous;
+    }
+
+    public static void restore(Session previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Session bound to the current thread, or null outside a request.
+     */
+    public static Session currentSession() {
+        return CURRENT.get();
+    }
+
+    /**
+     * True when the current thread's read-only transactions are pinned to the primary.
+     */
+    public static boolean isPinnedToPrimary() {
+        Session session = CURRENT.get();
+        return session != null && session.pinned;
+    }
+
+    /**
+     * Validates every replica, marking each healthy or unhealthy for routing.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean ok;
+            try (Connection con = replica.dataSource.getConnection()) {
+                ok = con.isValid(2);
+            } catch (SQLException | RuntimeException e) {
+                ok = false;
+            }
+            if (ok != replica.healthy) {
+                log.warn("Replica {} is now {}.", replica.name, ok ? "healthy" : "unhealthy");
+            }
+            replica.healthy = ok;
+        }
+    }
+
+    /**
+     * Number of replicas currently eligible for reads.
+     */
+    public int getHealthyReplicaCount() {
+        int n = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) n++;
+        }
+        return n;
+    }
+
+    @Override
+    public void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        closeQuietly(primary);
+        for (Replica replica : replicas) {
+            closeQuietly(replica.dataSource);
+        }
+    }
+
+    /**
+     * The proxy needs the default auto-commit and isolation up front. Left to itself it probes
+     * the router on first use, which would count as a primary write.
+     */
+    private static LazyConnectionDataSourceProxy lazyProxy(DataSource primary, DataSource router) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        try (Connection con = primary.getConnection()) {
+            proxy.setDefaultAutoCommit(con.getAutoCommit());
+            proxy.setDefaultTransactionIsolation(con.getTransactionIsolation());
+        } catch (SQLException e) {
+            log.warn("Could not read primary connection defaults: {}", e.getMessage());
+        }
+        proxy.setTargetDataSource(router);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Failed to close DataSource: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Picks the physical target when the lazy proxy needs a real connection
+    private Connection route(Callback callback) throws SQLException {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly) {
+            Session session = CURRENT.get();
+            if (session != null) {
+                session.pinned = true;
+            }
+            lastPrimaryWrite = System.nanoTime();
+            return trackWrite(callback.connect(primary));
+        }
+        if (isPinnedToPrimary() || replicas.isEmpty() || withinReplicaLag()) {
+            return callback.connect(primary);
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) continue;
+            try {
+                return callback.connect(replica.dataSource);
+            } catch (SQLException e) {
+                // Skipped until the next health check succeeds
+                replica.healthy = false;
+                log.warn("Replica {} failed checkout, marking unhealthy: {}", replica.name, e.getMessage());
+            }
+        }
+        log.debug("No healthy replica, reading from primary.");
+        return callback.connect(primary);
+    }
+
+    private boolean withinReplicaLag() {
+        return maxReplicaLagNanos > 0 && System.nanoTime() - lastPrimaryWrite < maxReplicaLagNanos;
+    }
+
+    /**
+     * Restarts the lag window when the connection is returned, so it covers the commit as well.
+     */
+    private Connection trackWrite(Connection target) {
+        if (maxReplicaLagNanos == 0) return target;
+        return (Connection) Proxy.newProxyInstance(
+                ReplicaRoutingDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                            lastPrimaryWrite = System.nanoTime();
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface Callback {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * Physical target behind the lazy proxy.
+     */
+    private final class Router extends AbstractDataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route(DataSource::getConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return route(ds -> ds.getConnection(username, password));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.msse672.geometryapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.msse672.geometryapp.service.QuadServiceShardedImpl;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharded quad storage, active when app.sharding.shards[0].url is set.
+ *
+ * Each shard gets its own Hikari pool outside the application DataSource, so JPA and the other
+ * backends are unaffected. Inject with @Qualifier("sharded").
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "shards[0].url")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @Qualifier("sharded")
+    public QuadServiceShardedImpl shardedQuadService(ShardingProperties props, DataSourceProperties defaults) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < props.getShards().size(); i++) {
+            ShardingProperties.Shard s = props.getShards().get(i);
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(s.getUrl())
+                    .username(s.getUsername() != null ? s.getUsername() : defaults.determineUsername())
+                    .password(s.getPassword() != null ? s.getPassword() : defaults.determinePassword())
+                    .driverClassName(s.getDriverClassName() != null ? s.getDriverClassName() : defaults.determineDriverClassName())
+                    .build();
+            shard.setPoolName("quad-shard-" + i);
+            shards.add(shard);
+        }
+        return new QuadServiceShardedImpl(shards, props.isInitializeSchema(), props.getWorkerId());
+    }
+}
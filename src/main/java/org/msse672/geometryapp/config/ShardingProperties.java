@@ -0,0 +1,46 @@
+package org.msse672.geometryapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds quad shards under prefix "app.sharding" from application*.properties.
+ * The sharded QuadService is only created when app.sharding.shards[0].url is set.
+ * Shard order is part of every stored id: append new shards, never reorder or remove them.
+ */
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private List<Shard> shards = new ArrayList<>();   // Index in this list = shard number in the id
+    private boolean initializeSchema = false;         // Create the quads table on shards that lack it
+    private int workerId = 0;                         // 0-15, distinct per instance writing to these shards
+
+    // Getters/setters required for @ConfigurationProperties binding
+    public List<Shard> getShards() { return shards; }
+    public void setShards(List<Shard> shards) { this.shards = shards; }
+    public boolean isInitializeSchema() { return initializeSchema; }
+    public void setInitializeSchema(boolean initializeSchema) { this.initializeSchema = initializeSchema; }
+    public int getWorkerId() { return workerId; }
+    public void setWorkerId(int workerId) { this.workerId = workerId; }
+
+    /**
+     * One shard connection. Username, password and driver default to spring.datasource.*.
+     */
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        public String getDriverClassName() { return driverClassName; }
+        public void setDriverClassName(String driverClassName) { this.driverClassName = driverClassName; }
+    }
+}
@@ -0,0 +1,30 @@
+package org.msse672.geometryapp.config;
+
+import org.msse672.geometryapp.journal.QuadSnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Fast restart for the in-memory backend, active when app.snapshot.enabled=true.
+ * QuadServiceInMemoryImpl loads the latest snapshot at startup, replays only the journal
+ * records written after it, and hands the store a supplier for periodic snapshots.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.snapshot", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class SnapshotConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public QuadSnapshotStore quadSnapshotStore(SnapshotProperties props) {
+        logger.info("Snapshotting in-memory quads to {} every {}.", props.getFile(), props.getInterval());
+        return new QuadSnapshotStore(Path.of(props.getFile()), props.getInterval());
+    }
+}
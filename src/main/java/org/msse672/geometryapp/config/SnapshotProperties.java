@@ -0,0 +1,22 @@
+package org.msse672.geometryapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Binds the in-memory backend's snapshot settings under prefix "app.snapshot".
+ * Only read when app.snapshot.enabled=true.
+ */
+@ConfigurationProperties(prefix = "app.snapshot")
+public class SnapshotProperties {
+
+    private String file = "data/quads.snapshot";             // Snapshot path, replaced atomically on each write
+    private Duration interval = Duration.ofMinutes(5);       // Time between snapshots; 0 = only on shutdown
+
+    // Getters/setters required for @ConfigurationProperties binding
+    public String getFile() { return file; }
+    public void setFile(String file) { this.file = file; }
+    public Duration getInterval() { return interval; }
+    public void setInterval(Duration interval) { this.interval = interval; }
+}
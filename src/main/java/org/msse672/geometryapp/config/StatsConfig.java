@@ -0,0 +1,36 @@
+package org.msse672.geometryapp.config;
+
+import org.msse672.geometryapp.service.QuadStatsTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Materialized quad statistics, active when app.stats.materialized=true.
+ * The JDBC and Hibernate backends pick up the QuadStatsTable and maintain quad_stats in the
+ * same transaction as their writes; a background job rebuilds it to repair any drift.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.stats", name = "materialized", havingValue = "true")
+@EnableConfigurationProperties(StatsProperties.class)
+public class StatsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public QuadStatsTable quadStatsTable(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                         StatsProperties props) {
+        QuadStatsTable statsTable = new QuadStatsTable(jdbcTemplate, transactionManager);
+        if (props.isRebuildOnStartup()) {
+            statsTable.rebuild();
+        }
+        statsTable.startRepair(props.getRepairInterval());
+        logger.info("Maintaining quad_stats; repair every {}.", props.getRepairInterval());
+        return statsTable;
+    }
+}
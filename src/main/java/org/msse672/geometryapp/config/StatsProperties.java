@@ -0,0 +1,22 @@
+package org.msse672.geometryapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Binds the materialized quad_stats settings under prefix "app.stats".
+ * Only read when app.stats.materialized=true.
+ */
+@ConfigurationProperties(prefix = "app.stats")
+public class StatsProperties {
+
+    private boolean rebuildOnStartup = true;                 // Recompute quad_stats from quads once the app starts
+    private Duration repairInterval = Duration.ofHours(1);   // Time between background rebuilds; 0 = never
+
+    // Getters/setters required for @ConfigurationProperties binding
+    public boolean isRebuildOnStartup() { return rebuildOnStartup; }
+    public void setRebuildOnStartup(boolean rebuildOnStartup) { this.rebuildOnStartup = rebuildOnStartup; }
+    public Duration getRepairInterval() { return repairInterval; }
+    public void setRepairInterval(Duration repairInterval) { this.repairInterval = repairInterval; }
+}
@@ -0,0 +1,79 @@
+package org.msse672.geometryapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.msse672.geometryapp.auth.config.AuthSocketProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Virtual-thread runtime mode, active when spring.threads.virtual.enabled=true.
+ *
+ * Spring Boot already moves Tomcat request handling onto virtual threads in this mode, so the
+ * blocking JdbcTemplate/JPA calls made by the services run on them too. This configuration adds:
+ *  - a connection-pool-aware permit limit in front of the DataSource
+ *  - JFR pinning diagnostics
+ * The AuthSocketServer executor is switched separately with auth.socket.virtual-threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadProperties.class)
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    // Used when the pool size cannot be read from the DataSource
+    private static final int DEFAULT_DB_PERMITS = 10;
+
+    // The primary connection pool: Spring Boot's own, or the one behind replica routing
+    private static final Set<String> PRIMARY_POOL_BEANS = Set.of("dataSource", ReplicaDataSourceConfig.PRIMARY_POOL);
+
+    public VirtualThreadConfig(AuthSocketProperties authSocketProperties) {
+        logger.info("Virtual-thread mode enabled (auth socket on virtual threads: {}).",
+                authSocketProperties.isVirtualThreads());
+    }
+
+    /**
+     * Wraps the primary Hikari pool in a BoundedDataSource sized to it. Routing DataSources and
+     * replica or shard pools are left alone, so permits never stack and the pool type stays visible.
+     * Static so it is registered before the DataSource bean is created.
+     */
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(ObjectProvider<VirtualThreadProperties> props) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource dataSource) || !PRIMARY_POOL_BEANS.contains(beanName)) {
+                    return bean;
+                }
+                VirtualThreadProperties p = props.getObject();
+                int permits = p.getDbPermits() > 0 ? p.getDbPermits() : poolSize(dataSource);
+                logger.info("Limiting DataSource '{}' to {} concurrent connections.", beanName, permits);
+                return new BoundedDataSource(dataSource, permits, p.getDbAcquireTimeout());
+            }
+        };
+    }
+
+    /**
+     * Reports pinned virtual threads from JFR. Disable with app.virtual-threads.pinning-diagnostics=false.
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "app.virtual-threads", name = "pinning-diagnostics", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadProperties props) {
+        return new VirtualThreadPinningMonitor(props.getPinningThreshold());
+    }
+
+    private static int poolSize(HikariDataSource hikari) {
+        // Hikari reports -1 until the pool starts and applies its own default
+        return hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : DEFAULT_DB_PERMITS;
+    }
+}
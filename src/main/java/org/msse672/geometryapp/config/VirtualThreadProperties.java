@@ -0,0 +1,28 @@
+package org.msse672.geometryapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Binds virtual-thread tuning under prefix "app.virtual-threads" from application*.properties.
+ * Only read when spring.threads.virtual.enabled=true.
+ */
+@ConfigurationProperties(prefix = "app.virtual-threads")
+public class VirtualThreadProperties {
+
+    private boolean pinningDiagnostics = true;                   // Stream JFR jdk.VirtualThreadPinned events to the log
+    private Duration pinningThreshold = Duration.ofMillis(20);   // Ignore pins shorter than this
+    private int dbPermits = 0;                                   // Max concurrent DB connections; 0 = pool size
+    private Duration dbAcquireTimeout = Duration.ofSeconds(30);  // How long a request waits for a DB permit
+
+    // Getters/setters required for @ConfigurationProperties binding
+    public boolean isPinningDiagnostics() { return pinningDiagnostics; }
+    public void setPinningDiagnostics(boolean pinningDiagnostics) { this.pinningDiagnostics = pinningDiagnostics; }
+    public Duration getPinningThreshold() { return pinningThreshold; }
+    public void setPinningThreshold(Duration pinningThreshold) { this.pinningThreshold = pinningThreshold; }
+    public int getDbPermits() { return dbPermits; }
+    public void setDbPermits(int dbPermits) { this.dbPermits = dbPermits; }
+    public Duration getDbAcquireTimeout() { return dbAcquireTimeout; }
+    public void setDbAcquireTimeout(Duration dbAcquireTimeout) { this.dbAcquireTimeout = dbAcquireTimeout; }
+}
@@ -0,0 +1,113 @@
+package org.msse672.geometryapp.controller;
+
+import org.msse672.geometryapp.service.QuadSketchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST controller for approximate history analytics.
+ * Answers from in-memory sketches maintained on every submission, without touching the database.
+ */
+@RestController
+@RequestMapping("/quad/history/approx")
+public class ApproxStatsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApproxStatsController.class);
+
+    private static final double[] DEFAULT_QUANTILES = { 0.5, 0.9, 0.99 };
+    private static final int MAX_TOP = 100;
+
+    private final QuadSketchService sketchService;
+
+    public ApproxStatsController(QuadSketchService sketchService) {
+        this.sketchService = sketchService;
+    }
+
+    /**
+     * GET /quad/history/approx
+     * Returns all approximate statistics: totals, distinct shapes, top shapes and quantiles.
+     */
+    @GetMapping
+    public ResponseEntity<?> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalSubmissions", sketchService.totalSubmissions());
+        summary.put("distinctShapes", sketchService.distinctShapes());
+        summary.put("topShapes", sketchService.topShapes(10));
+        summary.put("sideQuantiles", sketchService.sideQuantiles(DEFAULT_QUANTILES));
+        summary.put("perimeterQuantiles", sketchService.perimeterQuantiles(DEFAULT_QUANTILES));
+        logger.info("GET /quad/history/approx: {} submissions", summary.get("totalSubmissions"));
+        return ResponseEntity.ok(summary);
+    }
+
+    /**
+     * GET /quad/history/approx/distinct
+     * Returns the estimated number of distinct shapes (HyperLogLog, ~1% error).
+     */
+    @GetMapping("/distinct")
+    public ResponseEntity<?> getDistinct() {
+        return ResponseEntity.ok(Map.of(
+                "totalSubmissions", sketchService.totalSubmissions(),
+                "distinctShapes", sketchService.distinctShapes()));
+    }
+
+    /**
+     * GET /quad/history/approx/top
+     * Returns the most submitted shapes with estimated counts (Count-Min, never under-counted).
+     */
+    @GetMapping("/top")
+    public ResponseEntity<?> getTopShapes(@RequestParam(defaultValue = "10") int k) {
+        if (k <= 0 || k > MAX_TOP) {
+            return ResponseEntity.badRequest().body(Map.of("error", "k must be between 1 and " + MAX_TOP + "."));
+        }
+        return ResponseEntity.ok(sketchService.topShapes(k));
+    }
+
+    /**
+     * GET /quad/history/approx/quantiles
+     * Returns side-length and perimeter quantiles per quadrilateral type, e.g. ?q=0.5,0.95
+     */
+    @GetMapping("/quantiles")
+    public ResponseEntity<?> getQuantiles(@RequestParam(required = false) double[] q) {
+        double[] qs = (q == null || q.length == 0) ? DEFAULT_QUANTILES : q;
+        for (double value : qs) {
+            if (value < 0 || value > 1) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Quantiles must be between 0 and 1."));
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sides", sketchService.sideQuantiles(qs));
+        result.put("perimeters", sketchService.perimeterQuantiles(qs));
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * GET /quad/history/approx/snapshot
+     * Returns the serialized sketches so another instance can merge them.
+     */
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getSnapshot() {
+        return ResponseEntity.ok(sketchService.snapshot());
+    }
+
+    /**
+     * POST /quad/history/approx/merge
+     * Merges a snapshot from another instance into this one.
+     */
+    @PostMapping(value = "/merge", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> mergeSnapshot(@RequestBody byte[] snapshot) {
+        try {
+            sketchService.merge(snapshot);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("POST /quad/history/approx/merge: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+        logger.info("Merged sketch snapshot ({} bytes)", snapshot.length);
+        return ResponseEntity.ok(Map.of("totalSubmissions", sketchService.totalSubmissions()));
+    }
+}
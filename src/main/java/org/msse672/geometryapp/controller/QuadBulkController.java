@@ -0,0 +1,165 @@
+package org.msse672.geometryapp.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.msse672.geometryapp.codec.BinaryRecords;
+import org.msse672.geometryapp.codec.QuadRowEncoder;
+import org.msse672.geometryapp.service.QuadImportService;
+import org.msse672.geometryapp.service.QuadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * REST controller for bulk loading and export of quadrilateral history.
+ * Uses the same QuadService backend as QuadController.
+ */
+@RestController
+@RequestMapping("/quad")
+public class QuadBulkController {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuadBulkController.class);
+
+    // Rejected rows echoed back in the import response; the rest are only counted
+    private static final int MAX_REPORTED_REJECTS = 100;
+    // Rows between progress log lines
+    private static final long PROGRESS_EVERY = 1_000_000;
+    // Custom Range unit for resuming exports by id
+    static final String ID_RANGE_UNIT = "id";
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    private final QuadService quadService;
+    private final QuadImportService importService;
+
+    public QuadBulkController(@Qualifier("hibernate") QuadService quadService, QuadImportService importService) {
+        this.quadService = quadService;
+        this.importService = importService;
+    }
+
+    /**
+     * POST /quad/import
+     * Stores every valid row of a CSV or binary body (see QuadImportService) without
+     * classifying them one request at a time. Invalid rows are skipped and reported, and
+     * they never reset the current quad. Returns row counts, throughput and the first
+     * rejected rows.
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", BinaryRecords.MEDIA_TYPE_VALUE })
+    public ResponseEntity<?> importQuads(HttpServletRequest request) throws IOException {
+        List<Map<String, Object>> rejects = new ArrayList<>();
+        long[] nextReport = { PROGRESS_EVERY };
+        try {
+            QuadImportService.Format format = QuadImportService.Format.fromContentType(request.getContentType());
+            QuadImportService.Result result = importService.importQuads(
+                    Channels.newChannel(request.getInputStream()), format, quadService,
+                    (row, input, reason) -> {
+                        if (rejects.size() < MAX_REPORTED_REJECTS) {
+                            rejects.add(Map.of("row", row, "input", input, "reason", reason));
+                        }
+                    },
+                    progress -> {
+                        if (progress.rows() >= nextReport[0]) {
+                            logger.info("POST /quad/import: {} rows read, {} stored", progress.rows(), progress.imported());
+                            nextReport[0] = progress.rows() + PROGRESS_EVERY;
+                        }
+                    });
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("rows", result.rows());
+            body.put("imported", result.imported());
+            body.put("rejected", result.rejected());
+            body.put("elapsedMillis", result.elapsedMillis());
+            body.put("rowsPerMinute", result.rowsPerMinute());
+            body.put("rejects", rejects);
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException ex) {
+            // Chunks stored before the error stay stored
+            logger.warn("POST /quad/import rejected: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    /**
+     * GET /quad/export?format=csv|ndjson|binary
+     * Streams the stored history in id order straight from the backend's cursor into the
+     * response, one fetch batch at a time. Gzipped when Accept-Encoding allows it.
+     * An interrupted export resumes with afterId=<last id received>, or with a
+     * "Range: id=<first id>-" header, which is answered with 206 Partial Content.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportQuads(@RequestParam(defaultValue = "csv") String format,
+                                         @RequestParam(defaultValue = "0") long afterId,
+                                         @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                         HttpServletResponse response) throws IOException {
+        QuadRowEncoder.Format exportFormat;
+        Long firstId;
+        try {
+            exportFormat = QuadRowEncoder.Format.fromName(format);
+            firstId = parseIdRange(range);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, ID_RANGE_UNIT);
+        if (firstId != null) {
+            afterId = Math.max(afterId, firstId - 1);
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, ID_RANGE_UNIT + " " + firstId + "-*");
+        }
+        response.setContentType(exportFormat.getMediaType());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        OutputStream out = response.getOutputStream();
+        GZIPOutputStream gzipOut = null;
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = gzipOut = new GZIPOutputStream(out, GZIP_BUFFER);
+        }
+
+        QuadRowEncoder encoder = new QuadRowEncoder(out, exportFormat);
+        try {
+            quadService.streamAfterId(afterId, encoder::write);
+            encoder.flush();
+            if (gzipOut != null) gzipOut.finish();
+        } catch (IOException ex) {
+            // Usually the client disconnecting; it can resume after the last id it received
+            logger.warn("GET /quad/export stopped after {} rows (last id {}): {}",
+                    encoder.getRows(), encoder.getLastId(), ex.getMessage());
+            return null;
+        }
+        logger.info("GET /quad/export: {} {} rows after id {} (gzip: {})", encoder.getRows(), exportFormat, afterId, gzip);
+        // Body already written
+        return null;
+    }
+
+    /**
+     * Parses "id=<first>-"; other range units are ignored, as HTTP allows.
+     * @return the first id requested, or null for no id range
+     */
+    static Long parseIdRange(String range) {
+        if (range == null || !range.startsWith(ID_RANGE_UNIT + "=")) return null;
+        String spec = range.substring(ID_RANGE_UNIT.length() + 1).trim();
+        if (!spec.endsWith("-")) {
+            throw new IllegalArgumentException("Only open id ranges are supported, e.g. Range: id=1000-");
+        }
+        try {
+            return Long.parseLong(spec.substring(0, spec.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed id range: " + range);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.msse672.geometryapp.controller;
+
+import org.msse672.geometryapp.service.QuadChangeLog;
+import org.msse672.geometryapp.service.QuadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-Sent Events stream of quadrilateral writes, so clients can stop polling
+ * /quad/history/allQuads. Uses the same QuadService backend as QuadController.
+ */
+@RestController
+@RequestMapping("/quad")
+public class QuadChangeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuadChangeController.class);
+
+    // Reconnect delay suggested to EventSource clients, in milliseconds
+    private static final long RETRY_MILLIS = 2_000;
+
+    private final QuadService quadService;
+    private final int subscriberBuffer;
+    private final Duration heartbeat;
+    private final Duration timeout;
+
+    public QuadChangeController(@Qualifier("hibernate") QuadService quadService,
+                                @Value("${app.changes.subscriber-buffer:1024}") int subscriberBuffer,
+                                @Value("${app.changes.heartbeat:15s}") Duration heartbeat,
+                                @Value("${app.changes.timeout:30m}") Duration timeout) {
+        this.quadService = quadService;
+        this.subscriberBuffer = subscriberBuffer;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+    }
+
+    /**
+     * GET /quad/changes?sinceId=<event id>
+     * Streams one "insert", "update", "delete", "reset", "import" or "expire" event per
+     * write, with "<logId>-<seq>" as the event id. Without sinceId (or a Last-Event-ID
+     * header from a reconnecting EventSource) only later changes are sent.
+     *
+     * A "resync" event comes first when changes after the cursor are no longer buffered,
+     * or the cursor was issued before a restart (its log id differs, or it has none);
+     * the client should reload the history (e.g. GET /quad/export) before applying the rest.
+     * A client that falls more than app.changes.subscriber-buffer events behind gets a
+     * "dropped" event and is disconnected; it can reconnect from its last event id.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamChanges(@RequestParam(required = false) String sinceId,
+                                           @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        QuadChangeLog changeLog = quadService.getChangeLog();
+        if (changeLog == null) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(Map.of("error", "This backend does not publish changes."));
+        }
+        String cursor = sinceId != null ? sinceId : lastEventId;
+        QuadChangeLog.Subscription subscription;
+        try {
+            subscription = changeLog.subscribe(cursor, subscriberBuffer);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(ex -> subscription.close());
+        // Sending blocks on the client's socket, so each stream gets its own virtual thread
+        Thread.ofVirtual().name("quad-changes").start(() -> pump(changeLog, subscription, emitter));
+        logger.info("GET /quad/changes: subscribed after {} ({} subscribers)", cursor, changeLog.getSubscriberCount());
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    private void pump(QuadChangeLog changeLog, QuadChangeLog.Subscription subscription, SseEmitter emitter) {
+        try (subscription) {
+            emitter.send(SseEmitter.event().reconnectTime(RETRY_MILLIS).comment("quad changes"));
+            if (subscription.hasMissedChanges()) {
+                emitter.send(SseEmitter.event().name("resync").data(Map.of("reason", "Changes after the cursor are no longer buffered.")));
+            }
+            while (true) {
+                QuadChangeLog.Change change = subscription.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (subscription.isDropped()) {
+                    logger.warn("GET /quad/changes: dropping slow subscriber");
+                    emitter.send(SseEmitter.event().name("dropped").data(Map.of("reason", "Subscriber fell too far behind.")));
+                    emitter.complete();
+                    return;
+                }
+                if (change == null) {
+                    // Keeps proxies from timing out the connection and detects closed clients
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(changeLog.eventId(change))
+                        .name(change.kind().name().toLowerCase())
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Client disconnected, or the emitter completed or timed out
+            logger.debug("GET /quad/changes: stream closed: {}", ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        }
+    }
+}
@@ -1,18 +1,30 @@
 package org.msse672.geometryapp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.servlet.http.HttpServletRequest;
 import org.msse672.geometryapp.auth.core.AuthService;
+import org.msse672.geometryapp.codec.BinaryRecords;
+import org.msse672.geometryapp.dto.QuadNeighbor;
+import org.msse672.geometryapp.dto.ShapeMatchResponse;
+import org.msse672.geometryapp.index.SideRange;
 import org.msse672.geometryapp.model.Quadrilateral;
 import org.msse672.geometryapp.service.QuadService;
+import org.msse672.geometryapp.service.RollingStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.msse672.geometryapp.dto.QuadResponse;
 
@@ -29,14 +41,23 @@ public class QuadController {
 
     private static final Logger logger = LoggerFactory.getLogger(QuadController.class);
 
+    // Upper bound on rows returned by one search request
+    private static final int MAX_SEARCH_RESULTS = 1000;
+
     private final QuadService quadService;
     private final AuthService authService;
+    private final RollingStatsService rollingStats;
+    // Pre-encoded history and stats bodies, invalidated by QuadService writes
+    private final VersionedResponseCache responseCache;
 
     // Use @Qualifier to select QuadService implementation
     @Autowired
-    public QuadController(@Qualifier("hibernate") QuadService quadService, AuthService authService) {
+    public QuadController(@Qualifier("hibernate") QuadService quadService, AuthService authService,
+                          RollingStatsService rollingStats, ObjectMapper objectMapper) {
         this.quadService = quadService;
         this.authService = authService;
+        this.rollingStats = rollingStats;
+        this.responseCache = new VersionedResponseCache(quadService::getGeneration, objectMapper);
     }
 
     @Autowired
@@ -61,7 +82,6 @@ public class QuadController {
 
         if (!Quadrilateral.isValidQuadrilateral(sideA, sideB, sideC, sideD)) {
             logger.error("Invalid quadrilateral detected: A={}, B={}, C={}, D={}", sideA, sideB, sideC, sideD);
-            quadService.reset();
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid Quadrilateral: violates quadrilateral side length rules."));
         }
 
@@ -69,7 +89,6 @@ public class QuadController {
         String type = quad.getType();
 
         if (type.startsWith("Invalid Quadrilateral")) {
-            quadService.reset();
             return ResponseEntity.badRequest().body(Map.of("error", type));
         }
 
@@ -79,6 +98,16 @@ public class QuadController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * POST /quad/type with an application/x-geometry-binary body
+     * Same as the query-parameter form, taking one 32-byte little-endian sides record.
+     * Ask for the binary type in Accept to get a 33-byte QuadResponse record back.
+     */
+    @PostMapping(value = "/type", consumes = BinaryRecords.MEDIA_TYPE_VALUE)
+    public ResponseEntity<?> postQuadrilateralBinary(@RequestBody Quadrilateral sides) {
+        return postQuadrilateral(sides.getSideA(), sides.getSideB(), sides.getSideC(), sides.getSideD());
+    }
+
     /**
      * GET /quad/type
      * Returns the type and sides of the current quadrilateral in memory.
@@ -135,7 +164,6 @@ public ResponseEntity<?> getQuadrilateral(@RequestParam Long id) {
 
         if (!Quadrilateral.isValidQuadrilateral(sideA, sideB, sideC, sideD)) {
             logger.error("PUT /quad/type: Invalid quadrilateral: A={}, B={}, C={}, D={}", sideA, sideB, sideC, sideD);
-            quadService.reset();
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid Quadrilateral: violates quadrilateral side length rules."));
         }
 
@@ -183,9 +211,14 @@ public ResponseEntity<?> getQuadrilateral(@RequestParam Long id) {
     /**
      * GET /quad/history/allQuads
      * Returns all submitted quadrilaterals.
+     * Served from the response cache until the next write; honors If-None-Match.
      */
     @GetMapping("/history/allQuads")
     public ResponseEntity<?> getAllQuads() {
+        return cached("allQuads", this::loadAllQuads);
+    }
+
+    private ResponseEntity<?> loadAllQuads() {
         logger.info("GET /history called.");
 
         if (!quadService.isInitialized()) {
@@ -206,9 +239,14 @@ public ResponseEntity<?> getQuadrilateral(@RequestParam Long id) {
     /**
      * GET /quad/history/squares
      * Returns all submitted squares.
+     * Served from the response cache until the next write; honors If-None-Match.
      */
     @GetMapping("/history/squares")
     public ResponseEntity<?> getOnlySquares() {
+        return cached("squares", this::loadOnlySquares);
+    }
+
+    private ResponseEntity<?> loadOnlySquares() {
         logger.info("GET /history/squares called.");
 
         if (!quadService.isInitialized()) {
@@ -229,9 +267,25 @@ public ResponseEntity<?> getQuadrilateral(@RequestParam Long id) {
     /**
      * GET /quad/history/stats
      * Returns statistics for submitted quadrilaterals by type.
+     * With ?window=5m (s, m, h or d), returns the submission rate and type mix for that
+     * recent window from in-memory counters instead of all-time counts from the database.
+     * All-time counts are served from the response cache until the next write.
      */
     @GetMapping("/history/stats")
-    public ResponseEntity<?> getQuadStats() {
+    public ResponseEntity<?> getQuadStats(@RequestParam(required = false) String window) {
+        if (window != null) {
+            logger.info("GET /history/stats called for window {}.", window);
+            try {
+                return ResponseEntity.ok(rollingStats.quadStats(window));
+            } catch (IllegalArgumentException ex) {
+                logger.warn("GET /history/stats: Invalid window '{}' - {}", window, ex.getMessage());
+                return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            }
+        }
+        return cached("stats", this::loadQuadStats);
+    }
+
+    private ResponseEntity<?> loadQuadStats() {
         logger.info("GET /history/stats called.");
 
         if (!quadService.isInitialized()) {
@@ -244,6 +298,41 @@ public ResponseEntity<?> getQuadrilateral(@RequestParam Long id) {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * GET /quad/history/recent?since=2026-01-31T00:00:00Z&limit=100
+     * Returns up to limit quadrilaterals created at or after since, oldest first.
+     * Only the database backends record creation times; the query reads the created_at
+     * index from since onward.
+     */
+    @GetMapping("/history/recent")
+    public ResponseEntity<?> getRecentQuads(
+            @RequestParam String since,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        Instant from;
+        try {
+            from = Instant.parse(since);
+        } catch (DateTimeParseException ex) {
+            logger.warn("GET /history/recent: Invalid since '{}'", since);
+            return ResponseEntity.badRequest().body(Map.of("error", "since must be an ISO-8601 instant, e.g. 2026-01-31T00:00:00Z."));
+        }
+        if (limit <= 0 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_SEARCH_RESULTS + "."));
+        }
+        try {
+            List<Quadrilateral> quads = quadService.getQuadsCreatedSince(from, limit);
+            logger.info("GET /history/recent: {} quadrilaterals since {}", quads.size(), from);
+            return ResponseEntity.ok(quads);
+        } catch (UnsupportedOperationException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> cached(String key, Supplier<ResponseEntity<?>> handler) {
+        return responseCache.serve(key, request.getHeader(HttpHeaders.ACCEPT),
+                request.getHeader(HttpHeaders.IF_NONE_MATCH), handler);
+    }
+
     /**
      * GET /quad/quads/last
      * Returns the last submitted quadrilateral.
@@ -258,4 +347,118 @@ public ResponseEntity<?> getQuadrilateral(@RequestParam Long id) {
         logger.info("Retrieved last quad: {}", last);
         return ResponseEntity.ok(last);
     }
-}
\ No newline at end of file
+
+    // ======================== Search Endpoints ========================
+
+    /**
+     * GET /quad/search
+     * Returns stored quadrilaterals whose sides fall inside the given bounds.
+     * Every bound is optional; omitted bounds are open.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchBySides(
+            @RequestParam(required = false) Double minA, @RequestParam(required = false) Double maxA,
+            @RequestParam(required = false) Double minB, @RequestParam(required = false) Double maxB,
+            @RequestParam(required = false) Double minC, @RequestParam(required = false) Double maxC,
+            @RequestParam(required = false) Double minD, @RequestParam(required = false) Double maxD,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (limit <= 0 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_SEARCH_RESULTS + "."));
+        }
+
+        SideRange range;
+        try {
+            range = SideRange.of(minA, maxA, minB, maxB, minC, maxC, minD, maxD);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("GET /quad/search: Invalid range - {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+
+        List<Quadrilateral> matches = quadService.searchBySideRange(range, limit);
+        logger.info("GET /quad/search returned {} quadrilaterals for {}", matches.size(), range);
+        return ResponseEntity.ok(matches);
+    }
+
+    /**
+     * GET /quad/search/nearest
+     * Returns the k stored quadrilaterals closest to the given sides, closest first.
+     */
+    @GetMapping("/search/nearest")
+    public ResponseEntity<?> searchNearest(
+            @RequestParam double sideA,
+            @RequestParam double sideB,
+            @RequestParam double sideC,
+            @RequestParam double sideD,
+            @RequestParam(defaultValue = "5") int k
+    ) {
+        if (Quadrilateral.hasNullOrInvalid(sideA, sideB, sideC, sideD)) {
+            logger.warn("GET /quad/search/nearest: Invalid input: A={}, B={}, C={}, D={}", sideA, sideB, sideC, sideD);
+            return ResponseEntity.badRequest().body(Map.of("error", "All inputs must be numeric and non-null."));
+        }
+        if (k <= 0 || k > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "k must be between 1 and " + MAX_SEARCH_RESULTS + "."));
+        }
+
+        List<QuadNeighbor> neighbors = quadService.findNearest(sideA, sideB, sideC, sideD, k);
+        logger.info("GET /quad/search/nearest returned {} neighbors", neighbors.size());
+        return ResponseEntity.ok(neighbors);
+    }
+
+    // ======================== Shape Lookup Endpoints ========================
+
+    /**
+     * GET /quad/congruent
+     * Returns stored quadrilaterals with the same side cycle, in any rotation or reflection.
+     */
+    @GetMapping("/congruent")
+    public ResponseEntity<?> findCongruent(
+            @RequestParam double sideA,
+            @RequestParam double sideB,
+            @RequestParam double sideC,
+            @RequestParam double sideD,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (Quadrilateral.hasNullOrInvalid(sideA, sideB, sideC, sideD)) {
+            logger.warn("GET /quad/congruent: Invalid input: A={}, B={}, C={}, D={}", sideA, sideB, sideC, sideD);
+            return ResponseEntity.badRequest().body(Map.of("error", "All inputs must be numeric and non-null."));
+        }
+        if (limit < 0 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 0 and " + MAX_SEARCH_RESULTS + "."));
+        }
+
+        long[] ids = quadService.findCongruentIds(sideA, sideB, sideC, sideD);
+        logger.info("GET /quad/congruent found {} matches", ids.length);
+        return ResponseEntity.ok(toShapeMatch(ids, limit));
+    }
+
+    /**
+     * GET /quad/similar
+     * Returns stored quadrilaterals whose side cycle is a scaled copy of the given sides.
+     */
+    @GetMapping("/similar")
+    public ResponseEntity<?> findSimilar(
+            @RequestParam double sideA,
+            @RequestParam double sideB,
+            @RequestParam double sideC,
+            @RequestParam double sideD,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (Quadrilateral.hasNullOrInvalid(sideA, sideB, sideC, sideD)) {
+            logger.warn("GET /quad/similar: Invalid input: A={}, B={}, C={}, D={}", sideA, sideB, sideC, sideD);
+            return ResponseEntity.badRequest().body(Map.of("error", "All inputs must be numeric and non-null."));
+        }
+        if (limit < 0 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 0 and " + MAX_SEARCH_RESULTS + "."));
+        }
+
+        long[] ids = quadService.findSimilarIds(sideA, sideB, sideC, sideD);
+        logger.info("GET /quad/similar found {} matches", ids.length);
+        return ResponseEntity.ok(toShapeMatch(ids, limit));
+    }
+
+    private static ShapeMatchResponse toShapeMatch(long[] ids, int limit) {
+        Arrays.sort(ids);
+        return new ShapeMatchResponse(ids.length, Arrays.stream(ids).limit(limit).boxed().toList());
+    }
+}
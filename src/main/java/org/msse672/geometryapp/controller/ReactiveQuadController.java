@@ -0,0 +1,155 @@
+package org.msse672.geometryapp.controller;
+
+import org.msse672.geometryapp.auth.config.AuthSocketProperties;
+import org.msse672.geometryapp.auth.socket.SocketAuthClient;
+import org.msse672.geometryapp.dto.QuadResponse;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.msse672.geometryapp.service.ReactiveQuadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking variant of the /quad API.
+ * Handlers return Mono/Flux, so the servlet request thread is released while the token is
+ * checked over the async socket client and the database work runs on ReactiveQuadService's
+ * bounded scheduler. SocketAuthFilter skips this prefix; tokens are validated here instead.
+ */
+@RestController
+@RequestMapping("/quad/async")
+public class ReactiveQuadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveQuadController.class);
+
+    private final ReactiveQuadService quadService;
+    private final SocketAuthClient authClient;
+    private final AuthSocketProperties props;
+
+    @Autowired
+    public ReactiveQuadController(ReactiveQuadService quadService,
+                                  @Qualifier("defaultSocketAuthClient") SocketAuthClient authClient,
+                                  AuthSocketProperties props) {
+        this.quadService = quadService;
+        this.authClient = authClient;
+        this.props = props;
+    }
+
+    /**
+     * POST /quad/async/type
+     * Validates and stores a quadrilateral, returning its type.
+     */
+    @PostMapping("/type")
+    public Mono<ResponseEntity<?>> postQuadrilateral(
+            @RequestHeader(name = "X-Auth-Token", required = false) String token,
+            @RequestParam double sideA,
+            @RequestParam double sideB,
+            @RequestParam double sideC,
+            @RequestParam double sideD
+    ) {
+        String err = Quadrilateral.validate(sideA, sideB, sideC, sideD);
+        if (err != null) {
+            logger.warn("POST /quad/async/type: Invalid quadrilateral: {}", err);
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid Quadrilateral: " + err)));
+        }
+
+        String type = new Quadrilateral(sideA, sideB, sideC, sideD).getType();
+        return authorized(token)
+                .then(quadService.insertQuad(sideA, sideB, sideC, sideD))
+                .then(Mono.<ResponseEntity<?>>fromSupplier(() -> {
+                    logger.info("POST /quad/async/type: Stored A={}, B={}, C={}, D={}, Type={}", sideA, sideB, sideC, sideD, type);
+                    return ResponseEntity.ok(new QuadResponse(sideA, sideB, sideC, sideD, type));
+                }));
+    }
+
+    /**
+     * GET /quad/async/type?id=
+     * Returns a quadrilateral by ID.
+     */
+    @GetMapping("/type")
+    public Mono<ResponseEntity<?>> getQuadrilateral(
+            @RequestHeader(name = "X-Auth-Token", required = false) String token,
+            @RequestParam Long id
+    ) {
+        return authorized(token)
+                .then(quadService.getById(id))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.warn("GET /quad/async/type: Quad ID {} not found", id);
+                    return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Quadrilateral with ID " + id + " not found.")));
+                });
+    }
+
+    /**
+     * GET /quad/async/history/allQuads
+     * Streams every stored quadrilateral as newline-delimited JSON with backpressure.
+     */
+    @GetMapping(path = "/history/allQuads", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Quadrilateral> streamAllQuads(@RequestHeader(name = "X-Auth-Token", required = false) String token) {
+        logger.info("GET /quad/async/history/allQuads called.");
+        return authorized(token).thenMany(quadService.streamAllSubmittedQuads());
+    }
+
+    /**
+     * GET /quad/async/history/squares
+     * Returns all submitted squares.
+     */
+    @GetMapping("/history/squares")
+    public Mono<ResponseEntity<?>> getOnlySquares(@RequestHeader(name = "X-Auth-Token", required = false) String token) {
+        return authorized(token)
+                .then(quadService.getOnlySquares())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * GET /quad/async/history/stats
+     * Returns counts of submitted quadrilaterals by type.
+     */
+    @GetMapping("/history/stats")
+    public Mono<ResponseEntity<?>> getQuadStats(@RequestHeader(name = "X-Auth-Token", required = false) String token) {
+        return authorized(token)
+                .then(quadService.countByType())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * GET /quad/async/quads/last
+     * Returns the last submitted quadrilateral.
+     */
+    @GetMapping("/quads/last")
+    public Mono<ResponseEntity<?>> getLastQuad(@RequestHeader(name = "X-Auth-Token", required = false) String token) {
+        return authorized(token)
+                .then(quadService.getLastSubmittedQuad())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.badRequest().body(Map.of("error", "Please POST sides first.")));
+    }
+
+    /**
+     * Completes empty when the token is valid; otherwise errors with 401 (bad token) or 503 (socket failure).
+     * Mirrors SocketAuthFilter without holding the request thread during the socket round trip.
+     */
+    private Mono<Void> authorized(String token) {
+        if (!props.isEnabled()) return Mono.empty();
+        if (token == null || token.isBlank()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED,
+                    "Missing token. Provide " + props.getHeaderToken() + " header."));
+        }
+        return Mono.fromFuture(() -> authClient.sendTokenValidationAsync(token))
+                .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> {
+                    logger.warn("Async token validation error: {}", e.toString());
+                    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Authentication service unavailable.");
+                })
+                .flatMap(ok -> ok
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token.")));
+    }
+}
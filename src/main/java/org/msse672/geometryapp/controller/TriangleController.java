@@ -1,15 +1,178 @@
 package org.msse672.geometryapp.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.msse672.geometryapp.codec.BinaryRecords;
+import org.msse672.geometryapp.index.TriangleRange;
 import org.msse672.geometryapp.model.Triangle;
+import org.msse672.geometryapp.model.TriangleRecord;
+import org.msse672.geometryapp.model.TriangleType;
+import org.msse672.geometryapp.service.RollingStatsService;
+import org.msse672.geometryapp.service.TriangleBatchService;
+import org.msse672.geometryapp.service.TriangleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/triangle")
 public class TriangleController {
 
+    private static final Logger logger = LoggerFactory.getLogger(TriangleController.class);
+
+    // Upper bound on rows returned by one history or search request
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final RollingStatsService rollingStats;
+    private final TriangleService triangleService;
+    private final TriangleBatchService batchService;
+
+    public TriangleController(RollingStatsService rollingStats, @Qualifier("jdbc") TriangleService triangleService,
+                              TriangleBatchService batchService) {
+        this.rollingStats = rollingStats;
+        this.triangleService = triangleService;
+        this.batchService = batchService;
+    }
+
+    /**
+     * POST /triangle/type
+     * Classifies one triangle. With store=true (authenticated, see SocketAuthFilter) it is also
+     * saved to the history; 503 if the history database is unavailable.
+     */
     @PostMapping("/type")
-    public String getTriangleType(@RequestParam double side1, @RequestParam double side2, @RequestParam double side3) {
+    public ResponseEntity<String> getTriangleType(@RequestParam double side1, @RequestParam double side2, @RequestParam double side3,
+                                                  @RequestParam(defaultValue = "false") boolean store) {
         Triangle triangle = new Triangle(side1, side2, side3);
-        return triangle.getType();
+        String type = triangle.getType();
+        rollingStats.recordTriangle(type);
+        if (store) {
+            try {
+                triangleService.insertTriangle(side1, side2, side3);
+            } catch (DataAccessException ex) {
+                logger.warn("POST /triangle/type could not store the triangle: {}", ex.getMessage());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Triangle history is unavailable.");
+            }
+        }
+        return ResponseEntity.ok(type);
+    }
+
+    /**
+     * POST /triangle/batch
+     * Classifies a JSON array, NDJSON, CSV or binary stream of triples and streams the results back
+     * in the same format. With store=true (authenticated, see SocketAuthFilter) every triangle
+     * is also saved to the history.
+     * Malformed input found after the first chunk was written truncates the response
+     * instead of turning it into a 400.
+     */
+    @PostMapping(value = "/batch",
+            consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv",
+                    BinaryRecords.MEDIA_TYPE_VALUE })
+    public ResponseEntity<?> classifyBatch(@RequestParam(defaultValue = "false") boolean store,
+                                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            TriangleBatchService.Format format = TriangleBatchService.Format.fromContentType(request.getContentType());
+            response.setContentType(format.getMediaType());
+            response.setCharacterEncoding("UTF-8");
+            batchService.classify(request.getInputStream(), response.getOutputStream(), format, store);
+            // Body already written
+            return null;
+        } catch (IllegalArgumentException ex) {
+            if (response.isCommitted()) {
+                logger.warn("POST /triangle/batch aborted mid-stream: {}", ex.getMessage());
+                return null;
+            }
+            logger.warn("POST /triangle/batch rejected: {}", ex.getMessage());
+            response.reset();
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // Evaluation rate and type mix over a recent window, e.g. ?window=5m
+    @GetMapping("/stats")
+    public ResponseEntity<?> getTriangleStats(@RequestParam(defaultValue = "1m") String window) {
+        try {
+            return ResponseEntity.ok(rollingStats.triangleStats(window));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    /**
+     * GET /triangle/history
+     * Stored classifications in id order, one page after the given id.
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getHistory(@RequestParam(defaultValue = "0") long afterId,
+                                        @RequestParam(defaultValue = "100") int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_PAGE_SIZE + "."));
+        }
+        List<TriangleRecord> page = triangleService.getAfterId(afterId, limit);
+        logger.info("GET /triangle/history returned {} triangles after id {}", page.size(), afterId);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * GET /triangle/history/{id}
+     */
+    @GetMapping("/history/{id}")
+    public ResponseEntity<?> getById(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(triangleService.getById(id));
+        } catch (IllegalArgumentException ex) {
+            logger.warn("GET /triangle/history/{}: {}", id, ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    /**
+     * GET /triangle/history/stats
+     * All-time total and counts by type.
+     */
+    @GetMapping("/history/stats")
+    public ResponseEntity<?> getHistoryStats() {
+        Map<String, Long> byType = triangleService.countByType();
+        long total = byType.values().stream().mapToLong(Long::longValue).sum();
+        logger.info("GET /triangle/history/stats: {} triangles", total);
+        return ResponseEntity.ok(Map.of("total", total, "byType", byType));
+    }
+
+    /**
+     * GET /triangle/search
+     * Stored classifications inside the side bounds, optionally of one type
+     * (EQUILATERAL, ISOSCELES, SCALENE, NOT_A_TRIANGLE or INVALID_INPUT).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Double minA, @RequestParam(required = false) Double maxA,
+            @RequestParam(required = false) Double minB, @RequestParam(required = false) Double maxB,
+            @RequestParam(required = false) Double minC, @RequestParam(required = false) Double maxC,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_PAGE_SIZE + "."));
+        }
+        try {
+            TriangleType triangleType = type == null ? null : TriangleType.fromName(type);
+            TriangleRange range = TriangleRange.of(minA, maxA, minB, maxB, minC, maxC);
+            List<TriangleRecord> matches = triangleService.search(triangleType, range, limit);
+            logger.info("GET /triangle/search returned {} triangles", matches.size());
+            return ResponseEntity.ok(matches);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("GET /triangle/search: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
     }
-}
\ No newline at end of file
+}
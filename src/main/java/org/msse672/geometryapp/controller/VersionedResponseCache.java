@@ -0,0 +1,116 @@
+package org.msse672.geometryapp.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.msse672.geometryapp.codec.BinaryRecords;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Pre-encoded JSON bodies for read-heavy endpoints, keyed by endpoint and tagged with the
+ * QuadService generation they were built from.
+ *
+ * A hit costs one generation read and a byte copy; any write moves the generation on and
+ * the next request rebuilds the entry. ETags are a hash of the encoded bytes, so they stay
+ * valid across restarts. Only 200 responses small enough to keep are cached, and only for
+ * JSON clients; binary clients always go to the handler.
+ */
+class VersionedResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionedResponseCache.class);
+
+    // Larger bodies are served but not kept
+    static final int MAX_ENTRY_BYTES = 8 * 1024 * 1024;
+
+    private record Entry(long generation, byte[] body, String etag) { }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongSupplier generation;
+    private final ObjectMapper objectMapper;
+
+    VersionedResponseCache(LongSupplier generation, ObjectMapper objectMapper) {
+        this.generation = generation;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Serves key from the cache when it is current, otherwise runs handler and caches a 200
+     * result. Answers 304 when If-None-Match names the current ETag.
+     */
+    ResponseEntity<?> serve(String key, String accept, String ifNoneMatch, Supplier<ResponseEntity<?>> handler) {
+        if (accept != null && accept.contains(BinaryRecords.MEDIA_TYPE_VALUE)) {
+            return handler.get();
+        }
+        // Read before the handler runs: a write racing with it leaves the entry already stale
+        long current = generation.getAsLong();
+        if (current < 0) {
+            return handler.get();
+        }
+
+        Entry entry = entries.get(key);
+        if (entry == null || entry.generation() != current) {
+            ResponseEntity<?> response = handler.get();
+            if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+                return response;
+            }
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(response.getBody());
+            } catch (JsonProcessingException e) {
+                logger.warn("Could not pre-encode {} response, serving uncached: {}", key, e.getMessage());
+                return response;
+            }
+            entry = new Entry(current, body, etag(body));
+            if (body.length <= MAX_ENTRY_BYTES) {
+                // Keep whichever entry is newer if two rebuilds race
+                entries.merge(key, entry, (old, fresh) -> fresh.generation() >= old.generation() ? fresh : old);
+            }
+            logger.debug("Response cache miss for {} at generation {}", key, current);
+        }
+
+        if (matches(ifNoneMatch, entry.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entry.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(entry.body());
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // If-None-Match is "*" or a comma-separated list of (possibly weak) tags
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package org.msse672.geometryapp.dto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.msse672.geometryapp.model.Quadrilateral;
+
+/**
+ * QuadNeighbor is returned by nearest-neighbor searches.
+ * It pairs a stored quadrilateral with its distance from the requested side lengths.
+ */
+
+public class QuadNeighbor {
+
+    @Schema(description = "Stored quadrilateral")
+    private final Quadrilateral quad;
+
+    @Schema(description = "Euclidean distance between the stored and requested side lengths", example = "0.5")
+    private final double distance;
+
+    public QuadNeighbor(Quadrilateral quad, double distance) {
+        this.quad = quad;
+        this.distance = distance;
+    }
+
+    public Quadrilateral getQuad() {
+        return quad;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+}
@@ -0,0 +1,31 @@
+package org.msse672.geometryapp.dto;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * ShapeMatchResponse is returned by the congruent and similar shape lookups.
+ * It reports how many stored quadrilaterals match and the ids of (up to limit of) them.
+ */
+
+public class ShapeMatchResponse {
+
+    @Schema(description = "Number of stored quadrilaterals with a matching shape", example = "3")
+    private final int count;
+
+    @Schema(description = "Ids of matching quadrilaterals in ascending order, capped by limit", example = "[4, 17, 42]")
+    private final List<Long> ids;
+
+    public ShapeMatchResponse(int count, List<Long> ids) {
+        this.count = count;
+        this.ids = ids;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+}
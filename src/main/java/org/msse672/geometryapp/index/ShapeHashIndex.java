@@ -0,0 +1,229 @@
+package org.msse672.geometryapp.index;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash index from a 4-long shape key (see ShapeKey) to the ids stored
+ * under it, plus a reverse id-to-slot table so removals only need the id.
+ *
+ * Everything lives in primitive arrays with linear probing; lookups are O(1) expected and
+ * return the full posting list for the key. Slots whose posting list empties stay in place
+ * until clear(), so probing never needs tombstones.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class ShapeHashIndex {
+
+    private static final int KEY_LONGS = 4;
+    private static final float MAX_LOAD = 0.5f;
+    private static final long[] NO_IDS = new long[0];
+
+    // Shape slots: key, posting list and its length
+    private long[] keys;
+    private long[][] postings;
+    private int[] postingSizes;
+    private boolean[] used;
+    private int usedSlots;
+
+    // Reverse map id -> shape slot (0 marks an empty entry, so slots are stored + 1)
+    private long[] idKeys;
+    private int[] idSlots;
+    private int idCount;
+
+    public ShapeHashIndex() {
+        clear();
+    }
+
+    public final void clear() {
+        keys = new long[16 * KEY_LONGS];
+        postings = new long[16][];
+        postingSizes = new int[16];
+        used = new boolean[16];
+        usedSlots = 0;
+        idKeys = new long[16];
+        idSlots = new int[16];
+        idCount = 0;
+    }
+
+    /**
+     * Files id under key, moving it if it was filed under another key.
+     */
+    public void put(long id, long[] key) {
+        remove(id);
+        if ((usedSlots + 1) > keys.length / KEY_LONGS * MAX_LOAD) {
+            growShapes();
+        }
+        int slot = findOrCreateSlot(key);
+        long[] list = postings[slot];
+        if (list == null) {
+            list = postings[slot] = new long[2];
+        } else if (postingSizes[slot] == list.length) {
+            list = postings[slot] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[postingSizes[slot]++] = id;
+        putIdSlot(id, slot);
+    }
+
+    /**
+     * Drops id from whichever key it is filed under; no-op if it is not indexed.
+     */
+    public void remove(long id) {
+        int pos = findId(id);
+        if (pos < 0) return;
+        int slot = idSlots[pos] - 1;
+        long[] list = postings[slot];
+        int n = postingSizes[slot];
+        for (int i = 0; i < n; i++) {
+            if (list[i] == id) {
+                list[i] = list[n - 1];
+                postingSizes[slot] = n - 1;
+                break;
+            }
+        }
+        deleteIdAt(pos);
+    }
+
+    /**
+     * Number of ids filed under key.
+     */
+    public int count(long[] key) {
+        int slot = findSlot(key);
+        return slot < 0 ? 0 : postingSizes[slot];
+    }
+
+    /**
+     * Ids filed under key, in no particular order.
+     */
+    public long[] ids(long[] key) {
+        int slot = findSlot(key);
+        return slot < 0 ? NO_IDS : Arrays.copyOf(postings[slot], postingSizes[slot]);
+    }
+
+    /**
+     * Total number of indexed ids.
+     */
+    public int size() {
+        return idCount;
+    }
+
+    // ==================== Shape slots ====================
+
+    private static int hash(long[] key) {
+        long h = key[0];
+        for (int i = 1; i < KEY_LONGS; i++) {
+            h = h * 0x9E3779B97F4A7C15L + key[i];
+        }
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    private boolean keyEquals(int slot, long[] key) {
+        int base = slot * KEY_LONGS;
+        return keys[base] == key[0] && keys[base + 1] == key[1] && keys[base + 2] == key[2] && keys[base + 3] == key[3];
+    }
+
+    private int findSlot(long[] key) {
+        int mask = used.length - 1;
+        for (int slot = hash(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (keyEquals(slot, key)) return slot;
+        }
+        return -1;
+    }
+
+    private int findOrCreateSlot(long[] key) {
+        int mask = used.length - 1;
+        int slot = hash(key) & mask;
+        for (; used[slot]; slot = (slot + 1) & mask) {
+            if (keyEquals(slot, key)) return slot;
+        }
+        used[slot] = true;
+        System.arraycopy(key, 0, keys, slot * KEY_LONGS, KEY_LONGS);
+        usedSlots++;
+        return slot;
+    }
+
+    // Rehashes shape slots into a table twice the size; the id table is remapped to the new slots
+    private void growShapes() {
+        long[] oldKeys = keys;
+        long[][] oldPostings = postings;
+        int[] oldSizes = postingSizes;
+        boolean[] oldUsed = used;
+        int cap = oldUsed.length * 2;
+
+        keys = new long[cap * KEY_LONGS];
+        postings = new long[cap][];
+        postingSizes = new int[cap];
+        used = new boolean[cap];
+        usedSlots = 0;
+
+        long[] key = new long[KEY_LONGS];
+        for (int old = 0; old < oldUsed.length; old++) {
+            if (!oldUsed[old]) continue;
+            System.arraycopy(oldKeys, old * KEY_LONGS, key, 0, KEY_LONGS);
+            int slot = findOrCreateSlot(key);
+            postings[slot] = oldPostings[old];
+            postingSizes[slot] = oldSizes[old];
+            for (int i = 0; i < oldSizes[old]; i++) {
+                idSlots[findId(oldPostings[old][i])] = slot + 1;
+            }
+        }
+    }
+
+    // ==================== Id -> slot table ====================
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int findId(long id) {
+        int mask = idKeys.length - 1;
+        for (int pos = hash(id) & mask; idSlots[pos] != 0; pos = (pos + 1) & mask) {
+            if (idKeys[pos] == id) return pos;
+        }
+        return -1;
+    }
+
+    private void putIdSlot(long id, int slot) {
+        if ((idCount + 1) > idKeys.length * MAX_LOAD) {
+            long[] oldIds = idKeys;
+            int[] oldSlots = idSlots;
+            idKeys = new long[oldIds.length * 2];
+            idSlots = new int[oldIds.length * 2];
+            idCount = 0;
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldSlots[i] != 0) insertId(oldIds[i], oldSlots[i]);
+            }
+        }
+        insertId(id, slot + 1);
+    }
+
+    private void insertId(long id, int storedSlot) {
+        int mask = idKeys.length - 1;
+        int pos = hash(id) & mask;
+        while (idSlots[pos] != 0) pos = (pos + 1) & mask;
+        idKeys[pos] = id;
+        idSlots[pos] = storedSlot;
+        idCount++;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void deleteIdAt(int pos) {
+        int mask = idKeys.length - 1;
+        idSlots[pos] = 0;
+        idCount--;
+        int next = (pos + 1) & mask;
+        while (idSlots[next] != 0) {
+            int home = hash(idKeys[next]) & mask;
+            // Move the entry back if its home is not in (pos, next]
+            if (((next - home) & mask) >= ((next - pos) & mask)) {
+                idKeys[pos] = idKeys[next];
+                idSlots[pos] = idSlots[next];
+                idSlots[next] = 0;
+                pos = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+}
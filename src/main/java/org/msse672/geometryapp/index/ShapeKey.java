@@ -0,0 +1,103 @@
+package org.msse672.geometryapp.index;
+
+import java.util.Arrays;
+
+/**
+ * Canonical keys for side tuples, used by ShapeHashIndex.
+ *
+ * The same quadrilateral can be entered starting at any side and walking in either
+ * direction, so (a, b, c, d) has up to eight equivalent spellings (four rotations, each
+ * optionally reversed). The canonical form is the lexicographically smallest of them.
+ *
+ * Side lengths alone do not fix the angles, so "congruent" here means "same cyclic side
+ * sequence", which is what the API can check from the data it stores.
+ */
+public final class ShapeKey {
+
+    // Ratios are rounded to this many parts of the perimeter so scaled copies hash together
+    private static final double SIMILARITY_SCALE = 1e9;
+
+    private ShapeKey() { }
+
+    /**
+     * Key for the exact side sequence, up to rotation and reflection.
+     */
+    public static long[] congruent(double a, double b, double c, double d) {
+        double[] s = canonical(a, b, c, d);
+        return new long[] { bits(s[0]), bits(s[1]), bits(s[2]), bits(s[3]) };
+    }
+
+    /**
+     * Key for the side sequence scaled to unit perimeter, up to rotation and reflection.
+     * The ratios are rounded before the canonical spelling is chosen, so floating-point noise
+     * between scaled copies cannot pick a different rotation or reflection.
+     */
+    public static long[] similar(double a, double b, double c, double d) {
+        double p = perimeter(a, b, c, d);
+        return canonical(ratio(a, p), ratio(b, p), ratio(c, p), ratio(d, p));
+    }
+
+    /**
+     * The lexicographically smallest of the eight rotations/reflections of (a, b, c, d).
+     */
+    static double[] canonical(double a, double b, double c, double d) {
+        double[] in = { a, b, c, d };
+        double[] best = null;
+        double[] candidate = new double[4];
+        for (int start = 0; start < 4; start++) {
+            for (int dir = 1; dir >= -1; dir -= 2) {
+                for (int i = 0; i < 4; i++) {
+                    candidate[i] = in[Math.floorMod(start + dir * i, 4)];
+                }
+                if (best == null || compare(candidate, best) < 0) {
+                    best = candidate.clone();
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * canonical() for already rounded values.
+     */
+    static long[] canonical(long a, long b, long c, long d) {
+        long[] in = { a, b, c, d };
+        long[] best = null;
+        long[] candidate = new long[4];
+        for (int start = 0; start < 4; start++) {
+            for (int dir = 1; dir >= -1; dir -= 2) {
+                for (int i = 0; i < 4; i++) {
+                    candidate[i] = in[Math.floorMod(start + dir * i, 4)];
+                }
+                if (best == null || Arrays.compare(candidate, best) < 0) {
+                    best = candidate.clone();
+                }
+            }
+        }
+        return best;
+    }
+
+    // Summed smallest first, so every spelling of the same sides divides by the same value
+    private static double perimeter(double a, double b, double c, double d) {
+        double[] s = { a, b, c, d };
+        Arrays.sort(s);
+        return s[0] + s[1] + s[2] + s[3];
+    }
+
+    private static long ratio(double side, double perimeter) {
+        return Math.round(side / perimeter * SIMILARITY_SCALE);
+    }
+
+    private static int compare(double[] x, double[] y) {
+        for (int i = 0; i < 4; i++) {
+            int cmp = Double.compare(x[i], y[i]);
+            if (cmp != 0) return cmp;
+        }
+        return 0;
+    }
+
+    // -0.0 and 0.0 are the same length
+    private static long bits(double v) {
+        return Double.doubleToLongBits(v == 0.0 ? 0.0 : v);
+    }
+}
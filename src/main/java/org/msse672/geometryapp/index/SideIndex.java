@@ -0,0 +1,372 @@
+package org.msse672.geometryapp.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory 4-dimensional index over (sideA, sideB, sideC, sideD) keyed by quad id.
+ *
+ * The bulk of the points live in an implicit, balanced k-d tree stored in flat primitive
+ * arrays (no node objects). New points go to an unindexed tail that is scanned linearly,
+ * and removed ids are tombstoned. When the tail or the tombstones grow past a fraction of
+ * the tree, everything is rebuilt in O(n log n), so inserts stay amortized cheap.
+ *
+ * Thread-safe: queries share a read lock, writes and rebuilds take the write lock.
+ */
+public class SideIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SideIndex.class);
+
+    private static final int DIMS = 4;
+    // The tail is always allowed to reach this size before a rebuild
+    private static final int MIN_TAIL = 1024;
+
+    /**
+     * A k-NN result: the id and its Euclidean distance to the query point.
+     */
+    public record Neighbor(long id, double distance) { }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Implicit k-d tree: subtree [lo, hi) has its splitting point at (lo + hi) >>> 1
+    private long[] treeIds = new long[0];
+    private double[] treePts = new double[0];
+    // Tree ids in ascending order, for membership checks on remove
+    private long[] sortedTreeIds = new long[0];
+
+    // Points added since the last rebuild
+    private long[] tailIds = new long[64];
+    private double[] tailPts = new double[64 * DIMS];
+    private int tailSize;
+
+    // Ids removed from the tree since the last rebuild
+    private final Set<Long> tombstones = new HashSet<>();
+
+    /**
+     * Adds a point. Ids are expected to be unique; use update() to move an existing id.
+     */
+    public void insert(long id, double a, double b, double c, double d) {
+        lock.writeLock().lock();
+        try {
+            appendTail(id, a, b, c, d);
+            maybeRebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves an id to new side lengths, or adds it if it is not indexed yet.
+     */
+    public void update(long id, double a, double b, double c, double d) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            appendTail(id, a, b, c, d);
+            maybeRebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            maybeRebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            treeIds = new long[0];
+            treePts = new double[0];
+            sortedTreeIds = new long[0];
+            tailSize = 0;
+            tombstones.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents with the given columns and builds the tree in one pass.
+     */
+    public void load(long[] ids, double[] a, double[] b, double[] c, double[] d, int n) {
+        long[] newIds = Arrays.copyOf(ids, n);
+        double[] newPts = new double[n * DIMS];
+        for (int i = 0; i < n; i++) {
+            newPts[i * DIMS] = a[i];
+            newPts[i * DIMS + 1] = b[i];
+            newPts[i * DIMS + 2] = c[i];
+            newPts[i * DIMS + 3] = d[i];
+        }
+        build(newIds, newPts, 0, n, 0);
+        long[] sorted = newIds.clone();
+        Arrays.sort(sorted);
+
+        lock.writeLock().lock();
+        try {
+            treeIds = newIds;
+            treePts = newPts;
+            sortedTreeIds = sorted;
+            tailSize = 0;
+            tombstones.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("SideIndex loaded with {} points", n);
+    }
+
+    /**
+     * Number of live points.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return treeIds.length - tombstones.size() + tailSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of points inside the range, at most limit of them, in no particular order.
+     */
+    public long[] range(SideRange range, int limit) {
+        lock.readLock().lock();
+        try {
+            IdCollector out = new IdCollector(limit);
+            rangeSearch(range, 0, treeIds.length, 0, out);
+            for (int i = 0; i < tailSize && !out.isFull(); i++) {
+                int p = i * DIMS;
+                if (range.contains(tailPts[p], tailPts[p + 1], tailPts[p + 2], tailPts[p + 3])) {
+                    out.add(tailIds[i]);
+                }
+            }
+            return out.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The k nearest points to (a, b, c, d), closest first.
+     */
+    public List<Neighbor> nearest(double a, double b, double c, double d, int k) {
+        if (k <= 0) return List.of();
+        double[] q = { a, b, c, d };
+        lock.readLock().lock();
+        try {
+            // Max-heap on squared distance so the current worst candidate is on top
+            PriorityQueue<Neighbor> heap = new PriorityQueue<>(k + 1, (x, y) -> Double.compare(y.distance(), x.distance()));
+            nearestSearch(q, k, 0, treeIds.length, 0, heap);
+            for (int i = 0; i < tailSize; i++) {
+                offer(heap, k, tailIds[i], dist2(q, tailPts, i * DIMS));
+            }
+            Neighbor[] result = new Neighbor[heap.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                Neighbor squared = heap.poll();
+                result[i] = new Neighbor(squared.id(), Math.sqrt(squared.distance()));
+            }
+            return List.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== Internals (callers hold the appropriate lock) ====================
+
+    private void appendTail(long id, double a, double b, double c, double d) {
+        if (tailSize == tailIds.length) {
+            tailIds = Arrays.copyOf(tailIds, tailSize * 2);
+            tailPts = Arrays.copyOf(tailPts, tailSize * 2 * DIMS);
+        }
+        int p = tailSize * DIMS;
+        tailIds[tailSize] = id;
+        tailPts[p] = a;
+        tailPts[p + 1] = b;
+        tailPts[p + 2] = c;
+        tailPts[p + 3] = d;
+        tailSize++;
+    }
+
+    private void removeLocked(long id) {
+        for (int i = 0; i < tailSize; i++) {
+            if (tailIds[i] == id) {
+                int last = tailSize - 1;
+                tailIds[i] = tailIds[last];
+                System.arraycopy(tailPts, last * DIMS, tailPts, i * DIMS, DIMS);
+                tailSize--;
+                return;
+            }
+        }
+        // Not in the tail; if it is in the tree, hide it until the next rebuild
+        if (Arrays.binarySearch(sortedTreeIds, id) >= 0) {
+            tombstones.add(id);
+        }
+    }
+
+    private void maybeRebuild() {
+        int treeSize = treeIds.length;
+        if (tailSize <= Math.max(MIN_TAIL, treeSize / 4) && tombstones.size() <= Math.max(MIN_TAIL, treeSize / 4)) {
+            return;
+        }
+        int live = treeSize - tombstones.size() + tailSize;
+        long[] ids = new long[live];
+        double[] pts = new double[live * DIMS];
+        int n = 0;
+        for (int i = 0; i < treeSize; i++) {
+            if (tombstones.isEmpty() || !tombstones.contains(treeIds[i])) {
+                ids[n] = treeIds[i];
+                System.arraycopy(treePts, i * DIMS, pts, n * DIMS, DIMS);
+                n++;
+            }
+        }
+        System.arraycopy(tailIds, 0, ids, n, tailSize);
+        System.arraycopy(tailPts, 0, pts, n * DIMS, tailSize * DIMS);
+        n += tailSize;
+
+        build(ids, pts, 0, n, 0);
+        treeIds = ids;
+        treePts = pts;
+        sortedTreeIds = ids.clone();
+        Arrays.sort(sortedTreeIds);
+        tailSize = 0;
+        tombstones.clear();
+        log.debug("SideIndex rebuilt with {} points", n);
+    }
+
+    private void rangeSearch(SideRange range, int lo, int hi, int depth, IdCollector out) {
+        if (lo >= hi || out.isFull()) return;
+        int mid = (lo + hi) >>> 1;
+        int dim = depth % DIMS;
+        int p = mid * DIMS;
+        double split = treePts[p + dim];
+
+        if (range.contains(treePts[p], treePts[p + 1], treePts[p + 2], treePts[p + 3])
+                && (tombstones.isEmpty() || !tombstones.contains(treeIds[mid]))) {
+            out.add(treeIds[mid]);
+        }
+        if (range.min(dim) <= split) rangeSearch(range, lo, mid, depth + 1, out);
+        if (range.max(dim) >= split) rangeSearch(range, mid + 1, hi, depth + 1, out);
+    }
+
+    private void nearestSearch(double[] q, int k, int lo, int hi, int depth, PriorityQueue<Neighbor> heap) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        int dim = depth % DIMS;
+        int p = mid * DIMS;
+
+        if (tombstones.isEmpty() || !tombstones.contains(treeIds[mid])) {
+            offer(heap, k, treeIds[mid], dist2(q, treePts, p));
+        }
+
+        double delta = q[dim] - treePts[p + dim];
+        int nearLo = delta <= 0 ? lo : mid + 1, nearHi = delta <= 0 ? mid : hi;
+        int farLo = delta <= 0 ? mid + 1 : lo, farHi = delta <= 0 ? hi : mid;
+
+        nearestSearch(q, k, nearLo, nearHi, depth + 1, heap);
+        // Only cross the splitting plane if it is closer than the current k-th best
+        if (heap.size() < k || delta * delta < heap.peek().distance()) {
+            nearestSearch(q, k, farLo, farHi, depth + 1, heap);
+        }
+    }
+
+    // While searching, heap entries carry the squared distance; sqrt is taken once at the end
+    private static void offer(PriorityQueue<Neighbor> heap, int k, long id, double d2) {
+        if (heap.size() < k) {
+            heap.add(new Neighbor(id, d2));
+        } else if (d2 < heap.peek().distance()) {
+            heap.poll();
+            heap.add(new Neighbor(id, d2));
+        }
+    }
+
+    private static double dist2(double[] q, double[] pts, int p) {
+        double da = q[0] - pts[p], db = q[1] - pts[p + 1], dc = q[2] - pts[p + 2], dd = q[3] - pts[p + 3];
+        return da * da + db * db + dc * dc + dd * dd;
+    }
+
+    /**
+     * Builds the implicit k-d tree over [lo, hi) by placing the median of the splitting
+     * dimension at the midpoint (quickselect), then recursing on each half.
+     */
+    private static void build(long[] ids, double[] pts, int lo, int hi, int depth) {
+        if (hi - lo <= 1) return;
+        int mid = (lo + hi) >>> 1;
+        int dim = depth % DIMS;
+        select(ids, pts, lo, hi - 1, mid, dim);
+        build(ids, pts, lo, mid, depth + 1);
+        build(ids, pts, mid + 1, hi, depth + 1);
+    }
+
+    // Hoare-style quickselect: afterwards pts[k] holds the k-th smallest value on dim,
+    // with everything in [left, k) <= it and everything in (k, right] >= it
+    private static void select(long[] ids, double[] pts, int left, int right, int k, int dim) {
+        while (right > left) {
+            double pivot = pts[((left + right) >>> 1) * DIMS + dim];
+            int i = left, j = right;
+            while (i <= j) {
+                while (pts[i * DIMS + dim] < pivot) i++;
+                while (pts[j * DIMS + dim] > pivot) j--;
+                if (i <= j) {
+                    swap(ids, pts, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+
+    private static void swap(long[] ids, double[] pts, int i, int j) {
+        long id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        for (int x = 0; x < DIMS; x++) {
+            double v = pts[i * DIMS + x];
+            pts[i * DIMS + x] = pts[j * DIMS + x];
+            pts[j * DIMS + x] = v;
+        }
+    }
+
+    /**
+     * Growable id buffer with an upper limit.
+     */
+    private static final class IdCollector {
+        private final int limit;
+        private long[] ids = new long[16];
+        private int size;
+
+        IdCollector(int limit) {
+            this.limit = limit;
+        }
+
+        boolean isFull() {
+            return size >= limit;
+        }
+
+        void add(long id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
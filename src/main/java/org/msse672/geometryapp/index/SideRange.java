@@ -0,0 +1,64 @@
+package org.msse672.geometryapp.index;
+
+/**
+ * Inclusive side-length bounds for a range search. Use infinities for open ends.
+ */
+public record SideRange(double minA, double maxA,
+                        double minB, double maxB,
+                        double minC, double maxC,
+                        double minD, double maxD) {
+
+    public static final SideRange ALL = new SideRange(
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    public SideRange {
+        if (minA > maxA || minB > maxB || minC > maxC || minD > maxD) {
+            throw new IllegalArgumentException("Range minimum must not exceed maximum.");
+        }
+    }
+
+    /**
+     * Builds a range from optional bounds; null means unbounded on that side.
+     */
+    public static SideRange of(Double minA, Double maxA, Double minB, Double maxB,
+                               Double minC, Double maxC, Double minD, Double maxD) {
+        return new SideRange(lo(minA), hi(maxA), lo(minB), hi(maxB), lo(minC), hi(maxC), lo(minD), hi(maxD));
+    }
+
+    public boolean contains(double a, double b, double c, double d) {
+        return a >= minA && a <= maxA
+                && b >= minB && b <= maxB
+                && c >= minC && c <= maxC
+                && d >= minD && d <= maxD;
+    }
+
+    /**
+     * Lower bound for dimension 0..3 (A..D).
+     */
+    public double min(int dim) {
+        return switch (dim) {
+            case 0 -> minA;
+            case 1 -> minB;
+            case 2 -> minC;
+            default -> minD;
+        };
+    }
+
+    /**
+     * Upper bound for dimension 0..3 (A..D).
+     */
+    public double max(int dim) {
+        return switch (dim) {
+            case 0 -> maxA;
+            case 1 -> maxB;
+            case 2 -> maxC;
+            default -> maxD;
+        };
+    }
+
+    private static double lo(Double v) { return v == null ? Double.NEGATIVE_INFINITY : v; }
+    private static double hi(Double v) { return v == null ? Double.POSITIVE_INFINITY : v; }
+}
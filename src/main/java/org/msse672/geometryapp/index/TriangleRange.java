@@ -0,0 +1,36 @@
+package org.msse672.geometryapp.index;
+
+/**
+ * Inclusive side-length bounds for triangle searches.
+ *
+ * Open ends are stored as +/-Double.MAX_VALUE rather than infinities so the bounds can be
+ * bound directly into SQL (MySQL has no infinite DOUBLE).
+ */
+public record TriangleRange(double minA, double maxA,
+                            double minB, double maxB,
+                            double minC, double maxC) {
+
+    public static final TriangleRange ALL = of(null, null, null, null, null, null);
+
+    public TriangleRange {
+        if (minA > maxA || minB > maxB || minC > maxC) {
+            throw new IllegalArgumentException("Range minimum must not exceed maximum.");
+        }
+    }
+
+    /**
+     * Builds a range from optional bounds; null means unbounded on that side.
+     */
+    public static TriangleRange of(Double minA, Double maxA, Double minB, Double maxB, Double minC, Double maxC) {
+        return new TriangleRange(lo(minA), hi(maxA), lo(minB), hi(maxB), lo(minC), hi(maxC));
+    }
+
+    public boolean contains(double a, double b, double c) {
+        return a >= minA && a <= maxA
+                && b >= minB && b <= maxB
+                && c >= minC && c <= maxC;
+    }
+
+    private static double lo(Double v) { return v == null ? -Double.MAX_VALUE : v; }
+    private static double hi(Double v) { return v == null ? Double.MAX_VALUE : v; }
+}
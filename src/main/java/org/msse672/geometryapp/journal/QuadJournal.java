@@ -0,0 +1,332 @@
+package org.msse672.geometryapp.journal;
+
+import org.msse672.geometryapp.model.QuadType;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead journal of quad submissions, written through memory-mapped windows.
+ *
+ * File layout: a 16-byte header (magic, version, record size) followed by fixed-size
+ * little-endian records:
+ *   0  id (long)         8  sideA  16 sideB  24 sideC  32 sideD (double)
+ *   40 timestamp millis  48 type code (byte)  49 kind (0 = quad, 1 = reset)
+ *   52 CRC32C of bytes 0..51 (int)
+ * Replay stops at the first record whose checksum does not match, which is where a crash
+ * tore the tail, and truncates the file there.
+ *
+ * Durability follows the FsyncPolicy: ALWAYS forces each record before append returns, GROUP
+ * has callers wait in awaitDurable until a background flush (every groupCommitInterval) covers
+ * their record, OS leaves write-back to the kernel and only forces on close.
+ */
+public class QuadJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadJournal.class);
+
+    public enum FsyncPolicy { ALWAYS, GROUP, OS }
+
+    static final int MAGIC = 0x514A4E4C; // "QJNL"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 56;
+    private static final int CRC_OFFSET = 52;
+    private static final byte KIND_QUAD = 0;
+    private static final byte KIND_RESET = 1;
+
+    // Records per mapped window (~56 MiB); records never straddle windows
+    static final int RECORDS_PER_WINDOW = 1 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final int recordsPerWindow;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final CRC32C crc = new CRC32C();
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private MappedByteBuffer window;
+    private long windowIndex = -1;
+    // Records written / records known to be on disk
+    private long written;
+    private long durable;
+    private Thread flusher;
+    private boolean replayed;
+    private volatile boolean closed;
+
+    public QuadJournal(Path file, FsyncPolicy policy, Duration groupCommitInterval) throws IOException {
+        this(file, policy, groupCommitInterval, RECORDS_PER_WINDOW);
+    }
+
+    QuadJournal(Path file, FsyncPolicy policy, Duration groupCommitInterval, int recordsPerWindow) throws IOException {
+        this.file = file;
+        this.policy = policy;
+        this.recordsPerWindow = recordsPerWindow;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            writeHeader();
+        } else {
+            checkHeader();
+        }
+        if (policy == FsyncPolicy.GROUP) {
+            long intervalNanos = Math.max(1, groupCommitInterval.toNanos());
+            flusher = Thread.ofPlatform().name("quad-journal-flush").daemon().start(() -> flushLoop(intervalNanos));
+        }
+    }
+
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Number of valid records, known after replay.
+     */
+    public long size() {
+        lock.lock();
+        try {
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==================== Replay ====================
+
+    /**
+     * Reads every intact record in order, then positions the journal to append after them.
+     * Must be called once, before the first append.
+     */
+    public void replay(Consumer<Quadrilateral> onQuad, Runnable onReset) throws IOException {
+        replay(0, onQuad, onReset);
+    }
+
+    /**
+     * Like replay(onQuad, onReset), but starts at record fromRecord, e.g. the first record not
+     * covered by a snapshot. Records are fixed-size, so the skipped prefix is never read.
+     * If the journal is shorter than fromRecord it is replayed from the start.
+     */
+    public void replay(long fromRecord, Consumer<Quadrilateral> onQuad, Runnable onReset) throws IOException {
+        lock.lock();
+        try {
+            long available = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+            ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE * 1024).order(ByteOrder.LITTLE_ENDIAN);
+            long n = fromRecord <= available ? Math.max(0, fromRecord) : 0;
+            long position = HEADER_SIZE + n * RECORD_SIZE;
+            scan:
+            while (n < available) {
+                buf.clear();
+                int toRead = (int) Math.min(buf.capacity(), (available - n) * RECORD_SIZE);
+                buf.limit(toRead);
+                while (buf.hasRemaining()) {
+                    if (channel.read(buf, position + buf.position()) < 0) break;
+                }
+                buf.flip();
+                while (buf.remaining() >= RECORD_SIZE) {
+                    int start = buf.position();
+                    if (!intact(buf, start)) break scan;
+                    long id = buf.getLong(start);
+                    if (buf.get(start + 49) == KIND_RESET) {
+                        onReset.run();
+                    } else {
+                        onQuad.accept(new Quadrilateral(id, buf.getDouble(start + 8), buf.getDouble(start + 16),
+                                buf.getDouble(start + 24), buf.getDouble(start + 32)));
+                    }
+                    buf.position(start + RECORD_SIZE);
+                    n++;
+                }
+                position += toRead;
+            }
+            // Drop the torn tail so stale records past it can never be replayed later
+            channel.truncate(HEADER_SIZE + n * RECORD_SIZE);
+            written = n;
+            durable = n;
+            replayed = true;
+            log.info("Replayed journal {} up to record {}", file, n);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean intact(ByteBuffer buf, int start) {
+        crc.reset();
+        crc.update(buf.slice(start, CRC_OFFSET));
+        return (int) crc.getValue() == buf.getInt(start + CRC_OFFSET);
+    }
+
+    // ==================== Append ====================
+
+    /**
+     * Appends a quad that already carries its id.
+     * @return the record's sequence number, for awaitDurable
+     */
+    public long append(Quadrilateral quad) {
+        if (quad.getId() == null) {
+            throw new IllegalArgumentException("Journaled quads must have an id.");
+        }
+        byte code = QuadType.classify(quad.getSideA(), quad.getSideB(), quad.getSideC(), quad.getSideD()).getCode();
+        return write(quad.getId(), quad.getSideA(), quad.getSideB(), quad.getSideC(), quad.getSideD(), code, KIND_QUAD);
+    }
+
+    /**
+     * Appends a reset marker.
+     */
+    public long appendReset() {
+        return write(0, 0, 0, 0, 0, (byte) 0, KIND_RESET);
+    }
+
+    private long write(long id, double a, double b, double c, double d, byte code, byte kind) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed.");
+            }
+            if (!replayed) {
+                throw new IllegalStateException("Journal must be replayed before appending.");
+            }
+            long seq = written;
+            MappedByteBuffer target = windowFor(seq);
+            int offset = (int) (seq % recordsPerWindow) * RECORD_SIZE;
+
+            scratch.clear();
+            scratch.putLong(id).putDouble(a).putDouble(b).putDouble(c).putDouble(d)
+                    .putLong(System.currentTimeMillis()).put(code).put(kind).putShort((short) 0);
+            crc.reset();
+            crc.update(scratch.array(), 0, CRC_OFFSET);
+            scratch.putInt((int) crc.getValue());
+            target.put(offset, scratch.array(), 0, RECORD_SIZE);
+            written = seq + 1;
+
+            if (policy == FsyncPolicy.ALWAYS) {
+                target.force(offset, RECORD_SIZE);
+                durable = written;
+            }
+            return seq;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to journal " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record with the given sequence number is on disk. Returns at once
+     * under ALWAYS (already forced) and OS (no guarantee requested).
+     */
+    public void awaitDurable(long seq) {
+        if (policy != FsyncPolicy.GROUP) return;
+        lock.lock();
+        try {
+            while (durable <= seq && !closed) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Maps the window holding record seq, forcing the previous one out first
+    private MappedByteBuffer windowFor(long seq) throws IOException {
+        long index = seq / recordsPerWindow;
+        if (index != windowIndex) {
+            if (window != null) {
+                window.force();
+            }
+            long start = HEADER_SIZE + index * recordsPerWindow * RECORD_SIZE;
+            window = channel.map(FileChannel.MapMode.READ_WRITE, start, (long) recordsPerWindow * RECORD_SIZE);
+            windowIndex = index;
+        }
+        return window;
+    }
+
+    // ==================== Flushing ====================
+
+    private void flushLoop(long intervalNanos) {
+        while (!closed) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(intervalNanos);
+            } catch (InterruptedException e) {
+                if (closed) return;
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Forces everything written so far and wakes waiting writers.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            if (durable < written && window != null) {
+                // Earlier windows were forced when the writer moved past them
+                window.force();
+                durable = written;
+            }
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            if (window != null) {
+                window.force();
+            }
+            durable = written;
+            closed = true;
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        channel.close();
+        log.info("Closed journal {} at {} records", file, written);
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+    }
+
+    private void checkHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) { }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != RECORD_SIZE) {
+            throw new IOException("Not a version " + VERSION + " quad journal: " + file);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.msse672.geometryapp.journal;
+
+import org.msse672.geometryapp.model.QuadType;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Periodic columnar snapshots of the in-memory quad store.
+ *
+ * File layout (little-endian): a 64-byte header (magic, version, row count, journal records
+ * covered, flags, current sides), then one column each of ids (long), sideA..sideD (double)
+ * and type codes (byte), then a CRC32C of everything before it. Snapshots are written to a
+ * temporary file and atomically renamed, so a crash mid-write leaves the previous one intact.
+ *
+ * The source supplies a Snapshot holding a stable view of the history (QuadrilateralSet views
+ * do not grow), so writers keep appending while the file is written. Loading memory-maps the
+ * file, so restart cost follows snapshot size; only journal records after journalRecords
+ * need replaying.
+ */
+public class QuadSnapshotStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadSnapshotStore.class);
+
+    static final int MAGIC = 0x51534E50; // "QSNP"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    private static final int FLAG_INITIALIZED = 1;
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    /**
+     * The store's state at one instant: history prefix, how much of the journal it covers,
+     * and the in-memory backend's current sides.
+     */
+    public record Snapshot(List<Quadrilateral> quads, long journalRecords, boolean initialized,
+                           double sideA, double sideB, double sideC, double sideD) { }
+
+    private final Path file;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+    private Supplier<Snapshot> source;
+    // Row count and journal position of the last snapshot written, to skip unchanged ones
+    private long lastRows = -1;
+    private long lastJournalRecords = -1;
+    private boolean lastInitialized;
+
+    public QuadSnapshotStore(Path file, Duration interval) {
+        this.file = file;
+        this.interval = interval;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Starts periodic snapshots from source; a final one is taken on close.
+     */
+    public synchronized void start(Supplier<Snapshot> source) {
+        this.source = source;
+        if (interval.isZero() || interval.isNegative() || scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("quad-snapshot").daemon().factory());
+        long ms = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Quad snapshot to {} failed: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Takes a snapshot now unless nothing changed since the last one.
+     * @return true if a file was written
+     */
+    public synchronized boolean snapshot() throws IOException {
+        if (source == null) return false;
+        Snapshot snapshot = source.get();
+        if (snapshot.quads().size() == lastRows && snapshot.journalRecords() == lastJournalRecords
+                && snapshot.initialized() == lastInitialized) {
+            return false;
+        }
+        write(snapshot);
+        lastRows = snapshot.quads().size();
+        lastJournalRecords = snapshot.journalRecords();
+        lastInitialized = snapshot.initialized();
+        return true;
+    }
+
+    // ==================== Write ====================
+
+    /**
+     * Writes the snapshot to a temporary file and renames it over the current one.
+     */
+    public synchronized void write(Snapshot snapshot) throws IOException {
+        long started = System.nanoTime();
+        List<Quadrilateral> quads = snapshot.quads();
+        int n = quads.size();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ColumnWriter out = new ColumnWriter(channel);
+            out.buf.putInt(MAGIC).putInt(VERSION).putLong(n).putLong(snapshot.journalRecords())
+                    .putInt(snapshot.initialized() ? FLAG_INITIALIZED : 0).putInt(0)
+                    .putDouble(snapshot.sideA()).putDouble(snapshot.sideB())
+                    .putDouble(snapshot.sideC()).putDouble(snapshot.sideD());
+            for (int i = 0; i < n; i++) out.ensure(8).putLong(quads.get(i).getId());
+            for (int i = 0; i < n; i++) out.ensure(8).putDouble(quads.get(i).getSideA());
+            for (int i = 0; i < n; i++) out.ensure(8).putDouble(quads.get(i).getSideB());
+            for (int i = 0; i < n; i++) out.ensure(8).putDouble(quads.get(i).getSideC());
+            for (int i = 0; i < n; i++) out.ensure(8).putDouble(quads.get(i).getSideD());
+            for (int i = 0; i < n; i++) {
+                Quadrilateral q = quads.get(i);
+                out.ensure(1).put(QuadType.classify(q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD()).getCode());
+            }
+            out.finish();
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote quad snapshot {} ({} rows, journal record {}) in {} ms", file, n,
+                snapshot.journalRecords(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Buffers column output, feeding every byte through the checksum before it is written.
+     */
+    private static final class ColumnWriter {
+        final ByteBuffer buf = ByteBuffer.allocate(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        final CRC32C crc = new CRC32C();
+        final FileChannel channel;
+
+        ColumnWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ByteBuffer ensure(int bytes) throws IOException {
+            if (buf.remaining() < bytes) drain();
+            return buf;
+        }
+
+        void drain() throws IOException {
+            buf.flip();
+            crc.update(buf.duplicate());
+            while (buf.hasRemaining()) channel.write(buf);
+            buf.clear();
+        }
+
+        void finish() throws IOException {
+            drain();
+            buf.putInt((int) crc.getValue()).flip();
+            while (buf.hasRemaining()) channel.write(buf);
+        }
+    }
+
+    // ==================== Load ====================
+
+    /**
+     * Maps and verifies the snapshot file.
+     * @return the snapshot, or empty if there is none or it fails verification
+     */
+    public Optional<Snapshot> load() throws IOException {
+        if (!Files.exists(file)) return Optional.empty();
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                // One mapping covers at most 2 GiB, about 52 million rows
+                throw new IOException("Quad snapshot " + file + " is too large to map: " + length + " bytes");
+            }
+            if (length < HEADER_SIZE + 4) {
+                log.warn("Ignoring truncated quad snapshot {}", file);
+                return Optional.empty();
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+
+            CRC32C crc = new CRC32C();
+            crc.update(map.slice(0, (int) (length - 4)));
+            if ((int) crc.getValue() != map.getInt((int) (length - 4))) {
+                log.warn("Ignoring quad snapshot {} with bad checksum", file);
+                return Optional.empty();
+            }
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                log.warn("Ignoring quad snapshot {} with unknown format", file);
+                return Optional.empty();
+            }
+            int n = Math.toIntExact(map.getLong(8));
+            if (length != HEADER_SIZE + 41L * n + 4) {
+                log.warn("Ignoring quad snapshot {} with wrong length", file);
+                return Optional.empty();
+            }
+            long journalRecords = map.getLong(16);
+            boolean initialized = (map.getInt(24) & FLAG_INITIALIZED) != 0;
+
+            int ids = HEADER_SIZE;
+            int a = ids + 8 * n, b = a + 8 * n, c = b + 8 * n, d = c + 8 * n;
+            List<Quadrilateral> quads = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                quads.add(new Quadrilateral(map.getLong(ids + 8 * i), map.getDouble(a + 8 * i),
+                        map.getDouble(b + 8 * i), map.getDouble(c + 8 * i), map.getDouble(d + 8 * i)));
+            }
+            Snapshot snapshot = new Snapshot(quads, journalRecords, initialized,
+                    map.getDouble(32), map.getDouble(40), map.getDouble(48), map.getDouble(56));
+            synchronized (this) {
+                lastRows = n;
+                lastJournalRecords = journalRecords;
+                lastInitialized = initialized;
+            }
+            log.info("Loaded quad snapshot {} ({} rows) in {} ms", file, n, (System.nanoTime() - started) / 1_000_000);
+            return Optional.of(snapshot);
+        }
+    }
+
+    /**
+     * Stops the schedule and takes a final snapshot.
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService s;
+        synchronized (this) {
+            s = scheduler;
+            scheduler = null;
+        }
+        if (s != null) {
+            s.shutdownNow();
+        }
+        snapshot();
+    }
+}
@@ -0,0 +1,93 @@
+package org.msse672.geometryapp.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Batch classifier over structure-of-arrays side lengths.
+ *
+ * Produces one QuadType code per row, using the incubating Vector API when the
+ * jdk.incubator.vector module is present (--add-modules jdk.incubator.vector) and a
+ * scalar loop otherwise. Both paths give the same codes as Quadrilateral.getType().
+ */
+public final class QuadBatchClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuadBatchClassifier.class);
+
+    // Set -Dgeometry.vector.disabled=true to force the scalar path
+    private static final boolean VECTOR_ENABLED = detectVectorSupport();
+
+    private QuadBatchClassifier() { }
+
+    /**
+     * Classifies rows [0, a.length) of the four side arrays.
+     * @return type codes (see QuadType.getCode())
+     */
+    public static byte[] classify(double[] a, double[] b, double[] c, double[] d) {
+        int n = a.length;
+        if (b.length != n || c.length != n || d.length != n) {
+            throw new IllegalArgumentException("Side arrays must all have the same length.");
+        }
+        byte[] out = new byte[n];
+        classify(a, b, c, d, out, n);
+        return out;
+    }
+
+    /**
+     * Classifies the first n rows into out. Lets callers reuse buffers across chunks.
+     */
+    public static void classify(double[] a, double[] b, double[] c, double[] d, byte[] out, int n) {
+        int done = VECTOR_ENABLED ? QuadVectorKernel.classify(a, b, c, d, out, n) : 0;
+        classifyScalar(a, b, c, d, out, done, n);
+    }
+
+    /**
+     * Convenience for entity lists: splits the sides into columns and classifies them.
+     */
+    public static byte[] classify(List<Quadrilateral> quads) {
+        int n = quads.size();
+        double[] a = new double[n], b = new double[n], c = new double[n], d = new double[n];
+        for (int i = 0; i < n; i++) {
+            Quadrilateral q = quads.get(i);
+            a[i] = q.getSideA();
+            b[i] = q.getSideB();
+            c[i] = q.getSideC();
+            d[i] = q.getSideD();
+        }
+        return classify(a, b, c, d);
+    }
+
+    /**
+     * True when the SIMD kernel is in use.
+     */
+    public static boolean isVectorized() {
+        return VECTOR_ENABLED;
+    }
+
+    static void classifyScalar(double[] a, double[] b, double[] c, double[] d, byte[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = QuadType.classify(a[i], b[i], c[i], d[i]).getCode();
+        }
+    }
+
+    private static boolean detectVectorSupport() {
+        if (Boolean.getBoolean("geometry.vector.disabled")) {
+            logger.info("Vector API disabled by geometry.vector.disabled; using scalar classification.");
+            return false;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            logger.info("jdk.incubator.vector not present; using scalar classification.");
+            return false;
+        }
+        try {
+            int lanes = QuadVectorKernel.lanes();
+            logger.info("Vector API classification enabled ({} double lanes).", lanes);
+            return true;
+        } catch (LinkageError e) {
+            logger.warn("Vector API unavailable ({}); using scalar classification.", e.toString());
+            return false;
+        }
+    }
+}
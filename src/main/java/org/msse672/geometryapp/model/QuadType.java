@@ -0,0 +1,68 @@
+package org.msse672.geometryapp.model;
+
+/**
+ * Compact type codes for quadrilateral classification.
+ *
+ * The label matches the string returned by Quadrilateral.getType() for valid shapes.
+ * INVALID covers every "Invalid Quadrilateral: ..." result; the exact message still
+ * comes from Quadrilateral.validate().
+ */
+public enum QuadType {
+    INVALID((byte) 0, "Invalid Quadrilateral"),
+    SQUARE((byte) 1, "Square"),
+    RECTANGLE((byte) 2, "Rectangle"),
+    RHOMBUS((byte) 3, "Rhombus"),
+    PARALLELOGRAM((byte) 4, "Parallelogram"),
+    KITE((byte) 5, "Kite"),
+    GENERIC((byte) 6, "Generic Quadrilateral");
+
+    private static final QuadType[] BY_CODE = values();
+
+    private final byte code;
+    private final String label;
+
+    QuadType(byte code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public byte getCode() { return code; }
+    public String getLabel() { return label; }
+
+    public static QuadType fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown quadrilateral type code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Maps a Quadrilateral.getType() string back to its code.
+     */
+    public static QuadType fromLabel(String label) {
+        if (label == null || label.startsWith(INVALID.label)) return INVALID;
+        for (QuadType t : BY_CODE) {
+            if (t.label.equals(label)) return t;
+        }
+        throw new IllegalArgumentException("Unknown quadrilateral type: " + label);
+    }
+
+    /**
+     * Scalar classification with the same precedence as Quadrilateral.getType(), without logging.
+     */
+    public static QuadType classify(double sideA, double sideB, double sideC, double sideD) {
+        if (sideA <= 0 || sideB <= 0 || sideC <= 0 || sideD <= 0
+                || (sideA + sideB + sideC) <= sideD
+                || (sideA + sideB + sideD) <= sideC
+                || (sideA + sideC + sideD) <= sideB
+                || (sideB + sideC + sideD) <= sideA) {
+            return INVALID;
+        }
+        if (Quadrilateral.allSidesEqual(sideA, sideB, sideC, sideD)) return SQUARE;
+        if (Quadrilateral.isRectangle(sideA, sideB, sideC, sideD)) return RECTANGLE;
+        if (Quadrilateral.isRhombus(sideA, sideB, sideC, sideD)) return RHOMBUS;
+        if (Quadrilateral.isParallelogram(sideA, sideB, sideC, sideD)) return PARALLELOGRAM;
+        if (Quadrilateral.isKite(sideA, sideB, sideC, sideD)) return KITE;
+        return GENERIC;
+    }
+}
@@ -0,0 +1,87 @@
+package org.msse672.geometryapp.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernel for QuadBatchClassifier. Only loaded once the incubator module is known to exist.
+ *
+ * Each lane evaluates the positivity check, the four "three sides > fourth" sums and the
+ * equality masks, then blends type codes in reverse precedence so the result matches
+ * the if-chain in Quadrilateral.getType().
+ */
+final class QuadVectorKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private static final double INVALID = QuadType.INVALID.getCode();
+    private static final double SQUARE = QuadType.SQUARE.getCode();
+    private static final double RECTANGLE = QuadType.RECTANGLE.getCode();
+    private static final double PARALLELOGRAM = QuadType.PARALLELOGRAM.getCode();
+    private static final double KITE = QuadType.KITE.getCode();
+    private static final double GENERIC = QuadType.GENERIC.getCode();
+
+    private QuadVectorKernel() { }
+
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * Classifies whole vectors from the start of the arrays.
+     * @return number of rows written; the caller finishes the tail with the scalar loop
+     */
+    static int classify(double[] a, double[] b, double[] c, double[] d, byte[] out, int n) {
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(n);
+        double[] codes = new double[lanes];
+
+        for (int i = 0; i < bound; i += lanes) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, i);
+            DoubleVector vc = DoubleVector.fromArray(SPECIES, c, i);
+            DoubleVector vd = DoubleVector.fromArray(SPECIES, d, i);
+
+            // Positivity and the four inequality sums (same addition order as the scalar check)
+            DoubleVector ab = va.add(vb);
+            VectorMask<Double> invalid = va.compare(VectorOperators.LE, 0)
+                    .or(vb.compare(VectorOperators.LE, 0))
+                    .or(vc.compare(VectorOperators.LE, 0))
+                    .or(vd.compare(VectorOperators.LE, 0))
+                    .or(ab.add(vc).compare(VectorOperators.LE, vd))
+                    .or(ab.add(vd).compare(VectorOperators.LE, vc))
+                    .or(va.add(vc).add(vd).compare(VectorOperators.LE, vb))
+                    .or(vb.add(vc).add(vd).compare(VectorOperators.LE, va));
+
+            // Equality masks
+            VectorMask<Double> aEqB = va.compare(VectorOperators.EQ, vb);
+            VectorMask<Double> bEqC = vb.compare(VectorOperators.EQ, vc);
+            VectorMask<Double> cEqD = vc.compare(VectorOperators.EQ, vd);
+            VectorMask<Double> aEqC = va.compare(VectorOperators.EQ, vc);
+            VectorMask<Double> bEqD = vb.compare(VectorOperators.EQ, vd);
+            VectorMask<Double> dEqA = vd.compare(VectorOperators.EQ, va);
+
+            VectorMask<Double> square = aEqB.and(bEqC).and(cEqD);
+            VectorMask<Double> parallelogram = aEqC.and(bEqD);
+            VectorMask<Double> rectangle = parallelogram.andNot(aEqB);
+            VectorMask<Double> kite = aEqB.and(cEqD).andNot(aEqC)
+                    .or(bEqC.and(dEqA).andNot(bEqD));
+
+            // Lowest precedence first; later blends win. Rhombus is shadowed by Square.
+            DoubleVector code = DoubleVector.broadcast(SPECIES, GENERIC)
+                    .blend(KITE, kite)
+                    .blend(PARALLELOGRAM, parallelogram)
+                    .blend(RECTANGLE, rectangle)
+                    .blend(SQUARE, square)
+                    .blend(INVALID, invalid);
+
+            code.intoArray(codes, 0);
+            for (int l = 0; l < lanes; l++) {
+                out[i + l] = (byte) codes[l];
+            }
+        }
+        return bound;
+    }
+}
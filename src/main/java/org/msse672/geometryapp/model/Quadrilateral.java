@@ -1,6 +1,9 @@
 package org.msse672.geometryapp.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,11 +16,21 @@ import org.slf4j.LoggerFactory;
  *
  * A quadrilateral is valid if and only if the sum of any three sides
  * is strictly greater than the remaining side.
+ *
+ * Rows are kept in the "quads" second-level cache region (sized in application.conf).
+ * Rows at or below quad_epoch.reset_through_id were reset and are hidden from every query
+ * until they are purged (see QuadResetEpoch).
  */
 
 @Entity
 @Table(name="quads")
+@SQLRestriction(Quadrilateral.LIVE_ROWS)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "quads")
 public class Quadrilateral {
+    // SQL condition selecting the rows that have not been reset; "id" must be a quads.id column
+    public static final String LIVE_ROWS = "id > (SELECT e.reset_through_id FROM quad_epoch e WHERE e.id = 1)";
+
     // Id is used for persistence (e.g. database)
     // GeneratedValue with IDENTITY strategy allows the database to auto‑generate unique IDs
     @Id
@@ -49,7 +62,7 @@ public class Quadrilateral {
         this.sideB = sideB;
         this.sideC = sideC;
         this.sideD = sideD;
-        this.type = getType(); // Auto-calculate upon construction
+        this.type = classify(); // Auto-calculate upon construction
     }
 
     // Used for JDBC or other logic where ID is provided
@@ -59,7 +72,7 @@ public class Quadrilateral {
         this.sideB = sideB;
         this.sideC = sideC;
         this.sideD = sideD;
-        this.type = getType();
+        this.type = classify();
     }
 
     // Used for Dummy or testing purposes where type is also provided
@@ -76,18 +89,26 @@ public class Quadrilateral {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
-    //Getters and Setters for side lengths
+    //Getters and Setters for side lengths; changing a side re-classifies
     public double getSideA() { return sideA; }
-    public void setSideA(double sideA) { this.sideA = sideA; }
+    public void setSideA(double sideA) { this.sideA = sideA; this.type = classify(); }
     public double getSideB() { return sideB; }
-    public void setSideB(double sideB) { this.sideB = sideB; }
+    public void setSideB(double sideB) { this.sideB = sideB; this.type = classify(); }
     public double getSideC() { return sideC; }
-    public void setSideC(double sideC) { this.sideC = sideC; }
+    public void setSideC(double sideC) { this.sideC = sideC; this.type = classify(); }
     public double getSideD() { return sideD; }
-    public void setSideD(double sideD) { this.sideD = sideD; }
+    public void setSideD(double sideD) { this.sideD = sideD; this.type = classify(); }
 
-    // Getter and setter for type
+    // Getter and setter for type: the stored type, classified from the sides only when unset
     public String getType() {
+        return type != null ? type : classify();
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    private String classify() {
         String err = validate(sideA, sideB, sideC, sideD);
         if (err != null) return "Invalid Quadrilateral: " + err + ".";
         if (allSidesEqual(sideA, sideB, sideC, sideD)) return "Square";
@@ -98,10 +119,6 @@ public class Quadrilateral {
         return "Generic Quadrilateral";
     }
 
-    public void setType(String type) {
-        this.type = type;
-    }
-
 //    public String getType() {
 //        String err = validate(sideA, sideB, sideC, sideD);
 //        if (err != null) {
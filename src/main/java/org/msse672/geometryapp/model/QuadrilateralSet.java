@@ -3,14 +3,32 @@ package org.msse672.geometryapp.model;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Collection;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Append-only history of submitted quadrilaterals.
+ *
+ * Entries live in fixed-size chunks that are never moved once written, and the entry count is
+ * published last, so getAll() can hand out a stable view of the first n entries in O(1) while
+ * writers keep appending. That view is what background snapshots serialize.
+ */
 @Component
 public class QuadrilateralSet {
     private static final Logger logger = LoggerFactory.getLogger(QuadrilateralSet.class);
-    private final List<Quadrilateral> history = new ArrayList<>();
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Replaced wholesale by reset(), so a view never mixes entries from before and after
+    private volatile Store store = new Store();
+
+    // Sequential ids so in-memory history can be paged like the database backends
+    private final AtomicLong idGenerator = new AtomicLong(1);
 
     public QuadrilateralSet() {
         logger.info("QuadrilateralSet created.");
@@ -19,28 +37,81 @@ public class QuadrilateralSet {
     /**
      * Adds a quadrilateral to the history.
      * If the quadrilateral is null, it will not be added.
+     * Quadrilaterals without an id are assigned the next sequential id; an explicit id
+     * (e.g. from nextId() or a journal replay) moves the generator past it.
      *
      * @param quad the quadrilateral to add
      */
     public void addQuadrilateral(Quadrilateral quad) {
         if (quad != null) {
-            history.add(quad);
+            append(quad);
             logger.info("Quadrilateral added: {}", quad);
         }
     }
 
     /**
-     * Returns an unmodifiable view of all submitted quadrilaterals.
+     * Adds quadrilaterals in order without per-entry logging, for restores and bulk imports.
+     */
+    public void addAll(Collection<Quadrilateral> quads) {
+        for (Quadrilateral quad : quads) {
+            append(quad);
+        }
+        logger.info("Added {} quadrilaterals in bulk. Count: {}", quads.size(), count());
+    }
+
+    private synchronized void append(Quadrilateral quad) {
+        if (quad.getId() == null) {
+            quad.setId(idGenerator.getAndIncrement());
+        } else {
+            idGenerator.accumulateAndGet(quad.getId() + 1, Math::max);
+        }
+        Store s = store;
+        int n = s.size;
+        int chunk = n >>> CHUNK_BITS;
+        Quadrilateral[][] cs = s.chunks;
+        if (chunk == cs.length) {
+            Quadrilateral[][] grown = new Quadrilateral[cs.length * 2][];
+            System.arraycopy(cs, 0, grown, 0, cs.length);
+            cs = grown;
+            s.chunks = cs;
+        }
+        if (cs[chunk] == null) {
+            cs[chunk] = new Quadrilateral[CHUNK_SIZE];
+        }
+        cs[chunk][n & CHUNK_MASK] = quad;
+        // Publishes the entry (and any grown directory) to readers
+        s.size = n + 1;
+    }
+
+    /**
+     * Reserves the next sequential id, for callers that must know it before adding.
+     */
+    public long nextId() {
+        return idGenerator.getAndIncrement();
+    }
+
+    /**
+     * Returns an unmodifiable view of all quadrilaterals submitted so far.
+     * Later additions do not show up in an existing view.
      */
     public List<Quadrilateral> getAll() {
-        logger.debug("Retrieving all quadrilaterals. Count: {}", history.size());
-        return Collections.unmodifiableList(history);
+        View view = view();
+        logger.debug("Retrieving all quadrilaterals. Count: {}", view.size());
+        return view;
+    }
+
+    private View view() {
+        Store s = store;
+        // Size first: any directory read afterwards covers at least that many entries
+        int n = s.size;
+        return new View(s.chunks, n);
     }
 
     /**
      * Returns the last submitted quadrilateral, or null if none exist.
      */
     public Quadrilateral getLast() {
+        View history = view();
         if (history.isEmpty()) {
             logger.warn("No quadrilaterals found in history.");
             return null;
@@ -51,18 +122,94 @@ public class QuadrilateralSet {
     }
 
     /**
-     * Clears all quadrilaterals from the history.
+     * Returns up to limit quadrilaterals with an id greater than afterId, in id order.
+     * Ids are assigned in insertion order, so the start position is found by binary search.
+     */
+    public List<Quadrilateral> getAfterId(long afterId, int limit) {
+        View history = view();
+        int lo = startAfter(history, afterId);
+        int end = (int) Math.min(history.size(), (long) lo + limit);
+        return List.copyOf(history.subList(lo, end));
+    }
+
+    /**
+     * Like getAll(), but only the quadrilaterals with an id greater than afterId. Nothing is copied.
+     */
+    public List<Quadrilateral> viewAfterId(long afterId) {
+        View history = view();
+        return history.subList(startAfter(history, afterId), history.size());
+    }
+
+    private static int startAfter(View history, long afterId) {
+        int lo = 0, hi = history.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Long id = history.get(mid).getId();
+            if (id != null && id <= afterId) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the quadrilateral with the given id, or null if it is not in the history.
      */
-    public void reset() {
+    public Quadrilateral getById(long id) {
+        View history = view();
+        int lo = 0, hi = history.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            Long midId = history.get(mid).getId();
+            if (midId == null || midId < id) lo = mid + 1;
+            else if (midId > id) hi = mid - 1;
+            else return history.get(mid);
+        }
+        return null;
+    }
+
+    /**
+     * Clears all quadrilaterals from the history. Views taken earlier keep their contents.
+     */
+    public synchronized void reset() {
         logger.info("Resetting quadrilateral history.");
-        history.clear();
+        store = new Store();
     }
 
     /**
      * Returns the total number of stored quads (for stats or tests).
      */
     public int count() {
-        return history.size();
+        return store.size;
     }
-}
 
+    private static final class Store {
+        // Written only under the QuadrilateralSet monitor; size is written after the entry it covers
+        volatile Quadrilateral[][] chunks = new Quadrilateral[16][];
+        volatile int size;
+    }
+
+    /**
+     * Fixed-length view over the chunks as they were when it was taken.
+     */
+    private static final class View extends AbstractList<Quadrilateral> implements RandomAccess {
+        private final Quadrilateral[][] chunks;
+        private final int size;
+
+        View(Quadrilateral[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        public Quadrilateral get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.msse672.geometryapp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+/**
+ * A stored triangle classification.
+ *
+ * Triangle stays the plain classification model; this is the persistent row, with the
+ * type kept as a one-byte TriangleType code computed once at insert time.
+ */
+@Entity
+@Table(name = "triangles")
+public class TriangleRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private double sideA;
+
+    @Column(nullable = false)
+    private double sideB;
+
+    @Column(nullable = false)
+    private double sideC;
+
+    @Column(name = "type_code", nullable = false)
+    private byte typeCode;
+
+    // Default constructor for Hibernate
+    public TriangleRecord() {
+    }
+
+    public TriangleRecord(Long id, double sideA, double sideB, double sideC, byte typeCode) {
+        this.id = id;
+        this.sideA = sideA;
+        this.sideB = sideB;
+        this.sideC = sideC;
+        this.typeCode = typeCode;
+    }
+
+    // Classifies on construction
+    public TriangleRecord(double sideA, double sideB, double sideC) {
+        this(null, sideA, sideB, sideC, TriangleType.classify(sideA, sideB, sideC).getCode());
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public double getSideA() { return sideA; }
+    public double getSideB() { return sideB; }
+    public double getSideC() { return sideC; }
+
+    @JsonIgnore
+    public byte getTypeCode() { return typeCode; }
+
+    public String getType() {
+        return TriangleType.fromCode(typeCode).getLabel();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TriangleRecord{id=%d, sideA=%.2f, sideB=%.2f, sideC=%.2f, type=%s}",
+                id, sideA, sideB, sideC, TriangleType.fromCode(typeCode));
+    }
+}
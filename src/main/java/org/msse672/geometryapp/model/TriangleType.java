@@ -0,0 +1,56 @@
+package org.msse672.geometryapp.model;
+
+/**
+ * Compact type codes for triangle classification.
+ *
+ * The label is exactly the string returned by Triangle.getType(), so stored codes can be
+ * turned back into the API's responses without re-classifying.
+ */
+public enum TriangleType {
+    INVALID_INPUT((byte) 0, "Invalid user input triangle sides. Please enter valid sides. x < 0"),
+    NOT_A_TRIANGLE((byte) 1, "Not a Triangle. Invalid sides based on the Triangle Inequality Theorem."),
+    EQUILATERAL((byte) 2, "Type of Triangle: Equilateral Triangle"),
+    ISOSCELES((byte) 3, "Type of Triangle: Isosceles Triangle"),
+    SCALENE((byte) 4, "Type of Triangle: Scalene Triangle");
+
+    private static final TriangleType[] BY_CODE = values();
+
+    private final byte code;
+    private final String label;
+
+    TriangleType(byte code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public byte getCode() { return code; }
+    public String getLabel() { return label; }
+
+    public static TriangleType fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown triangle type code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Looks a type up by enum name, case-insensitively (e.g. "scalene").
+     */
+    public static TriangleType fromName(String name) {
+        for (TriangleType t : BY_CODE) {
+            if (t.name().equalsIgnoreCase(name)) return t;
+        }
+        throw new IllegalArgumentException("Unknown triangle type: " + name);
+    }
+
+    /**
+     * Same decision order as Triangle.getType(), returning the code instead of the message.
+     */
+    public static TriangleType classify(double sideA, double sideB, double sideC) {
+        if (!Triangle.inputCheck(sideA, sideB, sideC)) return INVALID_INPUT;
+        if (!Triangle.isValidTriangle(sideA, sideB, sideC)) return NOT_A_TRIANGLE;
+        if (sideA == sideB && sideB == sideC) return EQUILATERAL;
+        if (sideA == sideB || sideB == sideC || sideC == sideA) return ISOSCELES;
+        return SCALENE;
+    }
+}
@@ -1,10 +1,79 @@
 package org.msse672.geometryapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.msse672.geometryapp.model.Quadrilateral;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface QuadRepository  extends JpaRepository<Quadrilateral, Long> {
     // This interface extends JpaRepository to provide CRUD operations for Quadrilateral entities
+
+    // Rows fetched per round trip by the list queries
+    String FETCH_SIZE = "500";
+
+    // Quads created at or after since, oldest first. Native because created_at is not mapped on the
+    // entity; the created_at predicate reads idx_quads_created
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT id, sideA, sideB, sideC, sideD, type FROM quads WHERE created_at >= :since AND "
+            + Quadrilateral.LIVE_ROWS + " ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Quadrilateral> findCreatedSince(@Param("since") Timestamp since, @Param("limit") int limit);
+
+    // Query-cached: repeated history/stats reads skip the database until Hibernate writes to quads.
+    // Read-only entities keep no dirty-checking snapshot.
+    @Override
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE)
+    })
+    List<Quadrilateral> findAll();
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    long count();
+
+    // History as Quadrilaterals built straight from the selected columns (constructor projection):
+    // the results are plain objects, so nothing enters the persistence context or the entity cache.
+    // Not query-cached: a cached projection holds every row's values, not an id list
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("select new org.msse672.geometryapp.model.Quadrilateral(q.id, q.sideA, q.sideB, q.sideC, q.sideD, q.type)"
+            + " from Quadrilateral q order by q.id")
+    List<Quadrilateral> findAllProjected();
+
+    // Same projection for one stored type, read from the (type, id) covering index
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("select new org.msse672.geometryapp.model.Quadrilateral(q.id, q.sideA, q.sideB, q.sideC, q.sideD, q.type)"
+            + " from Quadrilateral q where q.type = :type order by q.id")
+    List<Quadrilateral> findProjectedByType(@Param("type") String type);
+
+    // Newest quad, read backwards along the primary key
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Optional<Quadrilateral> findFirstByOrderByIdDesc();
+
+    // Row count per stored type, without loading any entity
+    @Transactional(readOnly = true)
+    @Query("select q.type as type, count(q) as total from Quadrilateral q group by q.type")
+    List<QuadTypeCount> countGroupedByType();
+
+    // Largest single side, or null when there are no quads
+    @Transactional(readOnly = true)
+    @Query("select max(greatest(q.sideA, q.sideB, q.sideC, q.sideD)) from Quadrilateral q")
+    Double findLargestSide();
 }
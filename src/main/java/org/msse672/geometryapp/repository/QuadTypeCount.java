@@ -0,0 +1,9 @@
+package org.msse672.geometryapp.repository;
+
+/**
+ * Read-only projection of one row of QuadRepository.countGroupedByType().
+ */
+public interface QuadTypeCount {
+    String getType();
+    long getTotal();
+}
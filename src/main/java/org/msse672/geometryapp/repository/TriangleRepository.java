@@ -0,0 +1,31 @@
+package org.msse672.geometryapp.repository;
+
+import org.msse672.geometryapp.model.TriangleRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TriangleRepository extends JpaRepository<TriangleRecord, Long> {
+
+    // Keyset page of triangles after the given id (limit taken from the Pageable size)
+    List<TriangleRecord> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Counts per stored type code, as [typeCode, count] rows
+    @Query("SELECT t.typeCode, COUNT(t) FROM TriangleRecord t GROUP BY t.typeCode")
+    List<Object[]> countByTypeCode();
+
+    // Side-range search; typeCode -1 matches every type
+    @Query("SELECT t FROM TriangleRecord t WHERE (:typeCode = -1 OR t.typeCode = :typeCode)"
+            + " AND t.sideA BETWEEN :minA AND :maxA AND t.sideB BETWEEN :minB AND :maxB AND t.sideC BETWEEN :minC AND :maxC"
+            + " ORDER BY t.id")
+    List<TriangleRecord> search(@Param("typeCode") byte typeCode,
+                                @Param("minA") double minA, @Param("maxA") double maxA,
+                                @Param("minB") double minB, @Param("maxB") double maxB,
+                                @Param("minC") double minC, @Param("maxC") double maxC,
+                                Pageable pageable);
+}
@@ -0,0 +1,242 @@
+package org.msse672.geometryapp.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process change feed for a QuadService backend: every write is appended to a fixed-size
+ * ring of recent changes, numbered by a sequence that starts at 1 when the backend starts.
+ * A random log id tells this run's sequence apart from earlier runs', so event ids
+ * ("<logId>-<seq>") handed out before a restart are recognised rather than replayed against.
+ *
+ * Subscribers get a bounded queue, first filled with the buffered changes after their cursor.
+ * Publishing never waits for a subscriber: one whose queue is full is dropped, and can
+ * reconnect from the last sequence it received as long as the ring still holds what follows.
+ *
+ * Inside a transaction the change is published only after commit, like WriteGeneration.
+ */
+public final class QuadChangeLog {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    public enum Kind { INSERT, UPDATE, DELETE, RESET, IMPORT, EXPIRE }
+
+    /**
+     * One change. quad is set for INSERT and UPDATE, quadId for those and DELETE, and rows
+     * for IMPORT, which stands for a whole bulk insert since batch ids are not read back.
+     * EXPIRE means retention dropped the oldest rows; like RESET it carries no ids.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Change(long seq, Kind kind, Long quadId, Quadrilateral quad, Integer rows, long timestamp) { }
+
+    private final String logId = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final Change[] ring;
+    private final int mask;
+    // Sequence of the last published change; 0 before the first
+    private long lastSeq;
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    public QuadChangeLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity changes kept for replay, rounded up to a power of two
+     */
+    public QuadChangeLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Change log capacity must be positive.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.ring = new Change[size];
+        this.mask = size - 1;
+    }
+
+    // ==================== Publishing ====================
+
+    public void inserted(Quadrilateral quad) {
+        publish(Kind.INSERT, quad.getId(), copy(quad), null);
+    }
+
+    public void updated(Quadrilateral quad) {
+        publish(Kind.UPDATE, quad.getId(), copy(quad), null);
+    }
+
+    public void deleted(long id) {
+        publish(Kind.DELETE, id, null, null);
+    }
+
+    public void reset() {
+        publish(Kind.RESET, null, null, null);
+    }
+
+    public void imported(int rows) {
+        publish(Kind.IMPORT, null, null, rows);
+    }
+
+    public void expired() {
+        publish(Kind.EXPIRE, null, null, null);
+    }
+
+    private void publish(Kind kind, Long quadId, Quadrilateral quad, Integer rows) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(kind, quadId, quad, rows);
+                }
+            });
+        } else {
+            append(kind, quadId, quad, rows);
+        }
+    }
+
+    private synchronized void append(Kind kind, Long quadId, Quadrilateral quad, Integer rows) {
+        Change change = new Change(++lastSeq, kind, quadId, quad, rows, System.currentTimeMillis());
+        ring[(int) (change.seq() & mask)] = change;
+        subscriptions.removeIf(s -> !s.offer(change));
+    }
+
+    // Detached copy, so later changes to a managed entity cannot leak into buffered events
+    private static Quadrilateral copy(Quadrilateral quad) {
+        return new Quadrilateral(quad.getId(), quad.getSideA(), quad.getSideB(), quad.getSideC(), quad.getSideD(), quad.getType());
+    }
+
+    // ==================== Subscribing ====================
+
+    public synchronized long getLastSeq() {
+        return lastSeq;
+    }
+
+    public String getLogId() {
+        return logId;
+    }
+
+    /**
+     * Cursor for a change, to hand to clients and accept back in subscribe(String, int).
+     */
+    public String eventId(Change change) {
+        return logId + "-" + change.seq();
+    }
+
+    /**
+     * Subscribes after an eventId() cursor. A cursor from another log (an earlier run, or a bare
+     * sequence number with no log id) cannot be trusted, so it is treated like one that fell out
+     * of the ring: replay starts at the oldest buffered change and changes are marked missed.
+     * @param lastEventId last event id the subscriber has seen, or null for only new changes
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public synchronized Subscription subscribe(String lastEventId, int bufferSize) {
+        if (lastEventId == null) {
+            return subscribe(-1, bufferSize);
+        }
+        String cursor = lastEventId.trim();
+        int dash = cursor.lastIndexOf('-');
+        long seq;
+        try {
+            seq = Long.parseLong(cursor.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed event id: " + lastEventId);
+        }
+        if (seq < 0) {
+            throw new IllegalArgumentException("Malformed event id: " + lastEventId);
+        }
+        boolean sameLog = dash > 0 && cursor.substring(0, dash).equals(logId);
+        return subscribe(seq, bufferSize, !sameLog);
+    }
+
+    /**
+     * Subscribes to the changes after afterSeq. A cursor older than the ring, or newer than
+     * the last change (left over from before a restart), starts at the oldest buffered change
+     * and marks the subscription as having missed changes.
+     * @param afterSeq   last sequence the subscriber has seen, or -1 for only new changes
+     * @param bufferSize changes that may queue up beyond the replayed backlog before the subscriber is dropped
+     */
+    public synchronized Subscription subscribe(long afterSeq, int bufferSize) {
+        return subscribe(afterSeq, bufferSize, false);
+    }
+
+    private Subscription subscribe(long afterSeq, int bufferSize, boolean foreign) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Subscriber buffer size must be positive.");
+        }
+        long oldest = Math.max(1, lastSeq - ring.length + 1);
+        boolean missed = false;
+        if (afterSeq < 0) {
+            afterSeq = lastSeq;
+        } else if (foreign || afterSeq < oldest - 1 || afterSeq > lastSeq) {
+            missed = true;
+            afterSeq = oldest - 1;
+        }
+        int backlog = (int) (lastSeq - afterSeq);
+        Subscription subscription = new Subscription(backlog + bufferSize, missed);
+        for (long seq = afterSeq + 1; seq <= lastSeq; seq++) {
+            subscription.offer(ring[(int) (seq & mask)]);
+        }
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    public synchronized int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * One subscriber's queue. Polled by a single consumer thread.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final BlockingQueue<Change> queue;
+        private final boolean missedChanges;
+        private volatile boolean dropped;
+
+        private Subscription(int capacity, boolean missedChanges) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.missedChanges = missedChanges;
+        }
+
+        // Called under the log's lock; false drops the subscription
+        private boolean offer(Change change) {
+            if (queue.offer(change)) return true;
+            dropped = true;
+            queue.clear();
+            return false;
+        }
+
+        /**
+         * Next change, or null if none arrived within the timeout or the subscriber was dropped.
+         */
+        public Change poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return dropped ? null : queue.poll(timeout, unit);
+        }
+
+        // True once the queue overflowed; the consumer should disconnect and resume later
+        public boolean isDropped() {
+            return dropped;
+        }
+
+        // True if changes between the requested cursor and the first queued change were lost
+        public boolean hasMissedChanges() {
+            return missedChanges;
+        }
+
+        @Override
+        public void close() {
+            unsubscribe(this);
+        }
+    }
+}
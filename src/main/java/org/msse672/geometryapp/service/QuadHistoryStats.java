@@ -0,0 +1,205 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.model.QuadBatchClassifier;
+import org.msse672.geometryapp.model.QuadType;
+import org.msse672.geometryapp.model.Quadrilateral;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Shared history aggregations for the QuadService backends.
+ *
+ * Rows are classified a chunk at a time through QuadBatchClassifier instead of calling
+ * Quadrilateral.getType() (and its validation logging) once per row. Lists above
+ * PARALLEL_THRESHOLD are split across the common ForkJoinPool; each leaf builds its own
+ * partial result and partials are merged pairwise on join, so there is no shared state.
+ */
+final class QuadHistoryStats {
+
+    // Below this many rows the fork/join overhead outweighs the gain
+    static final int PARALLEL_THRESHOLD = Integer.getInteger("geometry.parallel.threshold", 50_000);
+    // Leaves never get smaller than this
+    static final int MIN_CHUNK = 8_192;
+
+    private QuadHistoryStats() { }
+
+    /**
+     * Counts quadrilaterals by type label, matching Quadrilateral.getType() keys.
+     */
+    static Map<String, Long> countByType(List<Quadrilateral> quads) {
+        return aggregate(quads, QuadHistoryStats::countRange, TypeCounts::merge).toMap();
+    }
+
+    /**
+     * Returns only the quadrilaterals classified as squares, in input order.
+     */
+    static List<Quadrilateral> onlySquares(List<Quadrilateral> quads) {
+        return aggregate(quads, QuadHistoryStats::squaresInRange, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    /**
+     * Largest single side across all quadrilaterals, or 0 if there are none.
+     */
+    static double largestSide(List<Quadrilateral> quads) {
+        if (quads.isEmpty()) return 0.0;
+        return aggregate(quads, QuadHistoryStats::maxInRange, Math::max);
+    }
+
+    // ==================== Leaf computations ====================
+
+    private static TypeCounts countRange(List<Quadrilateral> quads, int from, int to) {
+        Columns cols = Columns.of(quads, from, to);
+        TypeCounts counts = new TypeCounts();
+        counts.addAll(cols.a, cols.b, cols.c, cols.d, cols.codes(), cols.size);
+        return counts;
+    }
+
+    private static List<Quadrilateral> squaresInRange(List<Quadrilateral> quads, int from, int to) {
+        byte[] codes = Columns.of(quads, from, to).codes();
+        List<Quadrilateral> squares = new ArrayList<>();
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] == QuadType.SQUARE.getCode()) {
+                squares.add(quads.get(from + i));
+            }
+        }
+        return squares;
+    }
+
+    private static Double maxInRange(List<Quadrilateral> quads, int from, int to) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            Quadrilateral q = quads.get(i);
+            max = Math.max(max, Math.max(Math.max(q.getSideA(), q.getSideB()), Math.max(q.getSideC(), q.getSideD())));
+        }
+        return max;
+    }
+
+    // ==================== Fork/join plumbing ====================
+
+    @FunctionalInterface
+    interface RangeFunction<R> {
+        R apply(List<Quadrilateral> quads, int from, int to);
+    }
+
+    private static <R> R aggregate(List<Quadrilateral> quads, RangeFunction<R> leaf, BinaryOperator<R> merge) {
+        List<Quadrilateral> source = quads instanceof RandomAccess ? quads : new ArrayList<>(quads);
+        int n = source.size();
+        if (n < PARALLEL_THRESHOLD) {
+            return leaf.apply(source, 0, n);
+        }
+        int leafSize = Math.max(MIN_CHUNK, n / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        return ForkJoinPool.commonPool().invoke(new RangeTask<>(source, 0, n, leafSize, leaf, merge));
+    }
+
+    private static final class RangeTask<R> extends RecursiveTask<R> {
+        private final List<Quadrilateral> quads;
+        private final int from, to, leafSize;
+        private final RangeFunction<R> leaf;
+        private final BinaryOperator<R> merge;
+
+        RangeTask(List<Quadrilateral> quads, int from, int to, int leafSize, RangeFunction<R> leaf, BinaryOperator<R> merge) {
+            this.quads = quads;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.leaf = leaf;
+            this.merge = merge;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= leafSize) {
+                return leaf.apply(quads, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RangeTask<R> left = new RangeTask<>(quads, from, mid, leafSize, leaf, merge);
+            RangeTask<R> right = new RangeTask<>(quads, mid, to, leafSize, leaf, merge);
+            left.fork();
+            R rightResult = right.compute();
+            // Left before right keeps list results in input order
+            return merge.apply(left.join(), rightResult);
+        }
+    }
+
+    /**
+     * A chunk of side lengths copied out of the entity list into primitive columns.
+     */
+    private static final class Columns {
+        final double[] a, b, c, d;
+        final int size;
+
+        private Columns(int size) {
+            this.size = size;
+            a = new double[size];
+            b = new double[size];
+            c = new double[size];
+            d = new double[size];
+        }
+
+        static Columns of(List<Quadrilateral> quads, int from, int to) {
+            Columns cols = new Columns(to - from);
+            for (int i = from; i < to; i++) {
+                Quadrilateral q = quads.get(i);
+                cols.a[i - from] = q.getSideA();
+                cols.b[i - from] = q.getSideB();
+                cols.c[i - from] = q.getSideC();
+                cols.d[i - from] = q.getSideD();
+            }
+            return cols;
+        }
+
+        byte[] codes() {
+            return QuadBatchClassifier.classify(a, b, c, d);
+        }
+    }
+
+    /**
+     * Per-type counters for one partial result. Invalid rows are keyed by their full
+     * validation message, like Quadrilateral.getType().
+     */
+    static final class TypeCounts {
+        private final long[] counts = new long[QuadType.values().length];
+        private final Map<String, Long> invalid = new HashMap<>();
+
+        /**
+         * Adds the first n rows of already-classified columns.
+         */
+        void addAll(double[] a, double[] b, double[] c, double[] d, byte[] codes, int n) {
+            for (int i = 0; i < n; i++) {
+                if (codes[i] == QuadType.INVALID.getCode()) {
+                    invalid.merge(new Quadrilateral(a[i], b[i], c[i], d[i]).getType(), 1L, Long::sum);
+                } else {
+                    counts[codes[i]]++;
+                }
+            }
+        }
+
+        TypeCounts merge(TypeCounts other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            other.invalid.forEach((label, count) -> invalid.merge(label, count, Long::sum));
+            return this;
+        }
+
+        Map<String, Long> toMap() {
+            Map<String, Long> result = new HashMap<>(invalid);
+            for (QuadType type : QuadType.values()) {
+                if (type != QuadType.INVALID && counts[type.getCode()] > 0) {
+                    result.put(type.getLabel(), counts[type.getCode()]);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package org.msse672.geometryapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.msse672.geometryapp.codec.BinaryRecords;
+import org.msse672.geometryapp.model.QuadBatchClassifier;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import of archived quadrilaterals for POST /quad/import and QuadImportCli.
+ *
+ * The input channel is read in large chunks cut at row boundaries. Worker threads parse each
+ * chunk into primitive columns, validate every row with Quadrilateral.validate and classify
+ * the survivors with QuadBatchClassifier. The calling thread then stores the chunks in input
+ * order through QuadService.insertBatch. At most two chunks per worker are in flight, so
+ * memory stays flat however large the file is.
+ *
+ * Rows that fail to parse or validate do not stop the import: each one goes to the
+ * RejectSink with its line (or record) number and the reason.
+ *
+ * Formats:
+ *  - CSV: "sideA,sideB,sideC,sideD" lines, with an optional header line
+ *  - binary: 32-byte little-endian side records (see BinaryRecords)
+ */
+@Service
+public class QuadImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuadImportService.class);
+
+    // Binary records per chunk; CSV chunks are cut by size instead
+    static final int CHUNK_ROWS = 16_384;
+    // CSV bytes per chunk, also the longest line accepted
+    static final int CHUNK_BYTES = 1 << 20;
+
+    public enum Format {
+        CSV("text/csv"),
+        BINARY(BinaryRecords.MEDIA_TYPE_VALUE);
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() { return mediaType; }
+
+        /**
+         * Picks the format from a Content-Type header; parameters such as charset are ignored.
+         * @throws IllegalArgumentException for anything else
+         */
+        public static Format fromContentType(String contentType) {
+            if (contentType != null) {
+                String base = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+                for (Format f : values()) {
+                    if (f.mediaType.equals(base)) return f;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported content type: " + contentType
+                    + ". Use text/csv or " + BinaryRecords.MEDIA_TYPE_VALUE + ".");
+        }
+
+        /**
+         * Picks the format from a file name: ".csv" is CSV, anything else binary.
+         */
+        public static Format fromFileName(String name) {
+            return name.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : BINARY;
+        }
+    }
+
+    /**
+     * Receives rows that were not imported, in input order.
+     */
+    @FunctionalInterface
+    public interface RejectSink {
+        void reject(long row, String input, String reason) throws IOException;
+    }
+
+    /**
+     * Import totals; also passed to the progress callback after every chunk.
+     */
+    public record Result(long rows, long imported, long rejected, long elapsedMillis) {
+        public long rowsPerMinute() {
+            return rows * 60_000 / Math.max(1, elapsedMillis);
+        }
+    }
+
+    private final int parallelism;
+    private final ExecutorService workers;
+
+    /**
+     * @param parallelism parse/validate workers; 0 or less uses one per available processor
+     */
+    @Autowired
+    public QuadImportService(@Value("${app.import.parallelism:0}") int parallelism) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        // Parsing is CPU-bound, so platform threads sized to the cores
+        this.workers = Executors.newFixedThreadPool(this.parallelism,
+                Thread.ofPlatform().name("quad-import-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Streams every row from in into target.
+     *
+     * @param rejects  receives rows that failed parsing or validation
+     * @param progress called after each stored chunk with the totals so far; may be null
+     * @return the final totals
+     */
+    public Result importQuads(ReadableByteChannel in, Format format, QuadService target,
+                              RejectSink rejects, Consumer<Result> progress) throws IOException {
+        long started = System.nanoTime();
+        long rows = 0, imported = 0, rejected = 0;
+        Chunker chunker = format == Format.CSV ? new CsvChunker(in) : new BinaryChunker(in);
+        ArrayDeque<CompletableFuture<ParsedChunk>> inFlight = new ArrayDeque<>();
+        try {
+            boolean more = true;
+            while (more || !inFlight.isEmpty()) {
+                while (more && inFlight.size() < 2 * parallelism) {
+                    RawChunk raw = chunker.next();
+                    if (raw == null) {
+                        more = false;
+                    } else {
+                        inFlight.add(CompletableFuture.supplyAsync(() -> parse(raw, format), workers));
+                    }
+                }
+                if (inFlight.isEmpty()) break;
+
+                ParsedChunk chunk = join(inFlight.poll());
+                if (chunk.n > 0) {
+                    target.insertBatch(chunk.a, chunk.b, chunk.c, chunk.d, chunk.codes, chunk.n);
+                }
+                for (Reject r : chunk.rejects) {
+                    rejects.reject(r.row, r.input, r.reason);
+                }
+                rows += chunk.n + chunk.rejects.size();
+                imported += chunk.n;
+                rejected += chunk.rejects.size();
+                if (progress != null) {
+                    progress.accept(new Result(rows, imported, rejected, elapsedMillis(started)));
+                }
+            }
+        } finally {
+            for (CompletableFuture<ParsedChunk> pending : inFlight) {
+                pending.cancel(true);
+            }
+        }
+        Result result = new Result(rows, imported, rejected, elapsedMillis(started));
+        logger.info("Imported {} of {} {} rows ({} rejected) in {} ms, {} rows/min", imported, rows, format,
+                rejected, result.elapsedMillis(), result.rowsPerMinute());
+        return result;
+    }
+
+    private static long elapsedMillis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+
+    private static ParsedChunk join(CompletableFuture<ParsedChunk> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    // ==================== Reading ====================
+
+    // Whole rows from the input; firstRow is the 1-based line or record number of the first one
+    private record RawChunk(byte[] bytes, int length, long firstRow) { }
+
+    private interface Chunker {
+        // Returns null at end of input
+        RawChunk next() throws IOException;
+    }
+
+    private static int fill(ReadableByteChannel in, ByteBuffer buf) throws IOException {
+        int read = 0;
+        while (buf.hasRemaining()) {
+            int r = in.read(buf);
+            if (r < 0) return read == 0 ? -1 : read;
+            read += r;
+        }
+        return read;
+    }
+
+    private static final class BinaryChunker implements Chunker {
+        private final ReadableByteChannel in;
+        private long nextRecord = 1;
+        private boolean eof;
+
+        BinaryChunker(ReadableByteChannel in) {
+            this.in = in;
+        }
+
+        @Override
+        public RawChunk next() throws IOException {
+            if (eof) return null;
+            ByteBuffer buf = ByteBuffer.allocate(CHUNK_ROWS * BinaryRecords.QUAD_SIDES_BYTES);
+            if (fill(in, buf) < 0) {
+                eof = true;
+                return null;
+            }
+            if (buf.hasRemaining()) eof = true;
+            RawChunk chunk = new RawChunk(buf.array(), buf.position(), nextRecord);
+            nextRecord += buf.position() / BinaryRecords.QUAD_SIDES_BYTES;
+            return chunk;
+        }
+    }
+
+    /**
+     * Cuts the input after the last newline in each buffer-full; the tail carries over.
+     */
+    private static final class CsvChunker implements Chunker {
+        private final ReadableByteChannel in;
+        private final ByteBuffer buf = ByteBuffer.allocate(CHUNK_BYTES);
+        private long nextLine = 1;
+        private boolean eof;
+
+        CsvChunker(ReadableByteChannel in) {
+            this.in = in;
+        }
+
+        @Override
+        public RawChunk next() throws IOException {
+            if (!eof && (fill(in, buf) < 0 || buf.hasRemaining())) eof = true;
+            buf.flip();
+            if (!buf.hasRemaining()) return null;
+            int end = buf.limit();
+            if (!eof) {
+                end = lastNewline(buf) + 1;
+                if (end == 0) {
+                    throw new IllegalArgumentException("Line " + nextLine + " is longer than " + CHUNK_BYTES + " bytes.");
+                }
+            }
+            byte[] bytes = new byte[end];
+            buf.get(bytes);
+            buf.compact();
+            RawChunk chunk = new RawChunk(bytes, end, nextLine);
+            for (byte x : bytes) {
+                if (x == '\n') nextLine++;
+            }
+            return chunk;
+        }
+
+        private static int lastNewline(ByteBuffer buf) {
+            for (int i = buf.limit() - 1; i >= buf.position(); i--) {
+                if (buf.get(i) == '\n') return i;
+            }
+            return -1;
+        }
+    }
+
+    // ==================== Parsing ====================
+
+    private record Reject(long row, String input, String reason) { }
+
+    // Accepted rows as columns, plus the rows that were not
+    private static final class ParsedChunk {
+        double[] a, b, c, d;
+        byte[] codes;
+        int n;
+        final List<Reject> rejects = new ArrayList<>();
+
+        ParsedChunk(int capacity) {
+            a = new double[capacity];
+            b = new double[capacity];
+            c = new double[capacity];
+            d = new double[capacity];
+        }
+
+        void add(double sa, double sb, double sc, double sd) {
+            if (n == a.length) {
+                int cap = Math.max(16, n * 2);
+                a = Arrays.copyOf(a, cap);
+                b = Arrays.copyOf(b, cap);
+                c = Arrays.copyOf(c, cap);
+                d = Arrays.copyOf(d, cap);
+            }
+            a[n] = sa;
+            b[n] = sb;
+            c[n] = sc;
+            d[n] = sd;
+            n++;
+        }
+
+        ParsedChunk classify() {
+            codes = new byte[n];
+            QuadBatchClassifier.classify(a, b, c, d, codes, n);
+            return this;
+        }
+    }
+
+    static ParsedChunk parse(RawChunk raw, Format format) {
+        return (format == Format.CSV ? parseCsv(raw) : parseBinary(raw)).classify();
+    }
+
+    // Quadrilateral.validate, plus NaN and infinities, which it lets through
+    private static String validate(double sa, double sb, double sc, double sd) {
+        if (!Double.isFinite(sa) || !Double.isFinite(sb) || !Double.isFinite(sc) || !Double.isFinite(sd)) {
+            return "sides must be finite numbers";
+        }
+        return Quadrilateral.validate(sa, sb, sc, sd);
+    }
+
+    private static ParsedChunk parseBinary(RawChunk raw) {
+        int records = raw.length() / BinaryRecords.QUAD_SIDES_BYTES;
+        ParsedChunk chunk = new ParsedChunk(records);
+        ByteBuffer view = ByteBuffer.wrap(raw.bytes(), 0, raw.length()).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < records; i++) {
+            double sa = view.getDouble(), sb = view.getDouble(), sc = view.getDouble(), sd = view.getDouble();
+            String err = validate(sa, sb, sc, sd);
+            if (err == null) {
+                chunk.add(sa, sb, sc, sd);
+            } else {
+                chunk.rejects.add(new Reject(raw.firstRow() + i, sa + "," + sb + "," + sc + "," + sd, err));
+            }
+        }
+        // Only the last chunk can end mid-record
+        if (view.hasRemaining()) {
+            chunk.rejects.add(new Reject(raw.firstRow() + records, "",
+                    "truncated record: " + view.remaining() + " of " + BinaryRecords.QUAD_SIDES_BYTES + " bytes"));
+        }
+        return chunk;
+    }
+
+    private static ParsedChunk parseCsv(RawChunk raw) {
+        byte[] bytes = raw.bytes();
+        ParsedChunk chunk = new ParsedChunk(raw.length() / 16);
+        long line = raw.firstRow();
+        int start = 0;
+        while (start < raw.length()) {
+            int end = start;
+            while (end < raw.length() && bytes[end] != '\n') end++;
+            int stop = end > start && bytes[end - 1] == '\r' ? end - 1 : end;
+            parseLine(chunk, line, bytes, start, stop);
+            start = end + 1;
+            line++;
+        }
+        return chunk;
+    }
+
+    private static void parseLine(ParsedChunk chunk, long line, byte[] bytes, int from, int to) {
+        int c1 = indexOf(bytes, ',', from, to);
+        int c2 = c1 < 0 ? -1 : indexOf(bytes, ',', c1 + 1, to);
+        int c3 = c2 < 0 ? -1 : indexOf(bytes, ',', c2 + 1, to);
+        if (c3 < 0 || indexOf(bytes, ',', c3 + 1, to) >= 0) {
+            if (isBlank(bytes, from, to)) return;
+            chunk.rejects.add(new Reject(line, text(bytes, from, to), "expected four comma-separated sides"));
+            return;
+        }
+        double sa, sb, sc, sd;
+        try {
+            sa = Double.parseDouble(text(bytes, from, c1).trim());
+            sb = Double.parseDouble(text(bytes, c1 + 1, c2).trim());
+            sc = Double.parseDouble(text(bytes, c2 + 1, c3).trim());
+            sd = Double.parseDouble(text(bytes, c3 + 1, to).trim());
+        } catch (NumberFormatException e) {
+            // A non-numeric first line is a header
+            if (line != 1) {
+                chunk.rejects.add(new Reject(line, text(bytes, from, to), "sides must be numeric"));
+            }
+            return;
+        }
+        String err = validate(sa, sb, sc, sd);
+        if (err == null) {
+            chunk.add(sa, sb, sc, sd);
+        } else {
+            chunk.rejects.add(new Reject(line, text(bytes, from, to), err));
+        }
+    }
+
+    private static int indexOf(byte[] bytes, char ch, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == ch) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] != ' ' && bytes[i] != '\t') return false;
+        }
+        return true;
+    }
+
+    private static String text(byte[] bytes, int from, int to) {
+        return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,258 @@
+package org.msse672.geometryapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.Closeable;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id-range partitions of the quads table, and the retention job that drops whole expired
+ * partitions instead of deleting rows.
+ *
+ * On MySQL the table is RANGE partitioned on id (see schema.sql), so the id lookups every
+ * endpoint makes are pruned to one partition and the primary key stays (id). Partitions of
+ * idsPerPartition ids are split off the catch-all pmax ahead of the highest id, while pmax is
+ * still empty, so the split moves no rows. Expired partitions go with ALTER TABLE ... DROP
+ * PARTITION, which discards their data and index pages without touching the rows that remain.
+ * H2 has no partitioning, so there the quad_partitions table records the same id ranges and
+ * dropping one deletes its rows by id.
+ *
+ * Ids grow with created_at, so retention maps time onto ids: a partition has expired once
+ * every id in it has been issued and its newest (highest-id) row is older than the retention.
+ * Partitions are named p&lt;first id past the range&gt;. The first one also holds every row from
+ * before partitioning started. Dropped rows bypass the backends, so quad_stats is rebuilt and
+ * each backend is told to discard what it cached (QuadService.onRowsExpired).
+ *
+ * A table that is not partitioned (a database created before partitioning and not yet
+ * upgraded with db/upgrade/003-quads-partition-by-id.sql) is left alone: maintenance logs a
+ * warning and does nothing.
+ */
+public class QuadPartitions implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadPartitions.class);
+
+    // Highest id issued so far; reset_through_id remembers it after a reset purged the rows
+    private static final String HIGHEST_ID_SQL = "SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM quads),"
+            + " (SELECT reset_through_id FROM quad_epoch WHERE id = 1))";
+
+    /**
+     * One partition, holding the rows with ids in [fromId, toId).
+     */
+    public record Partition(String name, long fromId, long toId) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    // MySQL partitions the table itself; otherwise quad_partitions emulates them
+    private final boolean nativePartitions;
+    private final Clock clock;
+    private final long idsPerPartition;
+    // Rebuilt after a drop, since the dropped rows never pass through its deltas
+    private QuadStatsTable statsTable;
+    private List<QuadService> backends = List.of();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param idsPerPartition ids covered by each partition created from now on
+     */
+    public QuadPartitions(JdbcTemplate jdbcTemplate, boolean nativePartitions, Clock clock, long idsPerPartition) {
+        if (idsPerPartition < 1) {
+            throw new IllegalArgumentException("idsPerPartition must be positive.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.nativePartitions = nativePartitions;
+        this.clock = clock;
+        this.idsPerPartition = idsPerPartition;
+    }
+
+    /**
+     * True when the database partitions quads itself (MySQL or MariaDB).
+     */
+    public static boolean supportsNativePartitions(JdbcTemplate jdbcTemplate) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(product) || "MariaDB".equalsIgnoreCase(product);
+    }
+
+    public void setStatsTable(QuadStatsTable statsTable) {
+        this.statsTable = statsTable;
+    }
+
+    public void setBackends(List<QuadService> backends) {
+        this.backends = backends;
+    }
+
+    /**
+     * True when quads is partitioned (MySQL) or the quad_partitions catalog exists (elsewhere).
+     */
+    public boolean isPartitioned() {
+        try {
+            if (nativePartitions) {
+                Integer parts = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.PARTITIONS"
+                        + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'quads' AND PARTITION_NAME IS NOT NULL", Integer.class);
+                return parts != null && parts > 0;
+            }
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM quad_partitions", Integer.class);
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The id-range partitions in id order (pmax is not listed).
+     */
+    public List<Partition> list() {
+        if (!nativePartitions) {
+            return jdbcTemplate.query("SELECT name, from_id, to_id FROM quad_partitions ORDER BY to_id",
+                    (rs, i) -> new Partition(rs.getString("name"), rs.getLong("from_id"), rs.getLong("to_id")));
+        }
+        List<Partition> partitions = new ArrayList<>();
+        long from = 0;
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT PARTITION_NAME AS name, PARTITION_DESCRIPTION AS bound"
+                + " FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'quads'"
+                + " ORDER BY PARTITION_ORDINAL_POSITION")) {
+            String bound = (String) row.get("bound");
+            if (bound == null || "MAXVALUE".equals(bound)) continue;
+            long to = Long.parseLong(bound.trim());
+            partitions.add(new Partition((String) row.get("name"), from, to));
+            from = to;
+        }
+        return partitions;
+    }
+
+    /**
+     * Creates partitions until at least partitionsAhead * idsPerPartition unused ids lie beyond
+     * the highest id, so writes never land in pmax. With no partitions yet, the first one
+     * covers every id issued so far.
+     * @return partitions created
+     */
+    public synchronized int ensureAhead(int partitionsAhead) {
+        if (!isPartitioned()) {
+            log.warn("quads is not partitioned; apply db/upgrade/003-quads-partition-by-id.sql. Skipping partition maintenance.");
+            return 0;
+        }
+        long highest = highestId();
+        List<Partition> existing = list();
+        long from = existing.isEmpty() ? 0 : existing.get(existing.size() - 1).toId();
+        if (from <= highest) {
+            // Rows already reached pmax; splitting it now copies them once
+            log.warn("quads ids reached {} past the last partition (ends at {}); consider more partitions ahead.", highest, from);
+        }
+
+        List<Partition> added = new ArrayList<>();
+        if (existing.isEmpty() && highest > 0) {
+            added.add(new Partition("p" + (highest + 1), 0, highest + 1));
+            from = highest + 1;
+        }
+        long target = highest + partitionsAhead * idsPerPartition;
+        for (; from <= target; from += idsPerPartition) {
+            added.add(new Partition("p" + (from + idsPerPartition), from, from + idsPerPartition));
+        }
+        if (added.isEmpty()) return 0;
+
+        if (nativePartitions) {
+            StringJoiner parts = new StringJoiner(", ");
+            for (Partition p : added) {
+                parts.add("PARTITION " + p.name() + " VALUES LESS THAN (" + p.toId() + ")");
+            }
+            jdbcTemplate.execute("ALTER TABLE quads REORGANIZE PARTITION pmax INTO ("
+                    + parts + ", PARTITION pmax VALUES LESS THAN MAXVALUE)");
+        } else {
+            jdbcTemplate.batchUpdate("INSERT INTO quad_partitions (name, from_id, to_id) VALUES (?, ?, ?)",
+                    added.stream().map(p -> new Object[] { p.name(), p.fromId(), p.toId() }).toList());
+        }
+        log.info("Added quads partitions {} to {}", added.get(0).name(), added.get(added.size() - 1).name());
+        return added.size();
+    }
+
+    /**
+     * Drops the oldest partitions whose ids have all been issued and whose newest row was
+     * created at least retention ago; empty ones behind the highest id go too. Stops at the
+     * first partition that is kept.
+     * @return the dropped partitions
+     */
+    public synchronized List<Partition> dropExpired(Duration retention) {
+        if (!isPartitioned()) return List.of();
+        Instant cutoff = clock.instant().minus(retention);
+        long highest = highestId();
+        List<Partition> expired = new ArrayList<>();
+        for (Partition p : list()) {
+            if (p.toId() > highest + 1) break;
+            // Ids grow with created_at, so the highest id is the newest row: one primary key probe
+            List<Timestamp> newest = jdbcTemplate.queryForList("SELECT created_at FROM quads WHERE id >= ? AND id < ?"
+                    + " ORDER BY id DESC LIMIT 1", Timestamp.class, p.fromId(), p.toId());
+            if (!newest.isEmpty() && newest.get(0).toInstant().isAfter(cutoff)) break;
+            expired.add(p);
+        }
+        if (expired.isEmpty()) return expired;
+
+        long started = System.nanoTime();
+        long through = expired.get(expired.size() - 1).toId();
+        if (nativePartitions) {
+            StringJoiner names = new StringJoiner(", ");
+            expired.forEach(p -> names.add(p.name()));
+            jdbcTemplate.execute("ALTER TABLE quads DROP PARTITION " + names);
+        } else {
+            jdbcTemplate.update("DELETE FROM quads WHERE id < ?", through);
+            jdbcTemplate.update("DELETE FROM quad_partitions WHERE to_id <= ?", through);
+        }
+        log.info("Dropped {} expired quads partitions (ids below {}) in {} ms",
+                expired.size(), through, (System.nanoTime() - started) / 1_000_000);
+
+        if (statsTable != null) {
+            statsTable.rebuild();
+        }
+        for (QuadService backend : backends) {
+            backend.onRowsExpired();
+        }
+        return expired;
+    }
+
+    private long highestId() {
+        Long highest = jdbcTemplate.queryForObject(HIGHEST_ID_SQL, Long.class);
+        return highest == null ? 0 : highest;
+    }
+
+    /**
+     * Runs ensureAhead and, unless retention is zero, dropExpired every interval on a
+     * background thread; a zero interval disables it.
+     */
+    public synchronized void startMaintenance(Duration interval, int partitionsAhead, Duration retention) {
+        if (interval.isZero() || interval.isNegative() || scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("quad-partitions").daemon().factory());
+        long ms = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> maintainQuietly(partitionsAhead, retention), ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    private void maintainQuietly(int partitionsAhead, Duration retention) {
+        try {
+            ensureAhead(partitionsAhead);
+            if (!retention.isZero()) {
+                dropExpired(retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("quads partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.msse672.geometryapp.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Constant-time reset of the quads table for the JDBC and Hibernate backends.
+ *
+ * The single quad_epoch row holds a reset counter and reset_through_id, the highest id that
+ * existed at the last reset. Every read filters on id > reset_through_id (Quadrilateral.LIVE_ROWS),
+ * so advancing it hides the whole table in one single-row update. New rows get higher ids
+ * and are visible at once. The hidden rows are then deleted in the background, one id range
+ * per statement, so readers and writers never wait on a whole-table delete or TRUNCATE.
+ *
+ * MAX(id) only sees committed rows, and IDENTITY ids can commit out of order, so an insert in
+ * flight during a reset could get an id below the new reset_through_id and vanish once it
+ * commits. Every insert transaction therefore holds a shared lock on the quad_epoch row
+ * (lockForInsert) and advance() takes it exclusively: inserts still run side by side, but a
+ * reset waits for the ones in flight and the ones after it wait for the reset.
+ */
+@Service
+public class QuadResetEpoch {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadResetEpoch.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    // Ids covered by each purge DELETE
+    private final int purgeChunk;
+    // Purges run one at a time, off the request thread
+    private ExecutorService purgeExecutor;
+    // Locking clause lockForInsert appends; null until the database product is known
+    private volatile String shareLock;
+
+    public QuadResetEpoch(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, 5_000);
+    }
+
+    @Autowired
+    public QuadResetEpoch(JdbcTemplate jdbcTemplate, @Value("${app.reset.purge-chunk:5000}") int purgeChunk) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeChunk = Math.max(1, purgeChunk);
+    }
+
+    /**
+     * Finishes a purge interrupted by a restart.
+     */
+    @PostConstruct
+    public void resumePurge() {
+        if (getResetThroughId() > 0) {
+            schedulePurge();
+        }
+    }
+
+    /**
+     * Call first in every transaction that inserts quads. The shared lock on quad_epoch is held
+     * until commit, so a concurrent advance() waits for this insert instead of hiding it.
+     */
+    public void lockForInsert() {
+        jdbcTemplate.queryForObject("SELECT epoch FROM quad_epoch WHERE id = 1" + shareLock(), Long.class);
+    }
+
+    /**
+     * Hides every current row. Call first in the backend's reset transaction, before its other
+     * writes, since it waits for the inserts in flight; the purge of the hidden rows starts
+     * after commit.
+     * @return the new reset_through_id
+     */
+    public long advance() {
+        // Taken before MAX(id) is read, so every insert it waited for is counted
+        jdbcTemplate.queryForObject("SELECT epoch FROM quad_epoch WHERE id = 1 FOR UPDATE", Long.class);
+        jdbcTemplate.update("UPDATE quad_epoch SET epoch = epoch + 1,"
+                + " reset_through_id = GREATEST(reset_through_id, (SELECT COALESCE(MAX(id), 0) FROM quads)) WHERE id = 1");
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT epoch, reset_through_id FROM quad_epoch WHERE id = 1");
+        long resetThroughId = ((Number) row.get("reset_through_id")).longValue();
+        log.info("Quad reset to epoch {}: ids up to {} hidden", row.get("epoch"), resetThroughId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedulePurge();
+                }
+            });
+        } else {
+            schedulePurge();
+        }
+        return resetThroughId;
+    }
+
+    // MySQL and PostgreSQL have shared row locks; elsewhere (H2) inserts take the exclusive one
+    private String shareLock() {
+        String clause = shareLock;
+        if (clause == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            if ("MySQL".equalsIgnoreCase(product) || "MariaDB".equalsIgnoreCase(product)) {
+                clause = " LOCK IN SHARE MODE";
+            } else if ("PostgreSQL".equalsIgnoreCase(product)) {
+                clause = " FOR SHARE";
+            } else {
+                clause = " FOR UPDATE";
+            }
+            shareLock = clause;
+        }
+        return clause;
+    }
+
+    public long getEpoch() {
+        Long epoch = jdbcTemplate.queryForObject("SELECT epoch FROM quad_epoch WHERE id = 1", Long.class);
+        return epoch == null ? 0 : epoch;
+    }
+
+    public long getResetThroughId() {
+        Long id = jdbcTemplate.queryForObject("SELECT reset_through_id FROM quad_epoch WHERE id = 1", Long.class);
+        return id == null ? 0 : id;
+    }
+
+    private synchronized void schedulePurge() {
+        if (purgeExecutor == null) {
+            purgeExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("quad-purge").daemon().factory());
+        }
+        purgeExecutor.execute(this::purgeQuietly);
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            // Retried after the next reset or restart; the rows stay hidden meanwhile
+            log.warn("Purging reset quads failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the hidden rows, purgeChunk ids per auto-committed statement.
+     * @return rows deleted
+     */
+    long purge() {
+        long through = getResetThroughId();
+        Long lowest = jdbcTemplate.queryForObject("SELECT MIN(id) FROM quads", Long.class);
+        if (lowest == null || lowest > through) return 0;
+
+        long started = System.nanoTime();
+        long deleted = 0;
+        for (long from = lowest - 1; from < through; from += purgeChunk) {
+            if (Thread.currentThread().isInterrupted()) break;
+            deleted += jdbcTemplate.update("DELETE FROM quads WHERE id > ? AND id <= ?", from, Math.min(from + purgeChunk, through));
+        }
+        log.info("Purged {} reset quads (ids up to {}) in {} ms", deleted, through, (System.nanoTime() - started) / 1_000_000);
+        return deleted;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (purgeExecutor != null) {
+            purgeExecutor.shutdownNow();
+            purgeExecutor = null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.msse672.geometryapp.service;
+
+import java.io.IOException;
+
+/**
+ * Receives streamed quad rows as plain column values, so exports never build Quadrilateral objects.
+ */
+@FunctionalInterface
+public interface QuadRowSink {
+    void accept(long id, double sideA, double sideB, double sideC, double sideD, byte typeCode) throws IOException;
+}
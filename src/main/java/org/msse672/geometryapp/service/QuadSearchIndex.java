@@ -0,0 +1,192 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.dto.QuadNeighbor;
+import org.msse672.geometryapp.index.SideIndex;
+import org.msse672.geometryapp.index.SideRange;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * SideIndex wrapper shared by the QuadService backends.
+ *
+ * The index is built lazily on the first search by paging the backend's history in id
+ * order, then kept current by the backend's write methods. Searches return ids from the
+ * index; the backend loads the matching rows by primary key.
+ */
+final class QuadSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadSearchIndex.class);
+
+    // Rows per page when loading from the backend
+    private static final int LOAD_PAGE = 10_000;
+
+    @FunctionalInterface
+    interface PageLoader {
+        List<Quadrilateral> page(long afterId, int limit);
+    }
+
+    // A removal is queued as a write with no quad
+    private record Write(long id, Quadrilateral quad) { }
+
+    private final PageLoader loader;
+    // Only one load runs at a time; writers never wait on it
+    private final Object loadLock = new Object();
+    // Replaced wholesale when a load finishes; writes to it are guarded by this
+    private volatile SideIndex index = new SideIndex();
+    private volatile boolean loaded;
+    // Writes made while a load runs, replayed onto its result before the swap (null when idle)
+    private List<Write> pending;
+    // Bumped by clear/invalidate, so a load that overlapped one is thrown away
+    private int generation;
+
+    QuadSearchIndex(PageLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Ids of stored quads inside the range, at most limit of them.
+     */
+    long[] range(SideRange range, int limit) {
+        ensureLoaded();
+        return index.range(range, limit);
+    }
+
+    /**
+     * The k nearest stored quads, closest first, resolved through fetch.
+     */
+    List<QuadNeighbor> nearest(double a, double b, double c, double d, int k,
+                               Function<long[], List<Quadrilateral>> fetch) {
+        ensureLoaded();
+        List<SideIndex.Neighbor> neighbors = index.nearest(a, b, c, d, k);
+        long[] ids = neighbors.stream().mapToLong(SideIndex.Neighbor::id).toArray();
+        Map<Long, Quadrilateral> byId = new HashMap<>();
+        for (Quadrilateral q : fetch.apply(ids)) {
+            byId.put(q.getId(), q);
+        }
+        List<QuadNeighbor> result = new ArrayList<>(neighbors.size());
+        for (SideIndex.Neighbor n : neighbors) {
+            Quadrilateral q = byId.get(n.id());
+            if (q != null) result.add(new QuadNeighbor(q, n.distance()));
+        }
+        return result;
+    }
+
+    /**
+     * Records an inserted or updated quad. Until the first load it is only queued for a load
+     * in progress, since a later load will read it.
+     */
+    synchronized void put(Quadrilateral quad) {
+        if (quad == null || quad.getId() == null) return;
+        if (loaded) {
+            index.update(quad.getId(), quad.getSideA(), quad.getSideB(), quad.getSideC(), quad.getSideD());
+        } else if (pending != null) {
+            pending.add(new Write(quad.getId(), quad));
+        }
+    }
+
+    synchronized void remove(Long id) {
+        if (id == null) return;
+        if (loaded) {
+            index.remove(id);
+        } else if (pending != null) {
+            pending.add(new Write(id, null));
+        }
+    }
+
+    synchronized void clear() {
+        index.clear();
+        generation++;
+    }
+
+    /**
+     * Forgets the index after writes it was not told about (bulk inserts); the next search reloads it.
+     */
+    synchronized void invalidate() {
+        loaded = false;
+        clear();
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    /**
+     * Pages the backend's history into a fresh SideIndex outside the monitor, so writers (which
+     * run inside their transactions) never wait on the load, then replays the writes queued
+     * meanwhile and swaps it in. Replaying is idempotent (update moves an id, remove of an
+     * absent id is a no-op), so it does not matter whether the pages saw them.
+     */
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (loadLock) {
+            while (true) {
+                int started;
+                synchronized (this) {
+                    if (loaded) return;
+                    started = generation;
+                    pending = new ArrayList<>();
+                }
+                long start = System.nanoTime();
+                SideIndex built = new SideIndex();
+                int n = 0;
+                try {
+                    long[] ids = new long[LOAD_PAGE];
+                    double[] a = new double[LOAD_PAGE], b = new double[LOAD_PAGE], c = new double[LOAD_PAGE], d = new double[LOAD_PAGE];
+                    long afterId = Long.MIN_VALUE;
+                    List<Quadrilateral> page;
+                    do {
+                        page = loader.page(afterId, LOAD_PAGE);
+                        if (n + page.size() > ids.length) {
+                            int cap = Math.max(ids.length * 2, n + page.size());
+                            ids = Arrays.copyOf(ids, cap);
+                            a = Arrays.copyOf(a, cap);
+                            b = Arrays.copyOf(b, cap);
+                            c = Arrays.copyOf(c, cap);
+                            d = Arrays.copyOf(d, cap);
+                        }
+                        for (Quadrilateral q : page) {
+                            ids[n] = q.getId();
+                            a[n] = q.getSideA();
+                            b[n] = q.getSideB();
+                            c[n] = q.getSideC();
+                            d[n] = q.getSideD();
+                            n++;
+                        }
+                        if (!page.isEmpty()) afterId = page.get(page.size() - 1).getId();
+                    } while (page.size() == LOAD_PAGE);
+                    built.load(ids, a, b, c, d, n);
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        pending = null;
+                    }
+                    throw e;
+                }
+                synchronized (this) {
+                    List<Write> writes = pending;
+                    pending = null;
+                    if (generation != started) continue;
+                    for (Write w : writes) {
+                        Quadrilateral q = w.quad();
+                        if (q != null) {
+                            built.update(w.id(), q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD());
+                        } else {
+                            built.remove(w.id());
+                        }
+                    }
+                    index = built;
+                    loaded = true;
+                }
+                log.info("Search index built from {} quads in {} ms", n, (System.nanoTime() - start) / 1_000_000);
+                return;
+            }
+        }
+    }
+}
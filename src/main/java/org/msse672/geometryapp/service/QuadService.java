@@ -1,8 +1,16 @@
 package org.msse672.geometryapp.service;
 
+import org.msse672.geometryapp.dto.QuadNeighbor;
+import org.msse672.geometryapp.index.ShapeKey;
+import org.msse672.geometryapp.index.SideRange;
+import org.msse672.geometryapp.model.QuadType;
 import org.msse672.geometryapp.model.Quadrilateral;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
@@ -35,4 +43,96 @@ public interface QuadService {
     List<Quadrilateral> getOnlySquares();
     double getLargestSideEverSubmitted();
 
+    //Bulk insert of rows [0, n) whose sides were already validated and classified (type codes
+    //from QuadType.getCode()). Backends override this with batched writes; the default inserts row by row.
+    default int insertBatch(double[] sideA, double[] sideB, double[] sideC, double[] sideD, byte[] types, int n) {
+        for (int i = 0; i < n; i++) {
+            insertQuad(sideA[i], sideB[i], sideC[i], sideD[i]);
+        }
+        return n;
+    }
+
+    //Version of the stored data, advanced after every write through this backend instance.
+    //-1 means the backend does not track writes, so responses built from it must not be cached.
+    default long getGeneration() {
+        return -1;
+    }
+
+    //Feed of this backend instance's writes, for push notifications. null if the backend does not publish changes.
+    default QuadChangeLog getChangeLog() {
+        return null;
+    }
+
+    //Called after partition retention dropped old rows underneath the backend (QuadPartitions).
+    //Backends that index or cache the quads table discard that state; the default has none.
+    default void onRowsExpired() {
+    }
+
+    //Quads created at or after since, oldest first. Only database backends record creation
+    //times; their query reads the idx_quads_created range from since on.
+    default List<Quadrilateral> getQuadsCreatedSince(Instant since, int limit) {
+        throw new UnsupportedOperationException("This backend does not record creation times.");
+    }
+
+    //Keyset paging (id ascending) used to stream history without loading it all at once.
+    //Backends override this with an indexed query; the default filters the full history.
+    default List<Quadrilateral> getQuadsAfterId(long afterId, int limit) {
+        return getAllSubmittedQuads().stream()
+                .filter(q -> q.getId() != null && q.getId() > afterId)
+                .sorted(Comparator.comparing(Quadrilateral::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    //Streams every row with id > afterId, in id order, without materializing the history.
+    //Database backends override this with a forward-only cursor; the default walks keyset pages.
+    default void streamAfterId(long afterId, QuadRowSink sink) throws IOException {
+        int pageSize = 1_000;
+        List<Quadrilateral> page;
+        do {
+            page = getQuadsAfterId(afterId, pageSize);
+            for (Quadrilateral q : page) {
+                sink.accept(q.getId(), q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD(),
+                        QuadType.classify(q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD()).getCode());
+            }
+            if (!page.isEmpty()) afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == pageSize);
+    }
+
+    //Side-length search. Backends answer these from a SideIndex; the defaults scan the full history.
+    default List<Quadrilateral> searchBySideRange(SideRange range, int limit) {
+        return getAllSubmittedQuads().stream()
+                .filter(q -> range.contains(q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD()))
+                .limit(limit)
+                .toList();
+    }
+
+    default List<QuadNeighbor> findNearest(double sideA, double sideB, double sideC, double sideD, int k) {
+        return getAllSubmittedQuads().stream()
+                .map(q -> new QuadNeighbor(q, Math.sqrt(
+                        Math.pow(q.getSideA() - sideA, 2) + Math.pow(q.getSideB() - sideB, 2)
+                                + Math.pow(q.getSideC() - sideC, 2) + Math.pow(q.getSideD() - sideD, 2))))
+                .sorted(Comparator.comparingDouble(QuadNeighbor::getDistance))
+                .limit(k)
+                .toList();
+    }
+
+    //Shape lookups: ids of stored quads with the same side cycle (up to rotation/reflection),
+    //optionally ignoring scale. Backends answer these from a hash index; the defaults scan.
+    default long[] findCongruentIds(double sideA, double sideB, double sideC, double sideD) {
+        long[] key = ShapeKey.congruent(sideA, sideB, sideC, sideD);
+        return getAllSubmittedQuads().stream()
+                .filter(q -> Arrays.equals(key, ShapeKey.congruent(q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD())))
+                .mapToLong(Quadrilateral::getId)
+                .toArray();
+    }
+
+    default long[] findSimilarIds(double sideA, double sideB, double sideC, double sideD) {
+        long[] key = ShapeKey.similar(sideA, sideB, sideC, sideD);
+        return getAllSubmittedQuads().stream()
+                .filter(q -> Arrays.equals(key, ShapeKey.similar(q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD())))
+                .mapToLong(Quadrilateral::getId)
+                .toArray();
+    }
+
 }
@@ -0,0 +1,431 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.dto.QuadNeighbor;
+import org.msse672.geometryapp.index.SideRange;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deduplicating JDBC implementation of QuadService.
+ *
+ * Each distinct side tuple is stored once in quad_shapes (unique on the exact side values)
+ * with a reference count of the submissions pointing at it. A submission is only a row
+ * in quad_submissions: (id, shape_id, submitted_at). Submission ids are the quad ids seen by
+ * callers. Type statistics and the largest side are computed over shapes weighted by their
+ * counts, so their cost scales with distinct shapes rather than submissions.
+ *
+ * Select it with @Qualifier("dedup") in place of "jdbc" or "hibernate".
+ */
+@Service
+@Qualifier("dedup")
+public class QuadServiceDedupImpl implements QuadService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadServiceDedupImpl.class);
+
+    // Ids bound per IN (...) query when loading search results
+    private static final int ID_BATCH = 500;
+
+    // Lookups of a shape row before giving up, when concurrent writers keep creating or dropping it
+    private static final int SHAPE_ATTEMPTS = 5;
+
+    private static final String SELECT_SUBMISSION =
+            "SELECT s.id, q.sideA, q.sideB, q.sideC, q.sideD FROM quad_submissions s JOIN quad_shapes q ON q.id = s.shape_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Side/shape indexes keyed by submission id like the other backends, write generation, change log and listeners
+    private final QuadWriteHooks hooks = new QuadWriteHooks(this::getQuadsAfterId);
+
+    /**
+     * Constructor injects JdbcTemplate for database operations.
+     */
+    public QuadServiceDedupImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Autowired(required = false)
+    public void setSubmissionListeners(List<QuadSubmissionListener> submissionListeners) {
+        hooks.setListeners(submissionListeners);
+    }
+
+    /**
+     * Maps a submission joined to its shape to a Quadrilateral carrying the submission id.
+     */
+    private RowMapper<Quadrilateral> mapRowToQuad() {
+        return (rs, rowNum) -> new Quadrilateral(
+                rs.getLong(1),
+                rs.getDouble(2),
+                rs.getDouble(3),
+                rs.getDouble(4),
+                rs.getDouble(5)
+        );
+    }
+
+    /**
+     * Checks if any submissions exist.
+     */
+    @Override
+    public boolean isInitialized() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM quad_submissions", Integer.class);
+        return count != null && count > 0;
+    }
+
+    // Getters for the sides of the last submitted quadrilateral
+    @Override
+    public double getSideA() {
+        return lastOrThrow().getSideA();
+    }
+    @Override
+    public double getSideB() {
+        return lastOrThrow().getSideB();
+    }
+    @Override
+    public double getSideC() {
+        return lastOrThrow().getSideC();
+    }
+    @Override
+    public double getSideD() {
+        return lastOrThrow().getSideD();
+    }
+
+    private Quadrilateral lastOrThrow() {
+        Quadrilateral last = getLastSubmittedQuad();
+        if (last == null) {
+            throw new IllegalStateException("No quadrilaterals have been submitted.");
+        }
+        return last;
+    }
+
+    /**
+     * Retrieves a submission by its ID.
+     * @throws IllegalArgumentException if not found
+     */
+    @Override
+    public Quadrilateral getById(Long id) {
+        try {
+            return jdbcTemplate.queryForObject(SELECT_SUBMISSION + " WHERE s.id = ?", mapRowToQuad(), id);
+        } catch (EmptyResultDataAccessException e) {
+            log.warn("Quadrilateral with ID {} not found.", id);
+            throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
+        }
+    }
+
+    /**
+     * Records a submission, reusing the shape row if these exact sides were seen before.
+     * @throws IllegalArgumentException if validation fails
+     */
+    @Override
+    @Transactional
+    public void insertQuad(double sideA, double sideB, double sideC, double sideD) {
+        String err = Quadrilateral.validate(sideA, sideB, sideC, sideD);
+        if (err != null) {
+            log.warn("Attempted to insert invalid quadrilateral: {}", err);
+            throw new IllegalArgumentException("Invalid Quadrilateral: " + err);
+        }
+
+        long shapeId = acquireShape(sideA, sideB, sideC, sideD);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO quad_submissions (shape_id) VALUES (?)", new String[] { "id" });
+            ps.setLong(1, shapeId);
+            return ps;
+        }, keyHolder);
+
+        Number key = keyHolder.getKey();
+        hooks.inserted(new Quadrilateral(key == null ? null : key.longValue(), sideA, sideB, sideC, sideD));
+        log.info("Recorded submission {} of shape {}: A={}, B={}, C={}, D={}", key, shapeId, sideA, sideB, sideC, sideD);
+    }
+
+    /**
+     * Points an existing submission at the shape for the new sides.
+     * @throws IllegalArgumentException if not found or validation fails
+     */
+    @Override
+    @Transactional
+    public void updateQuadById(Long id, double sideA, double sideB, double sideC, double sideD) {
+        Long oldShapeId = shapeIdOf(id);
+        if (oldShapeId == null) {
+            log.warn("Attempted to update non-existent quad with ID {}", id);
+            throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
+        }
+
+        String err = Quadrilateral.validate(sideA, sideB, sideC, sideD);
+        if (err != null) {
+            log.warn("Attempted to update with invalid quadrilateral: {}", err);
+            throw new IllegalArgumentException("Invalid Quadrilateral: " + err);
+        }
+
+        long newShapeId = acquireShape(sideA, sideB, sideC, sideD);
+        if (jdbcTemplate.update("UPDATE quad_submissions SET shape_id = ? WHERE id = ? AND shape_id = ?", newShapeId, id, oldShapeId) != 1) {
+            // Deleted or moved concurrently since shapeIdOf: hand back the new reference
+            releaseShape(newShapeId);
+            log.warn("Submission {} changed while it was being updated", id);
+            throw new IllegalArgumentException("Quadrilateral with ID " + id + " was changed concurrently; retry the update.");
+        }
+        releaseShape(oldShapeId);
+
+        Quadrilateral updated = new Quadrilateral(id, sideA, sideB, sideC, sideD);
+        hooks.updated(updated);
+        log.info("Moved submission {} from shape {} to shape {}", id, oldShapeId, newShapeId);
+    }
+
+    /**
+     * Deletes all submissions and shapes.
+     */
+    @Override
+    @Transactional
+    public void reset() {
+        log.debug("Deleting all submissions and shapes");
+        jdbcTemplate.update("DELETE FROM quad_submissions");
+        jdbcTemplate.update("DELETE FROM quad_shapes");
+        hooks.reset(true);
+    }
+
+    /**
+     * Deletes a submission, dropping its shape once nothing references it.
+     * @throws IllegalArgumentException if not found
+     */
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        Long shapeId = shapeIdOf(id);
+        if (shapeId == null) {
+            log.warn("Attempted to delete quad with non-existent ID: {}", id);
+            throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
+        }
+
+        // A concurrent delete may have won since shapeIdOf; only the one that removed the row releases
+        if (jdbcTemplate.update("DELETE FROM quad_submissions WHERE id = ?", id) != 1) {
+            log.warn("Attempted to delete quad with non-existent ID: {}", id);
+            throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
+        }
+        releaseShape(shapeId);
+        hooks.deleted(id);
+        log.info("Successfully deleted submission {} (shape {})", id, shapeId);
+    }
+
+    // ==================== Shape reference counting ====================
+
+    private Long shapeIdOf(Long submissionId) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT shape_id FROM quad_submissions WHERE id = ?", Long.class, submissionId);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * Finds or creates the shape row for these exact sides and takes a reference on it.
+     * The row is locked (SELECT ... FOR UPDATE) before the count goes up, so a concurrent
+     * releaseShape cannot delete it in between; if it is gone anyway the count update matches
+     * nothing and the lookup is retried.
+     */
+    private long acquireShape(double sideA, double sideB, double sideC, double sideD) {
+        for (int attempt = 0; attempt < SHAPE_ATTEMPTS; attempt++) {
+            Long shapeId = findShapeForUpdate(sideA, sideB, sideC, sideD);
+            if (shapeId == null) {
+                try {
+                    shapeId = insertShape(sideA, sideB, sideC, sideD);
+                } catch (DuplicateKeyException e) {
+                    // Another request created it first
+                    continue;
+                }
+            }
+            if (jdbcTemplate.update("UPDATE quad_shapes SET submissions = submissions + 1 WHERE id = ?", shapeId) == 1) {
+                return shapeId;
+            }
+            log.debug("Shape {} was released concurrently, retrying", shapeId);
+        }
+        throw new IllegalStateException("Could not acquire a shape row for A=" + sideA + ", B=" + sideB
+                + ", C=" + sideC + ", D=" + sideD + " after " + SHAPE_ATTEMPTS + " attempts.");
+    }
+
+    private long insertShape(double sideA, double sideB, double sideC, double sideD) {
+        String type = new Quadrilateral(sideA, sideB, sideC, sideD).getType();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO quad_shapes (sideA, sideB, sideC, sideD, type, submissions) VALUES (?, ?, ?, ?, ?, 0)",
+                    new String[] { "id" });
+            ps.setDouble(1, sideA);
+            ps.setDouble(2, sideB);
+            ps.setDouble(3, sideC);
+            ps.setDouble(4, sideD);
+            ps.setString(5, type);
+            return ps;
+        }, keyHolder);
+        long shapeId = keyHolder.getKey().longValue();
+        log.debug("Created shape {} for A={}, B={}, C={}, D={}", shapeId, sideA, sideB, sideC, sideD);
+        return shapeId;
+    }
+
+    private Long findShapeForUpdate(double sideA, double sideB, double sideC, double sideD) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM quad_shapes WHERE sideA = ? AND sideB = ? AND sideC = ? AND sideD = ? FOR UPDATE",
+                Long.class, sideA, sideB, sideC, sideD);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    // Drops a reference; the shape row goes once no submission points at it
+    private void releaseShape(long shapeId) {
+        if (jdbcTemplate.update("UPDATE quad_shapes SET submissions = submissions - 1 WHERE id = ?", shapeId) != 1) {
+            log.warn("Shape {} was already gone when releasing a reference to it", shapeId);
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM quad_shapes WHERE id = ? AND submissions <= 0", shapeId);
+    }
+
+    // ==================== History and Statistics ====================
+
+    /**
+     * Retrieves the last submission.
+     * @return last Quadrilateral or null if none exist
+     */
+    @Override
+    public Quadrilateral getLastSubmittedQuad() {
+        List<Quadrilateral> last = jdbcTemplate.query(SELECT_SUBMISSION + " ORDER BY s.id DESC LIMIT 1", mapRowToQuad());
+        if (last.isEmpty()) {
+            log.warn("No quads found in database.");
+            return null;
+        }
+        return last.get(0);
+    }
+
+    /**
+     * Retrieves every submission with its shape's sides, in id order.
+     */
+    @Override
+    public List<Quadrilateral> getAllSubmittedQuads() {
+        List<Quadrilateral> results = jdbcTemplate.query(SELECT_SUBMISSION + " ORDER BY s.id", mapRowToQuad());
+        log.debug("Returned {} submissions", results.size());
+        return results;
+    }
+
+    /**
+     * Retrieves the next page of submissions after the given id.
+     */
+    @Override
+    public List<Quadrilateral> getQuadsAfterId(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_SUBMISSION + " WHERE s.id > ? ORDER BY s.id LIMIT ?", mapRowToQuad(), afterId, limit);
+    }
+
+    /**
+     * Counts submissions by type by summing the reference counts of each shape.
+     * @return map of type to count
+     */
+    @Override
+    public Map<String, Long> countByType() {
+        Map<String, Long> typeCounts = new HashMap<>();
+        jdbcTemplate.query("SELECT type, SUM(submissions) FROM quad_shapes GROUP BY type",
+                rs -> { typeCounts.put(rs.getString(1), rs.getLong(2)); });
+        typeCounts.forEach((type, count) -> log.debug("Type '{}' has count {}", type, count));
+        return typeCounts;
+    }
+
+    /**
+     * Retrieves submissions whose shape is a square.
+     */
+    @Override
+    public List<Quadrilateral> getOnlySquares() {
+        List<Quadrilateral> squares = jdbcTemplate.query(
+                SELECT_SUBMISSION + " WHERE q.type = ? ORDER BY s.id", mapRowToQuad(), "Square");
+        log.debug("Found {} squares", squares.size());
+        return squares;
+    }
+
+    /**
+     * Finds the largest side over the stored shapes.
+     * @return largest side or 0 if none exist
+     */
+    @Override
+    public double getLargestSideEverSubmitted() {
+        Double result = jdbcTemplate.queryForObject(
+                "SELECT GREATEST(MAX(sideA), MAX(sideB), MAX(sideC), MAX(sideD)) FROM quad_shapes", Double.class);
+        return result == null ? 0.0 : result;
+    }
+
+    // ==================== Search ====================
+
+    /**
+     * Retrieves up to limit submissions whose sides fall inside the range, in id order.
+     */
+    @Override
+    public List<Quadrilateral> searchBySideRange(SideRange range, int limit) {
+        List<Quadrilateral> matches = findByIds(hooks.searchIndex().range(range, limit));
+        matches.sort(Comparator.comparing(Quadrilateral::getId));
+        return matches;
+    }
+
+    /**
+     * Retrieves the k submissions closest to the given sides, closest first.
+     */
+    @Override
+    public List<QuadNeighbor> findNearest(double sideA, double sideB, double sideC, double sideD, int k) {
+        return hooks.searchIndex().nearest(sideA, sideB, sideC, sideD, k, this::findByIds);
+    }
+
+    /**
+     * Retrieves ids of submissions with the same side cycle, up to rotation and reflection.
+     */
+    @Override
+    public long[] findCongruentIds(double sideA, double sideB, double sideC, double sideD) {
+        return hooks.shapeIndex().congruentIds(sideA, sideB, sideC, sideD);
+    }
+
+    /**
+     * Retrieves ids of submissions whose side cycle is a scaled copy of the given one.
+     */
+    @Override
+    public long[] findSimilarIds(double sideA, double sideB, double sideC, double sideD) {
+        return hooks.shapeIndex().similarIds(sideA, sideB, sideC, sideD);
+    }
+
+    // Loads submissions by primary key, ID_BATCH ids per query
+    private List<Quadrilateral> findByIds(long[] ids) {
+        List<Quadrilateral> quads = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += ID_BATCH) {
+            int to = Math.min(ids.length, from + ID_BATCH);
+            Object[] args = new Object[to - from];
+            for (int i = from; i < to; i++) {
+                args[i - from] = ids[i];
+            }
+            String sql = SELECT_SUBMISSION + " WHERE s.id IN (" + String.join(",", Collections.nCopies(args.length, "?")) + ")";
+            quads.addAll(jdbcTemplate.query(sql, mapRowToQuad(), args));
+        }
+        return quads;
+    }
+
+    @Override
+    public long getGeneration() {
+        return hooks.generation();
+    }
+
+    @Override
+    public QuadChangeLog getChangeLog() {
+        return hooks.changes();
+    }
+
+    // Stubbed InMemory method (not supported in the dedup implementation)
+    @Override
+    public void updateSides(double sideA, double sideB, double sideC, double sideD) {
+        log.warn("InMemory method called in DedupImpl - this should not happen!");
+        throw new UnsupportedOperationException("This method is not supported in Dedup implementation");
+    }
+}
@@ -2,22 +2,44 @@ package org.msse672.geometryapp.service;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.msse672.geometryapp.dto.QuadNeighbor;
+import org.msse672.geometryapp.index.SideRange;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.msse672.geometryapp.model.QuadType;
 import org.msse672.geometryapp.model.Quadrilateral;
 import org.msse672.geometryapp.repository.QuadRepository;
+import org.msse672.geometryapp.repository.QuadTypeCount;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.DoubleStream;
+import java.util.Optional;
 
 /**
  * Hibernate-based implementation of QuadService.
  * Handles quadrilateral persistence and retrieval using Spring Data JPA.
+ * Id lookups (including the existence checks before update/delete) go through findById so
+ * they are answered from the second-level cache when the row is there.
  */
 @Service
 @Qualifier("hibernate")
@@ -28,8 +50,22 @@ public class QuadServiceHibernateImpl implements QuadService {
 
     private static final Logger log = LoggerFactory.getLogger(QuadServiceHibernateImpl.class);
 
+    // Rows per JDBC batch in insertBatch
+    private static final int INSERT_BATCH = 1_000;
+    // Rows per round trip when streaming; MySQL needs useCursorFetch=true on the URL to honour it
+    private static final int STREAM_FETCH_SIZE = 1_000;
+
     private final QuadRepository quadRepository;
 
+    // Side/shape indexes (built from the table on first search), write generation, change log and listeners
+    private final QuadWriteHooks hooks = new QuadWriteHooks(this::getQuadsAfterId);
+
+    // Materialized per-type statistics; null scans quads instead
+    private QuadStatsTable statsTable;
+
+    // Makes reset() a single-row update; null falls back to a bulk DELETE
+    private QuadResetEpoch resetEpoch;
+
     /**
      * Constructor injects the QuadRepository for database operations.
      */
@@ -38,12 +74,35 @@ public class QuadServiceHibernateImpl implements QuadService {
         this.quadRepository = quadRepository;
     }
 
+    @Autowired(required = false)
+    public void setSubmissionListeners(List<QuadSubmissionListener> submissionListeners) {
+        hooks.setListeners(submissionListeners);
+    }
+
+    /**
+     * Keeps quad_stats up to date in the same transaction as every write, and answers
+     * isInitialized, countByType and getLargestSideEverSubmitted from it.
+     */
+    @Autowired(required = false)
+    public void setStatsTable(QuadStatsTable statsTable) {
+        this.statsTable = statsTable;
+    }
+
+    @Autowired(required = false)
+    public void setResetEpoch(QuadResetEpoch resetEpoch) {
+        this.resetEpoch = resetEpoch;
+    }
+
     /**
      * Checks if any quadrilaterals exist in the database.
      * @return true if at least one quadrilateral is present
      */
     @Override
+    @Transactional(readOnly = true)
     public boolean isInitialized() {
+        if (statsTable != null) {
+            return statsTable.total() > 0;
+        }
         long count = quadRepository.count();
         boolean initialized = count > 0;
         log.debug("isInitialized() check via Hibernate: count = {}, initialized = {}", count, initialized);
@@ -55,6 +114,7 @@ public class QuadServiceHibernateImpl implements QuadService {
      * @throws IllegalArgumentException if validation fails
      */
     @Override
+    @Transactional
     public void insertQuad(double sideA, double sideB, double sideC, double sideD) {
         String err = Quadrilateral.validate(sideA, sideB, sideC, sideD);
         if (err != null) {
@@ -62,26 +122,69 @@ public class QuadServiceHibernateImpl implements QuadService {
             throw new IllegalArgumentException("Invalid Quadrilateral: " + err);
         }
 
+        if (resetEpoch != null) {
+            resetEpoch.lockForInsert();
+        }
         Quadrilateral quad = new Quadrilateral(sideA, sideB, sideC, sideD);
+        if (statsTable != null) {
+            statsTable.added(quad);
+        }
         quadRepository.save(quad);
+        hooks.inserted(quad);
         log.info("Inserted new quadrilateral: {}", quad);
     }
 
+    /**
+     * Inserts the first n pre-validated rows as JDBC batches on the session's connection.
+     * IDENTITY ids stop Hibernate from batching persist(), so this bypasses the persistence
+     * context and evicts the query cache itself; new rows never sit in the entity cache.
+     */
+    @Override
+    @Transactional
+    public int insertBatch(double[] sideA, double[] sideB, double[] sideC, double[] sideD, byte[] types, int n) {
+        if (resetEpoch != null) {
+            resetEpoch.lockForInsert();
+        }
+        if (statsTable != null) {
+            statsTable.addedBatch(sideA, sideB, sideC, sideD, types, n);
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO quads (sideA, sideB, sideC, sideD, type) VALUES (?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < n; i++) {
+                    ps.setDouble(1, sideA[i]);
+                    ps.setDouble(2, sideB[i]);
+                    ps.setDouble(3, sideC[i]);
+                    ps.setDouble(4, sideD[i]);
+                    ps.setString(5, QuadType.fromCode(types[i]).getLabel());
+                    ps.addBatch();
+                    if ((i + 1) % INSERT_BATCH == 0 || i == n - 1) {
+                        ps.executeBatch();
+                    }
+                }
+            }
+        });
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        hooks.imported(sideA, sideB, sideC, sideD, types, n);
+        log.debug("Inserted batch of {} quads", n);
+        return n;
+    }
+
     /**
      * Retrieves the last submitted quadrilateral.
      * @return last Quadrilateral or null if none exist
      */
     @Override
+    @Transactional(readOnly = true)
     public Quadrilateral getLastSubmittedQuad() {
-        List<Quadrilateral> allQuads = quadRepository.findAll();
-        if (allQuads.isEmpty()) {
+        Optional<Quadrilateral> last = quadRepository.findFirstByOrderByIdDesc();
+        if (last.isEmpty()) {
             log.warn("No quads found in database.");
             return null;
         }
 
-        Quadrilateral last = allQuads.get(allQuads.size() - 1);
-        log.debug("Returning last submitted quadrilateral: {}", last);
-        return last;
+        log.debug("Returning last submitted quadrilateral: {}", last.get());
+        return last.get();
     }
 
     /**
@@ -89,6 +192,7 @@ public class QuadServiceHibernateImpl implements QuadService {
      * @throws IllegalArgumentException if not found
      */
     @Override
+    @Transactional(readOnly = true)
     public Quadrilateral getById(Long id) {
         return quadRepository.findById(id)
                 .orElseThrow(() -> {
@@ -98,27 +202,132 @@ public class QuadServiceHibernateImpl implements QuadService {
     }
 
     /**
-     * Retrieves all submitted quadrilaterals.
-     * @return list of all Quadrilaterals
+     * Retrieves all submitted quadrilaterals, as plain objects rather than managed entities.
+     * @return list of all Quadrilaterals in id order
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Quadrilateral> getAllSubmittedQuads() {
-        List<Quadrilateral> all = quadRepository.findAll();
+        List<Quadrilateral> all = quadRepository.findAllProjected();
         log.debug("Retrieved {} quadrilateral(s) from database.", all.size());
         return all;
     }
 
     /**
-     * Counts quadrilaterals by their type.
+     * Retrieves the next page of quadrilaterals after the given id using the primary key.
+     * Index builds page through the whole table, so this uses a stateless session on the
+     * transaction's connection: rows come back detached and the persistence context stays empty.
+     * @return up to limit Quadrilaterals in id order
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Quadrilateral> getQuadsAfterId(long afterId, int limit) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (StatelessSession stateless = session.getSessionFactory().withStatelessOptions()
+                    .connection(connection).openStatelessSession()) {
+                return stateless.createSelectionQuery("from Quadrilateral q where q.id > :afterId order by q.id", Quadrilateral.class)
+                        .setParameter("afterId", afterId)
+                        .setMaxResults(limit)
+                        .setFetchSize(Math.min(limit, STREAM_FETCH_SIZE))
+                        .getResultList();
+            }
+        });
+    }
+
+    /**
+     * Retrieves quadrilaterals created at or after since, through the created_at index.
+     * @return up to limit Quadrilaterals in id order
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Quadrilateral> getQuadsCreatedSince(Instant since, int limit) {
+        return quadRepository.findCreatedSince(Timestamp.from(since), limit);
+    }
+
+    /**
+     * Streams rows from a forward-only cursor on the session's connection, bypassing the
+     * persistence context so no entities pile up during a large export.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAfterId(long afterId, QuadRowSink sink) throws IOException {
+        try {
+            entityManager.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "SELECT id, sideA, sideB, sideC, sideD FROM quads WHERE id > ? AND " + Quadrilateral.LIVE_ROWS + " ORDER BY id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    ps.setFetchSize(STREAM_FETCH_SIZE);
+                    ps.setLong(1, afterId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            QuadServiceJdbcImpl.streamRow(rs, sink);
+                        }
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Retrieves up to limit quadrilaterals whose sides fall inside the range.
+     * @return matching Quadrilaterals in id order
+     */
+    @Override
+    public List<Quadrilateral> searchBySideRange(SideRange range, int limit) {
+        List<Quadrilateral> matches = findByIds(hooks.searchIndex().range(range, limit));
+        matches.sort(Comparator.comparing(Quadrilateral::getId));
+        log.debug("Side range search returned {} quads", matches.size());
+        return matches;
+    }
+
+    /**
+     * Retrieves the k quadrilaterals closest to the given sides.
+     * @return neighbors, closest first
+     */
+    @Override
+    public List<QuadNeighbor> findNearest(double sideA, double sideB, double sideC, double sideD, int k) {
+        return hooks.searchIndex().nearest(sideA, sideB, sideC, sideD, k, this::findByIds);
+    }
+
+    /**
+     * Retrieves ids of quadrilaterals with the same side cycle, up to rotation and reflection.
+     * @return matching ids, in no particular order
+     */
+    @Override
+    public long[] findCongruentIds(double sideA, double sideB, double sideC, double sideD) {
+        return hooks.shapeIndex().congruentIds(sideA, sideB, sideC, sideD);
+    }
+
+    /**
+     * Retrieves ids of quadrilaterals whose side cycle is a scaled copy of the given one.
+     * @return matching ids, in no particular order
+     */
+    @Override
+    public long[] findSimilarIds(double sideA, double sideB, double sideC, double sideD) {
+        return hooks.shapeIndex().similarIds(sideA, sideB, sideC, sideD);
+    }
+
+    private List<Quadrilateral> findByIds(long[] ids) {
+        return new ArrayList<>(quadRepository.findAllById(Arrays.stream(ids).boxed().toList()));
+    }
+
+    /**
+     * Counts quadrilaterals by their type, grouped in the database when there is no quad_stats.
      * @return map of type to count
      */
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Long> countByType() {
-        List<Quadrilateral> quads = getAllSubmittedQuads();
-        log.debug("Counting by type from {} quads", quads.size());
-
-        Map<String, Long> typeCounts = quads.stream()
-                .collect(Collectors.groupingBy(Quadrilateral::getType, Collectors.counting()));
+        if (statsTable != null) {
+            return statsTable.countByType();
+        }
+        Map<String, Long> typeCounts = new HashMap<>();
+        for (QuadTypeCount row : quadRepository.countGroupedByType()) {
+            typeCounts.put(row.getType(), row.getTotal());
+        }
 
         typeCounts.forEach((type, count) ->
                 log.debug("Type '{}' has count {}", type, count));
@@ -127,17 +336,15 @@ public class QuadServiceHibernateImpl implements QuadService {
     }
 
     /**
-     * Retrieves only quadrilaterals classified as squares.
-     * @return list of squares
+     * Retrieves only quadrilaterals classified as squares, from the (type, id) covering index.
+     * @return list of squares in id order
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Quadrilateral> getOnlySquares() {
-        List<Quadrilateral> all = getAllSubmittedQuads();
-        List<Quadrilateral> squares = all.stream()
-                .filter(q -> q.getType().contains("Square"))
-                .collect(Collectors.toList());
+        List<Quadrilateral> squares = quadRepository.findProjectedByType(QuadType.SQUARE.getLabel());
 
-        log.debug("Filtered {} squares from {} total quads", squares.size(), all.size());
+        log.debug("Found {} squares", squares.size());
         return squares;
     }
 
@@ -146,16 +353,15 @@ public class QuadServiceHibernateImpl implements QuadService {
      * @return largest side or 0 if none exist
      */
     @Override
+    @Transactional(readOnly = true)
     public double getLargestSideEverSubmitted() {
-        List<Quadrilateral> quads = quadRepository.findAll();
-
-        double largest = quads.stream()
-                .flatMapToDouble(q -> DoubleStream.of(q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD()))
-                .max()
-                .orElse(0);
+        if (statsTable != null) {
+            return statsTable.largestSide();
+        }
+        Double largest = quadRepository.findLargestSide();
 
-        log.debug("Largest side found among {} quads: {}", quads.size(), largest);
-        return largest;
+        log.debug("Largest side found: {}", largest);
+        return largest == null ? 0.0 : largest;
     }
 
     /**
@@ -163,8 +369,10 @@ public class QuadServiceHibernateImpl implements QuadService {
      * @throws IllegalArgumentException if not found or validation fails
      */
     @Override
+    @Transactional
     public void updateQuadById(Long id, double sideA, double sideB, double sideC, double sideD) {
-        if (!quadRepository.existsById(id)) {
+        Optional<Quadrilateral> existing = quadRepository.findById(id);
+        if (existing.isEmpty()) {
             log.warn("Attempted to update non-existent quadrilateral with ID {}", id);
             throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
         }
@@ -177,17 +385,52 @@ public class QuadServiceHibernateImpl implements QuadService {
 
         Quadrilateral updated = new Quadrilateral(sideA, sideB, sideC, sideD);
         updated.setId(id);
+        if (statsTable != null) {
+            // Before save, while the managed entity still holds the old sides
+            statsTable.removed(existing.get());
+            statsTable.added(updated);
+        }
         quadRepository.save(updated);
+        hooks.updated(updated);
         log.info("Updated quadrilateral ID {}: {}", id, updated);
     }
 
     /**
-     * Deletes all quadrilaterals from the database.
+     * Hides all quadrilaterals by advancing the reset epoch (the rows are purged in the
+     * background), or bulk-deletes them when no QuadResetEpoch is configured. Neither loads
+     * the entities. The epoch lives outside Hibernate, so the cached quads are evicted here and
+     * again after commit.
      */
     @Override
+    @Transactional
     public void reset() {
         log.warn("Deleting all quadrilaterals from database.");
-        quadRepository.deleteAll();
+        if (resetEpoch != null) {
+            entityManager.flush();
+            // First, like lockForInsert in the inserts, so neither waits on quad_stats while holding quad_epoch
+            resetEpoch.advance();
+            if (statsTable != null) {
+                statsTable.cleared();
+            }
+            entityManager.clear();
+            evictCachedQuads();
+            // A concurrent findById can cache a row again before the epoch commits, and cache
+            // hits skip LIVE_ROWS, so evict once more when the reset is visible
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evictCachedQuads();
+                    }
+                });
+            }
+        } else {
+            if (statsTable != null) {
+                statsTable.cleared();
+            }
+            quadRepository.deleteAllInBatch();
+        }
+        hooks.reset(true);
     }
 
     /**
@@ -195,16 +438,47 @@ public class QuadServiceHibernateImpl implements QuadService {
      * @throws IllegalArgumentException if not found
      */
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        if (!quadRepository.existsById(id)) {
+        Optional<Quadrilateral> existing = quadRepository.findById(id);
+        if (existing.isEmpty()) {
             log.warn("Attempted to delete non-existent quadrilateral with ID {}", id);
             throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
         }
 
+        if (statsTable != null) {
+            statsTable.removed(existing.get());
+        }
         quadRepository.deleteById(id);
+        hooks.deleted(id);
         log.info("Deleted quadrilateral with ID {}", id);
     }
 
+    @Override
+    public long getGeneration() {
+        return hooks.generation();
+    }
+
+    @Override
+    public QuadChangeLog getChangeLog() {
+        return hooks.changes();
+    }
+
+    /**
+     * Evicts the cached quads and rebuilds the indexes on next use, since their rows may have been dropped.
+     */
+    @Override
+    public void onRowsExpired() {
+        evictCachedQuads();
+        hooks.expired();
+    }
+
+    private void evictCachedQuads() {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Quadrilateral.class);
+        cache.evictQueryRegions();
+    }
+
     // Stubbed methods for interface compliance (not used in Hibernate implementation)
 
     @Override
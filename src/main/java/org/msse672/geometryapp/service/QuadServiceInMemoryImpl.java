@@ -1,21 +1,36 @@
 package org.msse672.geometryapp.service;
 
+import org.msse672.geometryapp.dto.QuadNeighbor;
+import org.msse672.geometryapp.index.SideRange;
+import org.msse672.geometryapp.journal.QuadJournal;
+import org.msse672.geometryapp.journal.QuadSnapshotStore;
+import org.msse672.geometryapp.model.QuadType;
 import org.msse672.geometryapp.model.Quadrilateral;
 import org.msse672.geometryapp.model.QuadrilateralSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * In-memory implementation of QuadService.
  * Stores quadrilateral side values and history for the current application session.
- * Data is not persisted and will be lost on application restart.
+ * Data is lost on restart unless a QuadJournal is configured (app.journal.enabled=true):
+ * then every submission is appended to the journal before it enters the history, and the
+ * journal is replayed into the history at startup. With a QuadSnapshotStore as well
+ * (app.snapshot.enabled=true), startup loads the latest snapshot and replays only the
+ * journal records written after it.
  */
 @Service
 @Qualifier("inMemory") // Enables switching between in-memory and JDBC implementations
@@ -35,11 +50,105 @@ public class QuadServiceInMemoryImpl implements QuadService {
     // Stores history of submitted quadrilaterals
     private final QuadrilateralSet history;
 
+    // Side/shape indexes over the history, write generation, change log and listeners
+    private final QuadWriteHooks hooks;
+
+    // Optional write-ahead journal; null keeps the store memory-only
+    private QuadJournal journal;
+    // Optional periodic snapshots, loaded before the journal is replayed
+    private QuadSnapshotStore snapshotStore;
+    // Serializes writes so journal order equals id order and snapshots see a consistent state
+    private final ReentrantLock writeLock = new ReentrantLock();
+
     /**
      * Constructor injects the QuadrilateralSet for history management.
      */
     public QuadServiceInMemoryImpl(QuadrilateralSet history) {
         this.history = history;
+        this.hooks = new QuadWriteHooks(history::getAfterId);
+    }
+
+    @Autowired(required = false)
+    public void setSubmissionListeners(List<QuadSubmissionListener> submissionListeners) {
+        hooks.setListeners(submissionListeners);
+    }
+
+    /**
+     * Journals every later submission. The journal is replayed by restore().
+     */
+    @Autowired(required = false)
+    public void setJournal(QuadJournal journal) {
+        this.journal = journal;
+    }
+
+    @Autowired(required = false)
+    public void setSnapshotStore(QuadSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * Rebuilds the history from the latest snapshot plus the journal records after it,
+     * then starts periodic snapshots. Does nothing when neither is configured.
+     */
+    @PostConstruct
+    public void restore() {
+        try {
+            long fromRecord = 0;
+            long snapshotLastId = 0;
+            if (snapshotStore != null) {
+                Optional<QuadSnapshotStore.Snapshot> loaded = snapshotStore.load();
+                if (loaded.isPresent()) {
+                    QuadSnapshotStore.Snapshot snapshot = loaded.get();
+                    history.addAll(snapshot.quads());
+                    setCurrent(snapshot.sideA(), snapshot.sideB(), snapshot.sideC(), snapshot.sideD());
+                    this.initialized = snapshot.initialized();
+                    fromRecord = snapshot.journalRecords();
+                    Quadrilateral last = history.getLast();
+                    snapshotLastId = last == null ? 0 : last.getId();
+                }
+            }
+            if (journal != null) {
+                List<Quadrilateral> replayed = new ArrayList<>();
+                long skipBelow = snapshotLastId;
+                journal.replay(fromRecord, quad -> {
+                    // Only matters if the journal was replaced after the snapshot was taken
+                    if (quad.getId() <= skipBelow) return;
+                    replayed.add(quad);
+                    setCurrent(quad.getSideA(), quad.getSideB(), quad.getSideC(), quad.getSideD());
+                    this.initialized = true;
+                }, () -> this.initialized = false);
+                history.addAll(replayed);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to restore in-memory quad history", e);
+        }
+        if (snapshotStore != null) {
+            snapshotStore.start(this::captureSnapshot);
+        }
+        if (journal != null || snapshotStore != null) {
+            logger.info("In-memory history restored: {} quads", history.count());
+        }
+    }
+
+    /**
+     * Captures the store in O(1): history views are fixed-length, so the snapshot thread can
+     * serialize this one while writers carry on appending.
+     */
+    QuadSnapshotStore.Snapshot captureSnapshot() {
+        writeLock.lock();
+        try {
+            return new QuadSnapshotStore.Snapshot(history.getAll(), journal != null ? journal.size() : 0,
+                    initialized, sideA, sideB, sideC, sideD);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void setCurrent(double sideA, double sideB, double sideC, double sideD) {
+        this.sideA = sideA;
+        this.sideB = sideB;
+        this.sideC = sideC;
+        this.sideD = sideD;
     }
 
     /**
@@ -80,25 +189,92 @@ public class QuadServiceInMemoryImpl implements QuadService {
     @Override
     public void updateSides(double sideA, double sideB, double sideC, double sideD) {
         logger.info("Updating sides with A={}, B={}, C={}, D={}", sideA, sideB, sideC, sideD);
-        this.sideA = sideA;
-        this.sideB = sideB;
-        this.sideC = sideC;
-        this.sideD = sideD;
-        this.initialized = true;
-
         Quadrilateral quad = new Quadrilateral(sideA, sideB, sideC, sideD);
-        history.addQuadrilateral(quad);
+        long seq = -1;
+        writeLock.lock();
+        try {
+            if (journal != null) {
+                quad.setId(history.nextId());
+                seq = journal.append(quad);
+            }
+            history.addQuadrilateral(quad);
+            setCurrent(sideA, sideB, sideC, sideD);
+            this.initialized = true;
+        } finally {
+            writeLock.unlock();
+        }
+        if (journal != null) {
+            // Under group commit this waits for the next flush, outside the lock
+            journal.awaitDurable(seq);
+        }
+        hooks.inserted(quad);
 
         logger.debug("Quad sides updated. Initialized state set to true.");
     }
 
+    /**
+     * Adds pre-validated rows to the history in one step; the last row becomes the current quad.
+     */
+    @Override
+    public int insertBatch(double[] sideA, double[] sideB, double[] sideC, double[] sideD, byte[] types, int n) {
+        if (n <= 0) return 0;
+        List<Quadrilateral> quads = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            quads.add(new Quadrilateral(null, sideA[i], sideB[i], sideC[i], sideD[i], QuadType.fromCode(types[i]).getLabel()));
+        }
+        long seq = -1;
+        writeLock.lock();
+        try {
+            if (journal != null) {
+                for (Quadrilateral quad : quads) {
+                    quad.setId(history.nextId());
+                    seq = journal.append(quad);
+                }
+            }
+            history.addAll(quads);
+            setCurrent(sideA[n - 1], sideB[n - 1], sideC[n - 1], sideD[n - 1]);
+            this.initialized = true;
+        } finally {
+            writeLock.unlock();
+        }
+        if (journal != null) {
+            journal.awaitDurable(seq);
+        }
+        hooks.insertedAll(quads);
+        return n;
+    }
+
     /**
      * Resets the initialized state and clears current side values.
      */
     @Override
     public void reset() {
         logger.info("Resetting quad side values and state.");
-        this.initialized = false;
+        long seq = -1;
+        writeLock.lock();
+        try {
+            if (journal != null) {
+                seq = journal.appendReset();
+            }
+            this.initialized = false;
+        } finally {
+            writeLock.unlock();
+        }
+        if (journal != null) {
+            journal.awaitDurable(seq);
+        }
+        // The history stays searchable; only the current quad is cleared
+        hooks.reset(false);
+    }
+
+    @Override
+    public long getGeneration() {
+        return hooks.generation();
+    }
+
+    @Override
+    public QuadChangeLog getChangeLog() {
+        return hooks.changes();
     }
 
     // ==================== History and Analysis Methods ====================
@@ -116,11 +292,7 @@ public class QuadServiceInMemoryImpl implements QuadService {
      */
     @Override
     public Map<String, Long> countByType() {
-        return history.getAll().stream()
-                .collect(Collectors.groupingBy(
-                        Quadrilateral::getType,
-                        Collectors.counting()
-                ));
+        return QuadHistoryStats.countByType(history.getAll());
     }
 
     /**
@@ -128,9 +300,7 @@ public class QuadServiceInMemoryImpl implements QuadService {
      */
     @Override
     public List<Quadrilateral> getOnlySquares() {
-        return history.getAll().stream()
-                .filter(q -> q.getType().contains("Square"))
-                .collect(Collectors.toList());
+        return QuadHistoryStats.onlySquares(history.getAll());
     }
 
     /**
@@ -138,10 +308,26 @@ public class QuadServiceInMemoryImpl implements QuadService {
      */
     @Override
     public double getLargestSideEverSubmitted() {
-        return history.getAll().stream()
-                .flatMap(q -> Stream.of(q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD()))
-                .max(Double::compare)
-                .orElse(0.0);
+        return QuadHistoryStats.largestSide(history.getAll());
+    }
+
+    /**
+     * Returns the next page of history after the given id.
+     */
+    @Override
+    public List<Quadrilateral> getQuadsAfterId(long afterId, int limit) {
+        return history.getAfterId(afterId, limit);
+    }
+
+    /**
+     * Walks a fixed view of the history, so rows added during the export are not included.
+     */
+    @Override
+    public void streamAfterId(long afterId, QuadRowSink sink) throws IOException {
+        for (Quadrilateral q : history.viewAfterId(afterId)) {
+            sink.accept(q.getId(), q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD(),
+                    QuadType.classify(q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD()).getCode());
+        }
     }
 
     /**
@@ -152,6 +338,53 @@ public class QuadServiceInMemoryImpl implements QuadService {
         return history.getLast();
     }
 
+    // ==================== Side-length Search ====================
+
+    /**
+     * Returns up to limit quadrilaterals whose sides fall inside the range.
+     */
+    @Override
+    public List<Quadrilateral> searchBySideRange(SideRange range, int limit) {
+        List<Quadrilateral> matches = new ArrayList<>();
+        for (long id : hooks.searchIndex().range(range, limit)) {
+            Quadrilateral quad = history.getById(id);
+            if (quad != null) matches.add(quad);
+        }
+        logger.debug("Side range search returned {} quads", matches.size());
+        return matches;
+    }
+
+    /**
+     * Returns the k quadrilaterals closest to the given sides, closest first.
+     */
+    @Override
+    public List<QuadNeighbor> findNearest(double sideA, double sideB, double sideC, double sideD, int k) {
+        return hooks.searchIndex().nearest(sideA, sideB, sideC, sideD, k, ids -> {
+            List<Quadrilateral> quads = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                Quadrilateral quad = history.getById(id);
+                if (quad != null) quads.add(quad);
+            }
+            return quads;
+        });
+    }
+
+    /**
+     * Returns ids of quadrilaterals with the same side cycle, up to rotation and reflection.
+     */
+    @Override
+    public long[] findCongruentIds(double sideA, double sideB, double sideC, double sideD) {
+        return hooks.shapeIndex().congruentIds(sideA, sideB, sideC, sideD);
+    }
+
+    /**
+     * Returns ids of quadrilaterals whose side cycle is a scaled copy of the given one.
+     */
+    @Override
+    public long[] findSimilarIds(double sideA, double sideB, double sideC, double sideD) {
+        return hooks.shapeIndex().similarIds(sideA, sideB, sideC, sideD);
+    }
+
     // ==================== Stubbed JDBC Methods ====================
 
     /**
@@ -1,15 +1,41 @@
 package org.msse672.geometryapp.service;
 
+import jakarta.annotation.PreDestroy;
+import org.msse672.geometryapp.dto.QuadNeighbor;
+import org.msse672.geometryapp.index.SideRange;
+import org.msse672.geometryapp.model.QuadBatchClassifier;
+import org.msse672.geometryapp.model.QuadType;
 import org.msse672.geometryapp.model.Quadrilateral;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,43 +49,119 @@ public class QuadServiceJdbcImpl implements QuadService {
 
     private static final Logger log = LoggerFactory.getLogger(QuadServiceJdbcImpl.class);
 
+    // Columns read by QUAD_ROW_MAPPER, in position order
+    private static final String QUAD_COLUMNS = "id, sideA, sideB, sideC, sideD, type";
+
+    // Reads QUAD_COLUMNS by position into a Quadrilateral carrying its stored type: no per-row
+    // column-name lookups, and no re-classification as the 5-argument constructor does
+    private static final RowMapper<Quadrilateral> QUAD_ROW_MAPPER = (rs, rowNum) -> new Quadrilateral(
+            rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4), rs.getDouble(5), rs.getString(6));
+
+    // Rows buffered per classification batch when scanning a range
+    private static final int ROW_CHUNK = 8_192;
+    // Ids bound per IN (...) query when loading search results
+    private static final int ID_BATCH = 500;
+    // Rows per JDBC batch in insertBatch
+    private static final int INSERT_BATCH = 1_000;
+    // Rows per round trip when streaming; MySQL needs useCursorFetch=true on the URL to honour it
+    private static final int STREAM_FETCH_SIZE = 1_000;
+
     private final JdbcTemplate jdbcTemplate;
 
+    // Number of id ranges queried concurrently for large aggregations
+    private final int aggregationPartitions;
+    // Partition queries block on JDBC, so each gets its own virtual thread
+    private final ExecutorService aggregationExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Side/shape indexes (built from the table on first search), write generation, change log and listeners
+    private final QuadWriteHooks hooks = new QuadWriteHooks(this::getQuadsAfterId);
+
+    // Materialized per-type statistics; null scans quads instead
+    private QuadStatsTable statsTable;
+
+    // Makes reset() a single-row update; the shared bean in Spring, built on first reset otherwise
+    private QuadResetEpoch resetEpoch;
+    // True when resetEpoch is the fallback built here, so shutdown() stops its purge thread
+    private boolean ownsResetEpoch;
+
     /**
      * Constructor injects JdbcTemplate for database operations.
      */
     public QuadServiceJdbcImpl(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, 4);
+    }
+
+    /**
+     * Constructor with the number of concurrent id-range partitions used by countByType.
+     */
+    @Autowired
+    public QuadServiceJdbcImpl(JdbcTemplate jdbcTemplate,
+                               @Value("${app.aggregation.jdbc-partitions:4}") int aggregationPartitions) {
         this.jdbcTemplate = jdbcTemplate;
+        this.aggregationPartitions = Math.max(1, aggregationPartitions);
+    }
+
+    @Autowired(required = false)
+    public void setSubmissionListeners(List<QuadSubmissionListener> submissionListeners) {
+        hooks.setListeners(submissionListeners);
     }
 
     /**
-     * Checks if a quadrilateral with the given ID exists in the database.
+     * Keeps quad_stats up to date in the same transaction as every write, and answers
+     * isInitialized, countByType and getLargestSideEverSubmitted from it.
      */
-    private boolean existsById(Long id) {
-        String sql = "SELECT COUNT(*) FROM quads WHERE id=?";
-        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, id);
-        return count != null && count > 0;
+    @Autowired(required = false)
+    public void setStatsTable(QuadStatsTable statsTable) {
+        this.statsTable = statsTable;
+    }
+
+    @Autowired(required = false)
+    public synchronized void setResetEpoch(QuadResetEpoch resetEpoch) {
+        if (ownsResetEpoch) {
+            this.resetEpoch.shutdown();
+        }
+        this.resetEpoch = resetEpoch;
+        this.ownsResetEpoch = false;
+    }
+
+    // Injected epoch, or a private one when running outside Spring (tests, QuadImportCli)
+    private synchronized QuadResetEpoch resetEpoch() {
+        if (resetEpoch == null) {
+            resetEpoch = new QuadResetEpoch(jdbcTemplate);
+            ownsResetEpoch = true;
+        }
+        return resetEpoch;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        aggregationExecutor.shutdownNow();
+        synchronized (this) {
+            if (ownsResetEpoch) {
+                resetEpoch.shutdown();
+            }
+        }
     }
 
     /**
-     * Maps a SQL result row to a Quadrilateral object.
+     * Checks if a quadrilateral with the given ID exists in the database.
      */
-    private RowMapper<Quadrilateral> mapRowToQuad() {
-        return (rs, rowNum) -> new Quadrilateral(
-                rs.getLong("id"),
-                rs.getDouble("sideA"),
-                rs.getDouble("sideB"),
-                rs.getDouble("sideC"),
-                rs.getDouble("sideD")
-        );
+    private boolean existsById(Long id) {
+        String sql = "SELECT COUNT(*) FROM quads WHERE id=? AND " + Quadrilateral.LIVE_ROWS;
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, id);
+        return count != null && count > 0;
     }
 
     /**
      * Checks if any quadrilaterals exist in the database.
      */
     @Override
+    @Transactional(readOnly = true)
     public boolean isInitialized() {
-        String sql = "SELECT COUNT(*) FROM quads";
+        if (statsTable != null) {
+            return statsTable.total() > 0;
+        }
+        String sql = "SELECT COUNT(*) FROM quads WHERE " + Quadrilateral.LIVE_ROWS;
         Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
         return count != null && count > 0;
     }
@@ -67,22 +169,22 @@ public class QuadServiceJdbcImpl implements QuadService {
     // Getters for the sides of the last submitted quadrilateral
     @Override
     public double getSideA() {
-        String sql = "SELECT sideA FROM quads ORDER BY id DESC LIMIT 1";
+        String sql = "SELECT sideA FROM quads WHERE " + Quadrilateral.LIVE_ROWS + " ORDER BY id DESC LIMIT 1";
         return jdbcTemplate.queryForObject(sql, Double.class);
     }
     @Override
     public double getSideB() {
-        String sql = "SELECT sideB FROM quads ORDER BY id DESC LIMIT 1";
+        String sql = "SELECT sideB FROM quads WHERE " + Quadrilateral.LIVE_ROWS + " ORDER BY id DESC LIMIT 1";
         return jdbcTemplate.queryForObject(sql, Double.class);
     }
     @Override
     public double getSideC() {
-        String sql = "SELECT sideC FROM quads ORDER BY id DESC LIMIT 1";
+        String sql = "SELECT sideC FROM quads WHERE " + Quadrilateral.LIVE_ROWS + " ORDER BY id DESC LIMIT 1";
         return jdbcTemplate.queryForObject(sql, Double.class);
     }
     @Override
     public double getSideD() {
-        String sql = "SELECT sideD FROM quads ORDER BY id DESC LIMIT 1";
+        String sql = "SELECT sideD FROM quads WHERE " + Quadrilateral.LIVE_ROWS + " ORDER BY id DESC LIMIT 1";
         return jdbcTemplate.queryForObject(sql, Double.class);
     }
 
@@ -91,9 +193,10 @@ public class QuadServiceJdbcImpl implements QuadService {
      * @throws IllegalArgumentException if not found
      */
     @Override
+    @Transactional(readOnly = true)
     public Quadrilateral getById(Long id) {
-        String sql = "SELECT id, sideA, sideB, sideC, sideD FROM quads WHERE id = ?";
-        return jdbcTemplate.queryForObject(sql, mapRowToQuad(), id);
+        String sql = "SELECT " + QUAD_COLUMNS + " FROM quads WHERE id = ? AND " + Quadrilateral.LIVE_ROWS;
+        return jdbcTemplate.queryForObject(sql, QUAD_ROW_MAPPER, id);
     }
 
     /**
@@ -101,6 +204,7 @@ public class QuadServiceJdbcImpl implements QuadService {
      * @throws IllegalArgumentException if not found or validation fails
      */
     @Override
+    @Transactional
     public void updateQuadById(Long id, double sideA, double sideB, double sideC, double sideD) {
         if (!existsById(id)) {
             log.warn("Attempted to update non-existent quad with ID {}", id);
@@ -113,9 +217,16 @@ public class QuadServiceJdbcImpl implements QuadService {
             throw new IllegalArgumentException("Invalid Quadrilateral: " + err);
         }
 
-        String sql = "UPDATE quads SET sideA = ?, sideB = ?, sideC = ?, sideD = ? WHERE id = ?";
+        Quadrilateral updated = new Quadrilateral(id, sideA, sideB, sideC, sideD);
+        if (statsTable != null) {
+            // Moves the row between types when the new sides classify differently
+            statsTable.removed(getById(id));
+            statsTable.added(updated);
+        }
+        String sql = "UPDATE quads SET sideA = ?, sideB = ?, sideC = ?, sideD = ?, type = ? WHERE id = ?";
         log.debug("Executing SQL: {}", sql);
-        jdbcTemplate.update(sql, sideA, sideB, sideC, sideD, id);
+        jdbcTemplate.update(sql, sideA, sideB, sideC, sideD, updated.getType(), id);
+        hooks.updated(updated);
         log.info("Successfully updated quad with ID {}: A={}, B={}, C={}, D={}", id, sideA, sideB, sideC, sideD);
     }
 
@@ -124,6 +235,7 @@ public class QuadServiceJdbcImpl implements QuadService {
      * @throws IllegalArgumentException if validation fails
      */
     @Override
+    @Transactional
     public void insertQuad(double sideA, double sideB, double sideC, double sideD) {
         String err = Quadrilateral.validate(sideA, sideB, sideC, sideD);
         if (err != null) {
@@ -131,20 +243,83 @@ public class QuadServiceJdbcImpl implements QuadService {
             throw new IllegalArgumentException("Invalid Quadrilateral: " + err);
         }
 
-        String sql = "INSERT INTO quads (sideA, sideB, sideC, sideD) VALUES (?, ?, ?, ?)";
+        resetEpoch().lockForInsert();
+        Quadrilateral quad = new Quadrilateral(sideA, sideB, sideC, sideD);
+        if (statsTable != null) {
+            statsTable.added(quad);
+        }
+        String sql = "INSERT INTO quads (sideA, sideB, sideC, sideD, type) VALUES (?, ?, ?, ?, ?)";
         log.debug("Executing POST SQL: {}", sql);
         log.debug("POST Values: {}, {}, {}, {}", sideA, sideB, sideC, sideD);
-        jdbcTemplate.update(sql, sideA, sideB, sideC, sideD);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, new String[] { "id" });
+            ps.setDouble(1, sideA);
+            ps.setDouble(2, sideB);
+            ps.setDouble(3, sideC);
+            ps.setDouble(4, sideD);
+            ps.setString(5, quad.getType());
+            return ps;
+        }, keyHolder);
+        Number key = keyHolder.getKey();
+        if (key != null) {
+            quad.setId(key.longValue());
+        }
+        hooks.inserted(quad);
         log.info("Successfully inserted quad: A={}, B={}, C={}, D={}", sideA, sideB, sideC, sideD);
     }
 
     /**
-     * Deletes all quadrilaterals from the database.
+     * Inserts the first n pre-validated rows as JDBC batches in one transaction.
+     * Generated ids are not read back, so the search indexes are rebuilt on their next use.
+     */
+    @Override
+    @Transactional
+    public int insertBatch(double[] sideA, double[] sideB, double[] sideC, double[] sideD, byte[] types, int n) {
+        resetEpoch().lockForInsert();
+        if (statsTable != null) {
+            statsTable.addedBatch(sideA, sideB, sideC, sideD, types, n);
+        }
+        String sql = "INSERT INTO quads (sideA, sideB, sideC, sideD, type) VALUES (?, ?, ?, ?, ?)";
+        for (int from = 0; from < n; from += INSERT_BATCH) {
+            int offset = from;
+            int rows = Math.min(INSERT_BATCH, n - from);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int row = offset + i;
+                    ps.setDouble(1, sideA[row]);
+                    ps.setDouble(2, sideB[row]);
+                    ps.setDouble(3, sideC[row]);
+                    ps.setDouble(4, sideD[row]);
+                    ps.setString(5, QuadType.fromCode(types[row]).getLabel());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows;
+                }
+            });
+        }
+        hooks.imported(sideA, sideB, sideC, sideD, types, n);
+        log.debug("Inserted batch of {} quads", n);
+        return n;
+    }
+
+    /**
+     * Hides every stored quadrilateral by advancing the reset epoch; the rows are deleted
+     * in the background (see QuadResetEpoch).
      */
     @Override
+    @Transactional
     public void reset() {
-        log.debug("Resetting quads table with TRUNCATE");
-        jdbcTemplate.execute("TRUNCATE TABLE quads");
+        log.debug("Resetting quads by advancing the reset epoch");
+        // First, like lockForInsert in the inserts, so neither waits on quad_stats while holding quad_epoch
+        resetEpoch().advance();
+        if (statsTable != null) {
+            statsTable.cleared();
+        }
+        hooks.reset(true);
     }
 
     /**
@@ -152,14 +327,19 @@ public class QuadServiceJdbcImpl implements QuadService {
      * @throws IllegalArgumentException if not found
      */
     @Override
+    @Transactional
     public void deleteById(Long id) {
         if (!existsById(id)) {
             log.warn("Attempted to delete quad with non-existent ID: {}", id);
             throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
         }
 
+        if (statsTable != null) {
+            statsTable.removed(getById(id));
+        }
         String sql = "DELETE FROM quads WHERE id = ?";
         jdbcTemplate.update(sql, id);
+        hooks.deleted(id);
         log.info("Successfully deleted quad with ID {}", id);
     }
 
@@ -168,11 +348,12 @@ public class QuadServiceJdbcImpl implements QuadService {
      * @return last Quadrilateral or null if none exist
      */
     @Override
+    @Transactional(readOnly = true)
     public Quadrilateral getLastSubmittedQuad() {
-        String sql = "SELECT id, sideA, sideB, sideC, sideD FROM quads ORDER BY id DESC LIMIT 1";
+        String sql = "SELECT " + QUAD_COLUMNS + " FROM quads WHERE " + Quadrilateral.LIVE_ROWS + " ORDER BY id DESC LIMIT 1";
         log.debug("Executing SQL to retrieve last submitted quad: {}", sql);
         try {
-            Quadrilateral quad = jdbcTemplate.queryForObject(sql, mapRowToQuad());
+            Quadrilateral quad = jdbcTemplate.queryForObject(sql, QUAD_ROW_MAPPER);
             log.debug("Retrieved last quad: {}", quad);
             return quad;
         } catch (EmptyResultDataAccessException e) {
@@ -185,25 +366,131 @@ public class QuadServiceJdbcImpl implements QuadService {
      * Retrieves all submitted quadrilaterals.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Quadrilateral> getAllSubmittedQuads() {
-        String sql = "SELECT id, sideA, sideB, sideC, sideD FROM quads";
+        String sql = "SELECT " + QUAD_COLUMNS + " FROM quads WHERE " + Quadrilateral.LIVE_ROWS;
         log.debug("Executing SQL: {}", sql);
-        List<Quadrilateral> results = jdbcTemplate.query(sql, mapRowToQuad());
+        List<Quadrilateral> results = jdbcTemplate.query(sql, QUAD_ROW_MAPPER);
         log.debug("Returned {} quads", results.size());
         return results;
     }
 
+    /**
+     * Retrieves the next page of quadrilaterals after the given id using the primary key.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Quadrilateral> getQuadsAfterId(long afterId, int limit) {
+        String sql = "SELECT " + QUAD_COLUMNS + " FROM quads WHERE id > ? AND " + Quadrilateral.LIVE_ROWS + " ORDER BY id LIMIT ?";
+        log.debug("Executing SQL: {} [{}, {}]", sql, afterId, limit);
+        return jdbcTemplate.query(sql, QUAD_ROW_MAPPER, afterId, limit);
+    }
+
+    /**
+     * Retrieves quadrilaterals created at or after since, through the created_at index.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Quadrilateral> getQuadsCreatedSince(Instant since, int limit) {
+        String sql = "SELECT " + QUAD_COLUMNS + " FROM quads WHERE created_at >= ? AND " + Quadrilateral.LIVE_ROWS + " ORDER BY id LIMIT ?";
+        log.debug("Executing SQL: {} [{}, {}]", sql, since, limit);
+        return jdbcTemplate.query(sql, QUAD_ROW_MAPPER, Timestamp.from(since), limit);
+    }
+
+    /**
+     * Streams rows from one forward-only cursor, holding at most one fetch batch.
+     * An IOException from the sink (e.g. the client went away) closes the cursor.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAfterId(long afterId, QuadRowSink sink) throws IOException {
+        String sql = "SELECT id, sideA, sideB, sideC, sideD FROM quads WHERE id > ? AND " + Quadrilateral.LIVE_ROWS + " ORDER BY id";
+        log.debug("Streaming SQL: {} [{}]", sql, afterId);
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(STREAM_FETCH_SIZE);
+                ps.setLong(1, afterId);
+                return ps;
+            }, (RowCallbackHandler) rs -> streamRow(rs, sink));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    static void streamRow(ResultSet rs, QuadRowSink sink) throws SQLException {
+        double a = rs.getDouble(2), b = rs.getDouble(3), c = rs.getDouble(4), d = rs.getDouble(5);
+        try {
+            sink.accept(rs.getLong(1), a, b, c, d, QuadType.classify(a, b, c, d).getCode());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Retrieves up to limit quadrilaterals whose sides fall inside the range, in id order.
+     */
+    @Override
+    public List<Quadrilateral> searchBySideRange(SideRange range, int limit) {
+        List<Quadrilateral> matches = findByIds(hooks.searchIndex().range(range, limit));
+        matches.sort(Comparator.comparing(Quadrilateral::getId));
+        log.debug("Side range search returned {} quads", matches.size());
+        return matches;
+    }
+
+    /**
+     * Retrieves the k quadrilaterals closest to the given sides, closest first.
+     */
+    @Override
+    public List<QuadNeighbor> findNearest(double sideA, double sideB, double sideC, double sideD, int k) {
+        return hooks.searchIndex().nearest(sideA, sideB, sideC, sideD, k, this::findByIds);
+    }
+
+    /**
+     * Retrieves ids of quadrilaterals with the same side cycle, up to rotation and reflection.
+     */
+    @Override
+    public long[] findCongruentIds(double sideA, double sideB, double sideC, double sideD) {
+        return hooks.shapeIndex().congruentIds(sideA, sideB, sideC, sideD);
+    }
+
+    /**
+     * Retrieves ids of quadrilaterals whose side cycle is a scaled copy of the given one.
+     */
+    @Override
+    public long[] findSimilarIds(double sideA, double sideB, double sideC, double sideD) {
+        return hooks.shapeIndex().similarIds(sideA, sideB, sideC, sideD);
+    }
+
+    // Loads rows by primary key, ID_BATCH ids per query
+    private List<Quadrilateral> findByIds(long[] ids) {
+        if (ids.length == 0) return new ArrayList<>();
+        List<Quadrilateral> quads = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += ID_BATCH) {
+            int to = Math.min(ids.length, from + ID_BATCH);
+            Object[] args = new Object[to - from];
+            for (int i = from; i < to; i++) {
+                args[i - from] = ids[i];
+            }
+            String sql = "SELECT " + QUAD_COLUMNS + " FROM quads WHERE id IN ("
+                    + String.join(",", Collections.nCopies(args.length, "?")) + ") AND " + Quadrilateral.LIVE_ROWS;
+            quads.addAll(jdbcTemplate.query(sql, QUAD_ROW_MAPPER, args));
+        }
+        return quads;
+    }
+
     /**
      * Counts quadrilaterals by their type.
+     * Large tables are split into id ranges that are scanned and classified concurrently.
      * @return map of type to count
      */
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Long> countByType() {
-        List<Quadrilateral> quads = getAllSubmittedQuads();
-        log.debug("Counting by type from {} quads", quads.size());
-
-        Map<String, Long> typeCounts = quads.stream()
-                .collect(Collectors.groupingBy(Quadrilateral::getType, Collectors.counting()));
+        if (statsTable != null) {
+            return statsTable.countByType();
+        }
+        Map<String, Long> typeCounts = aggregateByIdRange(this::countTypesInRange, QuadHistoryStats.TypeCounts::merge).toMap();
 
         typeCounts.forEach((type, count) ->
                 log.debug("Type '{}' has count {}", type, count));
@@ -213,31 +500,128 @@ public class QuadServiceJdbcImpl implements QuadService {
 
     /**
      * Retrieves only quadrilaterals classified as squares.
+     * One range scan of the (type, id, sides) covering index, already in id order.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Quadrilateral> getOnlySquares() {
-        List<Quadrilateral> all = getAllSubmittedQuads();
-        List<Quadrilateral> squares = all.stream()
-                .filter(q -> q.getType().contains("Square"))
-                .collect(Collectors.toList());
+        String sql = "SELECT " + QUAD_COLUMNS + " FROM quads WHERE type = ? AND " + Quadrilateral.LIVE_ROWS + " ORDER BY id";
+        List<Quadrilateral> squares = jdbcTemplate.query(sql, QUAD_ROW_MAPPER, QuadType.SQUARE.getLabel());
 
-        log.debug("Filtered {} squares from {} total quads", squares.size(), all.size());
+        log.debug("Found {} squares", squares.size());
 
         return squares;
     }
 
+    // ==================== Range-partitioned aggregation ====================
+
+    /**
+     * Runs rangeQuery over [minId, maxId] as one query for small tables, or as
+     * aggregationPartitions concurrent id ranges for large ones. Each range produces its
+     * own partial result; partials are merged in id order once all ranges finish.
+     */
+    private <R> R aggregateByIdRange(BiFunction<Long, Long, R> rangeQuery, BinaryOperator<R> merge) {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT COUNT(*) AS cnt, MIN(id) AS lo, MAX(id) AS hi FROM quads WHERE " + Quadrilateral.LIVE_ROWS);
+        long count = ((Number) bounds.get("cnt")).longValue();
+        if (count < QuadHistoryStats.PARALLEL_THRESHOLD || aggregationPartitions == 1) {
+            log.debug("Aggregating {} quads in a single range", count);
+            return rangeQuery.apply(Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        long lo = ((Number) bounds.get("lo")).longValue();
+        long hi = ((Number) bounds.get("hi")).longValue();
+        long span = (hi - lo) / aggregationPartitions + 1;
+        log.debug("Aggregating {} quads across {} id ranges of {}", count, aggregationPartitions, span);
+
+        List<CompletableFuture<R>> parts = new ArrayList<>();
+        for (long start = lo; start <= hi; start += span) {
+            long from = start;
+            long to = Math.min(start + span, hi + 1);
+            parts.add(CompletableFuture.supplyAsync(() -> rangeQuery.apply(from, to), aggregationExecutor));
+        }
+        R result = parts.get(0).join();
+        for (int i = 1; i < parts.size(); i++) {
+            result = merge.apply(result, parts.get(i).join());
+        }
+        return result;
+    }
+
+    // Counts types for ids in [from, to), classifying ROW_CHUNK rows at a time
+    private QuadHistoryStats.TypeCounts countTypesInRange(long from, long to) {
+        QuadHistoryStats.TypeCounts counts = new QuadHistoryStats.TypeCounts();
+        RowChunk chunk = new RowChunk();
+        String sql = "SELECT id, sideA, sideB, sideC, sideD FROM quads WHERE id >= ? AND id < ? AND " + Quadrilateral.LIVE_ROWS;
+        jdbcTemplate.query(sql, rs -> {
+            if (chunk.add(rs)) {
+                counts.addAll(chunk.a, chunk.b, chunk.c, chunk.d, chunk.classify(), chunk.size);
+                chunk.clear();
+            }
+        }, from, to);
+        counts.addAll(chunk.a, chunk.b, chunk.c, chunk.d, chunk.classify(), chunk.size);
+        return counts;
+    }
+
+    /**
+     * Reusable primitive buffer for one batch of rows.
+     */
+    private static final class RowChunk {
+        final double[] a = new double[ROW_CHUNK], b = new double[ROW_CHUNK], c = new double[ROW_CHUNK], d = new double[ROW_CHUNK];
+        final byte[] codes = new byte[ROW_CHUNK];
+        int size;
+
+        // Appends the current row; returns true when the chunk is full
+        boolean add(ResultSet rs) throws SQLException {
+            a[size] = rs.getDouble(2);
+            b[size] = rs.getDouble(3);
+            c[size] = rs.getDouble(4);
+            d[size] = rs.getDouble(5);
+            return ++size == ROW_CHUNK;
+        }
+
+        byte[] classify() {
+            QuadBatchClassifier.classify(a, b, c, d, codes, size);
+            return codes;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
     /**
      * Finds the largest side value ever submitted.
      */
     @Override
+    @Transactional(readOnly = true)
     public double getLargestSideEverSubmitted() {
-        String sql = "SELECT GREATEST(MAX(sideA), MAX(sideB), MAX(sideC), MAX(sideD)) AS largest FROM quads";
+        if (statsTable != null) {
+            return statsTable.largestSide();
+        }
+        String sql = "SELECT GREATEST(MAX(sideA), MAX(sideB), MAX(sideC), MAX(sideD)) AS largest FROM quads WHERE " + Quadrilateral.LIVE_ROWS;
         log.debug("Executing SQL for largest side: {}", sql);
         double result = jdbcTemplate.queryForObject(sql, Double.class);
         log.debug("Largest side found: {}", result);
         return result;
     }
 
+    @Override
+    public long getGeneration() {
+        return hooks.generation();
+    }
+
+    @Override
+    public QuadChangeLog getChangeLog() {
+        return hooks.changes();
+    }
+
+    /**
+     * Rebuilds the side and shape indexes on next use, since their rows may have been dropped.
+     */
+    @Override
+    public void onRowsExpired() {
+        hooks.expired();
+    }
+
     // Stubbed InMemory methods (not supported in JDBC implementation)
     @Override
     public void updateSides(double sideA, double sideB, double sideC, double sideD) {
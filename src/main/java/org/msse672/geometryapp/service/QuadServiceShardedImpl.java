@@ -0,0 +1,438 @@
+package org.msse672.geometryapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.msse672.geometryapp.dto.QuadNeighbor;
+import org.msse672.geometryapp.index.SideRange;
+import org.msse672.geometryapp.model.QuadType;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Horizontally sharded JDBC implementation of QuadService.
+ *
+ * Rows are spread round-robin over N datasources, each holding its own quads table. Ids are
+ * 64-bit ShardedQuadIds assigned here, not by the database, and carry the shard index, so
+ * single-row reads and writes go straight to one shard. History and statistics are
+ * scatter-gathered: each shard answers in parallel (aggregating where it can, e.g. GROUP BY
+ * type) and the partial results are merged here.
+ *
+ * Shards can be added at runtime with addShard; existing rows stay where they are because
+ * their ids already name their shard, and new rows start landing on the new shard at once.
+ *
+ * Configured by ShardingConfig when app.sharding.shards[0].url is set; select it with
+ * @Qualifier("sharded").
+ */
+public class QuadServiceShardedImpl implements QuadService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadServiceShardedImpl.class);
+
+    // Ids bound per IN (...) query when loading search results
+    private static final int ID_BATCH = 500;
+
+    // Per-shard table; the id is assigned by ShardedQuadIds rather than auto-increment
+    static final String SHARD_SCHEMA = "CREATE TABLE IF NOT EXISTS quads ("
+            + "id BIGINT PRIMARY KEY, "
+            + "sideA DOUBLE NOT NULL, sideB DOUBLE NOT NULL, sideC DOUBLE NOT NULL, sideD DOUBLE NOT NULL, "
+            + "type VARCHAR(50) NOT NULL)";
+
+    private static final String SELECT_QUAD = "SELECT id, sideA, sideB, sideC, sideD FROM quads";
+
+    private final List<Shard> shards = new CopyOnWriteArrayList<>();
+    private final boolean initializeSchema;
+    private final ShardedQuadIds ids;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    // Shard queries block on JDBC, so each gets its own virtual thread
+    private final ExecutorService scatterExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Side/shape indexes loaded by paging the merged history, write generation, change log and listeners
+    private final QuadWriteHooks hooks = new QuadWriteHooks(this::getQuadsAfterId);
+
+    /**
+     * @param dataSources      one per shard; list position is the shard index and must never change
+     * @param initializeSchema create the quads table on each shard if it is missing
+     */
+    public QuadServiceShardedImpl(List<DataSource> dataSources, boolean initializeSchema) {
+        this(dataSources, initializeSchema, 0);
+    }
+
+    /**
+     * @param workerId this instance's id in generated ids; distinct per instance sharing the shards
+     */
+    public QuadServiceShardedImpl(List<DataSource> dataSources, boolean initializeSchema, int workerId) {
+        this.initializeSchema = initializeSchema;
+        this.ids = new ShardedQuadIds(workerId);
+        for (DataSource dataSource : dataSources) {
+            addShard(dataSource);
+        }
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard DataSource is required.");
+        }
+    }
+
+    @Autowired(required = false)
+    public void setSubmissionListeners(List<QuadSubmissionListener> submissionListeners) {
+        hooks.setListeners(submissionListeners);
+    }
+
+    /**
+     * Appends a shard. It receives new rows immediately; nothing is moved onto it.
+     * @return the new shard's index
+     */
+    public synchronized int addShard(DataSource dataSource) {
+        int index = shards.size();
+        if (index >= ShardedQuadIds.MAX_SHARDS) {
+            throw new IllegalArgumentException("At most " + ShardedQuadIds.MAX_SHARDS + " shards are supported.");
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        if (initializeSchema) {
+            jdbc.execute(SHARD_SCHEMA);
+        }
+        shards.add(new Shard(index, dataSource, jdbc));
+        log.info("Added quad shard {}", index);
+        return index;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scatterExecutor.shutdownNow();
+        for (Shard shard : shards) {
+            if (shard.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close shard {}: {}", shard.index, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private RowMapper<Quadrilateral> mapRowToQuad() {
+        return (rs, rowNum) -> new Quadrilateral(
+                rs.getLong(1),
+                rs.getDouble(2),
+                rs.getDouble(3),
+                rs.getDouble(4),
+                rs.getDouble(5)
+        );
+    }
+
+    // ==================== Routing ====================
+
+    private JdbcTemplate shardFor(Long id) {
+        int index = ShardedQuadIds.shardOf(id);
+        if (index >= shards.size()) {
+            throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
+        }
+        return shards.get(index).jdbc;
+    }
+
+    /**
+     * Runs query on every shard concurrently and returns the per-shard results in shard order.
+     */
+    private <R> List<R> scatter(Function<JdbcTemplate, R> query) {
+        List<CompletableFuture<R>> parts = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            parts.add(CompletableFuture.supplyAsync(() -> query.apply(shard.jdbc), scatterExecutor));
+        }
+        List<R> results = new ArrayList<>(parts.size());
+        try {
+            for (CompletableFuture<R> part : parts) {
+                results.add(part.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        return results;
+    }
+
+    // Concatenates per-shard lists into one id-ordered list of at most limit rows
+    private static List<Quadrilateral> mergeById(List<List<Quadrilateral>> parts, int limit) {
+        List<Quadrilateral> merged = new ArrayList<>();
+        for (List<Quadrilateral> part : parts) {
+            merged.addAll(part);
+        }
+        merged.sort(Comparator.comparing(Quadrilateral::getId));
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // ==================== Reads ====================
+
+    @Override
+    public boolean isInitialized() {
+        return scatter(jdbc -> jdbc.queryForObject("SELECT COUNT(*) FROM quads", Long.class))
+                .stream().anyMatch(count -> count != null && count > 0);
+    }
+
+    // Getters for the sides of the last submitted quadrilateral
+    @Override
+    public double getSideA() {
+        return lastOrThrow().getSideA();
+    }
+    @Override
+    public double getSideB() {
+        return lastOrThrow().getSideB();
+    }
+    @Override
+    public double getSideC() {
+        return lastOrThrow().getSideC();
+    }
+    @Override
+    public double getSideD() {
+        return lastOrThrow().getSideD();
+    }
+
+    private Quadrilateral lastOrThrow() {
+        Quadrilateral last = getLastSubmittedQuad();
+        if (last == null) {
+            throw new IllegalStateException("No quadrilaterals have been submitted.");
+        }
+        return last;
+    }
+
+    /**
+     * Retrieves a quadrilateral from the shard named by its id.
+     * @throws IllegalArgumentException if not found
+     */
+    @Override
+    public Quadrilateral getById(Long id) {
+        try {
+            return shardFor(id).queryForObject(SELECT_QUAD + " WHERE id = ?", mapRowToQuad(), id);
+        } catch (EmptyResultDataAccessException e) {
+            log.warn("Quadrilateral with ID {} not found.", id);
+            throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
+        }
+    }
+
+    /**
+     * Retrieves the last submitted quadrilateral: the highest id across all shards.
+     * @return last Quadrilateral or null if none exist
+     */
+    @Override
+    public Quadrilateral getLastSubmittedQuad() {
+        List<List<Quadrilateral>> lasts = scatter(jdbc ->
+                jdbc.query(SELECT_QUAD + " ORDER BY id DESC LIMIT 1", mapRowToQuad()));
+        return lasts.stream()
+                .flatMap(List::stream)
+                .max(Comparator.comparing(Quadrilateral::getId))
+                .orElse(null);
+    }
+
+    /**
+     * Retrieves all submitted quadrilaterals in id order.
+     */
+    @Override
+    public List<Quadrilateral> getAllSubmittedQuads() {
+        return mergeById(scatter(jdbc -> jdbc.query(SELECT_QUAD, mapRowToQuad())), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves the next page after the given id: each shard returns its own first page and
+     * the pages are merged.
+     */
+    @Override
+    public List<Quadrilateral> getQuadsAfterId(long afterId, int limit) {
+        return mergeById(scatter(jdbc -> jdbc.query(SELECT_QUAD + " WHERE id > ? ORDER BY id LIMIT ?",
+                mapRowToQuad(), afterId, limit)), limit);
+    }
+
+    @Override
+    public List<Quadrilateral> searchBySideRange(SideRange range, int limit) {
+        List<Quadrilateral> matches = findByIds(hooks.searchIndex().range(range, limit));
+        matches.sort(Comparator.comparing(Quadrilateral::getId));
+        return matches;
+    }
+
+    @Override
+    public List<QuadNeighbor> findNearest(double sideA, double sideB, double sideC, double sideD, int k) {
+        return hooks.searchIndex().nearest(sideA, sideB, sideC, sideD, k, this::findByIds);
+    }
+
+    @Override
+    public long[] findCongruentIds(double sideA, double sideB, double sideC, double sideD) {
+        return hooks.shapeIndex().congruentIds(sideA, sideB, sideC, sideD);
+    }
+
+    @Override
+    public long[] findSimilarIds(double sideA, double sideB, double sideC, double sideD) {
+        return hooks.shapeIndex().similarIds(sideA, sideB, sideC, sideD);
+    }
+
+    // Loads rows by id, grouped by shard and ID_BATCH ids per query
+    private List<Quadrilateral> findByIds(long[] wanted) {
+        Map<Integer, List<Long>> byShard = new HashMap<>();
+        for (long id : wanted) {
+            int index = ShardedQuadIds.shardOf(id);
+            if (index < shards.size()) {
+                byShard.computeIfAbsent(index, k -> new ArrayList<>()).add(id);
+            }
+        }
+        List<Quadrilateral> quads = new ArrayList<>(wanted.length);
+        byShard.forEach((index, shardIds) -> {
+            JdbcTemplate jdbc = shards.get(index).jdbc;
+            for (int from = 0; from < shardIds.size(); from += ID_BATCH) {
+                List<Long> batch = shardIds.subList(from, Math.min(shardIds.size(), from + ID_BATCH));
+                String sql = SELECT_QUAD + " WHERE id IN ("
+                        + String.join(",", Collections.nCopies(batch.size(), "?")) + ")";
+                quads.addAll(jdbc.query(sql, mapRowToQuad(), batch.toArray()));
+            }
+        });
+        return quads;
+    }
+
+    /**
+     * Counts quadrilaterals by type. Each shard groups its own rows; the counts are summed.
+     */
+    @Override
+    public Map<String, Long> countByType() {
+        Map<String, Long> typeCounts = new HashMap<>();
+        for (List<Map<String, Object>> rows : scatter(jdbc ->
+                jdbc.queryForList("SELECT type, COUNT(*) AS cnt FROM quads GROUP BY type"))) {
+            for (Map<String, Object> row : rows) {
+                typeCounts.merge((String) row.get("type"), ((Number) row.get("cnt")).longValue(), Long::sum);
+            }
+        }
+        log.debug("Type counts across {} shards: {}", shards.size(), typeCounts);
+        return typeCounts;
+    }
+
+    /**
+     * Retrieves only squares, filtered on each shard and merged in id order.
+     */
+    @Override
+    public List<Quadrilateral> getOnlySquares() {
+        List<Quadrilateral> squares = mergeById(scatter(jdbc -> jdbc.query(SELECT_QUAD + " WHERE type = ? ORDER BY id",
+                mapRowToQuad(), QuadType.SQUARE.getLabel())), Integer.MAX_VALUE);
+        log.debug("Found {} squares", squares.size());
+        return squares;
+    }
+
+    /**
+     * Largest side across all shards, or 0 if there are no quadrilaterals.
+     */
+    @Override
+    public double getLargestSideEverSubmitted() {
+        return scatter(jdbc -> jdbc.queryForObject(
+                "SELECT GREATEST(MAX(sideA), MAX(sideB), MAX(sideC), MAX(sideD)) FROM quads", Double.class))
+                .stream()
+                .filter(max -> max != null)
+                .mapToDouble(Double::doubleValue)
+                .max()
+                .orElse(0.0);
+    }
+
+    @Override
+    public long getGeneration() {
+        return hooks.generation();
+    }
+
+    @Override
+    public QuadChangeLog getChangeLog() {
+        return hooks.changes();
+    }
+
+    // ==================== Writes ====================
+
+    /**
+     * Inserts a new quadrilateral on the next shard in round-robin order.
+     * @throws IllegalArgumentException if validation fails
+     */
+    @Override
+    public void insertQuad(double sideA, double sideB, double sideC, double sideD) {
+        String err = Quadrilateral.validate(sideA, sideB, sideC, sideD);
+        if (err != null) {
+            log.warn("Attempted to insert invalid quadrilateral: {}", err);
+            throw new IllegalArgumentException("Invalid Quadrilateral: " + err);
+        }
+
+        int index = Math.floorMod(nextShard.getAndIncrement(), shards.size());
+        long id = ids.next(index);
+        Quadrilateral quad = new Quadrilateral(id, sideA, sideB, sideC, sideD);
+        shards.get(index).jdbc.update("INSERT INTO quads (id, sideA, sideB, sideC, sideD, type) VALUES (?, ?, ?, ?, ?, ?)",
+                id, sideA, sideB, sideC, sideD, quad.getType());
+        hooks.inserted(quad);
+        log.info("Inserted quad {} on shard {}: A={}, B={}, C={}, D={}", id, index, sideA, sideB, sideC, sideD);
+    }
+
+    /**
+     * Updates the sides of an existing quadrilateral on its shard.
+     * @throws IllegalArgumentException if not found or validation fails
+     */
+    @Override
+    public void updateQuadById(Long id, double sideA, double sideB, double sideC, double sideD) {
+        String err = Quadrilateral.validate(sideA, sideB, sideC, sideD);
+        if (err != null) {
+            log.warn("Attempted to update with invalid quadrilateral: {}", err);
+            throw new IllegalArgumentException("Invalid Quadrilateral: " + err);
+        }
+
+        Quadrilateral updated = new Quadrilateral(id, sideA, sideB, sideC, sideD);
+        int rows = shardFor(id).update("UPDATE quads SET sideA = ?, sideB = ?, sideC = ?, sideD = ?, type = ? WHERE id = ?",
+                sideA, sideB, sideC, sideD, updated.getType(), id);
+        if (rows == 0) {
+            log.warn("Attempted to update non-existent quad with ID {}", id);
+            throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
+        }
+        hooks.updated(updated);
+        log.info("Successfully updated quad with ID {}: A={}, B={}, C={}, D={}", id, sideA, sideB, sideC, sideD);
+    }
+
+    /**
+     * Deletes a quadrilateral from its shard.
+     * @throws IllegalArgumentException if not found
+     */
+    @Override
+    public void deleteById(Long id) {
+        if (shardFor(id).update("DELETE FROM quads WHERE id = ?", id) == 0) {
+            log.warn("Attempted to delete quad with non-existent ID: {}", id);
+            throw new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.");
+        }
+        hooks.deleted(id);
+        log.info("Successfully deleted quad with ID {}", id);
+    }
+
+    /**
+     * Empties every shard.
+     */
+    @Override
+    public void reset() {
+        scatter(jdbc -> {
+            jdbc.execute("TRUNCATE TABLE quads");
+            return null;
+        });
+        hooks.reset(true);
+    }
+
+    // Stubbed InMemory methods (not supported in the sharded implementation)
+    @Override
+    public void updateSides(double sideA, double sideB, double sideC, double sideD) {
+        throw new UnsupportedOperationException("This method is not supported in Sharded implementation");
+    }
+
+    private record Shard(int index, DataSource dataSource, JdbcTemplate jdbc) { }
+}
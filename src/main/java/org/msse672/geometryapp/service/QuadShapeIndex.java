@@ -0,0 +1,158 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.index.ShapeHashIndex;
+import org.msse672.geometryapp.index.ShapeKey;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Congruence and similarity lookups shared by the QuadService backends.
+ *
+ * Every stored quad is filed under its ShapeKey.congruent and ShapeKey.similar keys, so
+ * "has this shape been submitted" is a hash probe instead of a history scan. Like
+ * QuadSearchIndex, it is loaded lazily from the backend's history in id order and then
+ * kept current by the backend's writes.
+ */
+final class QuadShapeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadShapeIndex.class);
+
+    private static final int LOAD_PAGE = 10_000;
+
+    // A removal is queued as a write with no quad
+    private record Write(long id, Quadrilateral quad) { }
+
+    private final QuadSearchIndex.PageLoader loader;
+    // Only one load runs at a time; writers never wait on it
+    private final Object loadLock = new Object();
+    // Replaced wholesale when a load finishes; guarded by this
+    private ShapeHashIndex congruent = new ShapeHashIndex();
+    private ShapeHashIndex similar = new ShapeHashIndex();
+    private volatile boolean loaded;
+    // Writes made while a load runs, replayed onto its result before the swap (null when idle)
+    private List<Write> pending;
+    // Bumped by clear/invalidate, so a load that overlapped one is thrown away
+    private int generation;
+
+    QuadShapeIndex(QuadSearchIndex.PageLoader loader) {
+        this.loader = loader;
+    }
+
+    long[] congruentIds(double a, double b, double c, double d) {
+        ensureLoaded();
+        long[] key = ShapeKey.congruent(a, b, c, d);
+        synchronized (this) {
+            return congruent.ids(key);
+        }
+    }
+
+    long[] similarIds(double a, double b, double c, double d) {
+        ensureLoaded();
+        long[] key = ShapeKey.similar(a, b, c, d);
+        synchronized (this) {
+            return similar.ids(key);
+        }
+    }
+
+    /**
+     * Records an inserted or updated quad. Until the first load it is only queued for a load
+     * in progress, since a later load will read it.
+     */
+    synchronized void put(Quadrilateral quad) {
+        if (quad == null || quad.getId() == null) return;
+        if (loaded) {
+            file(congruent, similar, quad);
+        } else if (pending != null) {
+            pending.add(new Write(quad.getId(), quad));
+        }
+    }
+
+    synchronized void remove(Long id) {
+        if (id == null) return;
+        if (loaded) {
+            congruent.remove(id);
+            similar.remove(id);
+        } else if (pending != null) {
+            pending.add(new Write(id, null));
+        }
+    }
+
+    synchronized void clear() {
+        congruent.clear();
+        similar.clear();
+        generation++;
+    }
+
+    /**
+     * Forgets the index after bulk inserts it was not told about; the next lookup reloads it.
+     */
+    synchronized void invalidate() {
+        loaded = false;
+        clear();
+    }
+
+    private static void file(ShapeHashIndex congruent, ShapeHashIndex similar, Quadrilateral q) {
+        congruent.put(q.getId(), ShapeKey.congruent(q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD()));
+        similar.put(q.getId(), ShapeKey.similar(q.getSideA(), q.getSideB(), q.getSideC(), q.getSideD()));
+    }
+
+    /**
+     * Builds the index from the backend's history into fresh tables, outside the monitor, then
+     * replays the writes queued meanwhile and swaps it in. Replaying is idempotent (put moves an
+     * id, remove of an absent id is a no-op), so it does not matter whether the pages saw them.
+     */
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (loadLock) {
+            while (true) {
+                int started;
+                synchronized (this) {
+                    if (loaded) return;
+                    started = generation;
+                    pending = new ArrayList<>();
+                }
+                long start = System.nanoTime();
+                ShapeHashIndex newCongruent = new ShapeHashIndex();
+                ShapeHashIndex newSimilar = new ShapeHashIndex();
+                try {
+                    long afterId = Long.MIN_VALUE;
+                    List<Quadrilateral> page;
+                    do {
+                        page = loader.page(afterId, LOAD_PAGE);
+                        for (Quadrilateral q : page) {
+                            file(newCongruent, newSimilar, q);
+                        }
+                        if (!page.isEmpty()) afterId = page.get(page.size() - 1).getId();
+                    } while (page.size() == LOAD_PAGE);
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        pending = null;
+                    }
+                    throw e;
+                }
+                synchronized (this) {
+                    List<Write> writes = pending;
+                    pending = null;
+                    if (generation != started) continue;
+                    for (Write w : writes) {
+                        if (w.quad() != null) {
+                            file(newCongruent, newSimilar, w.quad());
+                        } else {
+                            newCongruent.remove(w.id());
+                            newSimilar.remove(w.id());
+                        }
+                    }
+                    congruent = newCongruent;
+                    similar = newSimilar;
+                    loaded = true;
+                }
+                log.info("Shape index built from {} quads in {} ms", newCongruent.size(), (System.nanoTime() - start) / 1_000_000);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package org.msse672.geometryapp.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.msse672.geometryapp.index.ShapeKey;
+import org.msse672.geometryapp.model.QuadType;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.msse672.geometryapp.sketch.Hashing;
+import org.msse672.geometryapp.sketch.HyperLogLog;
+import org.msse672.geometryapp.sketch.KllSketch;
+import org.msse672.geometryapp.sketch.TopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Constant-memory approximate analytics over every quad ever submitted.
+ *
+ * Fed by QuadService backends on each insert:
+ *  - HyperLogLog of distinct shapes (side cycles up to rotation/reflection)
+ *  - Count-Min sketch + top-K of the most submitted shapes
+ *  - KLL quantile sketches of side lengths and perimeters per quad type
+ *
+ * The whole state serializes to a compact binary snapshot, which is written to
+ * app.sketch.snapshot-file every app.sketch.save-interval and on shutdown, reloaded on
+ * startup, and can be merged with snapshots from other instances.
+ *
+ * Merging is additive: the other snapshot's counts are added to these. Each state carries
+ * random origin ids, one per instance run plus the ones it has merged, and a snapshot that
+ * shares an origin with this state is rejected, since merging it would count the same
+ * submissions twice.
+ */
+@Service
+public class QuadSketchService implements QuadSubmissionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadSketchService.class);
+
+    // Snapshot header: "QSK" + format version 2 (version 1 had no origins)
+    private static final int SNAPSHOT_MAGIC = 0x51534B02;
+    private static final int SNAPSHOT_MAGIC_V1 = 0x51534B01;
+    // Origins a snapshot may list; one per instance run that fed it
+    private static final int MAX_ORIGINS = 4096;
+
+    private static final int HLL_PRECISION = 14;
+    private static final int CMS_DEPTH = 5;
+    private static final int CMS_WIDTH = 2048;
+    private static final int KLL_K = 200;
+
+    private final int topK;
+    private final Path snapshotFile;
+    private final Duration saveInterval;
+    // Only one save writes the file at a time
+    private final Object saveLock = new Object();
+    private ScheduledExecutorService scheduler;
+    // Bumped on every change, so periodic saves skip an unchanged state
+    private long version;
+    private long savedVersion = -1;
+    // This run's origin and every origin merged in
+    private Set<Long> origins;
+
+    private HyperLogLog distinctShapes;
+    private TopK topShapes;
+    private Map<QuadType, KllSketch> sides;
+    private Map<QuadType, KllSketch> perimeters;
+
+    @Autowired
+    public QuadSketchService(@Value("${app.sketch.top-k:20}") int topK,
+                             @Value("${app.sketch.snapshot-file:}") String snapshotFile,
+                             @Value("${app.sketch.save-interval:5m}") Duration saveInterval) {
+        this.topK = topK;
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.saveInterval = saveInterval;
+        clear();
+    }
+
+    /**
+     * Without periodic saves; the snapshot file is still written by save() and on shutdown.
+     */
+    public QuadSketchService(int topK, String snapshotFile) {
+        this(topK, snapshotFile, Duration.ZERO);
+    }
+
+    /**
+     * One row of the top-K report.
+     */
+    public record ShapeCount(double sideA, double sideB, double sideC, double sideD, long estimate) { }
+
+    /**
+     * Records one submitted quad.
+     */
+    @Override
+    public synchronized void onQuadSubmitted(Quadrilateral quad) {
+        double a = quad.getSideA(), b = quad.getSideB(), c = quad.getSideC(), d = quad.getSideD();
+        long[] key = ShapeKey.congruent(a, b, c, d);
+        distinctShapes.add(Hashing.hash64(key));
+        topShapes.add(key);
+
+        QuadType type = QuadType.classify(a, b, c, d);
+        KllSketch sideSketch = sides.computeIfAbsent(type, t -> new KllSketch(KLL_K));
+        sideSketch.update(a);
+        sideSketch.update(b);
+        sideSketch.update(c);
+        sideSketch.update(d);
+        perimeters.computeIfAbsent(type, t -> new KllSketch(KLL_K)).update(a + b + c + d);
+        version++;
+    }
+
+    public synchronized long totalSubmissions() {
+        return topShapes.total();
+    }
+
+    public synchronized long distinctShapes() {
+        return distinctShapes.estimate();
+    }
+
+    /**
+     * The most submitted shapes, most frequent first, with their canonical sides.
+     */
+    public synchronized List<ShapeCount> topShapes(int limit) {
+        return topShapes.top().stream()
+                .limit(limit)
+                .map(e -> new ShapeCount(
+                        Double.longBitsToDouble(e.key()[0]), Double.longBitsToDouble(e.key()[1]),
+                        Double.longBitsToDouble(e.key()[2]), Double.longBitsToDouble(e.key()[3]),
+                        e.estimate()))
+                .toList();
+    }
+
+    /**
+     * Side-length quantiles per type label, e.g. {"Square": {"0.5": 3.0, ...}}.
+     */
+    public synchronized Map<String, Map<String, Double>> sideQuantiles(double[] qs) {
+        return quantiles(sides, qs);
+    }
+
+    /**
+     * Perimeter quantiles per type label.
+     */
+    public synchronized Map<String, Map<String, Double>> perimeterQuantiles(double[] qs) {
+        return quantiles(perimeters, qs);
+    }
+
+    private static Map<String, Map<String, Double>> quantiles(Map<QuadType, KllSketch> sketches, double[] qs) {
+        Map<String, Map<String, Double>> result = new LinkedHashMap<>();
+        sketches.forEach((type, sketch) -> {
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (double q : qs) {
+                values.put(String.valueOf(q), sketch.quantile(q));
+            }
+            result.put(type.getLabel(), values);
+        });
+        return result;
+    }
+
+    // ==================== Snapshots ====================
+
+    /**
+     * Serializes the current state.
+     */
+    public synchronized byte[] snapshot() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(origins.size());
+            for (long origin : origins) out.writeLong(origin);
+            distinctShapes.writeTo(out);
+            topShapes.writeTo(out);
+            writeSketches(out, sides);
+            writeSketches(out, perimeters);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Adds a snapshot from another instance (or an earlier run of this one) to the current state.
+     * @throws IllegalArgumentException if the snapshot is malformed or incompatible, or shares
+     *         an origin with this state (it was merged already, or overlaps one that was)
+     */
+    public synchronized void merge(byte[] snapshot) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            int magic = in.readInt();
+            if (magic != SNAPSHOT_MAGIC && magic != SNAPSHOT_MAGIC_V1) {
+                throw new IllegalArgumentException("Not a quad sketch snapshot.");
+            }
+            Set<Long> otherOrigins = new HashSet<>();
+            if (magic == SNAPSHOT_MAGIC) {
+                int n = in.readInt();
+                if (n < 0 || n > MAX_ORIGINS) {
+                    throw new IllegalArgumentException("Sketch snapshot origin count out of range: " + n);
+                }
+                for (int i = 0; i < n; i++) {
+                    long origin = in.readLong();
+                    if (origins.contains(origin)) {
+                        throw new IllegalArgumentException("Sketch snapshot overlaps state already merged here.");
+                    }
+                    otherOrigins.add(origin);
+                }
+            }
+            HyperLogLog otherDistinct = HyperLogLog.readFrom(in);
+            TopK otherTop = TopK.readFrom(in, topK, CMS_DEPTH, CMS_WIDTH);
+            Map<QuadType, KllSketch> otherSides = readSketches(in);
+            Map<QuadType, KllSketch> otherPerimeters = readSketches(in);
+
+            distinctShapes.merge(otherDistinct);
+            topShapes.merge(otherTop);
+            otherSides.forEach((type, s) -> sides.computeIfAbsent(type, t -> new KllSketch(KLL_K)).merge(s));
+            otherPerimeters.forEach((type, s) -> perimeters.computeIfAbsent(type, t -> new KllSketch(KLL_K)).merge(s));
+            origins.addAll(otherOrigins);
+            version++;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed sketch snapshot.", e);
+        }
+    }
+
+    /**
+     * Drops all state. The emptied state gets a new origin, so peers can merge it again.
+     */
+    public synchronized void clear() {
+        origins = new HashSet<>();
+        origins.add(ThreadLocalRandom.current().nextLong());
+        version++;
+        distinctShapes = new HyperLogLog(HLL_PRECISION);
+        topShapes = new TopK(topK, CMS_DEPTH, CMS_WIDTH);
+        sides = new EnumMap<>(QuadType.class);
+        perimeters = new EnumMap<>(QuadType.class);
+    }
+
+    private static void writeSketches(DataOutputStream out, Map<QuadType, KllSketch> sketches) throws IOException {
+        out.writeInt(sketches.size());
+        for (Map.Entry<QuadType, KllSketch> entry : sketches.entrySet()) {
+            out.writeByte(entry.getKey().getCode());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    private static Map<QuadType, KllSketch> readSketches(DataInputStream in) throws IOException {
+        Map<QuadType, KllSketch> sketches = new EnumMap<>(QuadType.class);
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            sketches.put(QuadType.fromCode(in.readByte()), KllSketch.readFrom(in, KLL_K));
+        }
+        return sketches;
+    }
+
+    /**
+     * Merges the snapshot file left by an earlier run, then starts the periodic saves.
+     */
+    @PostConstruct
+    public void load() {
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            try {
+                merge(Files.readAllBytes(snapshotFile));
+                log.info("Loaded sketch snapshot from {} ({} submissions)", snapshotFile, totalSubmissions());
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Ignoring unreadable sketch snapshot {}: {}", snapshotFile, e.getMessage());
+            }
+        }
+        startSaving();
+    }
+
+    private synchronized void startSaving() {
+        if (snapshotFile == null || saveInterval.isZero() || saveInterval.isNegative() || scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("quad-sketch-save").daemon().factory());
+        long ms = saveInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::save, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the snapshot file unless nothing changed since the last save.
+     */
+    public void save() {
+        if (snapshotFile == null) return;
+        synchronized (saveLock) {
+            byte[] bytes;
+            long snapshotVersion;
+            synchronized (this) {
+                if (version == savedVersion) return;
+                bytes = snapshot();
+                snapshotVersion = version;
+            }
+            try {
+                Path parent = snapshotFile.toAbsolutePath().getParent();
+                if (parent != null) Files.createDirectories(parent);
+                Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+                Files.write(tmp, bytes);
+                Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                synchronized (this) {
+                    savedVersion = snapshotVersion;
+                }
+                log.debug("Saved sketch snapshot to {}", snapshotFile);
+            } catch (IOException e) {
+                log.warn("Could not save sketch snapshot to {}: {}", snapshotFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops the periodic saves and writes a final snapshot.
+     */
+    @PreDestroy
+    public void shutdown() {
+        ScheduledExecutorService s;
+        synchronized (this) {
+            s = scheduler;
+            scheduler = null;
+        }
+        if (s != null) {
+            s.shutdownNow();
+        }
+        save();
+    }
+}
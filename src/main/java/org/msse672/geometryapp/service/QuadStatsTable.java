@@ -0,0 +1,321 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.model.QuadType;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Materialized per-type statistics in the quad_stats table: count, and sum/min/max of each
+ * side. The JDBC and Hibernate backends apply a delta in the same transaction as every write
+ * to quads, so countByType and getLargestSideEverSubmitted read a handful of rows instead of
+ * scanning the table.
+ *
+ * Writers update the stats row before touching quads, so every write of one type serializes
+ * on that row until commit. rebuild() takes no locks while it scans: it repairs one type at a
+ * time and only if the row still holds the values it compared against, so a concurrent write
+ * is never overwritten, just left for the next run.
+ *
+ * Min/max cannot be decremented. Removing a row that holds an extreme leaves them as they are,
+ * which can only be too wide, and marks them stale; largestSide() scans the stale types alone
+ * and the next rebuild() recomputes and clears them.
+ */
+public class QuadStatsTable implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadStatsTable.class);
+
+    private static final String ADD_SQL = "UPDATE quad_stats SET cnt = cnt + ?,"
+            + " sum_a = sum_a + ?, sum_b = sum_b + ?, sum_c = sum_c + ?, sum_d = sum_d + ?,"
+            + " min_a = COALESCE(LEAST(min_a, ?), ?), min_b = COALESCE(LEAST(min_b, ?), ?),"
+            + " min_c = COALESCE(LEAST(min_c, ?), ?), min_d = COALESCE(LEAST(min_d, ?), ?),"
+            + " max_a = COALESCE(GREATEST(max_a, ?), ?), max_b = COALESCE(GREATEST(max_b, ?), ?),"
+            + " max_c = COALESCE(GREATEST(max_c, ?), ?), max_d = COALESCE(GREATEST(max_d, ?), ?)"
+            + " WHERE type = ?";
+
+    private static final String ROW_COLUMNS = "type, cnt, sum_a, sum_b, sum_c, sum_d, min_a, min_b, min_c, min_d,"
+            + " max_a, max_b, max_c, max_d";
+
+    // Sets a type's row, provided it still holds the count and sums that were read
+    private static final String CORRECT_SQL = "UPDATE quad_stats SET cnt = ?,"
+            + " sum_a = ?, sum_b = ?, sum_c = ?, sum_d = ?, min_a = ?, min_b = ?, min_c = ?, min_d = ?,"
+            + " max_a = ?, max_b = ?, max_c = ?, max_d = ?, extremes_stale = FALSE"
+            + " WHERE type = ? AND cnt = ? AND sum_a = ? AND sum_b = ? AND sum_c = ? AND sum_d = ?";
+
+    private static final String AGGREGATE_COLUMNS = "COUNT(*), SUM(sideA), SUM(sideB), SUM(sideC), SUM(sideD),"
+            + " MIN(sideA), MIN(sideB), MIN(sideC), MIN(sideD), MAX(sideA), MAX(sideB), MAX(sideC), MAX(sideD)";
+
+    /**
+     * One type's row. Min/max are null while the count is 0, and may be too wide while stale.
+     */
+    record Row(String type, long count, double sumA, double sumB, double sumC, double sumD,
+               Double minA, Double minB, Double minC, Double minD,
+               Double maxA, Double maxB, Double maxC, Double maxD) {
+
+        Object[] correctArgs(Row expected) {
+            return new Object[] { count, sumA, sumB, sumC, sumD, minA, minB, minC, minD, maxA, maxB, maxC, maxD, type,
+                    expected.count, expected.sumA, expected.sumB, expected.sumC, expected.sumD };
+        }
+
+        static Row empty(String type) {
+            return new Row(type, 0, 0, 0, 0, 0, null, null, null, null, null, null, null, null);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService scheduler;
+
+    public QuadStatsTable(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ==================== Deltas ====================
+
+    /**
+     * Adds one row to its type's statistics. Call before inserting into quads.
+     */
+    void added(Quadrilateral quad) {
+        add(quad.getType(), 1, quad.getSideA(), quad.getSideB(), quad.getSideC(), quad.getSideD(),
+                quad.getSideA(), quad.getSideB(), quad.getSideC(), quad.getSideD(),
+                quad.getSideA(), quad.getSideB(), quad.getSideC(), quad.getSideD());
+    }
+
+    /**
+     * Adds rows [0, n) of a bulk insert with one update per type present.
+     */
+    void addedBatch(double[] sideA, double[] sideB, double[] sideC, double[] sideD, byte[] types, int n) {
+        QuadType[] all = QuadType.values();
+        long[] counts = new long[all.length];
+        double[][] acc = new double[all.length][];
+        for (int i = 0; i < n; i++) {
+            int t = types[i];
+            double[] a = acc[t];
+            if (a == null) {
+                a = acc[t] = new double[] { 0, 0, 0, 0, sideA[i], sideB[i], sideC[i], sideD[i], sideA[i], sideB[i], sideC[i], sideD[i] };
+            }
+            counts[t]++;
+            a[0] += sideA[i];
+            a[1] += sideB[i];
+            a[2] += sideC[i];
+            a[3] += sideD[i];
+            a[4] = Math.min(a[4], sideA[i]);
+            a[5] = Math.min(a[5], sideB[i]);
+            a[6] = Math.min(a[6], sideC[i]);
+            a[7] = Math.min(a[7], sideD[i]);
+            a[8] = Math.max(a[8], sideA[i]);
+            a[9] = Math.max(a[9], sideB[i]);
+            a[10] = Math.max(a[10], sideC[i]);
+            a[11] = Math.max(a[11], sideD[i]);
+        }
+        for (QuadType type : all) {
+            double[] a = acc[type.getCode()];
+            if (a != null) {
+                add(type.getLabel(), counts[type.getCode()], a[0], a[1], a[2], a[3],
+                        a[4], a[5], a[6], a[7], a[8], a[9], a[10], a[11]);
+            }
+        }
+    }
+
+    /**
+     * Removes one stored row from its type's statistics. Call before deleting or updating it
+     * in quads. If it held a min or max, the type's extremes are marked stale instead of
+     * being recomputed here.
+     */
+    void removed(Quadrilateral quad) {
+        String type = quad.getType();
+        double a = quad.getSideA(), b = quad.getSideB(), c = quad.getSideC(), d = quad.getSideD();
+        jdbcTemplate.update("UPDATE quad_stats SET cnt = cnt - 1,"
+                        + " sum_a = sum_a - ?, sum_b = sum_b - ?, sum_c = sum_c - ?, sum_d = sum_d - ?,"
+                        + " extremes_stale = CASE WHEN min_a = ? OR max_a = ? OR min_b = ? OR max_b = ?"
+                        + " OR min_c = ? OR max_c = ? OR min_d = ? OR max_d = ? THEN TRUE ELSE extremes_stale END"
+                        + " WHERE type = ?",
+                a, b, c, d, a, a, b, b, c, c, d, d, type);
+        // The last row of its type: nothing left to be stale
+        jdbcTemplate.update("UPDATE quad_stats SET cnt = 0, sum_a = 0, sum_b = 0, sum_c = 0, sum_d = 0,"
+                + " min_a = NULL, min_b = NULL, min_c = NULL, min_d = NULL,"
+                + " max_a = NULL, max_b = NULL, max_c = NULL, max_d = NULL, extremes_stale = FALSE"
+                + " WHERE type = ? AND cnt <= 0", type);
+    }
+
+    /**
+     * Zeroes every row; call when quads is emptied.
+     */
+    void cleared() {
+        jdbcTemplate.update("UPDATE quad_stats SET cnt = 0, sum_a = 0, sum_b = 0, sum_c = 0, sum_d = 0,"
+                + " min_a = NULL, min_b = NULL, min_c = NULL, min_d = NULL,"
+                + " max_a = NULL, max_b = NULL, max_c = NULL, max_d = NULL, extremes_stale = FALSE");
+    }
+
+    private void add(String type, long count, double sumA, double sumB, double sumC, double sumD,
+                     double minA, double minB, double minC, double minD,
+                     double maxA, double maxB, double maxC, double maxD) {
+        Object[] args = { count, sumA, sumB, sumC, sumD, minA, minA, minB, minB, minC, minC, minD, minD,
+                maxA, maxA, maxB, maxB, maxC, maxC, maxD, maxD, type };
+        if (jdbcTemplate.update(ADD_SQL, args) == 0) {
+            // Rows are seeded for every type, so this only happens on a table created without them
+            seed();
+            jdbcTemplate.update(ADD_SQL, args);
+        }
+    }
+
+    // ==================== Reads ====================
+
+    /**
+     * Counts by type label, for the types with at least one row.
+     */
+    Map<String, Long> countByType() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT type, cnt FROM quad_stats WHERE cnt > 0",
+                rs -> { counts.put(rs.getString(1), rs.getLong(2)); });
+        return counts;
+    }
+
+    long total() {
+        Long total = jdbcTemplate.queryForObject("SELECT SUM(cnt) FROM quad_stats", Long.class);
+        return total == null ? 0 : total;
+    }
+
+    /**
+     * Largest side of any stored row, or 0 when there are none. Types with stale extremes are
+     * read from quads (one type's index range each); the rest come from quad_stats.
+     */
+    double largestSide() {
+        Double largest = jdbcTemplate.queryForObject("SELECT MAX(GREATEST(max_a, max_b, max_c, max_d))"
+                + " FROM quad_stats WHERE cnt > 0 AND NOT extremes_stale", Double.class);
+        List<String> stale = jdbcTemplate.queryForList(
+                "SELECT type FROM quad_stats WHERE cnt > 0 AND extremes_stale", String.class);
+        for (String type : stale) {
+            Double max = jdbcTemplate.queryForObject("SELECT MAX(GREATEST(sideA, sideB, sideC, sideD)) FROM quads"
+                    + " WHERE type = ? AND " + Quadrilateral.LIVE_ROWS, Double.class, type);
+            if (max != null && (largest == null || max > largest)) {
+                largest = max;
+            }
+        }
+        return largest == null ? 0.0 : largest;
+    }
+
+    List<Row> rows() {
+        return jdbcTemplate.query("SELECT " + ROW_COLUMNS + " FROM quad_stats ORDER BY type", (rs, i) -> mapRow(rs));
+    }
+
+    private static Row mapRow(ResultSet rs) throws SQLException {
+        return new Row(rs.getString(1), rs.getLong(2), rs.getDouble(3), rs.getDouble(4), rs.getDouble(5), rs.getDouble(6),
+                rs.getObject(7, Double.class), rs.getObject(8, Double.class), rs.getObject(9, Double.class), rs.getObject(10, Double.class),
+                rs.getObject(11, Double.class), rs.getObject(12, Double.class), rs.getObject(13, Double.class), rs.getObject(14, Double.class));
+    }
+
+    // ==================== Repair ====================
+
+    /**
+     * Recomputes every row from quads, correcting drift from writes made outside the backends
+     * (or floating-point error in the running sums) and clearing stale extremes.
+     *
+     * Nothing is locked while quads is scanned. Each type is then corrected on its own, only if
+     * its count and sums are still the ones read before the scan; a type written to meanwhile
+     * is skipped and repaired by the next run.
+     * @return number of type rows whose stored values changed
+     */
+    public int rebuild() {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> seed());
+        Map<String, Row> stored = new HashMap<>();
+        Map<String, Boolean> staleTypes = new HashMap<>();
+        jdbcTemplate.query("SELECT " + ROW_COLUMNS + ", extremes_stale FROM quad_stats", rs -> {
+            Row row = mapRow(rs);
+            stored.put(row.type(), row);
+            staleTypes.put(row.type(), rs.getBoolean(15));
+        });
+        Map<String, Row> actual = new HashMap<>();
+        jdbcTemplate.query("SELECT type, " + AGGREGATE_COLUMNS + " FROM quads WHERE " + Quadrilateral.LIVE_ROWS + " GROUP BY type", (rs, i) -> mapRow(rs))
+                .forEach(row -> actual.put(row.type(), row));
+
+        int updates = 0;
+        int skipped = 0;
+        for (Map.Entry<String, Row> entry : stored.entrySet()) {
+            String type = entry.getKey();
+            Row row = actual.getOrDefault(type, Row.empty(type));
+            if (row.equals(entry.getValue()) && !staleTypes.get(type)) continue;
+            if (correct(row, entry.getValue())) {
+                updates++;
+            } else {
+                skipped++;
+            }
+        }
+        for (Row row : actual.values()) {
+            if (!stored.containsKey(row.type())) {
+                // Type label not seeded, e.g. rows written by an older release
+                jdbcTemplate.update("INSERT INTO quad_stats (type) VALUES (?)", row.type());
+                if (correct(row, Row.empty(row.type()))) {
+                    updates++;
+                } else {
+                    skipped++;
+                }
+            }
+        }
+        log.info("Rebuilt quad_stats in {} ms; {} type rows corrected, {} written to meanwhile and left for the next run",
+                (System.nanoTime() - started) / 1_000_000, updates, skipped);
+        return updates;
+    }
+
+    /**
+     * Stores actual as its type's row unless the count or sums have moved on from expected.
+     */
+    boolean correct(Row actual, Row expected) {
+        return jdbcTemplate.update(CORRECT_SQL, actual.correctArgs(expected)) == 1;
+    }
+
+    /**
+     * Inserts the missing row of every valid type.
+     */
+    private void seed() {
+        for (QuadType type : QuadType.values()) {
+            if (type == QuadType.INVALID) continue;
+            Integer present = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM quad_stats WHERE type = ?", Integer.class, type.getLabel());
+            if (present == null || present == 0) {
+                jdbcTemplate.update("INSERT INTO quad_stats (type) VALUES (?)", type.getLabel());
+            }
+        }
+    }
+
+    /**
+     * Runs rebuild() every interval on a background thread; a zero interval disables it.
+     */
+    public synchronized void startRepair(Duration interval) {
+        if (interval.isZero() || interval.isNegative() || scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("quad-stats-repair").daemon().factory());
+        long ms = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("quad_stats repair failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.model.Quadrilateral;
+
+/**
+ * Callback for components that track submissions as they happen (sketches, rolling stats).
+ * Every QuadService backend calls registered listeners after a quad is stored, once the
+ * write has committed when it runs in a transaction (see QuadWriteHooks).
+ * Implementations must be cheap and must not throw.
+ */
+public interface QuadSubmissionListener {
+    void onQuadSubmitted(Quadrilateral quad);
+}
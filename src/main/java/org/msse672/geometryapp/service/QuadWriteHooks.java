@@ -0,0 +1,175 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.model.QuadType;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bookkeeping that follows every write in a QuadService backend: the side and shape indexes,
+ * the write generation, the change log and the submission listeners. Backends make one call
+ * per write instead of updating each of them in turn.
+ *
+ * Index updates and submission listeners run after commit when a transaction is active, like
+ * QuadChangeLog and WriteGeneration, so other requests never find uncommitted rows through
+ * the indexes, and a rolled-back write never reaches the indexes, sketches or rolling stats.
+ */
+final class QuadWriteHooks {
+
+    private final QuadSearchIndex searchIndex;
+    private final QuadShapeIndex shapeIndex;
+    private final WriteGeneration generation = new WriteGeneration();
+    private final QuadChangeLog changes = new QuadChangeLog();
+    private volatile List<QuadSubmissionListener> listeners = List.of();
+
+    /**
+     * @param loader pages the backend's history in id order, to build the indexes
+     */
+    QuadWriteHooks(QuadSearchIndex.PageLoader loader) {
+        this.searchIndex = new QuadSearchIndex(loader);
+        this.shapeIndex = new QuadShapeIndex(loader);
+    }
+
+    void setListeners(List<QuadSubmissionListener> listeners) {
+        this.listeners = listeners == null ? List.of() : listeners;
+    }
+
+    QuadSearchIndex searchIndex() {
+        return searchIndex;
+    }
+
+    QuadShapeIndex shapeIndex() {
+        return shapeIndex;
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    QuadChangeLog changes() {
+        return changes;
+    }
+
+    // ==================== Writes ====================
+
+    /**
+     * A stored submission. Rows whose id was not read back are left for the next index load.
+     */
+    void inserted(Quadrilateral quad) {
+        afterCommit(() -> {
+            searchIndex.put(quad);
+            shapeIndex.put(quad);
+        });
+        generation.bump();
+        changes.inserted(quad);
+        notifySubmitted(List.of(quad));
+    }
+
+    /**
+     * A batch of submissions with their ids, indexed as they are.
+     */
+    void insertedAll(List<Quadrilateral> quads) {
+        afterCommit(() -> {
+            for (Quadrilateral quad : quads) {
+                searchIndex.put(quad);
+                shapeIndex.put(quad);
+            }
+        });
+        generation.bump();
+        changes.imported(quads.size());
+        notifySubmitted(quads);
+    }
+
+    /**
+     * The first n rows of a bulk insert whose ids were not read back; the indexes reload on next use.
+     */
+    void imported(double[] sideA, double[] sideB, double[] sideC, double[] sideD, byte[] types, int n) {
+        afterCommit(() -> {
+            searchIndex.invalidate();
+            shapeIndex.invalidate();
+        });
+        generation.bump();
+        changes.imported(n);
+        if (listeners.isEmpty()) return;
+        List<Quadrilateral> quads = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            quads.add(new Quadrilateral(null, sideA[i], sideB[i], sideC[i], sideD[i], QuadType.fromCode(types[i]).getLabel()));
+        }
+        notifySubmitted(quads);
+    }
+
+    void updated(Quadrilateral quad) {
+        afterCommit(() -> {
+            searchIndex.put(quad);
+            shapeIndex.put(quad);
+        });
+        generation.bump();
+        changes.updated(quad);
+    }
+
+    void deleted(long id) {
+        afterCommit(() -> {
+            searchIndex.remove(id);
+            shapeIndex.remove(id);
+        });
+        generation.bump();
+        changes.deleted(id);
+    }
+
+    /**
+     * @param historyCleared false when the backend keeps its history searchable (in-memory reset)
+     */
+    void reset(boolean historyCleared) {
+        if (historyCleared) {
+            afterCommit(() -> {
+                searchIndex.clear();
+                shapeIndex.clear();
+            });
+        }
+        generation.bump();
+        changes.reset();
+    }
+
+    /**
+     * Rows removed behind the backend's back (partition retention); the indexes reload on next use.
+     */
+    void expired() {
+        afterCommit(() -> {
+            searchIndex.invalidate();
+            shapeIndex.invalidate();
+        });
+        generation.bump();
+        changes.expired();
+    }
+
+    private void notifySubmitted(List<Quadrilateral> quads) {
+        List<QuadSubmissionListener> current = listeners;
+        if (current.isEmpty()) return;
+        afterCommit(() -> deliver(current, quads));
+    }
+
+    // Runs now outside a transaction, otherwise once it commits; a rollback drops it
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static void deliver(List<QuadSubmissionListener> listeners, List<Quadrilateral> quads) {
+        for (Quadrilateral quad : quads) {
+            for (QuadSubmissionListener listener : listeners) {
+                listener.onQuadSubmitted(quad);
+            }
+        }
+    }
+}
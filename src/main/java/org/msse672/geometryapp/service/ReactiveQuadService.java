@@ -0,0 +1,129 @@
+package org.msse672.geometryapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.msse672.geometryapp.config.ReplicaRoutingDataSource;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking adapter over a blocking QuadService.
+ * Every call is deferred onto a bounded elastic scheduler so JDBC/JPA work never runs
+ * on the request thread. The thread cap should track the connection pool size.
+ *
+ * Calls are assembled on the request thread, so each one captures that request's
+ * ReplicaRoutingDataSource session and binds it while it runs on the scheduler: reads after
+ * a write in the same request stay on the primary, and scheduler threads keep no state.
+ */
+@Service
+public class ReactiveQuadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveQuadService.class);
+
+    private final QuadService quadService;
+    private final Scheduler dbScheduler;
+    private final int pageSize;
+
+    @Autowired
+    public ReactiveQuadService(@Qualifier("hibernate") QuadService quadService,
+                               @Value("${app.reactive.db-threads:16}") int dbThreads,
+                               @Value("${app.reactive.db-queue:10000}") int dbQueue,
+                               @Value("${app.reactive.page-size:500}") int pageSize) {
+        this.quadService = quadService;
+        this.dbScheduler = Schedulers.newBoundedElastic(dbThreads, dbQueue, "quad-db");
+        this.pageSize = pageSize;
+        log.info("ReactiveQuadService created with {} DB threads, queue {}, page size {}", dbThreads, dbQueue, pageSize);
+    }
+
+    public Mono<Boolean> isInitialized() {
+        return offload(quadService::isInitialized);
+    }
+
+    /**
+     * Errors with IllegalArgumentException when the id does not exist, whichever backend is
+     * wired in (the JDBC ones throw EmptyResultDataAccessException).
+     */
+    public Mono<Quadrilateral> getById(Long id) {
+        return offload(() -> quadService.getById(id))
+                .onErrorMap(EmptyResultDataAccessException.class,
+                        e -> new IllegalArgumentException("Quadrilateral with ID " + id + " does not exist.", e));
+    }
+
+    public Mono<Void> insertQuad(double sideA, double sideB, double sideC, double sideD) {
+        return offload(() -> {
+            quadService.insertQuad(sideA, sideB, sideC, sideD);
+            return null;
+        }).then();
+    }
+
+    public Mono<Quadrilateral> getLastSubmittedQuad() {
+        return offload(quadService::getLastSubmittedQuad);
+    }
+
+    public Mono<Map<String, Long>> countByType() {
+        return offload(quadService::countByType);
+    }
+
+    public Mono<List<Quadrilateral>> getOnlySquares() {
+        return offload(quadService::getOnlySquares);
+    }
+
+    /**
+     * Streams the full history one keyset page at a time.
+     * The next page is only fetched when the subscriber has demand, so a slow client
+     * holds at most one page in memory.
+     */
+    public Flux<Quadrilateral> streamAllSubmittedQuads() {
+        ReplicaRoutingDataSource.Session session = ReplicaRoutingDataSource.currentSession();
+        return Flux.<List<Quadrilateral>, Long>generate(() -> 0L, (afterId, sink) -> {
+                    List<Quadrilateral> page;
+                    ReplicaRoutingDataSource.Session previous = ReplicaRoutingDataSource.bind(session);
+                    try {
+                        page = quadService.getQuadsAfterId(afterId, pageSize);
+                    } finally {
+                        ReplicaRoutingDataSource.restore(previous);
+                    }
+                    if (page.isEmpty()) {
+                        sink.complete();
+                        return afterId;
+                    }
+                    sink.next(page);
+                    return page.get(page.size() - 1).getId();
+                })
+                .subscribeOn(dbScheduler)
+                .concatMapIterable(page -> page, 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dbScheduler.dispose();
+    }
+
+    // Runs a blocking call on the DB scheduler; null results complete empty
+    private <T> Mono<T> offload(Callable<T> call) {
+        ReplicaRoutingDataSource.Session session = ReplicaRoutingDataSource.currentSession();
+        return Mono.fromCallable(() -> inSession(session, call)).subscribeOn(dbScheduler);
+    }
+
+    private static <T> T inSession(ReplicaRoutingDataSource.Session session, Callable<T> call) throws Exception {
+        ReplicaRoutingDataSource.Session previous = ReplicaRoutingDataSource.bind(session);
+        try {
+            return call.call();
+        } finally {
+            ReplicaRoutingDataSource.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.model.QuadType;
+import org.msse672.geometryapp.model.TriangleType;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.msse672.geometryapp.sketch.RollingCounters;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recent submission rates and type mixes for quads and triangles, kept entirely in memory.
+ *
+ * Three RollingCounters rings at second, minute and hour resolution are updated on every
+ * submission; a window query is answered from the finest ring that spans it. Quad
+ * submissions arrive through QuadSubmissionListener, triangle evaluations are recorded by
+ * TriangleController.
+ */
+@Service
+public class RollingStatsService implements QuadSubmissionListener {
+
+    // Categories: one per QuadType, then the triangle types
+    private static final QuadType[] QUAD_TYPES = QuadType.values();
+    private static final String[] TRIANGLE_TYPES = { "Equilateral", "Isosceles", "Scalene", "Invalid" };
+    private static final int TRIANGLE_OFFSET = QUAD_TYPES.length;
+    private static final int CATEGORIES = QUAD_TYPES.length + TRIANGLE_TYPES.length;
+
+    private static final Pattern WINDOW = Pattern.compile("(\\d+)\\s*([smhd])");
+    // Span of the coarsest ring
+    private static final Duration MAX_WINDOW = Duration.ofDays(30);
+
+    // Finest first: 10 minutes of seconds, 24 hours of minutes, 30 days of hours
+    private final List<RollingCounters> rings = List.of(
+            new RollingCounters(1_000, 600, CATEGORIES),
+            new RollingCounters(60_000, 1_440, CATEGORIES),
+            new RollingCounters(3_600_000, 720, CATEGORIES));
+
+    private final LongSupplier clock;
+
+    public RollingStatsService() {
+        this(System::currentTimeMillis);
+    }
+
+    RollingStatsService(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void onQuadSubmitted(Quadrilateral quad) {
+        QuadType type = QuadType.classify(quad.getSideA(), quad.getSideB(), quad.getSideC(), quad.getSideD());
+        record(type.ordinal());
+    }
+
+    /**
+     * Records one triangle evaluation by its Triangle.getType() label.
+     */
+    public void recordTriangle(String typeLabel) {
+        int index = TRIANGLE_TYPES.length - 1;
+        for (int i = 0; i < TRIANGLE_TYPES.length - 1; i++) {
+            if (typeLabel.contains(TRIANGLE_TYPES[i])) {
+                index = i;
+                break;
+            }
+        }
+        record(TRIANGLE_OFFSET + index);
+    }
+
+    /**
+     * Records the first n triangles of a classified batch, one counter update per type.
+     */
+    public void recordTriangles(byte[] codes, int n) {
+        long[] perType = new long[TRIANGLE_TYPES.length];
+        for (int i = 0; i < n; i++) {
+            perType[triangleIndex(codes[i])]++;
+        }
+        long now = clock.getAsLong();
+        for (int i = 0; i < perType.length; i++) {
+            if (perType[i] == 0) continue;
+            for (RollingCounters ring : rings) {
+                ring.add(TRIANGLE_OFFSET + i, perType[i], now);
+            }
+        }
+    }
+
+    // TRIANGLE_TYPES index for a TriangleType code; both invalid kinds count as "Invalid"
+    private static int triangleIndex(byte code) {
+        if (code == TriangleType.EQUILATERAL.getCode()) return 0;
+        if (code == TriangleType.ISOSCELES.getCode()) return 1;
+        if (code == TriangleType.SCALENE.getCode()) return 2;
+        return 3;
+    }
+
+    private void record(int category) {
+        long now = clock.getAsLong();
+        for (RollingCounters ring : rings) {
+            ring.increment(category, now);
+        }
+    }
+
+    /**
+     * Quad submissions in the window: total, per-second rate and counts by type label.
+     * @throws IllegalArgumentException if the window is malformed or longer than 30 days
+     */
+    public Map<String, Object> quadStats(String window) {
+        Duration duration = parseWindow(window);
+        long[] totals = sum(duration);
+        Map<String, Long> byType = new LinkedHashMap<>();
+        for (QuadType type : QUAD_TYPES) {
+            if (totals[type.ordinal()] > 0) byType.put(type.getLabel(), totals[type.ordinal()]);
+        }
+        return report(window, duration, byType);
+    }
+
+    /**
+     * Triangle evaluations in the window, in the same shape as quadStats.
+     * @throws IllegalArgumentException if the window is malformed or longer than 30 days
+     */
+    public Map<String, Object> triangleStats(String window) {
+        Duration duration = parseWindow(window);
+        long[] totals = sum(duration);
+        Map<String, Long> byType = new LinkedHashMap<>();
+        for (int i = 0; i < TRIANGLE_TYPES.length; i++) {
+            if (totals[TRIANGLE_OFFSET + i] > 0) byType.put(TRIANGLE_TYPES[i], totals[TRIANGLE_OFFSET + i]);
+        }
+        return report(window, duration, byType);
+    }
+
+    private long[] sum(Duration window) {
+        long millis = window.toMillis();
+        for (RollingCounters ring : rings) {
+            if (millis <= ring.getSpanMillis()) {
+                return ring.sum(millis, clock.getAsLong());
+            }
+        }
+        throw new IllegalArgumentException("Window must not exceed 30d.");
+    }
+
+    private static Map<String, Object> report(String window, Duration duration, Map<String, Long> byType) {
+        long total = byType.values().stream().mapToLong(Long::longValue).sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("window", window);
+        result.put("total", total);
+        result.put("ratePerSecond", (double) total / Math.max(1, duration.toSeconds()));
+        result.put("byType", byType);
+        return result;
+    }
+
+    /**
+     * Parses windows like "30s", "5m", "1h" or "7d".
+     */
+    static Duration parseWindow(String window) {
+        Matcher m = WINDOW.matcher(window == null ? "" : window.trim().toLowerCase(Locale.ROOT));
+        if (!m.matches()) {
+            throw new IllegalArgumentException("Window must look like 30s, 5m, 1h or 7d.");
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(m.group(1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Window must not exceed 30d.");
+        }
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Window must be positive.");
+        }
+        long unitSeconds = switch (m.group(2)) {
+            case "s" -> 1;
+            case "m" -> 60;
+            case "h" -> 3_600;
+            default -> 86_400;
+        };
+        // Checked before multiplying, so a huge amount cannot overflow into the Duration
+        if (amount > MAX_WINDOW.toSeconds() / unitSeconds) {
+            throw new IllegalArgumentException("Window must not exceed 30d.");
+        }
+        return Duration.ofSeconds(amount * unitSeconds);
+    }
+}
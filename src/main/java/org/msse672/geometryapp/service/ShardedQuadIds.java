@@ -0,0 +1,81 @@
+package org.msse672.geometryapp.service;
+
+/**
+ * 64-bit quad ids that encode the shard holding the row.
+ *
+ * Layout, high to low: 41 bits of milliseconds since EPOCH_MS, 8 bits of per-millisecond
+ * sequence, 4 bits of worker id, 10 bits of shard index. The shard sits in the low bits so ids
+ * from one generator still increase in submission order no matter which shard a row lands on;
+ * that keeps keyset paging and "last submitted" a max-id merge across shards. 41 bits of time
+ * last ~69 years.
+ *
+ * The worker id keeps application instances that share a shard set from colliding when they
+ * write to one shard in the same millisecond; each instance needs its own
+ * (app.sharding.worker-id). Ids from different workers interleave by millisecond only.
+ * Shard and time bits are where the earlier 12-bit-sequence layout had them, so stored ids
+ * keep their shard and ordering.
+ */
+final class ShardedQuadIds {
+
+    static final int SHARD_BITS = 10;
+    static final int WORKER_BITS = 4;
+    static final int SEQUENCE_BITS = 8;
+    static final int MAX_SHARDS = 1 << SHARD_BITS;
+    static final int MAX_WORKERS = 1 << WORKER_BITS;
+
+    // 2025-01-01T00:00:00Z
+    static final long EPOCH_MS = 1_735_689_600_000L;
+
+    private static final long SHARD_MASK = MAX_SHARDS - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long worker;
+    private long lastMs = -1;
+    private long sequence;
+
+    ShardedQuadIds() {
+        this(0);
+    }
+
+    /**
+     * @param worker this instance's id, unique among instances writing to the same shards
+     */
+    ShardedQuadIds(int worker) {
+        if (worker < 0 || worker >= MAX_WORKERS) {
+            throw new IllegalArgumentException("Worker id must be in [0, " + MAX_WORKERS + ").");
+        }
+        this.worker = worker;
+    }
+
+    /**
+     * Next id for a row stored on the given shard.
+     */
+    synchronized long next(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard index must be in [0, " + MAX_SHARDS + ").");
+        }
+        // Never step backwards if the wall clock does
+        long now = Math.max(System.currentTimeMillis() - EPOCH_MS, lastMs);
+        if (now == lastMs) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // Sequence exhausted for this millisecond; borrow the next one
+                now = lastMs + 1;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMs = now;
+        return (now << (SEQUENCE_BITS + WORKER_BITS + SHARD_BITS))
+                | (sequence << (WORKER_BITS + SHARD_BITS))
+                | (worker << SHARD_BITS)
+                | shard;
+    }
+
+    /**
+     * Shard index encoded in an id.
+     */
+    static int shardOf(long id) {
+        return (int) (id & SHARD_MASK);
+    }
+}
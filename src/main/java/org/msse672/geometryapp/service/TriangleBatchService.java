@@ -0,0 +1,425 @@
+package org.msse672.geometryapp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import org.msse672.geometryapp.codec.BinaryRecords;
+import org.msse672.geometryapp.model.TriangleType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Streaming bulk classification for POST /triangle/batch.
+ *
+ * Input is read CHUNK_SIZE triples at a time into primitive columns, classified, written
+ * out and (optionally) stored before the next chunk is read, so memory stays flat no
+ * matter how many triangles a request carries. Output uses the same format as the input.
+ *
+ * Formats:
+ *  - JSON: one top-level array of triples
+ *  - NDJSON: one triple per line
+ *  - CSV: "side1,side2,side3" lines, with an optional header line
+ *  - binary: 24-byte little-endian side records in, one TriangleType code byte out per
+ *    triangle (see BinaryRecords)
+ * A JSON triple is either [a, b, c] or {"side1": a, "side2": b, "side3": c}.
+ */
+@Service
+public class TriangleBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TriangleBatchService.class);
+
+    // Triples per parse/classify/write cycle
+    static final int CHUNK_SIZE = 4_096;
+
+    private static final JsonFactory JSON = JsonFactory.builder().build();
+
+    public enum Format {
+        JSON("application/json"),
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv"),
+        BINARY(BinaryRecords.MEDIA_TYPE_VALUE);
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() { return mediaType; }
+
+        /**
+         * Picks the format from a Content-Type header; parameters such as charset are ignored.
+         * @throws IllegalArgumentException for anything else
+         */
+        public static Format fromContentType(String contentType) {
+            if (contentType != null) {
+                String base = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+                for (Format f : values()) {
+                    if (f.mediaType.equals(base)) return f;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported content type: " + contentType
+                    + ". Use application/json, application/x-ndjson, text/csv or " + BinaryRecords.MEDIA_TYPE_VALUE + ".");
+        }
+    }
+
+    private final TriangleService triangleService;
+    private final RollingStatsService rollingStats;
+
+    public TriangleBatchService(@Qualifier("jdbc") TriangleService triangleService, RollingStatsService rollingStats) {
+        this.triangleService = triangleService;
+        this.rollingStats = rollingStats;
+    }
+
+    /**
+     * Classifies every triple from in and writes one result per triple to out.
+     *
+     * @param store also save each chunk through TriangleService.insertBatch
+     * @return number of triangles classified
+     * @throws IllegalArgumentException on malformed input; output already flushed for
+     *                                  earlier chunks is left as written
+     */
+    public long classify(InputStream in, OutputStream out, Format format, boolean store) throws IOException {
+        double[] a = new double[CHUNK_SIZE], b = new double[CHUNK_SIZE], c = new double[CHUNK_SIZE];
+        byte[] codes = new byte[CHUNK_SIZE];
+        long total = 0;
+
+        try (TripleReader reader = reader(in, format);
+             ResultWriter writer = writer(out, format)) {
+            int n;
+            while ((n = reader.read(a, b, c, CHUNK_SIZE)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    codes[i] = TriangleType.classify(a[i], b[i], c[i]).getCode();
+                }
+                writer.write(a, b, c, codes, n);
+                if (store) {
+                    triangleService.insertBatch(a, b, c, n);
+                }
+                rollingStats.recordTriangles(codes, n);
+                total += n;
+            }
+            writer.finish();
+        }
+        logger.info("Classified {} triangles from {} batch (stored: {})", total, format, store);
+        return total;
+    }
+
+    private static TripleReader reader(InputStream in, Format format) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvReader(in);
+            case BINARY -> new BinaryReader(in);
+            default -> new JsonReader(in, format == Format.JSON);
+        };
+    }
+
+    private static ResultWriter writer(OutputStream out, Format format) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvWriter(out);
+            case BINARY -> new BinaryWriter(out);
+            default -> new JsonWriter(out, format == Format.JSON);
+        };
+    }
+
+    // ==================== Readers ====================
+
+    private interface TripleReader extends AutoCloseable {
+        // Fills up to max rows; returns 0 at end of input
+        int read(double[] a, double[] b, double[] c, int max) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * JSON array or NDJSON. Jackson reads whitespace-separated root values natively, so the
+     * two differ only in the enclosing array.
+     */
+    private static final class JsonReader implements TripleReader {
+        private final JsonParser parser;
+        private final boolean array;
+        private boolean done;
+        private long row;
+
+        JsonReader(InputStream in, boolean array) throws IOException {
+            this.parser = JSON.createParser(in);
+            this.parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            this.array = array;
+            if (array && nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of triangles.");
+            }
+        }
+
+        @Override
+        public int read(double[] a, double[] b, double[] c, int max) throws IOException {
+            int n = 0;
+            while (!done && n < max) {
+                JsonToken token = nextToken();
+                if (token == null) {
+                    if (array) throw new IllegalArgumentException("Unterminated JSON array after row " + row + ".");
+                    done = true;
+                } else if (array && token == JsonToken.END_ARRAY) {
+                    done = true;
+                } else {
+                    row++;
+                    readTriple(token, a, b, c, n++);
+                }
+            }
+            return n;
+        }
+
+        private void readTriple(JsonToken token, double[] a, double[] b, double[] c, int i) throws IOException {
+            if (token == JsonToken.START_ARRAY) {
+                a[i] = number(nextToken());
+                b[i] = number(nextToken());
+                c[i] = number(nextToken());
+                if (nextToken() != JsonToken.END_ARRAY) throw bad("expected exactly three sides");
+            } else if (token == JsonToken.START_OBJECT) {
+                int seen = 0;
+                while (nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    double value = number(nextToken());
+                    switch (field) {
+                        case "side1" -> { a[i] = value; seen |= 1; }
+                        case "side2" -> { b[i] = value; seen |= 2; }
+                        case "side3" -> { c[i] = value; seen |= 4; }
+                        default -> throw bad("unknown field '" + field + "'");
+                    }
+                }
+                if (seen != 7) throw bad("side1, side2 and side3 are required");
+            } else {
+                throw bad("expected [a, b, c] or {\"side1\", \"side2\", \"side3\"}");
+            }
+        }
+
+        private double number(JsonToken token) throws IOException {
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+                throw bad("sides must be numeric");
+            }
+            return parser.getDoubleValue();
+        }
+
+        private JsonToken nextToken() throws IOException {
+            try {
+                return parser.nextToken();
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON after row " + row + ": " + e.getOriginalMessage());
+            }
+        }
+
+        private IllegalArgumentException bad(String reason) {
+            return new IllegalArgumentException("Row " + row + ": " + reason + ".");
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    private static final class CsvReader implements TripleReader {
+        private final BufferedReader reader;
+        private long line;
+
+        CsvReader(InputStream in) {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int read(double[] a, double[] b, double[] c, int max) throws IOException {
+            int n = 0;
+            String text;
+            while (n < max && (text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) continue;
+                int first = text.indexOf(',');
+                int second = first < 0 ? -1 : text.indexOf(',', first + 1);
+                if (second < 0 || text.indexOf(',', second + 1) >= 0) {
+                    throw new IllegalArgumentException("Line " + line + ": expected three comma-separated sides.");
+                }
+                try {
+                    a[n] = Double.parseDouble(text.substring(0, first).trim());
+                    b[n] = Double.parseDouble(text.substring(first + 1, second).trim());
+                    c[n] = Double.parseDouble(text.substring(second + 1).trim());
+                } catch (NumberFormatException e) {
+                    // A non-numeric first line is a header
+                    if (line == 1) continue;
+                    throw new IllegalArgumentException("Line " + line + ": sides must be numeric.");
+                }
+                n++;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+            // Leave the servlet stream to the container
+        }
+    }
+
+    private static final class BinaryReader implements TripleReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[CHUNK_SIZE * BinaryRecords.TRIANGLE_SIDES_BYTES];
+        private final ByteBuffer view = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+
+        BinaryReader(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read(double[] a, double[] b, double[] c, int max) throws IOException {
+            int bytes = in.readNBytes(buffer, 0, Math.min(max, CHUNK_SIZE) * BinaryRecords.TRIANGLE_SIDES_BYTES);
+            if (bytes % BinaryRecords.TRIANGLE_SIDES_BYTES != 0) {
+                throw new IllegalArgumentException("Body is not a whole number of "
+                        + BinaryRecords.TRIANGLE_SIDES_BYTES + "-byte triangle records.");
+            }
+            int n = bytes / BinaryRecords.TRIANGLE_SIDES_BYTES;
+            view.clear();
+            for (int i = 0; i < n; i++) {
+                a[i] = view.getDouble();
+                b[i] = view.getDouble();
+                c[i] = view.getDouble();
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+            // Leave the servlet stream to the container
+        }
+    }
+
+    // ==================== Writers ====================
+
+    private interface ResultWriter extends AutoCloseable {
+        void write(double[] a, double[] b, double[] c, byte[] codes, int n) throws IOException;
+
+        // Writes any trailer; not called when input was malformed
+        void finish() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Only write() and finish() flush through to the client. Closing after a parse error
+     * leaves unflushed output in the servlet buffer, where a response reset can drop it.
+     */
+    private static final class JsonWriter implements ResultWriter {
+        private final OutputStream out;
+        private final JsonGenerator generator;
+        private final boolean array;
+
+        JsonWriter(OutputStream out, boolean array) throws IOException {
+            this.out = out;
+            this.generator = JSON.createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // NDJSON lines are separated by the newline written after each object
+            this.generator.setRootValueSeparator(null);
+            this.array = array;
+            if (array) generator.writeStartArray();
+        }
+
+        @Override
+        public void write(double[] a, double[] b, double[] c, byte[] codes, int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                generator.writeStartObject();
+                generator.writeNumberField("side1", a[i]);
+                generator.writeNumberField("side2", b[i]);
+                generator.writeNumberField("side3", c[i]);
+                generator.writeStringField("type", TriangleType.fromCode(codes[i]).name());
+                generator.writeEndObject();
+                if (!array) generator.writeRaw('\n');
+            }
+            generator.flush();
+            out.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (array) generator.writeEndArray();
+            generator.flush();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter implements ResultWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("side1,side2,side3,type\n");
+        }
+
+        @Override
+        public void write(double[] a, double[] b, double[] c, byte[] codes, int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                writer.write(Double.toString(a[i]));
+                writer.write(',');
+                writer.write(Double.toString(b[i]));
+                writer.write(',');
+                writer.write(Double.toString(c[i]));
+                writer.write(',');
+                writer.write(TriangleType.fromCode(codes[i]).name());
+                writer.write('\n');
+            }
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release; unflushed rows after a parse error are dropped on purpose
+        }
+    }
+
+    private static final class BinaryWriter implements ResultWriter {
+        private final OutputStream out;
+
+        BinaryWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(double[] a, double[] b, double[] c, byte[] codes, int n) throws IOException {
+            out.write(codes, 0, n);
+            out.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
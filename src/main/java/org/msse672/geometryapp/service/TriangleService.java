@@ -0,0 +1,40 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.index.TriangleRange;
+import org.msse672.geometryapp.model.TriangleRecord;
+import org.msse672.geometryapp.model.TriangleType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage for triangle classifications, mirroring QuadService.
+ *
+ * Every evaluated triangle is stored, including invalid input, with its TriangleType code
+ * computed once on insert. Batch inserts take primitive columns so callers classifying
+ * large inputs never build per-triangle objects.
+ */
+public interface TriangleService {
+
+    //Stores one classification and returns it with its id
+    TriangleRecord insertTriangle(double sideA, double sideB, double sideC);
+
+    //Stores the first n rows of the columns; returns the number stored
+    int insertBatch(double[] sideA, double[] sideB, double[] sideC, int n);
+
+    //Throws IllegalArgumentException if the id does not exist
+    TriangleRecord getById(Long id);
+
+    //Keyset paging in id order
+    List<TriangleRecord> getAfterId(long afterId, int limit);
+
+    //Counts keyed by TriangleType name
+    Map<String, Long> countByType();
+
+    //Triangles inside the side range, optionally of one type (null for any), in id order
+    List<TriangleRecord> search(TriangleType type, TriangleRange range, int limit);
+
+    long count();
+
+    void reset();
+}
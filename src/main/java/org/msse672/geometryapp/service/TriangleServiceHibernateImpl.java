@@ -0,0 +1,108 @@
+package org.msse672.geometryapp.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.msse672.geometryapp.index.TriangleRange;
+import org.msse672.geometryapp.model.TriangleRecord;
+import org.msse672.geometryapp.model.TriangleType;
+import org.msse672.geometryapp.repository.TriangleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate-based implementation of TriangleService.
+ *
+ * Batches are persisted in chunks with a flush/clear between them so the persistence
+ * context stays small. IDENTITY ids stop Hibernate from grouping the INSERTs into JDBC
+ * batches, so the JDBC implementation is the faster choice for bulk loads.
+ */
+@Service
+@Qualifier("hibernate")
+public class TriangleServiceHibernateImpl implements TriangleService {
+
+    private static final Logger log = LoggerFactory.getLogger(TriangleServiceHibernateImpl.class);
+
+    // Entities persisted between flush/clear cycles
+    private static final int FLUSH_SIZE = 1_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TriangleRepository triangleRepository;
+
+    public TriangleServiceHibernateImpl(TriangleRepository triangleRepository) {
+        this.triangleRepository = triangleRepository;
+    }
+
+    @Override
+    public TriangleRecord insertTriangle(double sideA, double sideB, double sideC) {
+        TriangleRecord saved = triangleRepository.save(new TriangleRecord(sideA, sideB, sideC));
+        log.debug("Inserted triangle {}", saved);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public int insertBatch(double[] sideA, double[] sideB, double[] sideC, int n) {
+        for (int i = 0; i < n; i++) {
+            entityManager.persist(new TriangleRecord(sideA[i], sideB[i], sideC[i]));
+            if ((i + 1) % FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        log.debug("Inserted batch of {} triangles", n);
+        return n;
+    }
+
+    /**
+     * Retrieves a triangle by its ID.
+     * @throws IllegalArgumentException if not found
+     */
+    @Override
+    public TriangleRecord getById(Long id) {
+        return triangleRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Triangle with ID " + id + " does not exist."));
+    }
+
+    @Override
+    public List<TriangleRecord> getAfterId(long afterId, int limit) {
+        return triangleRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public Map<String, Long> countByType() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : triangleRepository.countByTypeCode()) {
+            counts.put(TriangleType.fromCode(((Number) row[0]).byteValue()).name(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    @Override
+    public List<TriangleRecord> search(TriangleType type, TriangleRange range, int limit) {
+        return triangleRepository.search(type == null ? -1 : type.getCode(),
+                range.minA(), range.maxA(), range.minB(), range.maxB(), range.minC(), range.maxC(),
+                PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public long count() {
+        return triangleRepository.count();
+    }
+
+    @Override
+    @Transactional
+    public void reset() {
+        log.warn("Deleting all triangles from database.");
+        triangleRepository.deleteAllInBatch();
+    }
+}
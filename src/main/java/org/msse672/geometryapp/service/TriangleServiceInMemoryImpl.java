@@ -0,0 +1,182 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.index.TriangleRange;
+import org.msse672.geometryapp.model.TriangleRecord;
+import org.msse672.geometryapp.model.TriangleType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory implementation of TriangleService.
+ *
+ * Triangles are stored column-wise in primitive arrays (three double columns plus a byte
+ * type-code column) with ids equal to position + 1, so there is no per-triangle object
+ * and scans touch only the columns they need. Per-type counts are kept as each row is
+ * added. Data is lost on restart.
+ */
+@Service
+@Qualifier("inMemory")
+public class TriangleServiceInMemoryImpl implements TriangleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TriangleServiceInMemoryImpl.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private double[] sideA = new double[1024];
+    private double[] sideB = new double[1024];
+    private double[] sideC = new double[1024];
+    private byte[] codes = new byte[1024];
+    private int size;
+    private final long[] typeCounts = new long[TriangleType.values().length];
+
+    @Override
+    public TriangleRecord insertTriangle(double a, double b, double c) {
+        byte code = TriangleType.classify(a, b, c).getCode();
+        lock.writeLock().lock();
+        try {
+            append(a, b, c, code);
+            return new TriangleRecord((long) size, a, b, c, code);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int insertBatch(double[] a, double[] b, double[] c, int n) {
+        // Classify outside the lock
+        byte[] batchCodes = new byte[n];
+        for (int i = 0; i < n; i++) {
+            batchCodes[i] = TriangleType.classify(a[i], b[i], c[i]).getCode();
+        }
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(size + n);
+            System.arraycopy(a, 0, sideA, size, n);
+            System.arraycopy(b, 0, sideB, size, n);
+            System.arraycopy(c, 0, sideC, size, n);
+            System.arraycopy(batchCodes, 0, codes, size, n);
+            for (int i = 0; i < n; i++) {
+                typeCounts[batchCodes[i]]++;
+            }
+            size += n;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Stored batch of {} triangles", n);
+        return n;
+    }
+
+    @Override
+    public TriangleRecord getById(Long id) {
+        lock.readLock().lock();
+        try {
+            if (id == null || id < 1 || id > size) {
+                throw new IllegalArgumentException("Triangle with ID " + id + " does not exist.");
+            }
+            return row((int) (id - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TriangleRecord> getAfterId(long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            int from = (int) Math.max(0, Math.min(afterId, size));
+            int to = (int) Math.min(size, (long) from + limit);
+            List<TriangleRecord> page = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                page.add(row(i));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Long> countByType() {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (TriangleType type : TriangleType.values()) {
+                if (typeCounts[type.getCode()] > 0) counts.put(type.name(), typeCounts[type.getCode()]);
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TriangleRecord> search(TriangleType type, TriangleRange range, int limit) {
+        lock.readLock().lock();
+        try {
+            List<TriangleRecord> matches = new ArrayList<>();
+            for (int i = 0; i < size && matches.size() < limit; i++) {
+                if ((type == null || codes[i] == type.getCode()) && range.contains(sideA[i], sideB[i], sideC[i])) {
+                    matches.add(row(i));
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void reset() {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            Arrays.fill(typeCounts, 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Triangle history cleared.");
+    }
+
+    private TriangleRecord row(int i) {
+        return new TriangleRecord((long) i + 1, sideA[i], sideB[i], sideC[i], codes[i]);
+    }
+
+    private void append(double a, double b, double c, byte code) {
+        ensureCapacity(size + 1);
+        sideA[size] = a;
+        sideB[size] = b;
+        sideC[size] = c;
+        codes[size] = code;
+        typeCounts[code]++;
+        size++;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= codes.length) return;
+        int capacity = Math.max(needed, codes.length * 2);
+        sideA = Arrays.copyOf(sideA, capacity);
+        sideB = Arrays.copyOf(sideB, capacity);
+        sideC = Arrays.copyOf(sideC, capacity);
+        codes = Arrays.copyOf(codes, capacity);
+    }
+}
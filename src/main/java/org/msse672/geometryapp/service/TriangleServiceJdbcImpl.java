@@ -0,0 +1,150 @@
+package org.msse672.geometryapp.service;
+
+import org.msse672.geometryapp.index.TriangleRange;
+import org.msse672.geometryapp.model.TriangleRecord;
+import org.msse672.geometryapp.model.TriangleType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC-based implementation of TriangleService.
+ * Batches go to the database as JDBC batches of BATCH_SIZE rows, with type codes computed
+ * in Java before the insert.
+ */
+@Service
+@Qualifier("jdbc")
+public class TriangleServiceJdbcImpl implements TriangleService {
+
+    private static final Logger log = LoggerFactory.getLogger(TriangleServiceJdbcImpl.class);
+
+    // Rows per JDBC batch
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final String INSERT_SQL = "INSERT INTO triangles (sideA, sideB, sideC, type_code) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_SQL = "SELECT id, sideA, sideB, sideC, type_code FROM triangles";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor injects JdbcTemplate for database operations.
+     */
+    public TriangleServiceJdbcImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private static final RowMapper<TriangleRecord> ROW_MAPPER = (rs, rowNum) -> new TriangleRecord(
+            rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4), rs.getByte(5));
+
+    /**
+     * Inserts one classification and returns it with its generated id.
+     */
+    @Override
+    public TriangleRecord insertTriangle(double sideA, double sideB, double sideC) {
+        TriangleRecord record = new TriangleRecord(sideA, sideB, sideC);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SQL, new String[] { "id" });
+            ps.setDouble(1, sideA);
+            ps.setDouble(2, sideB);
+            ps.setDouble(3, sideC);
+            ps.setByte(4, record.getTypeCode());
+            return ps;
+        }, keyHolder);
+        Number key = keyHolder.getKey();
+        if (key != null) record.setId(key.longValue());
+        log.debug("Inserted triangle {}", record);
+        return record;
+    }
+
+    /**
+     * Inserts the first n rows as JDBC batches.
+     */
+    @Override
+    public int insertBatch(double[] sideA, double[] sideB, double[] sideC, int n) {
+        for (int from = 0; from < n; from += BATCH_SIZE) {
+            int offset = from;
+            int rows = Math.min(BATCH_SIZE, n - from);
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int row = offset + i;
+                    ps.setDouble(1, sideA[row]);
+                    ps.setDouble(2, sideB[row]);
+                    ps.setDouble(3, sideC[row]);
+                    ps.setByte(4, TriangleType.classify(sideA[row], sideB[row], sideC[row]).getCode());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows;
+                }
+            });
+        }
+        log.debug("Inserted batch of {} triangles", n);
+        return n;
+    }
+
+    /**
+     * Retrieves a triangle by its ID.
+     * @throws IllegalArgumentException if not found
+     */
+    @Override
+    public TriangleRecord getById(Long id) {
+        try {
+            return jdbcTemplate.queryForObject(SELECT_SQL + " WHERE id = ?", ROW_MAPPER, id);
+        } catch (EmptyResultDataAccessException e) {
+            throw new IllegalArgumentException("Triangle with ID " + id + " does not exist.");
+        }
+    }
+
+    @Override
+    public List<TriangleRecord> getAfterId(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_SQL + " WHERE id > ? ORDER BY id LIMIT ?", ROW_MAPPER, afterId, limit);
+    }
+
+    /**
+     * Counts triangles by type with a GROUP BY on the stored type code.
+     */
+    @Override
+    public Map<String, Long> countByType() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT type_code, COUNT(*) FROM triangles GROUP BY type_code ORDER BY type_code",
+                rs -> { counts.put(TriangleType.fromCode(rs.getByte(1)).name(), rs.getLong(2)); });
+        return counts;
+    }
+
+    @Override
+    public List<TriangleRecord> search(TriangleType type, TriangleRange range, int limit) {
+        String sql = SELECT_SQL + " WHERE sideA BETWEEN ? AND ? AND sideB BETWEEN ? AND ? AND sideC BETWEEN ? AND ?"
+                + (type == null ? "" : " AND type_code = " + type.getCode())
+                + " ORDER BY id LIMIT ?";
+        return jdbcTemplate.query(sql, ROW_MAPPER,
+                range.minA(), range.maxA(), range.minB(), range.maxB(), range.minC(), range.maxC(), limit);
+    }
+
+    @Override
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM triangles", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void reset() {
+        log.debug("Resetting triangles table with TRUNCATE");
+        jdbcTemplate.execute("TRUNCATE TABLE triangles");
+    }
+}
@@ -0,0 +1,34 @@
+package org.msse672.geometryapp.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counter for a QuadService backend's data, advanced after every write.
+ *
+ * Inside a transaction the bump is deferred until the transaction completes, so a reader
+ * that sees the new generation can never have read the data from before the commit.
+ */
+final class WriteGeneration {
+
+    private final AtomicLong value = new AtomicLong();
+
+    long get() {
+        return value.get();
+    }
+
+    void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    value.incrementAndGet();
+                }
+            });
+        } else {
+            value.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.msse672.geometryapp.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Count-Min sketch for approximate per-item counts over 64-bit hashes.
+ *
+ * depth rows of width counters; an item's estimate is the minimum of its counters, which
+ * never undercounts and overcounts by at most e/width of the total with probability
+ * 1 - e^-depth. Sketches with the same dimensions merge by adding counters.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[] counters;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("depth and width must be positive");
+        }
+        if ((long) depth * width > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("depth * width is too large");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new long[depth * width];
+    }
+
+    public void add(long hash, long count) {
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + bucket(hash, row)] += count;
+        }
+        total += count;
+    }
+
+    public long estimate(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + bucket(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Sum of all counts added.
+     */
+    public long total() {
+        return total;
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Cannot merge Count-Min sketches with different dimensions");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    // Row hashes derived from the two halves of the input (Kirsch-Mitzenmacher)
+    private int bucket(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + row * h2, width);
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(depth);
+        out.writeInt(width);
+        out.writeLong(total);
+        for (long c : counters) out.writeLong(c);
+    }
+
+    /**
+     * Reads a sketch written by writeTo, checking its dimensions before allocating the counters.
+     * @throws IllegalArgumentException if the dimensions differ from the expected ones
+     */
+    public static CountMinSketch readFrom(DataInputStream in, int expectedDepth, int expectedWidth) throws IOException {
+        int depth = in.readInt();
+        int width = in.readInt();
+        if (depth != expectedDepth || width != expectedWidth) {
+            throw new IllegalArgumentException("Count-Min sketch is " + depth + "x" + width
+                    + ", expected " + expectedDepth + "x" + expectedWidth);
+        }
+        CountMinSketch cms = new CountMinSketch(depth, width);
+        cms.total = in.readLong();
+        for (int i = 0; i < cms.counters.length; i++) cms.counters[i] = in.readLong();
+        return cms;
+    }
+}
@@ -0,0 +1,29 @@
+package org.msse672.geometryapp.sketch;
+
+/**
+ * 64-bit hashing helpers for the sketches.
+ */
+public final class Hashing {
+
+    private Hashing() { }
+
+    /**
+     * SplitMix64 finalizer: spreads every input bit across the whole output.
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Hash of a multi-long key such as a ShapeKey.
+     */
+    public static long hash64(long[] key) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (long k : key) {
+            h = mix64(h ^ k);
+        }
+        return h;
+    }
+}
@@ -0,0 +1,189 @@
+package org.msse672.geometryapp.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * KLL quantile sketch for doubles.
+ *
+ * Items live in a stack of compactors; an item at level h stands for 2^h inputs. When
+ * the sketch is over capacity, the lowest full level is sorted and every other item
+ * (random offset) is promoted, halving it. Level capacities shrink geometrically below the
+ * top, so memory is O(k) and rank error is about 1.65 / k. Sketches merge by
+ * concatenating levels and compacting again.
+ */
+public class KllSketch {
+
+    private static final double DECAY = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 8;
+    // An item at level h stands for 2^h inputs, so a long count never needs more
+    private static final int MAX_LEVELS = 64;
+
+    private final int k;
+    private final Random random = new Random();
+    private double[][] levels = { new double[0] };
+    private int[] sizes = { 0 };
+    private long count;
+    private double min = Double.NaN, max = Double.NaN;
+
+    public KllSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY);
+        }
+        this.k = k;
+    }
+
+    public void update(double value) {
+        if (Double.isNaN(value)) return;
+        append(0, value);
+        count++;
+        min = Double.isNaN(min) ? value : Math.min(min, value);
+        max = Double.isNaN(max) ? value : Math.max(max, value);
+        compress();
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Approximate value at rank q in [0, 1]; NaN if the sketch is empty.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        if (count == 0) return Double.NaN;
+        if (q == 0) return min;
+        if (q == 1) return max;
+
+        int n = 0;
+        for (int size : sizes) n += size;
+        double[] values = new double[n];
+        long[] weights = new long[n];
+        int i = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int j = 0; j < sizes[h]; j++) {
+                values[i] = levels[h][j];
+                weights[i++] = 1L << h;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int j = 0; j < n; j++) order[j] = j;
+        Arrays.sort(order, (x, y) -> Double.compare(values[x], values[y]));
+
+        long totalWeight = 0;
+        for (long w : weights) totalWeight += w;
+        double target = q * totalWeight;
+        long cumulative = 0;
+        for (int idx : order) {
+            cumulative += weights[idx];
+            if (cumulative >= target) return values[idx];
+        }
+        return max;
+    }
+
+    public void merge(KllSketch other) {
+        if (other.count == 0) return;
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int j = 0; j < other.sizes[h]; j++) {
+                append(h, other.levels[h][j]);
+            }
+        }
+        count += other.count;
+        min = Double.isNaN(min) ? other.min : Math.min(min, other.min);
+        max = Double.isNaN(max) ? other.max : Math.max(max, other.max);
+        compress();
+    }
+
+    private void append(int level, double value) {
+        while (level >= levels.length) {
+            levels = Arrays.copyOf(levels, levels.length + 1);
+            levels[levels.length - 1] = new double[0];
+            sizes = Arrays.copyOf(sizes, sizes.length + 1);
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(8, levels[level].length * 2));
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    private int capacity(int level) {
+        int depthBelowTop = levels.length - 1 - level;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(DECAY, depthBelowTop)));
+    }
+
+    private void compress() {
+        boolean compacted = true;
+        while (compacted) {
+            compacted = false;
+            for (int h = 0; h < levels.length; h++) {
+                if (sizes[h] >= capacity(h)) {
+                    compact(h);
+                    compacted = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    // Sorts level h and promotes every other item to h + 1; with an odd count the smallest
+    // item stays behind at index 0
+    private void compact(int h) {
+        double[] items = levels[h];
+        int n = sizes[h];
+        Arrays.sort(items, 0, n);
+        int leftover = (n % 2 == 1) ? 1 : 0;
+        int offset = random.nextBoolean() ? 1 : 0;
+        for (int i = leftover + offset; i < n; i += 2) {
+            append(h + 1, items[i]);
+        }
+        sizes[h] = leftover;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(k);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(levels.length);
+        for (int h = 0; h < levels.length; h++) {
+            out.writeInt(sizes[h]);
+            for (int j = 0; j < sizes[h]; j++) out.writeDouble(levels[h][j]);
+        }
+    }
+
+    /**
+     * Reads a sketch written by writeTo, checking every length before allocating for it.
+     * @throws IllegalArgumentException if k differs from expectedK or a length is out of range
+     */
+    public static KllSketch readFrom(DataInputStream in, int expectedK) throws IOException {
+        int k = in.readInt();
+        if (k != expectedK) {
+            throw new IllegalArgumentException("KLL sketch has k " + k + ", expected " + expectedK);
+        }
+        KllSketch sketch = new KllSketch(k);
+        sketch.count = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        int levelCount = in.readInt();
+        if (levelCount < 1 || levelCount > MAX_LEVELS) {
+            throw new IllegalArgumentException("KLL sketch level count out of range: " + levelCount);
+        }
+        sketch.levels = new double[levelCount][];
+        sketch.sizes = new int[levelCount];
+        for (int h = 0; h < levelCount; h++) {
+            int size = in.readInt();
+            if (size < 0 || size > sketch.capacity(h)) {
+                throw new IllegalArgumentException("KLL sketch level " + h + " size out of range: " + size);
+            }
+            sketch.levels[h] = new double[Math.max(size, 8)];
+            sketch.sizes[h] = size;
+            for (int j = 0; j < size; j++) sketch.levels[h][j] = in.readDouble();
+        }
+        return sketch;
+    }
+}
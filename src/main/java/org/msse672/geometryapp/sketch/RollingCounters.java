@@ -0,0 +1,97 @@
+package org.msse672.geometryapp.sketch;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free ring buffer of fixed-width time buckets, each holding one LongAdder per category.
+ *
+ * A bucket covers one period of bucketMillis; slot = period % buckets. The first writer
+ * in a new period swaps a fresh bucket into the slot with a CAS, so the previous lap's
+ * counts are discarded without clearing anything in place. A writer that read the old
+ * bucket just before the swap can lose its increment; that window is a few instructions
+ * once per period, which is fine for rate statistics.
+ *
+ * Window queries sum the buckets in the window: O(buckets), independent of traffic.
+ */
+public class RollingCounters {
+
+    private static final class Bucket {
+        final long period;
+        final LongAdder[] counts;
+
+        Bucket(long period, int categories) {
+            this.period = period;
+            this.counts = new LongAdder[categories];
+            for (int i = 0; i < categories; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+    }
+
+    private final long bucketMillis;
+    private final int categories;
+    private final AtomicReferenceArray<Bucket> ring;
+
+    public RollingCounters(long bucketMillis, int buckets, int categories) {
+        if (bucketMillis <= 0 || buckets <= 0 || categories <= 0) {
+            throw new IllegalArgumentException("bucketMillis, buckets and categories must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        this.categories = categories;
+        this.ring = new AtomicReferenceArray<>(buckets);
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * Longest window this ring can answer.
+     */
+    public long getSpanMillis() {
+        return bucketMillis * ring.length();
+    }
+
+    public void increment(int category, long nowMillis) {
+        add(category, 1, nowMillis);
+    }
+
+    /**
+     * Adds delta to one category in the current bucket, e.g. a whole batch at once.
+     */
+    public void add(int category, long delta, long nowMillis) {
+        long period = nowMillis / bucketMillis;
+        int slot = (int) (period % ring.length());
+        Bucket bucket = ring.get(slot);
+        while (bucket == null || bucket.period < period) {
+            Bucket fresh = new Bucket(period, categories);
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = ring.get(slot);
+            }
+        }
+        // A bucket from a later period means our clock reading is stale; count it there anyway
+        bucket.counts[category].add(delta);
+    }
+
+    /**
+     * Per-category totals over the last windowMillis, including the current partial bucket.
+     */
+    public long[] sum(long windowMillis, long nowMillis) {
+        long now = nowMillis / bucketMillis;
+        long periods = Math.min(ring.length(), Math.max(1, (windowMillis + bucketMillis - 1) / bucketMillis));
+        long oldest = now - periods + 1;
+        long[] totals = new long[categories];
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.period >= oldest && bucket.period <= now) {
+                for (int c = 0; c < categories; c++) {
+                    totals[c] += bucket.counts[c].sum();
+                }
+            }
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,139 @@
+package org.msse672.geometryapp.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heavy-hitter tracker: a Count-Min sketch for frequencies plus the k keys with the
+ * highest estimates seen so far.
+ *
+ * Keys are small long arrays (e.g. ShapeKey values) so they can be reported back. An item
+ * displaces the weakest candidate once its estimate exceeds it; with k in the tens, a
+ * linear scan for the weakest candidate is cheaper than maintaining an indexed heap.
+ */
+public class TopK {
+
+    /**
+     * A reported key and its estimated count.
+     */
+    public record Entry(long[] key, long estimate) { }
+
+    // Longest key readFrom accepts; keys are meant to be small (a ShapeKey is 4 longs)
+    private static final int MAX_KEY_LENGTH = 16;
+
+    private final int k;
+    private final CountMinSketch counts;
+    private final Map<Long, long[]> candidates = new HashMap<>();
+
+    public TopK(int k, int depth, int width) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+        this.counts = new CountMinSketch(depth, width);
+    }
+
+    private TopK(int k, CountMinSketch counts) {
+        this.k = k;
+        this.counts = counts;
+    }
+
+    public void add(long[] key) {
+        long hash = Hashing.hash64(key);
+        counts.add(hash, 1);
+        if (candidates.containsKey(hash)) return;
+        if (candidates.size() < k) {
+            candidates.put(hash, key.clone());
+            return;
+        }
+        long estimate = counts.estimate(hash);
+        Long weakest = null;
+        long weakestEstimate = Long.MAX_VALUE;
+        for (Long candidate : candidates.keySet()) {
+            long e = counts.estimate(candidate);
+            if (e < weakestEstimate) {
+                weakestEstimate = e;
+                weakest = candidate;
+            }
+        }
+        if (estimate > weakestEstimate) {
+            candidates.remove(weakest);
+            candidates.put(hash, key.clone());
+        }
+    }
+
+    /**
+     * Total number of items added.
+     */
+    public long total() {
+        return counts.total();
+    }
+
+    /**
+     * Tracked keys, most frequent first.
+     */
+    public List<Entry> top() {
+        List<Entry> entries = new ArrayList<>(candidates.size());
+        candidates.forEach((hash, key) -> entries.add(new Entry(key.clone(), counts.estimate(hash))));
+        entries.sort(Comparator.comparingLong(Entry::estimate).reversed());
+        return entries;
+    }
+
+    /**
+     * Adds other's counts and re-selects the top k from both candidate sets.
+     */
+    public void merge(TopK other) {
+        counts.merge(other.counts);
+        candidates.putAll(other.candidates);
+        if (candidates.size() > k) {
+            List<Long> ranked = new ArrayList<>(candidates.keySet());
+            ranked.sort(Comparator.comparingLong(counts::estimate).reversed());
+            for (Long drop : ranked.subList(k, ranked.size())) {
+                candidates.remove(drop);
+            }
+        }
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(k);
+        counts.writeTo(out);
+        out.writeInt(candidates.size());
+        for (long[] key : candidates.values()) {
+            out.writeInt(key.length);
+            for (long v : key) out.writeLong(v);
+        }
+    }
+
+    /**
+     * Reads a tracker written by writeTo, checking k, the Count-Min dimensions and every key
+     * length before allocating for them.
+     * @throws IllegalArgumentException if a value differs from the expected ones or is out of range
+     */
+    public static TopK readFrom(DataInputStream in, int expectedK, int expectedDepth, int expectedWidth) throws IOException {
+        int k = in.readInt();
+        if (k != expectedK) {
+            throw new IllegalArgumentException("Top-K tracker has k " + k + ", expected " + expectedK);
+        }
+        TopK topK = new TopK(k, CountMinSketch.readFrom(in, expectedDepth, expectedWidth));
+        int n = in.readInt();
+        if (n < 0 || n > k) {
+            throw new IllegalArgumentException("Top-K candidate count out of range: " + n);
+        }
+        for (int i = 0; i < n; i++) {
+            int length = in.readInt();
+            if (length < 1 || length > MAX_KEY_LENGTH) {
+                throw new IllegalArgumentException("Top-K key length out of range: " + length);
+            }
+            long[] key = new long[length];
+            for (int j = 0; j < key.length; j++) key[j] = in.readLong();
+            topK.candidates.put(Hashing.hash64(key), key);
+        }
+        return topK;
+    }
+}
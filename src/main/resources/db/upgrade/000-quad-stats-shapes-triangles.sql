@@ -0,0 +1,65 @@
+-- Upgrades a database created before the tables and quads indexes added alongside QuadStatsTable,
+-- QuadServiceDedupImpl and TriangleService. Materialized stats are on by default and rebuilt at
+-- startup, so this must run before the new release starts. The tables are created as they were
+-- before 001, which adds quad_stats.extremes_stale.
+
+-- Matches the Long entity id, so quads no longer overflows at 2^31 rows; rebuilds quads once
+ALTER TABLE quads MODIFY id BIGINT AUTO_INCREMENT;
+CREATE INDEX idx_quads_sides ON quads (sideA, sideB, sideC, sideD);
+CREATE INDEX idx_quads_type_id ON quads (type, id, sideA, sideB, sideC, sideD);
+
+CREATE TABLE IF NOT EXISTS quad_stats (
+    type VARCHAR(50) NOT NULL PRIMARY KEY,
+    cnt BIGINT NOT NULL DEFAULT 0,
+    sum_a DOUBLE NOT NULL DEFAULT 0,
+    sum_b DOUBLE NOT NULL DEFAULT 0,
+    sum_c DOUBLE NOT NULL DEFAULT 0,
+    sum_d DOUBLE NOT NULL DEFAULT 0,
+    min_a DOUBLE,
+    min_b DOUBLE,
+    min_c DOUBLE,
+    min_d DOUBLE,
+    max_a DOUBLE,
+    max_b DOUBLE,
+    max_c DOUBLE,
+    max_d DOUBLE
+);
+
+-- Seeded from the existing rows, then one empty row for every type not submitted yet
+INSERT IGNORE INTO quad_stats (type, cnt, sum_a, sum_b, sum_c, sum_d,
+                               min_a, min_b, min_c, min_d, max_a, max_b, max_c, max_d)
+SELECT type, COUNT(*), SUM(sideA), SUM(sideB), SUM(sideC), SUM(sideD),
+       MIN(sideA), MIN(sideB), MIN(sideC), MIN(sideD), MAX(sideA), MAX(sideB), MAX(sideC), MAX(sideD)
+FROM quads
+WHERE type IN ('Square', 'Rectangle', 'Rhombus', 'Parallelogram', 'Kite', 'Generic Quadrilateral')
+GROUP BY type;
+INSERT IGNORE INTO quad_stats (type) VALUES ('Square'), ('Rectangle'), ('Rhombus'), ('Parallelogram'), ('Kite'), ('Generic Quadrilateral');
+
+CREATE TABLE IF NOT EXISTS quad_shapes (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    sideA DOUBLE NOT NULL,
+    sideB DOUBLE NOT NULL,
+    sideC DOUBLE NOT NULL,
+    sideD DOUBLE NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    submissions BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uq_quad_shapes_sides UNIQUE (sideA, sideB, sideC, sideD)
+);
+
+CREATE TABLE IF NOT EXISTS quad_submissions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    shape_id BIGINT NOT NULL,
+    submitted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_quad_submissions_shape (shape_id),
+    CONSTRAINT fk_quad_submissions_shape FOREIGN KEY (shape_id) REFERENCES quad_shapes (id)
+);
+
+CREATE TABLE IF NOT EXISTS triangles (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    sideA DOUBLE NOT NULL,
+    sideB DOUBLE NOT NULL,
+    sideC DOUBLE NOT NULL,
+    type_code TINYINT NOT NULL,
+    INDEX idx_triangles_type (type_code),
+    INDEX idx_triangles_sides (sideA, sideB, sideC)
+);
@@ -0,0 +1,3 @@
+-- Upgrades a quad_stats table created before the extremes_stale column (QuadStatsTable).
+-- Removing a row that holds a min/max now marks the type's extremes stale instead of rescanning it.
+ALTER TABLE quad_stats ADD COLUMN extremes_stale BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,9 @@
+-- Upgrades a database created before constant-time reset (QuadResetEpoch).
+-- Every quads read filters on quad_epoch (Quadrilateral.LIVE_ROWS) and QuadResetEpoch reads it at
+-- startup to resume an interrupted purge, so this must run before the new release starts.
+CREATE TABLE IF NOT EXISTS quad_epoch (
+    id INT PRIMARY KEY,
+    epoch BIGINT NOT NULL,
+    reset_through_id BIGINT NOT NULL
+);
+INSERT IGNORE INTO quad_epoch (id, epoch, reset_through_id) VALUES (1, 0, 0);
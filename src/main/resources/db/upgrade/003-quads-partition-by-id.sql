@@ -0,0 +1,14 @@
+-- Upgrades a quads table created before partitioning (QuadPartitions): adds created_at and its
+-- index, and partitions the table by id. Existing rows get the upgrade time as created_at, so
+-- retention counts their age from the upgrade. The primary key stays (id).
+-- PARTITION BY rebuilds the table once; run it in a maintenance window. The first partition holds
+-- every existing id, so no later split has to move rows.
+ALTER TABLE quads ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+CREATE INDEX idx_quads_created ON quads (created_at);
+
+SET @bound = (SELECT COALESCE(MAX(id), 0) + 1 FROM quads);
+SET @ddl = CONCAT('ALTER TABLE quads PARTITION BY RANGE (id) (PARTITION p', @bound,
+                  ' VALUES LESS THAN (', @bound, '), PARTITION pmax VALUES LESS THAN MAXVALUE)');
+PREPARE partition_quads FROM @ddl;
+EXECUTE partition_quads;
+DEALLOCATE PREPARE partition_quads;
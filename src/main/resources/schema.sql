@@ -1,10 +1,93 @@
+-- Range partitioned by id (QuadPartitions), so lookups by id touch one partition. pmax catches
+-- ids past the newest partition; the maintenance job splits new ranges off it while it is still
+-- empty and, when retention is set, drops partitions whose newest row has expired.
 create table quads
 (
-    id    int auto_increment
-        primary key,
+    id    bigint auto_increment primary key,
     sideA double not null,
     sideB double not null,
     sideC double not null,
     sideD double not null,
-    type VARCHAR(50) NOT NULL
-);
\ No newline at end of file
+    type VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+)
+PARTITION BY RANGE (id) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- Time-range reads (/quad/history/recent)
+CREATE INDEX idx_quads_created ON quads (created_at);
+
+-- Composite index for side-length range queries (leading column sideA)
+CREATE INDEX idx_quads_sides ON quads (sideA, sideB, sideC, sideD);
+
+-- Covering index for per-type history reads (squares, counts by type): type + id give the range
+-- and order, the sides come from the index itself. Newest-first reads walk the primary key backwards.
+CREATE INDEX idx_quads_type_id ON quads (type, id, sideA, sideB, sideC, sideD);
+
+-- Per-type statistics over quads (QuadStatsTable), maintained in the same transaction as
+-- every write by the JDBC and Hibernate backends. Min/max are NULL while cnt is 0.
+CREATE TABLE quad_stats (
+    type VARCHAR(50) NOT NULL PRIMARY KEY,
+    cnt BIGINT NOT NULL DEFAULT 0,
+    sum_a DOUBLE NOT NULL DEFAULT 0,
+    sum_b DOUBLE NOT NULL DEFAULT 0,
+    sum_c DOUBLE NOT NULL DEFAULT 0,
+    sum_d DOUBLE NOT NULL DEFAULT 0,
+    min_a DOUBLE,
+    min_b DOUBLE,
+    min_c DOUBLE,
+    min_d DOUBLE,
+    max_a DOUBLE,
+    max_b DOUBLE,
+    max_c DOUBLE,
+    max_d DOUBLE,
+    -- Set when a row holding a min/max was removed; the extremes may be too wide until rebuilt
+    extremes_stale BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+-- One row per valid QuadType label, so writers only ever update existing rows
+INSERT INTO quad_stats (type) VALUES ('Square'), ('Rectangle'), ('Rhombus'), ('Parallelogram'), ('Kite'), ('Generic Quadrilateral');
+
+-- Deduplicating storage (QuadServiceDedupImpl): one row per distinct side tuple,
+-- reference-counted by the submissions that point at it
+CREATE TABLE quad_shapes (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    sideA DOUBLE NOT NULL,
+    sideB DOUBLE NOT NULL,
+    sideC DOUBLE NOT NULL,
+    sideD DOUBLE NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    submissions BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uq_quad_shapes_sides UNIQUE (sideA, sideB, sideC, sideD)
+);
+
+CREATE TABLE quad_submissions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    shape_id BIGINT NOT NULL,
+    submitted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_quad_submissions_shape FOREIGN KEY (shape_id) REFERENCES quad_shapes (id)
+);
+
+CREATE INDEX idx_quad_submissions_shape ON quad_submissions (shape_id);
+
+-- Triangle classifications (TriangleService); type_code is a TriangleType code
+CREATE TABLE triangles (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    sideA DOUBLE NOT NULL,
+    sideB DOUBLE NOT NULL,
+    sideC DOUBLE NOT NULL,
+    type_code TINYINT NOT NULL
+);
+
+CREATE INDEX idx_triangles_type ON triangles (type_code);
+CREATE INDEX idx_triangles_sides ON triangles (sideA, sideB, sideC);
+
+-- Reset watermark (QuadResetEpoch): rows with id <= reset_through_id are hidden from every
+-- read and deleted in the background, so a reset is a single-row update.
+CREATE TABLE quad_epoch (
+    id INT PRIMARY KEY,
+    epoch BIGINT NOT NULL,
+    reset_through_id BIGINT NOT NULL
+);
+INSERT INTO quad_epoch (id, epoch, reset_through_id) VALUES (1, 0, 0);
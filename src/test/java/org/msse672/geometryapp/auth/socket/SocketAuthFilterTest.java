@@ -16,10 +16,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
- * Verifies that /quad/** is gated by the socket-auth filter.
+ * Verifies that /quad/** and the stored triangle routes are gated by the socket-auth filter.
  */
 @SpringBootTest(classes = { TriangleMiddlewareApplication.class, SocketAuthFilterTest.TestController.class })
 @AutoConfigureMockMvc
@@ -71,4 +72,20 @@ class SocketAuthFilterTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("ok"));
     }
+
+    @Test
+    void storedTrianglesNeedAToken() throws Exception {
+        mockMvc.perform(get("/triangle/history"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/triangle/search"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/triangle/type").param("side1", "3").param("side2", "3").param("side3", "3").param("store", "true"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/triangle/batch").param("store", "true").contentType("text/csv").content("3,3,3\n"))
+                .andExpect(status().isUnauthorized());
+
+        // Classifying without storing stays public
+        mockMvc.perform(post("/triangle/type").param("side1", "3").param("side2", "3").param("side3", "3"))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,42 @@
+package org.msse672.geometryapp.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.msse672.geometryapp.journal.QuadJournal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadImportCliTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testImportIntoJournalWritesRejectsFile() throws IOException {
+        Path input = dir.resolve("history.csv");
+        Files.writeString(input, "2,2,2,2\n1,2,1,2\n0,1,1,1\n");
+        Path journalFile = dir.resolve("quads.journal");
+        PrintStream out = new PrintStream(new ByteArrayOutputStream());
+
+        int code = QuadImportCli.run(new String[] { input.toString(), "--journal=" + journalFile }, out, out);
+
+        assertEquals(1, code);
+        List<String> rejects = Files.readAllLines(dir.resolve("history.csv.rejects.csv"));
+        assertEquals(List.of("3,all sides (a, b, c, d) must be > 0,0,1,1,1"), rejects);
+        try (QuadJournal journal = new QuadJournal(journalFile, QuadJournal.FsyncPolicy.OS, Duration.ZERO)) {
+            List<Long> ids = new ArrayList<>();
+            journal.replay(q -> ids.add(q.getId()), () -> { });
+            assertEquals(List.of(1L, 2L), ids);
+        }
+        assertEquals(2, QuadImportCli.run(new String[] { input.toString() }, out, out));
+    }
+}
@@ -0,0 +1,76 @@
+package org.msse672.geometryapp.codec;
+
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.dto.QuadNeighbor;
+import org.msse672.geometryapp.dto.QuadResponse;
+import org.msse672.geometryapp.model.QuadType;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadBinaryHttpMessageConverterTest {
+
+    private final QuadBinaryHttpMessageConverter converter = new QuadBinaryHttpMessageConverter();
+
+    @Test
+    void testReadsSidesRecord() throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(BinaryRecords.QUAD_SIDES_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putDouble(1).putDouble(2).putDouble(1).putDouble(2);
+        Quadrilateral quad = (Quadrilateral) converter.read(Quadrilateral.class, new MockHttpInputMessage(body.array()));
+        assertEquals(2.0, quad.getSideD());
+
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(Quadrilateral.class, new MockHttpInputMessage(new byte[31])));
+        assertFalse(converter.canRead(QuadResponse.class, BinaryRecords.MEDIA_TYPE));
+        assertFalse(converter.canRead(Quadrilateral.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testWritesFixedWidthRecords() throws IOException {
+        MockHttpOutputMessage single = new MockHttpOutputMessage();
+        converter.write(new QuadResponse(2, 2, 2, 2, "Square"), BinaryRecords.MEDIA_TYPE, single);
+        assertEquals(BinaryRecords.QUAD_RESPONSE_BYTES, single.getBodyAsBytes().length);
+        assertEquals(QuadType.SQUARE.getCode(), single.getBodyAsBytes()[BinaryRecords.QUAD_RESPONSE_BYTES - 1]);
+
+        MockHttpOutputMessage list = new MockHttpOutputMessage();
+        converter.write(List.of(new Quadrilateral(7L, 1, 2, 1, 2), new Quadrilateral(8L, 2, 3, 4, 5)),
+                BinaryRecords.MEDIA_TYPE, list);
+        ByteBuffer out = ByteBuffer.wrap(list.getBodyAsBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(2L * BinaryRecords.QUAD_RECORD_BYTES, list.getHeaders().getContentLength());
+        assertEquals(7L, out.getLong(0));
+        assertEquals(QuadType.RECTANGLE.getCode(), out.get(BinaryRecords.QUAD_RECORD_BYTES - 1));
+        assertEquals(8L, out.getLong(BinaryRecords.QUAD_RECORD_BYTES));
+        assertEquals(5.0, out.getDouble(BinaryRecords.QUAD_RECORD_BYTES + 32));
+        assertEquals(QuadType.GENERIC.getCode(), out.get(2 * BinaryRecords.QUAD_RECORD_BYTES - 1));
+
+        // Error maps are left to the JSON converter
+        assertFalse(converter.canWrite(Map.class, BinaryRecords.MEDIA_TYPE));
+    }
+
+    @Test
+    void testRefusesListsOfOtherRecords() {
+        ResolvableType neighbors = ResolvableType.forClassWithGenerics(List.class, QuadNeighbor.class);
+        ResolvableType quads = ResolvableType.forClassWithGenerics(List.class, Quadrilateral.class);
+        assertFalse(converter.canWrite(neighbors.getType(), List.class, BinaryRecords.MEDIA_TYPE));
+        assertTrue(converter.canWrite(quads.getType(), List.class, BinaryRecords.MEDIA_TYPE));
+
+        // Behind ResponseEntity<?> the element type is unknown, so the value is checked before any header
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        List<QuadNeighbor> body = List.of(new QuadNeighbor(new Quadrilateral(1L, 2, 2, 2, 2), 0.5));
+        assertThrows(HttpMessageNotWritableException.class, () -> converter.write(body, BinaryRecords.MEDIA_TYPE, out));
+        assertEquals(-1, out.getHeaders().getContentLength());
+        assertEquals(0, out.getBodyAsBytes().length);
+    }
+}
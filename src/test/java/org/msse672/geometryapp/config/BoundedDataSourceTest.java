@@ -0,0 +1,56 @@
+package org.msse672.geometryapp.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedDataSourceTest {
+
+    private DataSource target;
+    private BoundedDataSource bounded;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(inv -> mock(Connection.class));
+        bounded = new BoundedDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testPermitsAreHeldUntilClose() throws SQLException {
+        Connection c1 = bounded.getConnection();
+        Connection c2 = bounded.getConnection();
+        assertEquals(2, bounded.getInUse());
+
+        assertThrows(SQLTransientConnectionException.class, () -> bounded.getConnection());
+
+        c1.close();
+        assertEquals(1, bounded.getInUse());
+        c2.close();
+        assertEquals(0, bounded.getInUse());
+    }
+
+    @Test
+    void testDoubleCloseReleasesOnce() throws SQLException {
+        Connection c1 = bounded.getConnection();
+        c1.close();
+        c1.close();
+        assertEquals(0, bounded.getInUse());
+        assertEquals(2, bounded.getMaxPermits());
+    }
+
+    @Test
+    void testFailedCheckoutReleasesPermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool down"));
+        assertThrows(SQLException.class, () -> bounded.getConnection());
+        assertEquals(0, bounded.getInUse());
+    }
+}
@@ -0,0 +1,100 @@
+package org.msse672.geometryapp.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.model.Quadrilateral;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateCacheEndpointTest {
+
+    private SessionFactory sessionFactory;
+    private HibernateCacheEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        // Same cache settings as application.properties, on a private H2 database
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Quadrilateral.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.cache.use_second_level_cache", "true")
+                .setProperty("hibernate.cache.use_query_cache", "true")
+                .setProperty("hibernate.cache.region.factory_class", "jcache")
+                .setProperty("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider")
+                .setProperty("hibernate.javax.cache.missing_cache_strategy", "create")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+        // Quadrilateral's reset filter reads the quad_epoch watermark (see schema.sql)
+        sessionFactory.inTransaction(session -> {
+            session.createNativeMutationQuery("CREATE TABLE quad_epoch (id INT PRIMARY KEY, epoch BIGINT NOT NULL,"
+                    + " reset_through_id BIGINT NOT NULL)").executeUpdate();
+            session.createNativeMutationQuery("INSERT INTO quad_epoch (id, epoch, reset_through_id) VALUES (1, 0, 0)").executeUpdate();
+        });
+        endpoint = new HibernateCacheEndpoint(sessionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    private List<Quadrilateral> cachedFindAll() {
+        return sessionFactory.fromSession(session -> session
+                .createQuery("from Quadrilateral", Quadrilateral.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> section(String name) {
+        return (Map<String, Object>) endpoint.cacheStats().get(name);
+    }
+
+    @Test
+    void testEntityAndQueryCacheHitsAreReported() {
+        Long id = sessionFactory.fromTransaction(session -> {
+            Quadrilateral quad = new Quadrilateral(2, 2, 2, 2);
+            session.persist(quad);
+            return quad.getId();
+        });
+
+        // After the first load, loads in fresh sessions come from the second-level cache
+        sessionFactory.inSession(session -> assertNotNull(session.find(Quadrilateral.class, id)));
+        sessionFactory.inSession(session -> assertNotNull(session.find(Quadrilateral.class, id)));
+        sessionFactory.inSession(session -> assertNotNull(session.find(Quadrilateral.class, id)));
+        assertTrue((long) section("secondLevelCache").get("hits") >= 2);
+
+        assertEquals(1, cachedFindAll().size());
+        assertEquals(1, cachedFindAll().size());
+        assertEquals(1L, section("queryCache").get("hits"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> regions = (Map<String, Object>) endpoint.cacheStats().get("regions");
+        assertTrue(regions.containsKey("quads"));
+    }
+
+    @Test
+    void testWritesInvalidateCachedQueries() {
+        sessionFactory.inTransaction(session -> session.persist(new Quadrilateral(2, 2, 2, 2)));
+        assertEquals(1, cachedFindAll().size());
+
+        sessionFactory.inTransaction(session -> session.persist(new Quadrilateral(1, 2, 1, 2)));
+        assertEquals(2, cachedFindAll().size());
+
+        sessionFactory.inTransaction(session -> session.createMutationQuery("delete from Quadrilateral").executeUpdate());
+        assertTrue(cachedFindAll().isEmpty());
+
+        endpoint.evictAll();
+        assertFalse(sessionFactory.getCache().containsEntity(Quadrilateral.class, 1L));
+    }
+}
@@ -0,0 +1,145 @@
+package org.msse672.geometryapp.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate writeTx;
+    private ReplicaRoutingDataSource.Session previous;
+
+    // Each embedded database identifies itself through a one-row table
+    private static DataSource h2(String name) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        ds.setUser("sa");
+        JdbcTemplate init = new JdbcTemplate(ds);
+        init.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+        init.execute("DELETE FROM node");
+        init.update("INSERT INTO node VALUES (?)", name);
+        return ds;
+    }
+
+    private void open(List<DataSource> replicas) {
+        open(replicas, Duration.ZERO);
+    }
+
+    private void open(List<DataSource> replicas, Duration maxReplicaLag) {
+        routing = new ReplicaRoutingDataSource(h2("primary"), replicas, Duration.ZERO, maxReplicaLag);
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(routing);
+        readOnlyTx = new TransactionTemplate(tm);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(tm);
+    }
+
+    @BeforeEach
+    void setUp() {
+        open(List.of(h2("replicaA"), h2("replicaB")));
+        previous = ReplicaRoutingDataSource.bind(new ReplicaRoutingDataSource.Session());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.restore(previous);
+    }
+
+    private String readOnlyNode() {
+        return readOnlyTx.execute(s -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void testReadOnlyTransactionsRoundRobinAcrossReplicas() {
+        List<String> seen = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            seen.add(readOnlyNode());
+        }
+        assertEquals(List.of("replicaA", "replicaB", "replicaA", "replicaB"), seen);
+        assertFalse(ReplicaRoutingDataSource.isPinnedToPrimary());
+    }
+
+    @Test
+    void testWritesGoToPrimaryAndPinLaterReads() {
+        String written = writeTx.execute(s -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        assertEquals("primary", written);
+
+        // Read-your-writes: same thread stays on the primary
+        assertEquals("primary", readOnlyNode());
+        assertTrue(ReplicaRoutingDataSource.isPinnedToPrimary());
+
+        // A new request starts unpinned
+        ReplicaRoutingDataSource.bind(new ReplicaRoutingDataSource.Session());
+        assertTrue(readOnlyNode().startsWith("replica"));
+    }
+
+    @Test
+    void testThreadsWithoutSessionAreNeverPinned() {
+        ReplicaRoutingDataSource.restore(null);
+        writeTx.execute(s -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        assertFalse(ReplicaRoutingDataSource.isPinnedToPrimary());
+        assertTrue(readOnlyNode().startsWith("replica"));
+    }
+
+    @Test
+    void testReadsStayOnPrimaryWithinReplicaLagOfAnyWrite() throws InterruptedException {
+        open(List.of(h2("replicaA")), Duration.ofMillis(300));
+        ReplicaRoutingDataSource.restore(null);
+        assertEquals("replicaA", readOnlyNode());
+
+        // Written from another request: no session is shared, the window still applies
+        Thread writer = new Thread(() -> writeTx.execute(s -> jdbc.update("UPDATE node SET name = name")));
+        writer.start();
+        writer.join();
+        assertEquals("primary", readOnlyNode());
+
+        Thread.sleep(400);
+        assertEquals("replicaA", readOnlyNode());
+    }
+
+    @Test
+    void testStatementsOutsideTransactionsUsePrimary() {
+        assertEquals("primary", jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void testFailedReplicaIsSkippedUntilHealthy() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("replica down"));
+        open(List.of(broken, h2("replicaA")));
+
+        assertEquals("replicaA", readOnlyNode());
+        assertEquals("replicaA", readOnlyNode());
+        assertEquals(1, routing.getHealthyReplicaCount());
+
+        routing.checkReplicas();
+        assertEquals(1, routing.getHealthyReplicaCount());
+    }
+
+    @Test
+    void testReadsFallBackToPrimaryWithoutHealthyReplicas() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("replica down"));
+        open(List.of(broken));
+
+        routing.checkReplicas();
+        assertEquals(0, routing.getHealthyReplicaCount());
+        assertEquals("primary", readOnlyNode());
+    }
+}
@@ -0,0 +1,118 @@
+package org.msse672.geometryapp.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.codec.BinaryRecords;
+import org.msse672.geometryapp.model.QuadrilateralSet;
+import org.msse672.geometryapp.service.QuadImportService;
+import org.msse672.geometryapp.service.QuadService;
+import org.msse672.geometryapp.service.QuadServiceInMemoryImpl;
+import org.msse672.geometryapp.service.QuadServiceJdbcImpl;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class QuadBulkControllerTest {
+
+    private final QuadImportService importService = new QuadImportService(2);
+    private MockMvc mockMvc;
+
+    // Fresh H2 quads table, so export goes through the JDBC cursor
+    private static QuadService jdbcBackend() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        return new QuadServiceJdbcImpl(jdbc);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(new QuadBulkController(jdbcBackend(), importService)).build();
+        mockMvc.perform(post("/quad/import").contentType("text/csv")
+                        .content("sideA,sideB,sideC,sideD\n2,2,2,2\n1,2,1,2\n1,1,1,9\n3,3,3,3\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejects[0].row").value(4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void testCsvAndNdjsonExport() throws Exception {
+        mockMvc.perform(get("/quad/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "id"))
+                .andExpect(content().string("id,sideA,sideB,sideC,sideD,type\n"
+                        + "1,2.0,2.0,2.0,2.0,Square\n2,1.0,2.0,1.0,2.0,Rectangle\n3,3.0,3.0,3.0,3.0,Square\n"));
+
+        mockMvc.perform(get("/quad/export").param("format", "ndjson").param("afterId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "{\"id\":3,\"sideA\":3.0,\"sideB\":3.0,\"sideC\":3.0,\"sideD\":3.0,\"type\":\"Square\"}\n"));
+
+        mockMvc.perform(get("/quad/export").param("format", "xml")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGzippedBinaryExportResumesFromRange() throws Exception {
+        MvcResult result = mockMvc.perform(get("/quad/export").param("format", "binary")
+                        .header("Accept-Encoding", "gzip, deflate").header("Range", "id=2-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "id 2-*"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().contentType(BinaryRecords.MEDIA_TYPE_VALUE))
+                .andReturn();
+
+        byte[] body = gunzip(result.getResponse().getContentAsByteArray());
+        assertEquals(2 * BinaryRecords.QUAD_RECORD_BYTES, body.length);
+        ByteBuffer buf = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(2L, buf.getLong(0));
+        assertEquals(1.0, buf.getDouble(8));
+        assertEquals(3L, buf.getLong(BinaryRecords.QUAD_RECORD_BYTES));
+        assertEquals(1, buf.get(2 * BinaryRecords.QUAD_RECORD_BYTES - 1), "Square type code");
+
+        mockMvc.perform(get("/quad/export").header("Range", "id=1-5")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testInMemoryExportStreamsFromHistoryView() throws Exception {
+        QuadServiceInMemoryImpl inMemory = new QuadServiceInMemoryImpl(new QuadrilateralSet());
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new QuadBulkController(inMemory, importService)).build();
+        ByteBuffer sides = ByteBuffer.allocate(2 * BinaryRecords.QUAD_SIDES_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        sides.putDouble(5).putDouble(5).putDouble(5).putDouble(5).putDouble(2).putDouble(3).putDouble(4).putDouble(5);
+        mvc.perform(post("/quad/import").contentType(BinaryRecords.MEDIA_TYPE_VALUE).content(sides.array()))
+                .andExpect(jsonPath("$.imported").value(2));
+
+        mvc.perform(get("/quad/export").param("afterId", "1"))
+                .andExpect(content().string("id,sideA,sideB,sideC,sideD,type\n2,2.0,3.0,4.0,5.0,Generic Quadrilateral\n"));
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -1,20 +1,36 @@
 package org.msse672.geometryapp.controller;
 
 import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.service.RollingStatsService;
+import org.msse672.geometryapp.service.TriangleBatchService;
+import org.msse672.geometryapp.service.TriangleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TriangleController.class)
+@Import({RollingStatsService.class, TriangleBatchService.class})
 public class TriangleControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @MockitoBean
+    @Qualifier("jdbc")
+    private TriangleService triangleService;
+
     @Test
     public void testGetTriangleTypeEquilateral() throws Exception {
         mockMvc.perform(post("/triangle/type")
@@ -152,4 +168,50 @@ public class TriangleControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Not a Triangle. Invalid sides based on the Triangle Inequality Theorem."));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBatchCsvStreamsResultsInSameFormat() throws Exception {
+        mockMvc.perform(post("/triangle/batch")
+                .contentType("text/csv")
+                .content("side1,side2,side3\n3,3,3\n1,2,3\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("side1,side2,side3,type\n3.0,3.0,3.0,EQUILATERAL\n1.0,2.0,3.0,NOT_A_TRIANGLE\n"));
+    }
+
+    @Test
+    public void testBatchRejectsMalformedInput() throws Exception {
+        mockMvc.perform(post("/triangle/batch")
+                .contentType("application/json")
+                .content("[[3, 3]]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testTypeStoresOnlyWhenAsked() throws Exception {
+        mockMvc.perform(post("/triangle/type")
+                .param("side1", "3")
+                .param("side2", "4")
+                .param("side3", "5"))
+                .andExpect(status().isOk());
+        verify(triangleService, never()).insertTriangle(anyDouble(), anyDouble(), anyDouble());
+
+        mockMvc.perform(post("/triangle/type")
+                .param("side1", "3")
+                .param("side2", "4")
+                .param("side3", "5")
+                .param("store", "true"))
+                .andExpect(status().isOk());
+        verify(triangleService).insertTriangle(3, 4, 5);
+    }
+
+    @Test
+    public void testTypeStoreReports503WhenHistoryIsDown() throws Exception {
+        doThrow(new DataAccessResourceFailureException("down")).when(triangleService).insertTriangle(anyDouble(), anyDouble(), anyDouble());
+        mockMvc.perform(post("/triangle/type")
+                .param("side1", "3")
+                .param("side2", "3")
+                .param("side3", "3")
+                .param("store", "true"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -0,0 +1,67 @@
+package org.msse672.geometryapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.codec.BinaryRecords;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedResponseCacheTest {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final VersionedResponseCache cache = new VersionedResponseCache(generation::get, new ObjectMapper());
+
+    private ResponseEntity<?> handler() {
+        calls.incrementAndGet();
+        return ResponseEntity.ok(Map.of("Square", (long) generation.get() + 1));
+    }
+
+    @Test
+    void testServesCachedBytesUntilGenerationMoves() {
+        ResponseEntity<?> first = cache.serve("stats", null, null, this::handler);
+        ResponseEntity<?> second = cache.serve("stats", "application/json", null, this::handler);
+        assertEquals(1, calls.get());
+        assertEquals("{\"Square\":1}", new String((byte[]) second.getBody(), StandardCharsets.UTF_8));
+        String etag = first.getHeaders().getETag();
+        assertEquals(etag, second.getHeaders().getETag());
+
+        ResponseEntity<?> notModified = cache.serve("stats", null, "\"other\", " + etag, this::handler);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(1, calls.get());
+
+        generation.incrementAndGet();
+        ResponseEntity<?> rebuilt = cache.serve("stats", null, etag, this::handler);
+        assertEquals(HttpStatus.OK, rebuilt.getStatusCode());
+        assertNotEquals(etag, rebuilt.getHeaders().getETag());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testBypassesErrorsBinaryClientsAndUntrackedBackends() {
+        ResponseEntity<?> error = cache.serve("squares", null, null, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.badRequest().body(Map.of("error", "Please POST sides first."));
+        });
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+        cache.serve("squares", null, null, this::handler);
+        assertEquals(2, calls.get());
+
+        ResponseEntity<?> binary = cache.serve("squares", BinaryRecords.MEDIA_TYPE_VALUE, null, this::handler);
+        assertInstanceOf(Map.class, binary.getBody());
+        assertEquals(3, calls.get());
+
+        generation.set(-1);
+        cache.serve("squares", null, null, this::handler);
+        cache.serve("squares", null, null, this::handler);
+        assertEquals(5, calls.get());
+    }
+}
@@ -0,0 +1,71 @@
+package org.msse672.geometryapp.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShapeHashIndexTest {
+
+    @Test
+    void testCanonicalKeysIgnoreRotationAndReflection() {
+        long[] key = ShapeKey.congruent(1, 2, 3, 4);
+        assertArrayEquals(key, ShapeKey.congruent(3, 4, 1, 2));  // rotation
+        assertArrayEquals(key, ShapeKey.congruent(4, 3, 2, 1));  // reflection
+        assertArrayEquals(key, ShapeKey.congruent(2, 1, 4, 3));  // both
+        // Same multiset, different cycle
+        assertFalse(Arrays.equals(key, ShapeKey.congruent(1, 3, 2, 4)));
+
+        assertArrayEquals(ShapeKey.similar(1, 2, 3, 4), ShapeKey.similar(6, 8, 2, 4));
+        assertArrayEquals(ShapeKey.similar(0.1, 0.2, 0.3, 0.4), ShapeKey.similar(1, 2, 3, 4));
+        assertFalse(Arrays.equals(ShapeKey.congruent(1, 2, 3, 4), ShapeKey.congruent(2, 4, 6, 8)));
+    }
+
+    @Test
+    void testScaledRotatedCopiesShareTheSimilarKey() {
+        Random random = new Random(31);
+        double[] scales = { 0.1, 0.3, 0.7, 1.1, 3.3, 1e-3, 7e5 };
+        for (int i = 0; i < 2000; i++) {
+            double a = 1 + random.nextInt(50), b = 1 + random.nextInt(50), c = 1 + random.nextInt(50), d = 1 + random.nextInt(50);
+            double k = scales[i % scales.length];
+            long[] key = ShapeKey.similar(a, b, c, d);
+            assertArrayEquals(key, ShapeKey.similar(b * k, c * k, d * k, a * k), "rotated " + i);
+            assertArrayEquals(key, ShapeKey.similar(d * k, c * k, b * k, a * k), "reflected " + i);
+        }
+    }
+
+    @Test
+    void testPutRemoveAndMove() {
+        ShapeHashIndex index = new ShapeHashIndex();
+        long[] square = ShapeKey.congruent(2, 2, 2, 2);
+        long[] kite = ShapeKey.congruent(3, 3, 5, 5);
+
+        // Enough distinct shapes and ids to force both tables to grow
+        for (long id = 1; id <= 5000; id++) {
+            index.put(id, id % 2 == 0 ? square : ShapeKey.congruent(id, id + 1, id + 2, id + 3));
+        }
+        assertEquals(2500, index.count(square));
+        assertEquals(5000, index.size());
+
+        index.put(2, kite);
+        index.remove(4);
+        index.remove(4);
+        index.remove(99_999);
+        assertEquals(2498, index.count(square));
+        assertArrayEquals(new long[] { 2 }, index.ids(kite));
+        assertEquals(4999, index.size());
+
+        for (long id = 1; id <= 5000; id += 2) index.remove(id);
+        assertArrayEquals(new long[0], index.ids(ShapeKey.congruent(1, 2, 3, 4)));
+        long[] ids = index.ids(square);
+        Arrays.sort(ids);
+        assertEquals(6, ids[0]);
+        assertEquals(5000, ids[ids.length - 1]);
+
+        index.clear();
+        assertEquals(0, index.count(square));
+        assertEquals(0, index.size());
+    }
+}
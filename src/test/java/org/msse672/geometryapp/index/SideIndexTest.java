@@ -0,0 +1,112 @@
+package org.msse672.geometryapp.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SideIndexTest {
+
+    // Reference copy of what the index should contain
+    private final Map<Long, double[]> expected = new HashMap<>();
+    private final SideIndex index = new SideIndex();
+    private final Random random = new Random(11);
+
+    private void put(long id) {
+        double[] p = { random.nextInt(20) + 1, random.nextInt(20) + 1, random.nextInt(20) + 1, random.nextInt(20) + 1 };
+        if (expected.put(id, p) == null) {
+            index.insert(id, p[0], p[1], p[2], p[3]);
+        } else {
+            index.update(id, p[0], p[1], p[2], p[3]);
+        }
+    }
+
+    private long[] bruteRange(SideRange range) {
+        return expected.entrySet().stream()
+                .filter(e -> range.contains(e.getValue()[0], e.getValue()[1], e.getValue()[2], e.getValue()[3]))
+                .mapToLong(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+    }
+
+    private double[] bruteNearestDistances(double[] q, int k) {
+        return expected.values().stream()
+                .mapToDouble(p -> Math.sqrt(Math.pow(p[0] - q[0], 2) + Math.pow(p[1] - q[1], 2)
+                        + Math.pow(p[2] - q[2], 2) + Math.pow(p[3] - q[3], 2)))
+                .sorted()
+                .limit(k)
+                .toArray();
+    }
+
+    private void assertMatchesBruteForce() {
+        assertEquals(expected.size(), index.size());
+        for (int i = 0; i < 20; i++) {
+            double lo = random.nextInt(15), hi = lo + random.nextInt(8);
+            SideRange range = SideRange.of(lo, hi, null, 12.0, 3.0, null, null, null);
+            long[] ids = index.range(range, Integer.MAX_VALUE);
+            Arrays.sort(ids);
+            assertArrayEquals(bruteRange(range), ids, range.toString());
+
+            double[] q = { random.nextDouble() * 20, random.nextDouble() * 20, random.nextDouble() * 20, random.nextDouble() * 20 };
+            double[] distances = index.nearest(q[0], q[1], q[2], q[3], 7).stream()
+                    .mapToDouble(SideIndex.Neighbor::distance).toArray();
+            assertArrayEquals(bruteNearestDistances(q, 7), distances, 1e-9);
+        }
+    }
+
+    @Test
+    void testIncrementalInsertsUpdatesAndRemoves() {
+        // Enough inserts to force several rebuilds
+        for (long id = 1; id <= 6000; id++) put(id);
+        assertMatchesBruteForce();
+
+        for (long id = 1; id <= 6000; id += 3) put(id);
+        for (long id = 2; id <= 6000; id += 5) {
+            index.remove(id);
+            expected.remove(id);
+        }
+        assertMatchesBruteForce();
+    }
+
+    @Test
+    void testBulkLoad() {
+        int n = 5000;
+        long[] ids = new long[n];
+        double[] a = new double[n], b = new double[n], c = new double[n], d = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 100;
+            a[i] = random.nextInt(20) + 1;
+            b[i] = random.nextInt(20) + 1;
+            c[i] = random.nextInt(20) + 1;
+            d[i] = random.nextInt(20) + 1;
+            expected.put(ids[i], new double[] { a[i], b[i], c[i], d[i] });
+        }
+        index.load(ids, a, b, c, d, n);
+        assertMatchesBruteForce();
+
+        index.clear();
+        expected.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.nearest(1, 1, 1, 1, 3).isEmpty());
+    }
+
+    @Test
+    void testLimitAndExactMatch() {
+        index.insert(1, 2, 2, 2, 2);
+        index.insert(2, 2, 2, 2, 2);
+        index.insert(3, 5, 6, 5, 6);
+
+        assertEquals(1, index.range(SideRange.ALL, 1).length);
+
+        List<SideIndex.Neighbor> nearest = index.nearest(5, 6, 5, 6, 1);
+        assertEquals(3L, nearest.get(0).id());
+        assertEquals(0.0, nearest.get(0).distance());
+
+        assertThrows(IllegalArgumentException.class, () -> SideRange.of(3.0, 1.0, null, null, null, null, null, null));
+    }
+}
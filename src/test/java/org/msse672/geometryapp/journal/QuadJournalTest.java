@@ -0,0 +1,141 @@
+package org.msse672.geometryapp.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.msse672.geometryapp.model.QuadrilateralSet;
+import org.msse672.geometryapp.service.QuadServiceInMemoryImpl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private static List<Quadrilateral> replayAll(QuadJournal journal) throws IOException {
+        List<Quadrilateral> quads = new ArrayList<>();
+        journal.replay(quads::add, () -> { });
+        return quads;
+    }
+
+    @Test
+    void testRecordsSurviveReopenAcrossWindows() throws IOException {
+        Path file = dir.resolve("quads.journal");
+        try (QuadJournal journal = new QuadJournal(file, QuadJournal.FsyncPolicy.OS, Duration.ZERO, 4)) {
+            assertTrue(replayAll(journal).isEmpty());
+            for (long id = 1; id <= 10; id++) {
+                journal.append(new Quadrilateral(id, id, id, id, id));
+            }
+        }
+        try (QuadJournal journal = new QuadJournal(file, QuadJournal.FsyncPolicy.ALWAYS, Duration.ZERO, 4)) {
+            List<Quadrilateral> quads = replayAll(journal);
+            assertEquals(10, quads.size());
+            assertEquals(7L, quads.get(6).getId());
+            assertEquals(7.0, quads.get(6).getSideD());
+            journal.append(new Quadrilateral(11L, 1, 2, 1, 2));
+            assertEquals(11, journal.size());
+        }
+    }
+
+    @Test
+    void testTornTailIsDropped() throws IOException {
+        Path file = dir.resolve("torn.journal");
+        try (QuadJournal journal = new QuadJournal(file, QuadJournal.FsyncPolicy.OS, Duration.ZERO)) {
+            replayAll(journal);
+            for (long id = 1; id <= 3; id++) {
+                journal.append(new Quadrilateral(id, 2, 2, 2, 2));
+            }
+        }
+        // Corrupt one byte of the last record, as a crash mid-write would
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            long offset = QuadJournal.HEADER_SIZE + 2L * QuadJournal.RECORD_SIZE + 10;
+            channel.write(ByteBuffer.wrap(new byte[] { 0x7f }), offset);
+        }
+        try (QuadJournal journal = new QuadJournal(file, QuadJournal.FsyncPolicy.OS, Duration.ZERO)) {
+            assertEquals(2, replayAll(journal).size());
+            journal.append(new Quadrilateral(3L, 3, 3, 3, 3));
+        }
+        try (QuadJournal journal = new QuadJournal(file, QuadJournal.FsyncPolicy.OS, Duration.ZERO)) {
+            List<Quadrilateral> quads = replayAll(journal);
+            assertEquals(3, quads.size());
+            assertEquals(3.0, quads.get(2).getSideA());
+        }
+    }
+
+    @Test
+    void testGroupCommitReleasesConcurrentWriters() throws Exception {
+        Path file = dir.resolve("group.journal");
+        AtomicInteger next = new AtomicInteger();
+        try (QuadJournal journal = new QuadJournal(file, QuadJournal.FsyncPolicy.GROUP, Duration.ofMillis(2))) {
+            replayAll(journal);
+            try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 200; i++) {
+                    pool.submit(() -> {
+                        long seq = journal.append(new Quadrilateral((long) next.incrementAndGet(), 1, 1, 1, 1));
+                        journal.awaitDurable(seq);
+                        return null;
+                    });
+                }
+            }
+            assertEquals(200, journal.size());
+        }
+    }
+
+    @Test
+    void testAppendBeforeReplayIsRejected() throws IOException {
+        try (QuadJournal journal = new QuadJournal(dir.resolve("x.journal"), QuadJournal.FsyncPolicy.OS, Duration.ZERO)) {
+            assertThrows(IllegalStateException.class, () -> journal.append(new Quadrilateral(1L, 1, 1, 1, 1)));
+            replayAll(journal);
+            assertThrows(IllegalArgumentException.class, () -> journal.append(new Quadrilateral(1, 1, 1, 1)));
+        }
+    }
+
+    @Test
+    void testInMemoryServiceRestoresHistoryAfterRestart() throws IOException {
+        Path file = dir.resolve("service.journal");
+        try (QuadJournal journal = new QuadJournal(file, QuadJournal.FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            QuadServiceInMemoryImpl service = new QuadServiceInMemoryImpl(new QuadrilateralSet());
+            service.setJournal(journal);
+            service.restore();
+            service.updateSides(2, 2, 2, 2);
+            service.updateSides(1, 2, 1, 2);
+        }
+        try (QuadJournal journal = new QuadJournal(file, QuadJournal.FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            QuadrilateralSet history = new QuadrilateralSet();
+            QuadServiceInMemoryImpl restarted = new QuadServiceInMemoryImpl(history);
+            restarted.setJournal(journal);
+            restarted.restore();
+
+            assertTrue(restarted.isInitialized());
+            assertEquals(1.0, restarted.getSideA());
+            assertEquals(2, restarted.getAllSubmittedQuads().size());
+            assertEquals(1L, restarted.countByType().get("Square"));
+
+            // New submissions continue the id sequence
+            restarted.updateSides(3, 3, 3, 3);
+            assertEquals(3L, history.getLast().getId());
+
+            restarted.reset();
+        }
+        try (QuadJournal journal = new QuadJournal(file, QuadJournal.FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            QuadServiceInMemoryImpl again = new QuadServiceInMemoryImpl(new QuadrilateralSet());
+            again.setJournal(journal);
+            again.restore();
+            assertFalse(again.isInitialized());
+            assertEquals(3, again.getAllSubmittedQuads().size());
+        }
+    }
+}
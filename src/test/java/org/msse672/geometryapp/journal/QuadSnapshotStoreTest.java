@@ -0,0 +1,131 @@
+package org.msse672.geometryapp.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.msse672.geometryapp.model.QuadrilateralSet;
+import org.msse672.geometryapp.service.QuadServiceInMemoryImpl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testWriteAndLoadRoundTrip() throws IOException {
+        QuadSnapshotStore store = new QuadSnapshotStore(dir.resolve("quads.snapshot"), Duration.ZERO);
+        List<Quadrilateral> quads = List.of(new Quadrilateral(1L, 2, 2, 2, 2), new Quadrilateral(5L, 1, 2, 1, 2));
+        store.write(new QuadSnapshotStore.Snapshot(quads, 7, true, 1, 2, 1, 2));
+
+        QuadSnapshotStore.Snapshot loaded = store.load().orElseThrow();
+        assertEquals(2, loaded.quads().size());
+        assertEquals(5L, loaded.quads().get(1).getId());
+        assertEquals(2.0, loaded.quads().get(1).getSideB());
+        assertEquals(7, loaded.journalRecords());
+        assertTrue(loaded.initialized());
+        assertEquals(2.0, loaded.sideD());
+    }
+
+    @Test
+    void testCorruptSnapshotIsIgnored() throws IOException {
+        Path file = dir.resolve("bad.snapshot");
+        QuadSnapshotStore store = new QuadSnapshotStore(file, Duration.ZERO);
+        store.write(new QuadSnapshotStore.Snapshot(List.of(new Quadrilateral(1L, 3, 3, 3, 3)), 1, true, 3, 3, 3, 3));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0x7f }), QuadSnapshotStore.HEADER_SIZE + 3);
+        }
+        assertEquals(Optional.empty(), store.load());
+        assertEquals(Optional.empty(), new QuadSnapshotStore(dir.resolve("missing.snapshot"), Duration.ZERO).load());
+    }
+
+    @Test
+    void testHistoryViewIsStableWhileAppending() {
+        QuadrilateralSet history = new QuadrilateralSet();
+        for (int i = 0; i < 5000; i++) {
+            history.addQuadrilateral(new Quadrilateral(1, 1, 1, 1));
+        }
+        List<Quadrilateral> view = history.getAll();
+        history.addQuadrilateral(new Quadrilateral(2, 2, 2, 2));
+        history.reset();
+        history.addQuadrilateral(new Quadrilateral(3, 3, 3, 3));
+
+        assertEquals(5000, view.size());
+        assertEquals(5000L, view.get(4999).getId());
+        assertEquals(1, history.count());
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new Quadrilateral(1, 1, 1, 1)));
+    }
+
+    @Test
+    void testRestartReplaysOnlyJournalTail() throws IOException {
+        Path journalFile = dir.resolve("quads.journal");
+        Path snapshotFile = dir.resolve("quads.snapshot");
+        try (QuadJournal journal = new QuadJournal(journalFile, QuadJournal.FsyncPolicy.OS, Duration.ZERO)) {
+            QuadSnapshotStore store = new QuadSnapshotStore(snapshotFile, Duration.ZERO);
+            QuadServiceInMemoryImpl service = new QuadServiceInMemoryImpl(new QuadrilateralSet());
+            service.setJournal(journal);
+            service.setSnapshotStore(store);
+            service.restore();
+            service.updateSides(2, 2, 2, 2);
+            service.updateSides(1, 2, 1, 2);
+            assertTrue(store.snapshot());
+            service.updateSides(3, 3, 3, 3);
+            // Crash: no final snapshot, the third quad only exists in the journal
+        }
+
+        try (QuadJournal journal = new QuadJournal(journalFile, QuadJournal.FsyncPolicy.OS, Duration.ZERO)) {
+            AtomicInteger replayed = new AtomicInteger();
+            QuadSnapshotStore store = new QuadSnapshotStore(snapshotFile, Duration.ZERO);
+            long fromRecord = store.load().orElseThrow().journalRecords();
+            assertEquals(2, fromRecord);
+            journal.replay(fromRecord, q -> replayed.incrementAndGet(), () -> { });
+            assertEquals(1, replayed.get());
+            assertEquals(3, journal.size());
+        }
+
+        try (QuadJournal journal = new QuadJournal(journalFile, QuadJournal.FsyncPolicy.OS, Duration.ZERO)) {
+            QuadrilateralSet history = new QuadrilateralSet();
+            QuadServiceInMemoryImpl restarted = new QuadServiceInMemoryImpl(history);
+            restarted.setJournal(journal);
+            restarted.setSnapshotStore(new QuadSnapshotStore(snapshotFile, Duration.ZERO));
+            restarted.restore();
+
+            assertEquals(3, history.count());
+            assertEquals(List.of(1L, 2L, 3L), history.getAll().stream().map(Quadrilateral::getId).toList());
+            assertEquals(3.0, restarted.getSideA());
+            assertTrue(restarted.isInitialized());
+            restarted.updateSides(4, 4, 4, 4);
+            assertEquals(4L, history.getLast().getId());
+        }
+    }
+
+    @Test
+    void testUnchangedStateIsNotRewritten() throws IOException {
+        QuadSnapshotStore store = new QuadSnapshotStore(dir.resolve("quads.snapshot"), Duration.ZERO);
+        QuadServiceInMemoryImpl service = new QuadServiceInMemoryImpl(new QuadrilateralSet());
+        service.setSnapshotStore(store);
+        service.restore();
+
+        service.updateSides(2, 2, 2, 2);
+        assertTrue(store.snapshot());
+        assertFalse(store.snapshot());
+        service.reset();
+        assertTrue(store.snapshot());
+
+        QuadServiceInMemoryImpl restarted = new QuadServiceInMemoryImpl(new QuadrilateralSet());
+        restarted.setSnapshotStore(new QuadSnapshotStore(dir.resolve("quads.snapshot"), Duration.ZERO));
+        restarted.restore();
+        assertFalse(restarted.isInitialized());
+    }
+}
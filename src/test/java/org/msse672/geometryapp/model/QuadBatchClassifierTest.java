@@ -0,0 +1,90 @@
+package org.msse672.geometryapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuadBatchClassifierTest {
+
+    // Edge cases for every branch, including ones the precedence shadows
+    private static final double[][] CASES = {
+            {4, 4, 4, 4},       // Square
+            {1, 2, 1, 2},       // Rectangle
+            {5, 3, 5, 3},       // Rectangle (parallelogram is shadowed)
+            {6, 6, 3, 3},       // Kite
+            {3, 6, 6, 3},       // Kite (other pairing)
+            {2, 3, 4, 5},       // Generic
+            {1, 2, 3, 100},     // Invalid: a + b + c <= d
+            {100, 1, 2, 3},     // Invalid: b + c + d <= a
+            {0, 2, 2, 2},       // Invalid: zero side
+            {-1, 2, 2, 2},      // Invalid: negative side
+            {1, 1, 1, 3},       // Invalid: sum equals side
+            {Double.NaN, 1, 1, 1},
+            {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE},
+    };
+
+    @Test
+    public void testEdgeCasesMatchScalarType() {
+        int n = CASES.length;
+        double[] a = new double[n], b = new double[n], c = new double[n], d = new double[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = CASES[i][0]; b[i] = CASES[i][1]; c[i] = CASES[i][2]; d[i] = CASES[i][3];
+        }
+        byte[] codes = QuadBatchClassifier.classify(a, b, c, d);
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected(a[i], b[i], c[i], d[i]), QuadType.fromCode(codes[i]), "row " + i);
+        }
+    }
+
+    @Test
+    public void testRandomBatchMatchesScalarType() {
+        Random random = new Random(42);
+        int n = 1037; // not a multiple of any vector width, so the scalar tail runs
+        double[] a = new double[n], b = new double[n], c = new double[n], d = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Small integers make equal sides common enough to hit every type
+            a[i] = random.nextInt(6) - 1;
+            b[i] = random.nextInt(6) - 1;
+            c[i] = random.nextInt(6) - 1;
+            d[i] = random.nextInt(6) - 1;
+        }
+        byte[] batch = QuadBatchClassifier.classify(a, b, c, d);
+        byte[] scalar = new byte[n];
+        QuadBatchClassifier.classifyScalar(a, b, c, d, scalar, 0, n);
+
+        assertArrayEquals(scalar, batch);
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected(a[i], b[i], c[i], d[i]), QuadType.fromCode(batch[i]), "row " + i);
+        }
+    }
+
+    @Test
+    public void testClassifyList() {
+        byte[] codes = QuadBatchClassifier.classify(List.of(new Quadrilateral(4, 4, 4, 4), new Quadrilateral(1, 2, 1, 2)));
+        assertEquals(QuadType.SQUARE.getCode(), codes[0]);
+        assertEquals(QuadType.RECTANGLE.getCode(), codes[1]);
+    }
+
+    @Test
+    public void testMismatchedLengthsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> QuadBatchClassifier.classify(new double[2], new double[2], new double[1], new double[2]));
+    }
+
+    @Test
+    public void testStoredTypeIsReturnedUntilASideChanges() {
+        // A row read back keeps the type it was stored with
+        Quadrilateral stored = new Quadrilateral(1L, 4, 4, 4, 4, "Legacy Square");
+        assertEquals("Legacy Square", stored.getType());
+
+        stored.setSideA(5);
+        assertEquals(new Quadrilateral(5, 4, 4, 4).getType(), stored.getType());
+    }
+
+    private static QuadType expected(double a, double b, double c, double d) {
+        return QuadType.fromLabel(new Quadrilateral(a, b, c, d).getType());
+    }
+}
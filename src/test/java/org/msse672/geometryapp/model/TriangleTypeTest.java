@@ -0,0 +1,31 @@
+package org.msse672.geometryapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TriangleTypeTest {
+
+    @Test
+    public void testClassifyMatchesTriangleGetType() {
+        Random random = new Random(11);
+        for (int i = 0; i < 2_000; i++) {
+            // Small integers make equal sides and degenerate triangles common
+            double a = random.nextInt(6) - 1, b = random.nextInt(6) - 1, c = random.nextInt(6) - 1;
+            assertEquals(new Triangle(a, b, c).getType(), TriangleType.classify(a, b, c).getLabel(),
+                    "sides " + a + ", " + b + ", " + c);
+        }
+    }
+
+    @Test
+    public void testCodesAndNamesRoundTrip() {
+        for (TriangleType type : TriangleType.values()) {
+            assertEquals(type, TriangleType.fromCode(type.getCode()));
+            assertEquals(type, TriangleType.fromName(type.name().toLowerCase()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> TriangleType.fromCode((byte) 9));
+        assertThrows(IllegalArgumentException.class, () -> TriangleType.fromName("square"));
+    }
+}
@@ -0,0 +1,145 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadChangeLogTest {
+
+    private static List<QuadChangeLog.Change> drain(QuadChangeLog.Subscription subscription) throws InterruptedException {
+        List<QuadChangeLog.Change> changes = new ArrayList<>();
+        QuadChangeLog.Change change;
+        while ((change = subscription.poll(0, TimeUnit.MILLISECONDS)) != null) {
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    @Test
+    void testJdbcBackendPublishesEveryWrite() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        QuadService service = new QuadServiceJdbcImpl(jdbc);
+
+        service.insertQuad(2, 2, 2, 2);
+        service.insertQuad(1, 2, 1, 2);
+        service.updateQuadById(2L, 3, 3, 3, 3);
+        service.deleteById(1L);
+        assertThrows(IllegalArgumentException.class, () -> service.insertQuad(1, 1, 1, 9));
+        service.reset();
+
+        List<QuadChangeLog.Change> changes = drain(service.getChangeLog().subscribe(0, 16));
+        assertEquals(List.of(QuadChangeLog.Kind.INSERT, QuadChangeLog.Kind.INSERT, QuadChangeLog.Kind.UPDATE,
+                        QuadChangeLog.Kind.DELETE, QuadChangeLog.Kind.RESET),
+                changes.stream().map(QuadChangeLog.Change::kind).toList());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), changes.stream().map(QuadChangeLog.Change::seq).toList());
+        assertEquals(2L, changes.get(2).quadId());
+        assertEquals("Square", changes.get(2).quad().getType());
+        assertEquals(1L, changes.get(3).quadId());
+        assertNull(changes.get(4).quadId());
+    }
+
+    @Test
+    void testNewSubscriberOnlySeesLaterChanges() throws Exception {
+        QuadChangeLog log = new QuadChangeLog(8);
+        log.reset();
+        try (QuadChangeLog.Subscription subscription = log.subscribe(-1, 4)) {
+            assertNull(subscription.poll(0, TimeUnit.MILLISECONDS));
+            log.deleted(7);
+            QuadChangeLog.Change change = subscription.poll(1, TimeUnit.SECONDS);
+            assertEquals(2, change.seq());
+            assertEquals(7L, change.quadId());
+            assertFalse(subscription.hasMissedChanges());
+        }
+        assertEquals(0, log.getSubscriberCount());
+    }
+
+    @Test
+    void testSlowSubscriberIsDroppedAndResumesFromRing() throws Exception {
+        QuadChangeLog log = new QuadChangeLog(16);
+        QuadChangeLog.Subscription slow = log.subscribe(-1, 2);
+        log.deleted(1);
+        log.deleted(2);
+        assertEquals(1, slow.poll(0, TimeUnit.MILLISECONDS).seq());
+        log.deleted(3);
+        log.deleted(4);
+        assertTrue(slow.isDropped());
+        assertNull(slow.poll(0, TimeUnit.MILLISECONDS));
+        assertEquals(0, log.getSubscriberCount());
+
+        // Reconnecting after the last change received replays the rest
+        QuadChangeLog.Subscription resumed = log.subscribe(1, 2);
+        assertFalse(resumed.hasMissedChanges());
+        assertEquals(List.of(2L, 3L, 4L), drain(resumed).stream().map(QuadChangeLog.Change::seq).toList());
+    }
+
+    @Test
+    void testCursorOutsideRingReportsMissedChanges() throws Exception {
+        QuadChangeLog log = new QuadChangeLog(4);
+        for (int i = 1; i <= 10; i++) {
+            log.deleted(i);
+        }
+        QuadChangeLog.Subscription old = log.subscribe(2, 4);
+        assertTrue(old.hasMissedChanges());
+        assertEquals(List.of(7L, 8L, 9L, 10L), drain(old).stream().map(QuadChangeLog.Change::seq).toList());
+
+        // A cursor from before a restart is ahead of the new sequence
+        QuadChangeLog.Subscription stale = log.subscribe(500, 4);
+        assertTrue(stale.hasMissedChanges());
+        assertEquals(4, drain(stale).size());
+    }
+
+    @Test
+    void testEventIdsFromAnotherRunAreNotTrusted() throws Exception {
+        QuadChangeLog before = new QuadChangeLog(8);
+        for (int i = 1; i <= 3; i++) {
+            before.deleted(i);
+        }
+        String cursor = before.eventId(drain(before.subscribe(1, 4)).get(0));
+        assertEquals(before.getLogId() + "-2", cursor);
+
+        QuadChangeLog.Subscription same = before.subscribe(cursor, 4);
+        assertFalse(same.hasMissedChanges());
+        assertEquals(List.of(3L), drain(same).stream().map(QuadChangeLog.Change::seq).toList());
+
+        // After a restart the same sequence numbers mean different changes
+        QuadChangeLog after = new QuadChangeLog(8);
+        for (int i = 1; i <= 3; i++) {
+            after.deleted(i);
+        }
+        QuadChangeLog.Subscription restarted = after.subscribe(cursor, 4);
+        assertTrue(restarted.hasMissedChanges());
+        assertEquals(3, drain(restarted).size());
+        assertTrue(after.subscribe("2", 4).hasMissedChanges());
+        assertThrows(IllegalArgumentException.class, () -> after.subscribe(after.getLogId() + "-x", 4));
+    }
+
+    @Test
+    void testChangesInsideTransactionArePublishedAfterCommit() throws Exception {
+        QuadChangeLog log = new QuadChangeLog();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            log.inserted(new Quadrilateral(5L, 1, 1, 1, 1));
+            assertEquals(0, log.getLastSeq());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1, log.getLastSeq());
+        assertEquals(5L, drain(log.subscribe(0, 1)).get(0).quad().getId());
+    }
+}
@@ -0,0 +1,66 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.model.Quadrilateral;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadHistoryStatsTest {
+
+    // Large enough to take the fork/join path
+    private static List<Quadrilateral> randomHistory(int n) {
+        Random random = new Random(7);
+        List<Quadrilateral> quads = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            quads.add(new Quadrilateral((long) i, random.nextInt(5) + 1, random.nextInt(5) + 1,
+                    random.nextInt(5) + 1, random.nextInt(5) + 1));
+        }
+        return quads;
+    }
+
+    @Test
+    void testParallelCountByTypeMatchesSequential() {
+        List<Quadrilateral> quads = randomHistory(QuadHistoryStats.PARALLEL_THRESHOLD * 2 + 123);
+        Map<String, Long> expected = quads.stream()
+                .collect(Collectors.groupingBy(Quadrilateral::getType, Collectors.counting()));
+
+        assertEquals(expected, QuadHistoryStats.countByType(quads));
+    }
+
+    @Test
+    void testParallelSquaresKeepInputOrder() {
+        List<Quadrilateral> quads = randomHistory(QuadHistoryStats.PARALLEL_THRESHOLD * 2 + 123);
+        List<Quadrilateral> expected = quads.stream()
+                .filter(q -> q.getType().equals("Square"))
+                .toList();
+
+        assertEquals(expected, QuadHistoryStats.onlySquares(quads));
+    }
+
+    @Test
+    void testParallelLargestSide() {
+        List<Quadrilateral> quads = randomHistory(QuadHistoryStats.PARALLEL_THRESHOLD + 10);
+        quads.set(quads.size() / 3, new Quadrilateral(99, 99, 99, 99));
+
+        assertEquals(99.0, QuadHistoryStats.largestSide(quads));
+    }
+
+    @Test
+    void testSmallAndEmptyInputs() {
+        assertEquals(0.0, QuadHistoryStats.largestSide(List.of()));
+        assertTrue(QuadHistoryStats.countByType(List.of()).isEmpty());
+
+        // Non-random-access lists are copied before splitting
+        List<Quadrilateral> linked = new LinkedList<>(List.of(new Quadrilateral(2, 2, 2, 2), new Quadrilateral(1, 2, 3, 100)));
+        Map<String, Long> counts = QuadHistoryStats.countByType(linked);
+        assertEquals(1L, counts.get("Square"));
+        assertEquals(1L, counts.get("Invalid Quadrilateral: sum of a + b + c must be > d."));
+    }
+}
@@ -0,0 +1,118 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.msse672.geometryapp.model.QuadrilateralSet;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadImportServiceTest {
+
+    private final QuadImportService importService = new QuadImportService(4);
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    private static ReadableByteChannel channel(byte[] bytes) {
+        return Channels.newChannel(new ByteArrayInputStream(bytes));
+    }
+
+    private static ReadableByteChannel csv(String text) {
+        return channel(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCsvRowsAreStoredAndBadRowsRejected() throws IOException {
+        QuadrilateralSet history = new QuadrilateralSet();
+        QuadServiceInMemoryImpl target = new QuadServiceInMemoryImpl(history);
+        List<String> rejects = new ArrayList<>();
+        String input = "sideA,sideB,sideC,sideD\r\n"
+                + "2,2,2,2\r\n"
+                + "\n"
+                + "1,2,x,2\n"
+                + "1,2,3\n"
+                + "1,1,1,10\n"
+                + "NaN,1,1,1\n"
+                + "1, 2, 1, 2";
+
+        QuadImportService.Result result = importService.importQuads(csv(input), QuadImportService.Format.CSV, target,
+                (row, line, reason) -> rejects.add(row + ":" + reason), null);
+
+        assertEquals(6, result.rows());
+        assertEquals(2, result.imported());
+        assertEquals(4, result.rejected());
+        assertEquals(List.of("4:sides must be numeric", "5:expected four comma-separated sides",
+                "6:sum of a + b + c must be > d", "7:sides must be finite numbers"), rejects);
+        assertEquals(List.of("Square", "Rectangle"), history.getAll().stream().map(Quadrilateral::getType).toList());
+        assertEquals(1.0, target.getSideA());
+        assertTrue(target.isInitialized());
+    }
+
+    @Test
+    void testBinaryRecordsWithTruncatedTail() throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(3 * 32 + 5).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putDouble(3).putDouble(3).putDouble(3).putDouble(3);
+        buf.putDouble(-1).putDouble(3).putDouble(3).putDouble(3);
+        buf.putDouble(2).putDouble(3).putDouble(2).putDouble(3);
+        QuadrilateralSet history = new QuadrilateralSet();
+        List<Long> rejectedRows = new ArrayList<>();
+
+        QuadImportService.Result result = importService.importQuads(channel(buf.array()), QuadImportService.Format.BINARY,
+                new QuadServiceInMemoryImpl(history), (row, line, reason) -> rejectedRows.add(row), null);
+
+        assertEquals(2, result.imported());
+        assertEquals(List.of(2L, 4L), rejectedRows);
+        assertEquals(2, history.count());
+    }
+
+    @Test
+    void testLargeCsvKeepsInputOrderThroughJdbcBatches() throws IOException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        QuadServiceJdbcImpl target = new QuadServiceJdbcImpl(jdbc);
+        // Build the index first, so the import has to invalidate it
+        assertTrue(target.findNearest(1, 1, 1, 1, 1).isEmpty());
+
+        int n = 120_000;
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= n; i++) {
+            double side = i;
+            input.append(side).append(',').append(side).append(',').append(side).append(',')
+                    .append(i % 3 == 0 ? side + 1 : side).append('\n');
+        }
+        List<Long> progress = new ArrayList<>();
+        QuadImportService.Result result = importService.importQuads(csv(input.toString()), QuadImportService.Format.CSV,
+                target, (row, line, reason) -> fail("unexpected reject at " + row + ": " + reason),
+                p -> progress.add(p.rows()));
+
+        assertEquals(n, result.imported());
+        assertTrue(progress.size() > 1, "input spans several chunks");
+        assertEquals(n, progress.get(progress.size() - 1));
+        Map<String, Long> counts = target.countByType();
+        assertEquals(n / 3 * 2, counts.get("Square"));
+        List<Double> firstSides = jdbc.queryForList("SELECT sideA FROM quads ORDER BY id LIMIT 3", Double.class);
+        assertEquals(List.of(1.0, 2.0, 3.0), firstSides);
+        assertEquals(500.0, target.findNearest(500, 500, 500, 500, 1).get(0).getQuad().getSideA());
+    }
+}
@@ -0,0 +1,106 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadPartitionsTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T12:00:00Z");
+
+    private JdbcTemplate jdbc;
+    private QuadServiceJdbcImpl service;
+    private QuadPartitions partitions;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        QuadStatsTable statsTable = new QuadStatsTable(jdbc, new DataSourceTransactionManager(dataSource));
+        service = new QuadServiceJdbcImpl(jdbc);
+        service.setStatsTable(statsTable);
+        partitions = new QuadPartitions(jdbc, false, Clock.fixed(NOW, ZoneOffset.UTC), 3);
+        partitions.setStatsTable(statsTable);
+        partitions.setBackends(List.of(service));
+    }
+
+    private void insertAt(double side, String createdAt) {
+        jdbc.update("INSERT INTO quads (sideA, sideB, sideC, sideD, type, created_at) VALUES (?, ?, ?, ?, 'Square', ?)",
+                side, side, side, side, Timestamp.from(Instant.parse(createdAt)));
+    }
+
+    @Test
+    void testEnsureAheadStaysAheadOfTheHighestId() {
+        assertEquals(2, partitions.ensureAhead(1));
+        assertEquals(0, partitions.ensureAhead(1));
+        for (int i = 1; i <= 4; i++) {
+            service.insertQuad(i, i, i, i);
+        }
+        assertEquals(1, partitions.ensureAhead(1));
+
+        List<QuadPartitions.Partition> ranges = partitions.list();
+        assertEquals(List.of("p3", "p6", "p9"), ranges.stream().map(QuadPartitions.Partition::name).toList());
+        assertEquals(0, ranges.get(0).fromId());
+        assertEquals(ranges.get(0).toId(), ranges.get(1).fromId());
+    }
+
+    @Test
+    void testFirstPartitionCoversRowsFromBeforePartitioning() {
+        jdbc.update("DELETE FROM quad_partitions");
+        for (int i = 1; i <= 7; i++) {
+            service.insertQuad(i, i, i, i);
+        }
+        partitions.ensureAhead(1);
+        assertEquals(new QuadPartitions.Partition("p8", 0, 8), partitions.list().get(0));
+    }
+
+    @Test
+    void testDropExpiredRemovesWholePartitionsAndRefreshesBackends() {
+        partitions.ensureAhead(1);
+        insertAt(1, "2026-03-01T09:00:00Z");
+        insertAt(2, "2026-03-01T23:59:00Z");
+        insertAt(3, "2026-03-02T00:00:00Z");
+        insertAt(3, "2026-03-02T10:00:00Z");
+        insertAt(3, "2026-03-02T11:00:00Z");
+        insertAt(4, "2026-03-09T10:00:00Z");
+        service.insertQuad(5, 5, 5, 5);
+        partitions.ensureAhead(1);
+        long generation = service.getGeneration();
+
+        // Seven days' retention at noon on March 10: ids 1-5 are older, the partition with ids 6-8 is still filling
+        List<QuadPartitions.Partition> dropped = partitions.dropExpired(Duration.ofDays(7));
+        assertEquals(List.of("p3", "p6"), dropped.stream().map(QuadPartitions.Partition::name).toList());
+        assertEquals(List.of(4.0, 5.0), service.getAllSubmittedQuads().stream().map(q -> q.getSideA()).toList());
+        assertEquals(Map.of("Square", 2L), service.countByType());
+        assertTrue(service.getGeneration() > generation);
+
+        assertTrue(partitions.dropExpired(Duration.ofDays(7)).isEmpty());
+        assertEquals(List.of(4.0), service.getQuadsCreatedSince(Instant.parse("2026-03-09T00:00:00Z"), 1).stream()
+                .map(q -> q.getSideA()).toList());
+    }
+
+    @Test
+    void testUnpartitionedTableIsLeftAlone() {
+        jdbc.execute("DROP TABLE quad_partitions");
+        assertFalse(partitions.isPartitioned());
+        assertEquals(0, partitions.ensureAhead(1));
+        assertTrue(partitions.dropExpired(Duration.ofDays(7)).isEmpty());
+    }
+}
@@ -0,0 +1,156 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.index.SideRange;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadResetEpochTest {
+
+    private JdbcTemplate jdbc;
+    private QuadResetEpoch resetEpoch;
+    private QuadServiceJdbcImpl service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        resetEpoch = new QuadResetEpoch(jdbc, 2);
+        service = new QuadServiceJdbcImpl(jdbc);
+        service.setResetEpoch(resetEpoch);
+    }
+
+    @AfterEach
+    void tearDown() {
+        resetEpoch.shutdown();
+    }
+
+    @Test
+    void testResetHidesRowsAndLaterWritesStayVisible() {
+        for (int i = 1; i <= 5; i++) {
+            service.insertQuad(i, i, i, i);
+        }
+        service.reset();
+        assertEquals(1, resetEpoch.getEpoch());
+        assertEquals(5, resetEpoch.getResetThroughId());
+        assertFalse(service.isInitialized());
+        assertNull(service.getLastSubmittedQuad());
+        assertTrue(service.getAllSubmittedQuads().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.deleteById(3L));
+
+        service.insertQuad(2, 3, 2, 3);
+        assertTrue(service.isInitialized());
+        assertEquals(1, service.getAllSubmittedQuads().size());
+        assertEquals(6L, service.getLastSubmittedQuad().getId());
+        assertEquals(3.0, service.getLargestSideEverSubmitted());
+    }
+
+    @Test
+    void testPurgeDeletesOnlyHiddenRows() {
+        for (int i = 1; i <= 5; i++) {
+            service.insertQuad(i, i, i, i);
+        }
+        jdbc.update("UPDATE quad_epoch SET epoch = 1, reset_through_id = 5 WHERE id = 1");
+        service.insertQuad(7, 7, 7, 7);
+
+        assertEquals(5, resetEpoch.purge());
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM quads", Integer.class));
+        assertEquals(0, resetEpoch.purge());
+        assertEquals(7.0, service.getLastSubmittedQuad().getSideA());
+    }
+
+    @Test
+    void testIndexesFollowWritesAndReset() {
+        for (int i = 0; i < 30; i++) {
+            double side = i % 3 + 1;
+            service.insertQuad(side, side, side, i % 2 == 0 ? side : 1.5);
+        }
+        assertEquals(30L, service.countByType().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(15, service.getOnlySquares().size());
+        assertEquals(5, service.findCongruentIds(2, 2, 2, 2).length);
+        assertEquals(15, service.findSimilarIds(5, 5, 5, 5).length);
+        assertEquals(3, service.findNearest(1.9, 2, 2, 2.1, 3).size());
+
+        // Both indexes are loaded now and must track later writes
+        service.insertQuad(7, 7, 7, 7);
+        Long id = service.getLastSubmittedQuad().getId();
+        SideRange large = SideRange.of(6.5, null, null, null, null, null, null, null);
+        assertEquals(id, service.searchBySideRange(large, 10).get(0).getId());
+        assertEquals(16, service.findSimilarIds(1, 1, 1, 1).length);
+        service.deleteById(id);
+        assertTrue(service.searchBySideRange(large, 10).isEmpty());
+        assertEquals(15, service.findSimilarIds(1, 1, 1, 1).length);
+        service.insertQuad(2, 2, 2, 2);
+        assertEquals(6, service.findCongruentIds(2, 2, 2, 2).length);
+
+        service.reset();
+        assertEquals(0, service.findCongruentIds(2, 2, 2, 2).length);
+        assertTrue(service.searchBySideRange(SideRange.ALL, 5).isEmpty());
+    }
+
+    @Test
+    void testRolledBackWritesNeverReachTheIndexes() {
+        service.insertQuad(2, 2, 2, 2);
+        Long id = service.getLastSubmittedQuad().getId();
+        assertEquals(1, service.findCongruentIds(2, 2, 2, 2).length);
+        assertEquals(1, service.searchBySideRange(SideRange.ALL, 10).size());
+
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+        tx.executeWithoutResult(status -> {
+            service.insertQuad(3, 3, 3, 3);
+            service.deleteById(id);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, service.findCongruentIds(3, 3, 3, 3).length);
+        assertArrayEquals(new long[] { id }, service.findCongruentIds(2, 2, 2, 2));
+        assertEquals(1, service.searchBySideRange(SideRange.ALL, 10).size());
+    }
+
+    @Test
+    void testResetWaitsForInsertsInFlight() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> insert = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+            service.insertQuad(2, 2, 2, 2);
+            inserted.countDown();
+            try {
+                commit.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+
+        // The uncommitted row is invisible to MAX(id), so the reset must wait for it
+        CompletableFuture<Void> reset = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> service.reset()));
+        Thread.sleep(300);
+        assertFalse(reset.isDone());
+
+        commit.countDown();
+        insert.get(5, TimeUnit.SECONDS);
+        reset.get(5, TimeUnit.SECONDS);
+        Long insertedId = jdbc.queryForObject("SELECT MAX(id) FROM quads", Long.class);
+        assertEquals(insertedId, resetEpoch.getResetThroughId());
+
+        // Rows inserted after the reset stay visible
+        service.insertQuad(3, 3, 3, 3);
+        assertEquals(1, service.getAllSubmittedQuads().size());
+    }
+}
@@ -0,0 +1,48 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.index.SideRange;
+import org.msse672.geometryapp.model.Quadrilateral;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadSearchIndexTest {
+
+    @Test
+    void testWritesDuringLoadDoNotWaitAndAreReplayed() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        QuadSearchIndex index = new QuadSearchIndex((afterId, limit) -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return afterId == Long.MIN_VALUE
+                    ? List.of(new Quadrilateral(1L, 1, 1, 1, 1), new Quadrilateral(2L, 2, 2, 2, 2))
+                    : List.of();
+        });
+
+        CompletableFuture<long[]> search = CompletableFuture.supplyAsync(() -> index.range(SideRange.ALL, 10));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // The load is stalled in the loader; writers still get through at once
+        CompletableFuture<Void> writes = CompletableFuture.runAsync(() -> {
+            index.put(new Quadrilateral(3L, 3, 3, 3, 3));
+            index.remove(1L);
+        });
+        writes.get(1, TimeUnit.SECONDS);
+
+        release.countDown();
+        long[] ids = search.get(5, TimeUnit.SECONDS);
+        Arrays.sort(ids);
+        assertArrayEquals(new long[] { 2L, 3L }, ids);
+    }
+}
@@ -0,0 +1,115 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadServiceDedupTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private QuadServiceDedupImpl quadService;
+
+    @BeforeEach
+    void setUp() {
+        // Fresh H2 database per test, built from the test schema
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        quadService = new QuadServiceDedupImpl(jdbcTemplate);
+    }
+
+    private int shapeRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM quad_shapes", Integer.class);
+    }
+
+    @Test
+    void testDuplicateSubmissionsShareOneShape() {
+        quadService.insertQuad(2, 2, 2, 2);
+        quadService.insertQuad(2, 2, 2, 2);
+        quadService.insertQuad(2, 2, 2, 2);
+        quadService.insertQuad(1, 2, 1, 2);
+
+        assertEquals(2, shapeRows());
+        List<Quadrilateral> all = quadService.getAllSubmittedQuads();
+        assertEquals(4, all.size());
+        assertEquals(2.0, all.get(1).getSideA());
+
+        Map<String, Long> stats = quadService.countByType();
+        assertEquals(3L, stats.get("Square"));
+        assertEquals(1L, stats.get("Rectangle"));
+        assertEquals(3, quadService.getOnlySquares().size());
+        assertEquals(2.0, quadService.getLargestSideEverSubmitted());
+    }
+
+    @Test
+    void testDeleteAndUpdateReleaseShapes() {
+        quadService.insertQuad(2, 2, 2, 2);
+        quadService.insertQuad(2, 2, 2, 2);
+        Quadrilateral last = quadService.getLastSubmittedQuad();
+
+        quadService.updateQuadById(last.getId(), 3, 3, 3, 3);
+        assertEquals(2, shapeRows());
+        assertEquals(3.0, quadService.getById(last.getId()).getSideA());
+
+        quadService.deleteById(last.getId());
+        assertEquals(1, shapeRows());
+        assertEquals(1L, quadService.countByType().get("Square"));
+
+        // Failed writes leave the generation alone
+        long generation = quadService.getGeneration();
+        assertThrows(IllegalArgumentException.class, () -> quadService.deleteById(last.getId()));
+        assertThrows(IllegalArgumentException.class, () -> quadService.insertQuad(1, 1, 1, 10));
+        assertEquals(generation, quadService.getGeneration());
+
+        quadService.reset();
+        assertEquals(generation + 1, quadService.getGeneration());
+        assertFalse(quadService.isInitialized());
+        assertEquals(0, shapeRows());
+    }
+
+    @Test
+    void testConcurrentSubmitAndDeleteOfOneShape() throws Exception {
+        // Writers keep taking the shape's count to zero and back while others reference it
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    quadService.insertQuad(3, 3, 3, 3);
+                    Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM quad_submissions", Long.class);
+                    try {
+                        quadService.deleteById(id);
+                    } catch (IllegalArgumentException e) {
+                        // Another writer deleted it first
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        long submissions = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM quad_submissions", Long.class);
+        Long referenced = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(submissions), 0) FROM quad_shapes", Long.class);
+        assertEquals(submissions, referenced);
+        assertEquals(submissions == 0 ? 0 : 1, shapeRows());
+    }
+}
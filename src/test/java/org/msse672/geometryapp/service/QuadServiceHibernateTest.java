@@ -3,13 +3,19 @@ package org.msse672.geometryapp.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.msse672.geometryapp.model.Quadrilateral;
+import org.msse672.geometryapp.repository.QuadRepository;
+import org.msse672.geometryapp.repository.QuadTypeCount;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,6 +27,12 @@ public class QuadServiceHibernateTest {
     @Qualifier("hibernate")
     private QuadService quadService;
 
+    @Autowired
+    private QuadRepository quadRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setUp() {
         quadService.reset(); // Ensure clean state before each test
@@ -94,6 +106,23 @@ public class QuadServiceHibernateTest {
         assertEquals(10.0, largest);
     }
 
+    @Test
+    void testReadOnlyProjectionsAndKeysetPages() {
+        quadService.insertQuad(2, 2, 2, 2);
+        quadService.insertQuad(1, 2, 1, 2);
+        quadService.insertQuad(9, 9, 9, 9);
+        List<Quadrilateral> all = quadService.getAllSubmittedQuads();
+        assertEquals(List.of("Square", "Rectangle", "Square"), all.stream().map(Quadrilateral::getType).toList());
+        assertEquals(List.of(all.get(0).getId(), all.get(2).getId()),
+                quadService.getOnlySquares().stream().map(Quadrilateral::getId).toList());
+        assertEquals(all.get(1).getId(), quadService.getQuadsAfterId(all.get(0).getId(), 1).get(0).getId());
+
+        // The aggregate fallbacks used without quad_stats
+        assertEquals(Map.of("Square", 2L, "Rectangle", 1L), quadRepository.countGroupedByType().stream()
+                .collect(Collectors.toMap(QuadTypeCount::getType, QuadTypeCount::getTotal)));
+        assertEquals(9.0, quadRepository.findLargestSide());
+    }
+
     @Test
     void testInvalidInsertThrowsException() {
         assertThrows(IllegalArgumentException.class, () -> {
@@ -107,4 +136,18 @@ public class QuadServiceHibernateTest {
         quadService.reset();
         assertTrue(quadService.getAllSubmittedQuads().isEmpty());
     }
+
+    @Test
+    void testRowCachedDuringResetStaysHidden() throws Exception {
+        quadService.insertQuad(4, 4, 4, 4);
+        Long id = quadService.getLastSubmittedQuad().getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            quadService.reset();
+            // Another request reads the row before the reset commits, caching it again
+            CompletableFuture.runAsync(() -> quadService.getById(id)).join();
+        });
+
+        assertThrows(IllegalArgumentException.class, () -> quadService.getById(id));
+    }
 }
@@ -0,0 +1,179 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.dto.QuadNeighbor;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadServiceShardedTest {
+
+    private List<DataSource> shards;
+    private QuadServiceShardedImpl quadService;
+
+    // Fresh H2 database per shard per test
+    private static DataSource h2() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static long rows(DataSource shard) {
+        return new JdbcTemplate(shard).queryForObject("SELECT COUNT(*) FROM quads", Long.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        shards = new ArrayList<>(List.of(h2(), h2(), h2()));
+        quadService = new QuadServiceShardedImpl(shards, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        quadService.shutdown();
+    }
+
+    @Test
+    void testIdsEncodeShardAndIncrease() {
+        ShardedQuadIds ids = new ShardedQuadIds();
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < 10_000; i++) {
+            long id = ids.next(i % 7);
+            assertTrue(id > previous, "ids must increase");
+            assertEquals(i % 7, ShardedQuadIds.shardOf(id));
+            previous = id;
+        }
+        assertThrows(IllegalArgumentException.class, () -> ids.next(ShardedQuadIds.MAX_SHARDS));
+    }
+
+    @Test
+    void testWorkersNeverCollideOnOneShard() {
+        ShardedQuadIds first = new ShardedQuadIds(0);
+        ShardedQuadIds second = new ShardedQuadIds(ShardedQuadIds.MAX_WORKERS - 1);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(seen.add(first.next(3)));
+            assertTrue(seen.add(second.next(3)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ShardedQuadIds(ShardedQuadIds.MAX_WORKERS));
+    }
+
+    @Test
+    void testRowsSpreadAcrossShardsAndRouteById() {
+        for (int i = 0; i < 9; i++) {
+            quadService.insertQuad(i + 1, i + 1, i + 1, i + 1);
+        }
+        for (DataSource shard : shards) {
+            assertEquals(3, rows(shard));
+        }
+
+        List<Quadrilateral> all = quadService.getAllSubmittedQuads();
+        assertEquals(9, all.size());
+        Set<Integer> seenShards = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            Quadrilateral q = all.get(i);
+            assertEquals(i + 1.0, q.getSideA(), "merged history keeps submission order");
+            assertEquals(q.getSideA(), quadService.getById(q.getId()).getSideA());
+            seenShards.add(ShardedQuadIds.shardOf(q.getId()));
+        }
+        assertEquals(Set.of(0, 1, 2), seenShards);
+        assertEquals(9.0, quadService.getLastSubmittedQuad().getSideA());
+        assertEquals(9.0, quadService.getSideD());
+    }
+
+    @Test
+    void testScatterGatherStatistics() {
+        quadService.insertQuad(2, 2, 2, 2);
+        quadService.insertQuad(1, 2, 1, 2);
+        quadService.insertQuad(3, 3, 3, 3);
+        quadService.insertQuad(2, 3, 4, 5);
+        quadService.insertQuad(7, 7, 7, 7);
+
+        Map<String, Long> counts = quadService.countByType();
+        assertEquals(3L, counts.get("Square"));
+        assertEquals(1L, counts.get("Rectangle"));
+        assertEquals(5L, counts.values().stream().mapToLong(Long::longValue).sum());
+
+        List<Quadrilateral> squares = quadService.getOnlySquares();
+        assertEquals(List.of(2.0, 3.0, 7.0), squares.stream().map(Quadrilateral::getSideA).toList());
+        assertEquals(7.0, quadService.getLargestSideEverSubmitted());
+    }
+
+    @Test
+    void testKeysetPagingMergesShards() {
+        for (int i = 0; i < 10; i++) {
+            quadService.insertQuad(i + 1, i + 1, i + 1, i + 1);
+        }
+        List<Quadrilateral> page1 = quadService.getQuadsAfterId(0, 4);
+        List<Quadrilateral> page2 = quadService.getQuadsAfterId(page1.get(3).getId(), 4);
+        assertEquals(List.of(1.0, 2.0, 3.0, 4.0), page1.stream().map(Quadrilateral::getSideA).toList());
+        assertEquals(List.of(5.0, 6.0, 7.0, 8.0), page2.stream().map(Quadrilateral::getSideA).toList());
+    }
+
+    @Test
+    void testUpdateDeleteAndReset() {
+        quadService.insertQuad(2, 2, 2, 2);
+        quadService.insertQuad(1, 2, 1, 2);
+        long first = quadService.getAllSubmittedQuads().get(0).getId();
+        long generation = quadService.getGeneration();
+
+        quadService.updateQuadById(first, 1, 2, 1, 2);
+        assertEquals(2L, quadService.countByType().get("Rectangle"));
+        assertTrue(quadService.getGeneration() > generation);
+
+        quadService.deleteById(first);
+        assertThrows(IllegalArgumentException.class, () -> quadService.getById(first));
+        assertThrows(IllegalArgumentException.class, () -> quadService.deleteById(first));
+        assertThrows(IllegalArgumentException.class, () -> quadService.updateQuadById(first, 2, 2, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> quadService.insertQuad(1, 2, 3, 100));
+
+        quadService.reset();
+        assertFalse(quadService.isInitialized());
+        assertEquals(0.0, quadService.getLargestSideEverSubmitted());
+        assertNull(quadService.getLastSubmittedQuad());
+    }
+
+    @Test
+    void testAddedShardTakesNewRowsAndKeepsOldOnes() {
+        for (int i = 0; i < 3; i++) {
+            quadService.insertQuad(2, 2, 2, 2);
+        }
+        List<Quadrilateral> before = quadService.getAllSubmittedQuads();
+
+        DataSource added = h2();
+        assertEquals(3, quadService.addShard(added));
+        assertEquals(4, quadService.getShardCount());
+        for (int i = 0; i < 4; i++) {
+            quadService.insertQuad(3, 3, 3, 3);
+        }
+
+        assertEquals(1, rows(added));
+        assertEquals(7, quadService.getAllSubmittedQuads().size());
+        for (Quadrilateral q : before) {
+            assertEquals(2.0, quadService.getById(q.getId()).getSideA());
+        }
+        assertEquals(7L, quadService.countByType().get("Square"));
+    }
+
+    @Test
+    void testSideSearchLoadsFromAllShards() {
+        quadService.insertQuad(2, 2, 2, 2);
+        quadService.insertQuad(5, 5, 5, 5);
+        quadService.insertQuad(9, 9, 9, 9);
+
+        List<Quadrilateral> nearest = quadService.findNearest(5, 5, 5, 5, 1).stream()
+                .map(QuadNeighbor::getQuad).toList();
+        assertEquals(5.0, nearest.get(0).getSideA());
+        assertEquals(3, quadService.findSimilarIds(1, 1, 1, 1).length);
+    }
+}
@@ -0,0 +1,120 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.msse672.geometryapp.model.QuadrilateralSet;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadSketchServiceTest {
+
+    @Test
+    void testSubmissionsFeedSketches() {
+        QuadSketchService sketches = new QuadSketchService(5, "");
+        QuadServiceInMemoryImpl quadService = new QuadServiceInMemoryImpl(new QuadrilateralSet());
+        quadService.setSubmissionListeners(List.of(sketches));
+
+        for (int i = 0; i < 30; i++) quadService.updateSides(2, 2, 2, 2);
+        for (int i = 0; i < 10; i++) quadService.updateSides(1, 2, 1, 2);
+        quadService.updateSides(2, 1, 2, 1);  // same shape as (1, 2, 1, 2)
+
+        assertEquals(41, sketches.totalSubmissions());
+        assertEquals(2, sketches.distinctShapes());
+
+        List<QuadSketchService.ShapeCount> top = sketches.topShapes(5);
+        assertEquals(2.0, top.get(0).sideA());
+        assertEquals(30, top.get(0).estimate());
+        assertEquals(11, top.get(1).estimate());
+
+        assertEquals(8.0, sketches.perimeterQuantiles(new double[] { 0.5 }).get("Square").get("0.5"));
+    }
+
+    @Test
+    void testSnapshotSurvivesRestartAndMerges(@TempDir Path dir) {
+        String file = dir.resolve("sketches.bin").toString();
+        QuadSketchService first = new QuadSketchService(5, file);
+        QuadServiceInMemoryImpl quadService = new QuadServiceInMemoryImpl(new QuadrilateralSet());
+        quadService.setSubmissionListeners(List.of(first));
+        quadService.updateSides(3, 3, 3, 3);
+        quadService.updateSides(3, 4, 3, 4);
+        first.save();
+
+        QuadSketchService restarted = new QuadSketchService(5, file);
+        restarted.load();
+        assertEquals(2, restarted.totalSubmissions());
+
+        // Another instance's state adds up; the state loaded from first's file cannot be merged again
+        QuadSketchService other = new QuadSketchService(5, "");
+        other.onQuadSubmitted(new Quadrilateral(2, 2, 2, 2));
+        other.onQuadSubmitted(new Quadrilateral(3, 4, 3, 4));
+        restarted.merge(other.snapshot());
+        assertEquals(4, restarted.totalSubmissions());
+        assertEquals(3, restarted.distinctShapes());
+        assertThrows(IllegalArgumentException.class, () -> restarted.merge(first.snapshot()));
+        assertThrows(IllegalArgumentException.class, () -> restarted.merge(other.snapshot()));
+        assertThrows(IllegalArgumentException.class, () -> restarted.merge(restarted.snapshot()));
+        assertEquals(4, restarted.totalSubmissions());
+
+        assertThrows(IllegalArgumentException.class, () -> restarted.merge(new byte[] { 1, 2, 3, 4 }));
+    }
+
+    @Test
+    void testSnapshotIsSavedPeriodically(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("sketches.bin");
+        QuadSketchService sketches = new QuadSketchService(5, file.toString(), Duration.ofMillis(50));
+        sketches.load();
+        try {
+            sketches.onQuadSubmitted(new Quadrilateral(3, 3, 3, 3));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!Files.exists(file) && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(Files.exists(file));
+        } finally {
+            sketches.shutdown();
+        }
+
+        // What a crash would leave behind is enough to restore the state
+        QuadSketchService restarted = new QuadSketchService(5, file.toString());
+        restarted.load();
+        assertEquals(1, restarted.totalSubmissions());
+    }
+
+    @Test
+    void testOnlyCommittedSubmissionsReachListeners() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        QuadSketchService sketches = new QuadSketchService(5, "");
+        QuadServiceJdbcImpl quadService = new QuadServiceJdbcImpl(new JdbcTemplate(dataSource));
+        quadService.setSubmissionListeners(List.of(sketches));
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        tx.executeWithoutResult(status -> {
+            quadService.insertQuad(2, 2, 2, 2);
+            // Not delivered until commit
+            assertEquals(0, sketches.totalSubmissions());
+        });
+        assertEquals(1, sketches.totalSubmissions());
+
+        tx.executeWithoutResult(status -> {
+            quadService.insertQuad(3, 3, 3, 3);
+            status.setRollbackOnly();
+        });
+        assertEquals(1, sketches.totalSubmissions());
+    }
+}
@@ -0,0 +1,114 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.model.QuadType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadStatsTableTest {
+
+    private JdbcTemplate jdbc;
+    private QuadStatsTable statsTable;
+    private QuadServiceJdbcImpl service;
+    // Same table without quad_stats, for the scanned answers
+    private QuadServiceJdbcImpl scanning;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        statsTable = new QuadStatsTable(jdbc, new DataSourceTransactionManager(dataSource));
+        service = new QuadServiceJdbcImpl(jdbc);
+        service.setStatsTable(statsTable);
+        scanning = new QuadServiceJdbcImpl(jdbc);
+    }
+
+    private void assertMatchesScan() {
+        assertEquals(scanning.countByType(), service.countByType());
+        assertEquals(scanning.isInitialized(), service.isInitialized());
+        assertEquals(service.isInitialized() ? scanning.getLargestSideEverSubmitted() : 0.0,
+                service.getLargestSideEverSubmitted());
+    }
+
+    private boolean staleExtremes(String type) {
+        return jdbc.queryForObject("SELECT extremes_stale FROM quad_stats WHERE type = ?", Boolean.class, type);
+    }
+
+    @Test
+    void testWritesKeepStatsInStep() {
+        assertFalse(service.isInitialized());
+        service.insertQuad(2, 2, 2, 2);
+        service.insertQuad(9, 9, 9, 9);
+        service.insertQuad(1, 2, 1, 2);
+        assertEquals(Map.of("Square", 2L, "Rectangle", 1L), service.countByType());
+        assertEquals(9.0, service.getLargestSideEverSubmitted());
+
+        // Rectangle becomes a square: one row moves between types
+        service.updateQuadById(3L, 4, 4, 4, 4);
+        assertEquals(Map.of("Square", 3L), service.countByType());
+        assertMatchesScan();
+
+        // Deleting the row holding the max only marks the extremes stale; reads scan that type
+        service.deleteById(2L);
+        assertTrue(staleExtremes("Square"));
+        assertEquals(4.0, service.getLargestSideEverSubmitted());
+        assertMatchesScan();
+        assertEquals(1, statsTable.rebuild());
+        assertFalse(staleExtremes("Square"));
+        assertEquals(4.0, service.getLargestSideEverSubmitted());
+
+        service.reset();
+        assertTrue(service.countByType().isEmpty());
+        assertMatchesScan();
+    }
+
+    @Test
+    void testBatchInsertAndRebuildRepairsDrift() {
+        double[] a = { 1, 2, 3, 1 };
+        double[] b = { 1, 2, 3, 2 };
+        double[] c = { 1, 2, 3, 1 };
+        double[] d = { 1, 2, 3, 2 };
+        byte[] types = { QuadType.SQUARE.getCode(), QuadType.SQUARE.getCode(), QuadType.SQUARE.getCode(), QuadType.RECTANGLE.getCode() };
+        service.insertBatch(a, b, c, d, types, 4);
+        assertEquals(Map.of("Square", 3L, "Rectangle", 1L), service.countByType());
+        assertMatchesScan();
+        assertEquals(0, statsTable.rebuild());
+
+        // Rows written around the backend leave quad_stats behind until the repair job runs
+        jdbc.update("INSERT INTO quads (sideA, sideB, sideC, sideD, type) VALUES (7, 7, 7, 7, 'Square')");
+        jdbc.update("UPDATE quad_stats SET cnt = 99 WHERE type = 'Kite'");
+        assertEquals(3L, service.countByType().get("Square"));
+
+        assertEquals(2, statsTable.rebuild());
+        assertMatchesScan();
+        assertEquals(7.0, service.getLargestSideEverSubmitted());
+    }
+
+    @Test
+    void testRebuildLeavesRowsWrittenDuringTheScan() {
+        service.insertQuad(2, 2, 2, 2);
+        jdbc.update("INSERT INTO quads (sideA, sideB, sideC, sideD, type) VALUES (7, 7, 7, 7, 'Square')");
+        Map<String, Long> before = service.countByType();
+
+        // A write applied between the read of quad_stats and the correction
+        QuadStatsTable.Row stored = statsTable.rows().stream().filter(r -> r.type().equals("Square")).findFirst().orElseThrow();
+        service.insertQuad(3, 3, 3, 3);
+        QuadStatsTable.Row scanned = new QuadStatsTable.Row("Square", 2, 9, 9, 9, 9, 2.0, 2.0, 2.0, 2.0, 7.0, 7.0, 7.0, 7.0);
+        assertFalse(statsTable.correct(scanned, stored));
+        assertEquals(before.get("Square") + 1, service.countByType().get("Square"));
+
+        assertEquals(1, statsTable.rebuild());
+        assertMatchesScan();
+    }
+}
@@ -0,0 +1,85 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.model.Quadrilateral;
+import org.msse672.geometryapp.model.QuadrilateralSet;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveQuadServiceTest {
+
+    private QuadServiceInMemoryImpl backing;
+    private ReactiveQuadService reactive;
+
+    @BeforeEach
+    void setUp() {
+        backing = new QuadServiceInMemoryImpl(new QuadrilateralSet());
+        // Page size of 2 forces several keyset pages
+        reactive = new ReactiveQuadService(backing, 2, 100, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reactive.shutdown();
+    }
+
+    @Test
+    void testStreamAllReturnsEveryQuadInOrder() {
+        backing.updateSides(1, 1, 1, 1);
+        backing.updateSides(2, 3, 2, 3);
+        backing.updateSides(4, 4, 4, 4);
+        backing.updateSides(2, 3, 4, 5);
+        backing.updateSides(5, 5, 5, 5);
+
+        List<Quadrilateral> streamed = reactive.streamAllSubmittedQuads().collectList().block();
+
+        assertNotNull(streamed);
+        assertEquals(5, streamed.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), streamed.stream().map(Quadrilateral::getId).toList());
+    }
+
+    @Test
+    void testStreamAllHonoursDemand() {
+        backing.updateSides(1, 1, 1, 1);
+        backing.updateSides(2, 2, 2, 2);
+        backing.updateSides(3, 3, 3, 3);
+
+        List<Quadrilateral> firstTwo = reactive.streamAllSubmittedQuads().take(2).collectList().block();
+        assertEquals(2, firstTwo.size());
+    }
+
+    @Test
+    void testStreamAllEmptyHistoryCompletes() {
+        assertEquals(0, reactive.streamAllSubmittedQuads().count().block());
+    }
+
+    @Test
+    void testCountByTypeRunsOffThread() {
+        backing.updateSides(4, 4, 4, 4);
+        String caller = Thread.currentThread().getName();
+        String worker = reactive.countByType().map(m -> Thread.currentThread().getName()).block();
+        assertNotEquals(caller, worker);
+        assertTrue(worker.startsWith("quad-db"));
+    }
+
+    @Test
+    void testMissingIdFromJdbcBackendIsIllegalArgument() {
+        QuadServiceInMemoryImpl jdbcLike = new QuadServiceInMemoryImpl(new QuadrilateralSet()) {
+            @Override
+            public Quadrilateral getById(Long id) {
+                throw new EmptyResultDataAccessException(1);
+            }
+        };
+        ReactiveQuadService service = new ReactiveQuadService(jdbcLike, 1, 10, 2);
+        try {
+            assertThrows(IllegalArgumentException.class, () -> service.getById(42L).block());
+        } finally {
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.model.Quadrilateral;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingStatsServiceTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final RollingStatsService stats = new RollingStatsService(now::get);
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Long> byType(Map<String, Object> report) {
+        return (Map<String, Long>) report.get("byType");
+    }
+
+    @Test
+    void testWindowsExpireOldBuckets() {
+        stats.onQuadSubmitted(new Quadrilateral(2, 2, 2, 2));
+        now.addAndGet(90_000);  // 1.5 minutes later
+        stats.onQuadSubmitted(new Quadrilateral(1, 2, 1, 2));
+        stats.onQuadSubmitted(new Quadrilateral(1, 2, 1, 2));
+
+        assertEquals(Map.of("Rectangle", 2L), byType(stats.quadStats("1m")));
+        assertEquals(3L, stats.quadStats("5m").get("total"));
+        assertEquals(3L, stats.quadStats("2h").get("total"));   // minute ring
+        assertEquals(3L, stats.quadStats("3d").get("total"));   // hour ring
+        assertEquals(0.01, (double) stats.quadStats("5m").get("ratePerSecond"));
+
+        now.addAndGet(600_000);
+        assertEquals(0L, stats.quadStats("5m").get("total"));
+        assertEquals(3L, stats.quadStats("1h").get("total"));
+    }
+
+    @Test
+    void testTrianglesAreCountedSeparately() {
+        stats.recordTriangle("Type of Triangle: Equilateral Triangle");
+        stats.recordTriangle("Type of Triangle: Scalene Triangle");
+        stats.recordTriangle("Not a Triangle. Invalid sides based on the Triangle Inequality Theorem.");
+
+        Map<String, Object> report = stats.triangleStats("30s");
+        assertEquals(3L, report.get("total"));
+        assertEquals(1L, byType(report).get("Invalid"));
+        assertEquals(0L, stats.quadStats("30s").get("total"));
+    }
+
+    @Test
+    void testInvalidWindowsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> stats.quadStats("5 minutes"));
+        assertThrows(IllegalArgumentException.class, () -> stats.quadStats("0s"));
+        assertThrows(IllegalArgumentException.class, () -> stats.quadStats("31d"));
+        // Too large for a Duration or for toMillis(), and longer than a long
+        assertThrows(IllegalArgumentException.class, () -> stats.quadStats("9999999999999999d"));
+        assertThrows(IllegalArgumentException.class, () -> stats.quadStats("9999999999999999s"));
+        assertThrows(IllegalArgumentException.class, () -> stats.quadStats("99999999999999999999999h"));
+        assertEquals("30d", stats.quadStats("30d").get("window"));
+    }
+
+    @Test
+    void testConcurrentIncrementsAreNotLost() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) stats.onQuadSubmitted(new Quadrilateral(3, 3, 3, 3));
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(80_000L, stats.quadStats("10s").get("total"));
+    }
+}
@@ -0,0 +1,104 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.codec.BinaryRecords;
+import org.msse672.geometryapp.model.TriangleType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriangleBatchServiceTest {
+
+    private final TriangleServiceInMemoryImpl triangleService = new TriangleServiceInMemoryImpl();
+    private final TriangleBatchService batchService = new TriangleBatchService(triangleService, new RollingStatsService());
+
+    private String run(String input, TriangleBatchService.Format format, boolean store) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchService.classify(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out, format, store);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testJsonArrayAndNdjson() throws IOException {
+        String array = run("[[3,3,3], {\"side1\": 3, \"side2\": 4, \"side3\": 5}, [0, 1, 1]]",
+                TriangleBatchService.Format.JSON, false);
+        assertEquals("[{\"side1\":3.0,\"side2\":3.0,\"side3\":3.0,\"type\":\"EQUILATERAL\"},"
+                + "{\"side1\":3.0,\"side2\":4.0,\"side3\":5.0,\"type\":\"SCALENE\"},"
+                + "{\"side1\":0.0,\"side2\":1.0,\"side3\":1.0,\"type\":\"INVALID_INPUT\"}]", array);
+
+        String lines = run("[2,2,3]\n{\"side1\":1,\"side2\":2,\"side3\":3}\n", TriangleBatchService.Format.NDJSON, false);
+        assertEquals("{\"side1\":2.0,\"side2\":2.0,\"side3\":3.0,\"type\":\"ISOSCELES\"}\n"
+                + "{\"side1\":1.0,\"side2\":2.0,\"side3\":3.0,\"type\":\"NOT_A_TRIANGLE\"}\n", lines);
+        assertEquals(0, triangleService.count());
+    }
+
+    @Test
+    void testLargeCsvStreamIsStoredInChunks() throws IOException {
+        int n = TriangleBatchService.CHUNK_SIZE * 3 + 17;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = batchService.classify(new RepeatingInput("3,4,5\n", n), out, TriangleBatchService.Format.CSV, true);
+
+        assertEquals(n, count);
+        assertEquals(n, triangleService.count());
+        assertEquals(Map.of(TriangleType.SCALENE.name(), (long) n), triangleService.countByType());
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("side1,side2,side3,type\n3.0,4.0,5.0,SCALENE\n"));
+        assertEquals(n + 1, csv.lines().count());
+    }
+
+    @Test
+    void testBinaryRecordsInCodesOut() throws IOException {
+        ByteBuffer in = ByteBuffer.allocate(3 * BinaryRecords.TRIANGLE_SIDES_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        in.putDouble(3).putDouble(3).putDouble(3)
+                .putDouble(3).putDouble(4).putDouble(5)
+                .putDouble(1).putDouble(2).putDouble(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchService.classify(new ByteArrayInputStream(in.array()), out, TriangleBatchService.Format.BINARY, false);
+
+        assertArrayEquals(new byte[] { TriangleType.EQUILATERAL.getCode(), TriangleType.SCALENE.getCode(),
+                TriangleType.NOT_A_TRIANGLE.getCode() }, out.toByteArray());
+        assertThrows(IllegalArgumentException.class, () -> batchService.classify(
+                new ByteArrayInputStream(new byte[25]), new ByteArrayOutputStream(), TriangleBatchService.Format.BINARY, false));
+    }
+
+    @Test
+    void testMalformedInputRejected() {
+        assertThrows(IllegalArgumentException.class, () -> run("[[1,2]]", TriangleBatchService.Format.JSON, false));
+        assertThrows(IllegalArgumentException.class, () -> run("[[1,2,3]", TriangleBatchService.Format.JSON, false));
+        assertThrows(IllegalArgumentException.class, () -> run("{\"side1\":1}", TriangleBatchService.Format.NDJSON, false));
+        assertThrows(IllegalArgumentException.class, () -> run("1,2,3\n1,x,3\n", TriangleBatchService.Format.CSV, false));
+        assertThrows(IllegalArgumentException.class, () -> TriangleBatchService.Format.fromContentType("text/plain"));
+        assertEquals(TriangleBatchService.Format.CSV, TriangleBatchService.Format.fromContentType("text/csv; charset=UTF-8"));
+    }
+
+    // Input stream that yields the same line n times without building the whole body
+    private static final class RepeatingInput extends InputStream {
+        private final byte[] line;
+        private long remaining;
+        private int pos;
+
+        RepeatingInput(String line, long times) {
+            this.line = line.getBytes(StandardCharsets.UTF_8);
+            this.remaining = times;
+        }
+
+        @Override
+        public int read() {
+            if (remaining == 0) return -1;
+            int b = line[pos++];
+            if (pos == line.length) {
+                pos = 0;
+                remaining--;
+            }
+            return b;
+        }
+    }
+}
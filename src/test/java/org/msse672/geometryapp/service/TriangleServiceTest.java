@@ -0,0 +1,75 @@
+package org.msse672.geometryapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.msse672.geometryapp.index.TriangleRange;
+import org.msse672.geometryapp.model.TriangleRecord;
+import org.msse672.geometryapp.model.TriangleType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriangleServiceTest {
+
+    private static TriangleService jdbcService() {
+        // Fresh H2 database, built from the test schema
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return new TriangleServiceJdbcImpl(new JdbcTemplate(dataSource));
+    }
+
+    @Test
+    void testInMemoryBackend() {
+        exercise(new TriangleServiceInMemoryImpl());
+    }
+
+    @Test
+    void testJdbcBackend() {
+        exercise(jdbcService());
+    }
+
+    // Same expectations for every backend
+    private static void exercise(TriangleService service) {
+        TriangleRecord first = service.insertTriangle(3, 3, 3);
+        assertEquals(TriangleType.EQUILATERAL.getLabel(), first.getType());
+        assertEquals(first.getSideA(), service.getById(first.getId()).getSideA());
+
+        // 2_500 rows spans several JDBC batches and in-memory growth steps
+        int n = 2_500;
+        double[] a = new double[n], b = new double[n], c = new double[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = 3; b[i] = 4; c[i] = i % 2 == 0 ? 5 : 4;   // scalene, isosceles
+        }
+        a[n - 1] = -1;                                     // invalid input
+        assertEquals(n, service.insertBatch(a, b, c, n));
+        assertEquals(n + 1, service.count());
+
+        Map<String, Long> counts = service.countByType();
+        assertEquals(1L, counts.get("EQUILATERAL"));
+        assertEquals(1250L, counts.get("SCALENE"));
+        assertEquals(1249L, counts.get("ISOSCELES"));
+        assertEquals(1L, counts.get("INVALID_INPUT"));
+
+        List<TriangleRecord> page = service.getAfterId(first.getId(), 10);
+        assertEquals(10, page.size());
+        assertTrue(page.get(0).getId() > first.getId());
+
+        List<TriangleRecord> isosceles = service.search(TriangleType.ISOSCELES, TriangleRange.ALL, 5);
+        assertEquals(5, isosceles.size());
+        isosceles.forEach(t -> assertEquals(4.0, t.getSideC()));
+        assertEquals(1, service.search(null, TriangleRange.of(null, 0.0, null, null, null, null), 10).size());
+
+        assertThrows(IllegalArgumentException.class, () -> service.getById(999_999L));
+
+        service.reset();
+        assertEquals(0, service.count());
+        assertTrue(service.countByType().isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package org.msse672.geometryapp.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SketchTest {
+
+    @Test
+    void testHyperLogLogEstimateAndMerge() {
+        HyperLogLog left = new HyperLogLog(14);
+        HyperLogLog right = new HyperLogLog(14);
+        for (long i = 0; i < 100_000; i++) {
+            left.add(Hashing.mix64(i));
+            right.add(Hashing.mix64(i + 50_000));  // half overlaps with left
+        }
+        assertEquals(100_000, left.estimate(), 100_000 * 0.03);
+
+        left.merge(right);
+        assertEquals(150_000, left.estimate(), 150_000 * 0.03);
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    void testTopKFindsHeavyHitters() throws IOException {
+        TopK topK = new TopK(3, 5, 1024);
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            // Keys 1..3 are heavy, the rest is noise
+            long key = random.nextInt(10) < 6 ? random.nextInt(3) + 1 : random.nextInt(5000) + 100;
+            topK.add(new long[] { key });
+        }
+        List<TopK.Entry> top = topK.top();
+        assertEquals(3, top.size());
+        long[] keys = top.stream().mapToLong(e -> e.key()[0]).sorted().toArray();
+        assertArrayEquals(new long[] { 1, 2, 3 }, keys);
+
+        TopK copy = roundTrip(topK);
+        copy.merge(topK);
+        assertEquals(40_000, copy.total());
+        assertEquals(2 * top.get(0).estimate(), copy.top().get(0).estimate());
+    }
+
+    @Test
+    void testKllQuantilesAndMerge() throws IOException {
+        KllSketch left = new KllSketch(200);
+        KllSketch right = new KllSketch(200);
+        double[] all = new double[200_000];
+        Random random = new Random(5);
+        for (int i = 0; i < all.length; i++) {
+            all[i] = random.nextGaussian() * 10 + 50;
+            (i % 2 == 0 ? left : right).update(all[i]);
+        }
+        left.merge(roundTrip(right));
+        Arrays.sort(all);
+
+        assertEquals(all.length, left.count());
+        for (double q : new double[] { 0.01, 0.25, 0.5, 0.75, 0.99 }) {
+            double estimate = left.quantile(q);
+            // Rank error, not value error, is what KLL bounds
+            int rank = Math.abs(Arrays.binarySearch(all, estimate));
+            assertEquals(q, (double) rank / all.length, 0.02, "q=" + q);
+        }
+        assertEquals(all[0], left.quantile(0));
+        assertEquals(all[all.length - 1], left.quantile(1));
+        assertTrue(Double.isNaN(new KllSketch(200).quantile(0.5)));
+    }
+
+    @Test
+    void testReadRejectsBadLengthsBeforeAllocating() throws IOException {
+        // Negative level count, and a level far larger than k
+        assertThrows(IllegalArgumentException.class, () -> KllSketch.readFrom(stream(out -> {
+            out.writeInt(200); out.writeLong(1); out.writeDouble(1); out.writeDouble(1); out.writeInt(-1);
+        }), 200));
+        assertThrows(IllegalArgumentException.class, () -> KllSketch.readFrom(stream(out -> {
+            out.writeInt(200); out.writeLong(1); out.writeDouble(1); out.writeDouble(1); out.writeInt(1);
+            out.writeInt(Integer.MAX_VALUE);
+        }), 200));
+        assertThrows(IllegalArgumentException.class, () -> KllSketch.readFrom(stream(out -> out.writeInt(50)), 200));
+
+        // Dimensions whose product overflows, and a negative key length
+        assertThrows(IllegalArgumentException.class, () -> TopK.readFrom(stream(out -> {
+            out.writeInt(3); out.writeInt(65536); out.writeInt(65536);
+        }), 3, 5, 1024));
+        TopK empty = new TopK(3, 5, 1024);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        empty.writeTo(new DataOutputStream(bytes));
+        byte[] valid = bytes.toByteArray();
+        assertThrows(IllegalArgumentException.class, () -> TopK.readFrom(stream(out -> {
+            out.write(valid, 0, valid.length - 4);
+            out.writeInt(1);
+            out.writeInt(-5);
+        }), 3, 5, 1024));
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static DataInputStream stream(Writer writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writer.write(new DataOutputStream(bytes));
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static TopK roundTrip(TopK topK) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        topK.writeTo(new DataOutputStream(bytes));
+        return TopK.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 3, 5, 1024);
+    }
+
+    private static KllSketch roundTrip(KllSketch sketch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+        return KllSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 200);
+    }
+}